@@ -0,0 +1,133 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.intern.InternedTree;
+import br.edu.fesa.Conditional_Command_Parser.intern.NodeTable;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Retained heap of a corpus of analyzed programs, kept as plain {@link SyntaxNode} trees versus
+ * interned into one {@link NodeTable}.
+ *
+ * <p>The corpus is generated from a fixed seed: small conditional commands over a handful of
+ * variables and literals, so that, as in real traffic, many subexpressions repeat. For each mode
+ * the harness parses and analyzes every program, keeps the result, forces garbage collection and
+ * reports the heap in use above the empty baseline.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=br.edu.fesa.Conditional_Command_Parser.benchmark.AstHeapHarness \
+ *     -Dbenchmark.args="--programs 100000"
+ * </pre>
+ *
+ * <p>Options: {@code --programs} (default 100000) and {@code --seed} (42).
+ */
+public final class AstHeapHarness {
+
+  private static final String[] NAMES = {"a", "b", "c", "d", "x"};
+
+  private static final List<Symbol> VARIABLES =
+      List.of(NAMES).stream()
+          .map(n -> Symbol.builder().name(n).type(Token.Type.NUMBER).build())
+          .toList();
+
+  private int programs = 100_000;
+  private long seed = 42;
+
+  private AstHeapHarness() {}
+
+  public static void main(String[] args) throws Exception {
+    AstHeapHarness harness = new AstHeapHarness();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--programs" -> harness.programs = Integer.parseInt(value);
+        case "--seed" -> harness.seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    harness.run();
+  }
+
+  private void run() throws Exception {
+    long baseline = usedHeap();
+
+    List<SyntaxNode> plain = new ArrayList<>(programs);
+    Random random = new Random(seed);
+    for (int i = 0; i < programs; i++) {
+      plain.add(analyze(program(random)));
+    }
+    long plainBytes = usedHeap() - baseline;
+    // Keep each corpus reachable until it has been measured
+    Reference.reachabilityFence(plain);
+    report("plain", plainBytes, "");
+    plain = null;
+
+    baseline = usedHeap();
+    NodeTable table = new NodeTable();
+    List<InternedTree> interned = new ArrayList<>(programs);
+    random = new Random(seed);
+    for (int i = 0; i < programs; i++) {
+      interned.add(table.intern(analyze(program(random))));
+    }
+    long internedBytes = usedHeap() - baseline;
+    Reference.reachabilityFence(interned);
+    report("interned", internedBytes, table.size() + " distinct nodes");
+    System.out.printf(
+        "Retained heap reduced by %.1f%%%n", 100.0 * (1 - (double) internedBytes / plainBytes));
+  }
+
+  private void report(String mode, long bytes, String detail) {
+    System.out.printf(
+        "%-9s %8d programs %10.1f MB %8.1f bytes/program  %s%n",
+        mode, programs, bytes / 1048576.0, (double) bytes / programs, detail);
+  }
+
+  private static SyntaxNode analyze(String source) throws Exception {
+    SyntaxNode root = new RecursiveDescentParser().parse(new Lexer().tokenize(source));
+    new SemanticAnalyzer().analyze(root, VARIABLES);
+    return root;
+  }
+
+  /** A random conditional command of one to three nested ifs. */
+  private static String program(Random random) {
+    int depth = 1 + random.nextInt(3);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      sb.append("if (").append(expression(random, 2)).append(") ");
+      sb.append(assignment(random)).append(" else ");
+    }
+    return sb.append(assignment(random)).toString();
+  }
+
+  private static String assignment(Random random) {
+    return NAMES[random.nextInt(NAMES.length)] + " = " + expression(random, 2);
+  }
+
+  private static String expression(Random random, int depth) {
+    if (depth == 0 || random.nextInt(3) == 0) {
+      return random.nextBoolean()
+          ? NAMES[random.nextInt(NAMES.length)]
+          : Integer.toString(random.nextInt(10));
+    }
+    return "(" + expression(random, depth - 1) + " " + "+-*/".charAt(random.nextInt(4)) + " "
+        + expression(random, depth - 1) + ")";
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
@@ -0,0 +1,135 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.cli.BulkValidator;
+import br.edu.fesa.Conditional_Command_Parser.cli.ValidationSummary;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of {@link BulkValidator} over a generated directory of program files, per worker
+ * count, with every file memory-mapped versus only those above the default threshold.
+ *
+ * <p>The files are written once to a temporary directory from a fixed seed: conditional commands
+ * nested {@code --depth} levels deep over a handful of declared variables. Each configuration is
+ * run once to warm up and then measured; the report is discarded.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=br.edu.fesa.Conditional_Command_Parser.benchmark.BulkValidatorHarness \
+ *     -Dbenchmark.args="--files 20000 --depth 3"
+ * </pre>
+ *
+ * <p>Options: {@code --files} (default 20000), {@code --depth} (3), {@code --workers} (highest
+ * worker count, default one per processor) and {@code --seed} (42).
+ */
+public final class BulkValidatorHarness {
+
+  private static final String[] NAMES = {"a", "b", "c", "d", "x"};
+
+  private int files = 20_000;
+  private int depth = 3;
+  private int workers = Runtime.getRuntime().availableProcessors();
+  private long seed = 42;
+
+  private BulkValidatorHarness() {}
+
+  public static void main(String[] args) throws Exception {
+    BulkValidatorHarness harness = new BulkValidatorHarness();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--files" -> harness.files = Integer.parseInt(value);
+        case "--depth" -> harness.depth = Integer.parseInt(value);
+        case "--workers" -> harness.workers = Integer.parseInt(value);
+        case "--seed" -> harness.seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    harness.run();
+  }
+
+  private void run() throws IOException {
+    Map<String, Token.Type> variables = new LinkedHashMap<>();
+    for (String name : NAMES) {
+      variables.put(name, Token.Type.NUMBER);
+    }
+    SymbolEnvironment environment = SymbolEnvironment.of(variables);
+    Path dir = Files.createTempDirectory("bulk-validator");
+    try {
+      generate(dir);
+      for (int n = 1; n <= workers; n *= 2) {
+        for (long threshold : new long[] {0, BulkValidator.DEFAULT_MMAP_THRESHOLD}) {
+          measure(environment, dir, n, threshold);
+        }
+      }
+    } finally {
+      try (Stream<Path> paths = Files.walk(dir)) {
+        for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+          Files.delete(path);
+        }
+      }
+    }
+  }
+
+  private void measure(SymbolEnvironment environment, Path dir, int n, long threshold)
+      throws IOException {
+    ValidationSummary summary = null;
+    try (BulkValidator validator = new BulkValidator(n, environment, threshold)) {
+      for (int i = 0; i < 2; i++) {
+        summary = validator.validate(List.of(dir), "*.cmd", Writer.nullWriter());
+      }
+    }
+    System.out.printf(
+        "%2d workers  mmap >= %-6d %8d files %8.1f MB %10.0f files/s %8.1f MB/s  %d invalid%n",
+        n,
+        threshold,
+        summary.getFiles(),
+        summary.getBytes() / 1048576.0,
+        summary.getFilesPerSecond(),
+        summary.getMegabytesPerSecond(),
+        summary.getInvalid());
+  }
+
+  private void generate(Path dir) throws IOException {
+    Random random = new Random(seed);
+    for (int i = 0; i < files; i++) {
+      // A hundred files per directory, as a source tree would have
+      Path sub = Files.createDirectories(dir.resolve(Integer.toString(i / 100)));
+      Files.writeString(sub.resolve(i + ".cmd"), program(random));
+    }
+  }
+
+  /** A random conditional command nested {@code depth} ifs deep. */
+  private String program(Random random) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      sb.append("if (").append(expression(random, 2)).append(")\n  ");
+      sb.append(assignment(random)).append("\nelse ");
+    }
+    return sb.append(assignment(random)).append('\n').toString();
+  }
+
+  private static String assignment(Random random) {
+    return NAMES[random.nextInt(NAMES.length)] + " = " + expression(random, 2);
+  }
+
+  private static String expression(Random random, int depth) {
+    if (depth == 0 || random.nextInt(3) == 0) {
+      return random.nextBoolean()
+          ? NAMES[random.nextInt(NAMES.length)]
+          : Integer.toString(random.nextInt(10));
+    }
+    return "(" + expression(random, depth - 1) + " " + "+-*/".charAt(random.nextInt(4)) + " "
+        + expression(random, depth - 1) + ")";
+  }
+}
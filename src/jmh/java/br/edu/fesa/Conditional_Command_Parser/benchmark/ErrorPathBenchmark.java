@@ -0,0 +1,116 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.service.ParseResultCache;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of failing: small programs with syntax, semantic and lexical errors, as an editor sends
+ * them while the user types.
+ *
+ * <p>{@code parse} and {@code analyze} run one stage and only count the errors, {@code pipeline}
+ * runs {@link ParserService#parse(String)} with the result cache off and leaves the messages
+ * unread, and {@code pipelineShown} also reads every message as a page or JSON response would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+  /** Inputs with errors of one kind. */
+  public enum Input {
+    /** Two syntax errors: a missing operand, then an unexpected trailing token. */
+    SYNTAX("total = = price * 2 qty"),
+    /** An if statement cut off while typing. */
+    TRUNCATED("if (ready) total = price * (qty + "),
+    /** Undeclared identifiers and mismatched types throughout. */
+    SEMANTIC("if (a) b = c * d + \"e\" else if (f) g = 'h' / i else j = k - l * m"),
+    /** An unterminated string literal. */
+    LEXICAL("label = \"unfinished text");
+
+    private final String text;
+
+    Input(String text) {
+      this.text = text;
+    }
+  }
+
+  @Param({"SYNTAX", "TRUNCATED", "SEMANTIC", "LEXICAL"})
+  public Input input;
+
+  private final Lexer lexer = new Lexer();
+  private ParserService parserService;
+  private SyntaxNode ast;
+
+  @Setup(Level.Trial)
+  public void setUp() throws LexicalException {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator,
+            lexer,
+            RecursiveDescentParser::new,
+            SemanticAnalyzer::new,
+            ParseResultCache.disabled());
+    if (input != Input.LEXICAL) {
+      ast = new RecursiveDescentParser().parse(lexer.tokenizeToBuffer(input.text));
+    }
+  }
+
+  @Benchmark
+  public int parse() {
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    try {
+      parser.parse(lexer.stream(input.text));
+    } catch (LexicalException e) {
+      return -1;
+    }
+    return parser.getErrors().size();
+  }
+
+  @Benchmark
+  public int analyze() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(ast);
+    return analyzer.getErrors().size();
+  }
+
+  @Benchmark
+  public ParserResponse pipeline() {
+    return parserService.parse(input.text);
+  }
+
+  @Benchmark
+  public int pipelineShown() {
+    List<String> errors = parserService.parse(input.text).getErrors();
+    int length = 0;
+    for (String error : errors) {
+      length += error.length();
+    }
+    return length;
+  }
+}
@@ -0,0 +1,184 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.bytecode.BytecodeCompiler;
+import br.edu.fesa.Conditional_Command_Parser.bytecode.Environment;
+import br.edu.fesa.Conditional_Command_Parser.bytecode.Program;
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of evaluating one compiled conditional command against fresh variable bindings, compared
+ * with walking the AST and boxing values in a map.
+ *
+ * <p>Each invocation binds the next of 1024 precomputed variable sets, runs the program and
+ * returns the assigned value. Run with {@code -prof gc} to see that {@code bytecode} allocates
+ * nothing per evaluation. {@code jit} runs the same program after it was compiled to a JVM class.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+  private static final String SOURCE =
+      "if (a - b)\n"
+          + "  if (c) x = (a + b) * c - a / 3 else x = a * a\n"
+          + "else if (c - 2) x = b - c * (a + 1) else x = 0";
+
+  private static final String[] NAMES = {"x", "a", "b", "c"};
+
+  /** Type of every variable and literal in the program. */
+  @Param({"NUMBER", "FLOAT"})
+  public Token.Type type;
+
+  private Program program;
+  private Environment env;
+  private Program jitProgram;
+  private Environment jitEnv;
+  private int[] slots;
+  private SyntaxNode ast;
+  private long[][] numbers;
+  private double[][] floats;
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    String source = type == Token.Type.FLOAT ? SOURCE.replaceAll("(\\d+)", "$1.0") : SOURCE;
+    List<Symbol> variables =
+        List.of(NAMES).stream()
+            .map(n -> Symbol.builder().name(n).type(type).build())
+            .toList();
+    ast = new RecursiveDescentParser().parse(new Lexer().tokenize(source));
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(ast, variables);
+    if (!analyzer.getErrors().isEmpty()) {
+      throw new IllegalStateException(analyzer.getErrors().toString());
+    }
+    program = new BytecodeCompiler(-1).compile(ast, variables);
+    env = program.newEnvironment();
+    jitProgram = new BytecodeCompiler(0).compile(ast, variables);
+    jitEnv = jitProgram.newEnvironment();
+    jitProgram.execute(jitEnv);
+    if (!jitProgram.isCompiled()) {
+      throw new IllegalStateException("Program was not compiled to JVM code");
+    }
+    slots = new int[NAMES.length];
+    for (int i = 0; i < NAMES.length; i++) {
+      slots[i] = program.slot(NAMES[i]);
+    }
+
+    Random random = new Random(42);
+    numbers = new long[1024][3];
+    floats = new double[1024][3];
+    for (int i = 0; i < 1024; i++) {
+      for (int j = 0; j < 3; j++) {
+        numbers[i][j] = 1 + random.nextInt(4);
+        floats[i][j] = numbers[i][j];
+      }
+    }
+  }
+
+  @Benchmark
+  public double bytecode() {
+    return evaluate(program, env);
+  }
+
+  @Benchmark
+  public double jit() {
+    return evaluate(jitProgram, jitEnv);
+  }
+
+  private double evaluate(Program program, Environment env) {
+    int i = next++ & 1023;
+    if (type == Token.Type.FLOAT) {
+      double[] binding = floats[i];
+      env.setFloat(slots[1], binding[0])
+          .setFloat(slots[2], binding[1])
+          .setFloat(slots[3], binding[2]);
+      program.execute(env);
+      return env.getFloat(slots[0]);
+    }
+    long[] binding = numbers[i];
+    env.setNumber(slots[1], binding[0])
+        .setNumber(slots[2], binding[1])
+        .setNumber(slots[3], binding[2]);
+    program.execute(env);
+    return env.getNumber(slots[0]);
+  }
+
+  @Benchmark
+  public double treeWalking() {
+    int i = next++ & 1023;
+    Map<String, Number> vars = new HashMap<>();
+    for (int j = 0; j < 3; j++) {
+      vars.put(NAMES[j + 1], type == Token.Type.FLOAT ? (Number) floats[i][j] : numbers[i][j]);
+    }
+    TreeWalker.execute(ast, vars);
+    return vars.get("x").doubleValue();
+  }
+
+  /** The straightforward evaluator a bytecode interpreter replaces: recursive and boxed. */
+  private static final class TreeWalker {
+
+    static void execute(SyntaxNode node, Map<String, Number> vars) {
+      if (node instanceof IfStatement ifs) {
+        Number condition = evaluate(ifs.getCondition(), vars);
+        execute(condition.doubleValue() != 0 ? ifs.getThenBranch() : ifs.getElseBranch(), vars);
+      } else if (node instanceof Assignment asg) {
+        vars.put(asg.getIdentifier(), evaluate(asg.getExpression(), vars));
+      }
+    }
+
+    static Number evaluate(SyntaxNode node, Map<String, Number> vars) {
+      if (node instanceof NumberLiteral n) {
+        return Long.parseLong(n.getValue());
+      } else if (node instanceof FloatLiteral f) {
+        return Double.parseDouble(f.getValue());
+      } else if (node instanceof Identifier id) {
+        return vars.get(id.getName());
+      }
+      BinOp bin = (BinOp) node;
+      Number l = evaluate(bin.getLeft(), vars);
+      Number r = evaluate(bin.getRight(), vars);
+      if (l instanceof Double || r instanceof Double) {
+        double a = l.doubleValue();
+        double b = r.doubleValue();
+        return switch (bin.getOperator()) {
+          case "+" -> a + b;
+          case "-" -> a - b;
+          case "*" -> a * b;
+          default -> a / b;
+        };
+      }
+      long a = l.longValue();
+      long b = r.longValue();
+      return switch (bin.getOperator()) {
+        case "+" -> a + b;
+        case "-" -> a - b;
+        case "*" -> a * b;
+        default -> a / b;
+      };
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.model.GrammarTables;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Per-response cost of the FIRST/FOLLOW sets.
+ *
+ * <p>{@code renderMaps} and {@code serializeMaps} do what every response used to: print and
+ * HTML-escape the hash-map sets for the page, or serialize them with Jackson. {@code
+ * renderPrecomputed} and {@code serializePrecomputed} use the text and JSON compiled into {@link
+ * GrammarTables} at startup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrammarTablesBenchmark {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+  private GrammarTables tables;
+  private Map<String, Set<String>> firstSets;
+  private Map<String, Set<String>> followSets;
+
+  @Setup
+  public void setUp() {
+    FirstFollowCalculator calculator = new FirstFollowCalculator();
+    calculator.calculateSets();
+    tables = calculator.getTables();
+    firstSets = copy(tables.getFirstSets());
+    followSets = copy(tables.getFollowSets());
+  }
+
+  private static Map<String, Set<String>> copy(Map<String, Set<String>> sets) {
+    Map<String, Set<String>> copy = new HashMap<>();
+    sets.forEach((nonTerminal, terminals) -> copy.put(nonTerminal, new HashSet<>(terminals)));
+    return copy;
+  }
+
+  @Benchmark
+  public int renderMaps() {
+    return HtmlUtils.htmlEscape(firstSets.toString()).length()
+        + HtmlUtils.htmlEscape(followSets.toString()).length();
+  }
+
+  @Benchmark
+  public int renderPrecomputed() {
+    return tables.getFirstSetsHtml().length() + tables.getFollowSetsHtml().length();
+  }
+
+  @Benchmark
+  public int serializeMaps() throws IOException {
+    out.reset();
+    mapper.writeValue(out, Map.of("firstSets", firstSets, "followSets", followSets));
+    return out.size();
+  }
+
+  @Benchmark
+  public int serializePrecomputed() throws IOException {
+    out.reset();
+    tables.writeJson(out);
+    return out.size();
+  }
+}
@@ -0,0 +1,124 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.model.DocumentResult;
+import br.edu.fesa.Conditional_Command_Parser.model.TextEdit;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.service.DocumentService;
+import br.edu.fesa.Conditional_Command_Parser.utils.IncrementalParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.ParseSnapshot;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of re-analyzing a large program after a one-character edit: incremental versus lexing
+ * and parsing the edited text from scratch.
+ *
+ * <p>The edit renames the identifier {@code b} on one line; {@code position} says how far into
+ * the program that line is, since everything enclosing the edit is parsed again. {@code
+ * documentEdit} times {@link DocumentService#edit} end to end, semantic analysis and response
+ * included, alternately renaming {@code b} to {@code q} and back so the document stays the same
+ * size; {@code documentReopen} is its from-scratch baseline. Neither renders the tree. With
+ * {@code declared}, the document is opened in an environment declaring every variable, so it has
+ * no semantic errors to report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IncrementalParserBenchmark {
+
+  @Param({"100000", "1000000"})
+  public int size;
+
+  /** Where the edited line sits, as a fraction of the program length. */
+  @Param({"0.1", "0.5", "0.9"})
+  public double position;
+
+  /** Whether the document's variables are declared, which removes all of its semantic errors. */
+  @Param({"false", "true"})
+  public boolean declared;
+
+  private IncrementalParser parser;
+  private ParseSnapshot snapshot;
+  private TextEdit edit;
+
+  private DocumentService documentService;
+  private SymbolEnvironment environment;
+  private String documentId;
+  private List<TextEdit> rename;
+  private List<TextEdit> renameBack;
+  private boolean renamed;
+
+  @Setup
+  public void setUp() {
+    parser = new IncrementalParser(new Lexer(), RecursiveDescentParser::new);
+    String input = InputGenerator.generate(InputGenerator.Shape.NESTED_IF_LINES, size);
+    snapshot = parser.parse(input);
+    int offset = input.indexOf("* b)", (int) (input.length() * position)) + 2;
+    edit = TextEdit.builder().offset(offset).removedLength(1).insertedText("q").build();
+
+    documentService = new DocumentService(parser, SemanticAnalyzer::new, 10, Duration.ofHours(1));
+    environment =
+        declared
+            ? SymbolEnvironment.of(
+                Map.of(
+                    "a", Token.Type.NUMBER,
+                    "b", Token.Type.NUMBER,
+                    "q", Token.Type.NUMBER,
+                    "c", Token.Type.FLOAT,
+                    "x", Token.Type.FLOAT))
+            : SymbolEnvironment.EMPTY;
+    documentId = documentService.open(input, environment, false).getDocumentId();
+    rename = List.of(edit);
+    renameBack =
+        List.of(TextEdit.builder().offset(offset).removedLength(1).insertedText("b").build());
+  }
+
+  @Benchmark
+  public ParseSnapshot incremental() {
+    return parser.apply(snapshot, edit);
+  }
+
+  @Benchmark
+  public ParseSnapshot fromScratch() {
+    String source = snapshot.getSource();
+    int offset = edit.getOffset();
+    return parser.parse(source.substring(0, offset) + "q" + source.substring(offset + 1));
+  }
+
+  @Benchmark
+  public DocumentResult documentEdit() {
+    renamed = !renamed;
+    return documentService.edit(documentId, renamed ? rename : renameBack);
+  }
+
+  @Benchmark
+  public DocumentResult documentReopen() {
+    String source = snapshot.getSource();
+    int offset = edit.getOffset();
+    DocumentResult result =
+        documentService.open(
+            source.substring(0, offset) + "q" + source.substring(offset + 1), environment, false);
+    documentService.close(result.getDocumentId());
+    return result;
+  }
+}
@@ -0,0 +1,72 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+/**
+ * Generates synthetic source programs of a given shape and approximate size for the benchmarks.
+ *
+ * <p>Every shape is a single, syntactically valid statement so that the whole input flows through
+ * lexing, parsing, semantic analysis and tree printing. Identifiers are never declared, so the
+ * semantic stage reports errors just like it does for real traffic today.
+ */
+public final class InputGenerator {
+
+  /** Input shapes exercising different parts of the pipeline. */
+  public enum Shape {
+    /** {@code if (a) x = 1 else if (a) x = 1 else ...}: nesting depth grows with the size. */
+    NESTED_IF,
+    /** {@code a = 1 + b * 2 - (c / 3.5) + ...}: one long left-associative expression. */
+    ARITHMETIC,
+    /** An arithmetic expression whose operands are separated by line and block comments. */
+    COMMENTS,
+    /** A concatenation of long string literals. */
+    STRINGS,
+    /** Like {@link #NESTED_IF}, one branch per line, with parenthesized conditions. */
+    NESTED_IF_LINES
+  }
+
+  private InputGenerator() {}
+
+  /**
+   * Builds an input of the given shape whose length is at least {@code targetBytes} characters
+   * (and at most one repeated fragment longer).
+   *
+   * @param shape program shape
+   * @param targetBytes approximate length of the generated source
+   * @return generated source text
+   */
+  public static String generate(Shape shape, int targetBytes) {
+    StringBuilder sb = new StringBuilder(targetBytes + 64);
+    switch (shape) {
+      case NESTED_IF -> {
+        while (sb.length() + 5 < targetBytes) {
+          sb.append("if (a) x = 1 else ");
+        }
+        sb.append("x = 0");
+      }
+      case ARITHMETIC -> {
+        sb.append("a = 1");
+        while (sb.length() < targetBytes) {
+          sb.append(" + b * 2 - (c / 3.5)");
+        }
+      }
+      case COMMENTS -> {
+        sb.append("a = 1");
+        while (sb.length() < targetBytes) {
+          sb.append(" /* block comment with some words in it */ + 2 // trailing line comment\n");
+        }
+      }
+      case STRINGS -> {
+        sb.append("s = \"start\"");
+        while (sb.length() < targetBytes) {
+          sb.append(" + \"lorem ipsum dolor sit amet, \\\"consectetur\\\" adipiscing elit\"");
+        }
+      }
+      case NESTED_IF_LINES -> {
+        while (sb.length() + 6 < targetBytes) {
+          sb.append("if ((a + 1) * b) x = (c - 2.5) else\n");
+        }
+        sb.append("x = 0\n");
+      }
+    }
+    return sb.toString();
+  }
+}
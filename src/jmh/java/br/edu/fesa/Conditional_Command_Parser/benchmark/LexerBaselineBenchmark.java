@@ -0,0 +1,59 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RegexReferenceLexer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the table-driven {@link Lexer} with the original regex implementation.
+ *
+ * <p>Sizes stop at 100 KB because the regex lexer copies the remaining input for every token and
+ * becomes quadratic beyond that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexerBaselineBenchmark {
+
+  @Param({"ARITHMETIC", "COMMENTS", "STRINGS"})
+  public InputGenerator.Shape shape;
+
+  @Param({"100", "10000", "100000"})
+  public int size;
+
+  private final Lexer lexer = new Lexer();
+  private final RegexReferenceLexer reference = new RegexReferenceLexer();
+  private String input;
+
+  @Setup
+  public void setUp() {
+    input = InputGenerator.generate(shape, size);
+  }
+
+  @Benchmark
+  public List<Token> tableDriven() throws LexicalException {
+    return lexer.tokenize(input);
+  }
+
+  @Benchmark
+  public List<Token> regexReference() throws LexicalException {
+    return reference.tokenize(input);
+  }
+}
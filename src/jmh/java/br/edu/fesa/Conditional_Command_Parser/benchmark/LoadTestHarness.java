@@ -0,0 +1,215 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.ConditionalCommandParserApplication;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Closed-loop HTTP load test of {@code POST /parse} against an embedded server, comparing
+ * platform-thread and virtual-thread request handling.
+ *
+ * <p>For each mode the application is started in this JVM on a free port with the result cache
+ * disabled, so every request runs the full pipeline. {@code clients} concurrent clients then each
+ * send a request, wait for the response and immediately send the next one. After a warm-up, the
+ * harness reports throughput, error count and the p50/p99/max latency of every mode.
+ *
+ * <p>Virtual mode needs a Java 21 runtime and build:
+ *
+ * <pre>
+ * mvn -Pbenchmark,java21 test-compile exec:exec \
+ *     -Dbenchmark.main=br.edu.fesa.Conditional_Command_Parser.benchmark.LoadTestHarness \
+ *     -Dbenchmark.args="--clients 10000 --warmup 10 --duration 30"
+ * </pre>
+ *
+ * <p>Options: {@code --clients} (default 10000), {@code --warmup} and {@code --duration} in
+ * seconds (10 and 30), {@code --size} of each program in characters (200) and {@code --modes}
+ * (platform,virtual). Client and server sockets share this JVM, so raise the open-file limit
+ * well above twice the number of clients ({@code ulimit -n 32768} for 10000).
+ */
+public final class LoadTestHarness {
+
+  /** Latency histogram resolution: one bucket per 100 microseconds, up to 60 seconds. */
+  private static final long BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private static final int BUCKETS = 600_000;
+
+  private int clients = 10_000;
+  private int warmupSeconds = 10;
+  private int durationSeconds = 30;
+  private int size = 200;
+  private List<String> modes = List.of("platform", "virtual");
+
+  private LoadTestHarness() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestHarness harness = new LoadTestHarness();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--clients" -> harness.clients = Integer.parseInt(value);
+        case "--warmup" -> harness.warmupSeconds = Integer.parseInt(value);
+        case "--duration" -> harness.durationSeconds = Integer.parseInt(value);
+        case "--size" -> harness.size = Integer.parseInt(value);
+        case "--modes" -> harness.modes = List.of(value.split(","));
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    // Devtools would restart the application in a new class loader
+    System.setProperty("spring.devtools.restart.enabled", "false");
+
+    List<String> report = new ArrayList<>();
+    for (String mode : harness.modes) {
+      report.add(harness.run(mode));
+    }
+    System.out.printf(
+        "%n%-9s %8s %12s %8s %10s %10s %10s%n",
+        "mode", "clients", "requests/s", "errors", "p50 ms", "p99 ms", "max ms");
+    report.forEach(System.out::println);
+    System.exit(0);
+  }
+
+  /** Starts the application in {@code mode}, drives load against it and returns a report line. */
+  private String run(String mode) throws InterruptedException {
+    boolean virtual = mode.equals("virtual");
+    if (virtual && Runtime.version().feature() < 21) {
+      return String.format("%-9s skipped: needs Java 21 (running %s)", mode, Runtime.version());
+    }
+    ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(ConditionalCommandParserApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtual,
+                "parser.cache.enabled=false",
+                "server.tomcat.max-connections=" + (clients + 1_000),
+                "server.tomcat.accept-count=" + clients,
+                "logging.level.br.edu.fesa=OFF")
+            .run();
+    try {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      Load load = new Load(URI.create("http://localhost:" + port + "/parse"), body());
+      load.start(clients);
+      Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+      load.reset();
+      long start = System.nanoTime();
+      Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+      double seconds = (System.nanoTime() - start) / 1e9;
+      String line =
+          String.format(
+              "%-9s %8d %12.1f %8d %10.1f %10.1f %10.1f",
+              mode,
+              clients,
+              load.completed.sum() / seconds,
+              load.errors.sum(),
+              load.percentileMillis(0.50),
+              load.percentileMillis(0.99),
+              load.percentileMillis(1.0));
+      load.stop();
+      System.out.println(line);
+      return line;
+    } finally {
+      context.close();
+    }
+  }
+
+  /** Form-encoded {@code input} parameter holding a program of about {@code size} characters. */
+  private String body() {
+    String program = InputGenerator.generate(InputGenerator.Shape.NESTED_IF_LINES, size);
+    return "input=" + URLEncoder.encode(program, StandardCharsets.UTF_8);
+  }
+
+  /** Clients looping over one request each, and the latencies they observed. */
+  private static final class Load {
+    private final HttpRequest request;
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+    private final HttpClient client;
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean running = true;
+
+    private Load(URI uri, String body) {
+      this.request =
+          HttpRequest.newBuilder(uri)
+              .header("Content-Type", "application/x-www-form-urlencoded")
+              .timeout(Duration.ofSeconds(60))
+              .POST(HttpRequest.BodyPublishers.ofString(body))
+              .build();
+      this.client =
+          HttpClient.newBuilder()
+              .executor(clientExecutor)
+              .version(HttpClient.Version.HTTP_1_1)
+              .build();
+    }
+
+    void start(int clients) {
+      for (int i = 0; i < clients; i++) {
+        send();
+      }
+    }
+
+    /** Sends one request and, once it completes, the next one, until stopped. */
+    private void send() {
+      long start = System.nanoTime();
+      client
+          .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .whenComplete(
+              (response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                  errors.increment();
+                } else {
+                  long bucket = (System.nanoTime() - start) / BUCKET_NANOS;
+                  histogram.incrementAndGet((int) Math.min(bucket, BUCKETS - 1));
+                  completed.increment();
+                }
+                if (running) {
+                  send();
+                }
+              });
+    }
+
+    /** Discards everything measured so far, e.g. at the end of the warm-up. */
+    void reset() {
+      for (int i = 0; i < BUCKETS; i++) {
+        histogram.set(i, 0);
+      }
+      completed.reset();
+      errors.reset();
+    }
+
+    double percentileMillis(double quantile) {
+      long total = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        total += histogram.get(i);
+      }
+      long rank = Math.max(1, (long) Math.ceil(total * quantile));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += histogram.get(i);
+        if (seen >= rank) {
+          return (i + 1) * BUCKET_NANOS / 1e6;
+        }
+      }
+      return Double.NaN;
+    }
+
+    void stop() {
+      running = false;
+      clientExecutor.shutdownNow();
+    }
+  }
+}
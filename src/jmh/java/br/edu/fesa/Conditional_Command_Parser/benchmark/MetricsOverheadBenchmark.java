@@ -0,0 +1,90 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.service.ParseResultCache;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserMetrics;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link ParserMetrics} on {@link ParserService#parse(String)}, with the result cache off
+ * so every call runs the pipeline.
+ *
+ * <p>{@code OFF} records nothing, {@code ON} records into a Prometheus registry with the default
+ * stage sampling, and {@code ALL_STAGES} times lexing and parsing apart on every run, which lexes
+ * into a buffer instead of streaming. Small inputs show the fixed cost per run; large ones show
+ * that nothing is recorded per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class MetricsOverheadBenchmark {
+
+  /** How the service under test records metrics. */
+  public enum Metrics {
+    OFF,
+    ON,
+    ALL_STAGES
+  }
+
+  @Param({"NESTED_IF", "ARITHMETIC"})
+  public InputGenerator.Shape shape;
+
+  @Param({"100", "10000", "1000000"})
+  public int size;
+
+  @Param({"OFF", "ON", "ALL_STAGES"})
+  public Metrics metrics;
+
+  private ParserService parserService;
+  private String input;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    ParserMetrics parserMetrics =
+        switch (metrics) {
+          case OFF -> ParserMetrics.disabled();
+          case ON -> new ParserMetrics(
+              registry, true, ParserMetrics.DEFAULT_STAGE_SAMPLE_INTERVAL);
+          case ALL_STAGES -> new ParserMetrics(registry, true, 1);
+        };
+    parserService =
+        new ParserService(
+            firstFollowCalculator,
+            new Lexer(),
+            RecursiveDescentParser::new,
+            SemanticAnalyzer::new,
+            ParseResultCache.disabled(),
+            parserMetrics);
+    input = InputGenerator.generate(shape, size);
+  }
+
+  @Benchmark
+  public ParserResponse pipeline() {
+    return parserService.parse(input);
+  }
+}
@@ -0,0 +1,93 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.MultiProgramParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lexing and parsing one large file of concatenated programs, sequentially versus in chunks on a
+ * fork-join pool of {@code threads} workers.
+ *
+ * <p>The file repeats one program of about 1 KB of the given {@link InputGenerator.Shape} up to
+ * {@code size} characters, so chunk boundaries fall inside comments and string literals as well as
+ * between tokens. The speedup of the parallel variants is bounded by the processors available to
+ * the benchmark JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiProgramBenchmark {
+
+  @Param({"NESTED_IF_LINES", "COMMENTS", "STRINGS"})
+  public InputGenerator.Shape shape;
+
+  @Param({"10000000"})
+  public int size;
+
+  @Param({"1", "4", "16"})
+  public int threads;
+
+  private final Lexer lexer = new Lexer();
+  private ForkJoinPool pool;
+  private MultiProgramParser parser;
+  private String input;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    String program = InputGenerator.generate(shape, 1024);
+    StringBuilder sb = new StringBuilder(size + program.length() + 1);
+    while (sb.length() < size) {
+      sb.append(program).append('\n');
+    }
+    input = sb.toString();
+    pool = new ForkJoinPool(threads);
+    // About four chunks per worker, so that uneven chunks still balance
+    int chunkLength = Math.max(input.length() / (threads * 4), 64 * 1024);
+    parser = new MultiProgramParser(lexer, RecursiveDescentParser::new, pool, chunkLength);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public int lexSequential() throws LexicalException {
+    return lexer.tokenizeToBuffer(input).size();
+  }
+
+  @Benchmark
+  public int lexParallel() throws LexicalException {
+    int chunkLength = Math.max(input.length() / (threads * 4), 64 * 1024);
+    return lexer.tokenizeInParallel(input, null, pool, chunkLength).size();
+  }
+
+  @Benchmark
+  public int parseSequential() throws LexicalException {
+    return parser.parseSequentially(input).size();
+  }
+
+  @Benchmark
+  public int parseParallel() throws LexicalException {
+    return parser.parse(input).size();
+  }
+}
@@ -0,0 +1,121 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.bytecode.BytecodeCompiler;
+import br.edu.fesa.Conditional_Command_Parser.bytecode.Environment;
+import br.edu.fesa.Conditional_Command_Parser.bytecode.Program;
+import br.edu.fesa.Conditional_Command_Parser.model.OptimizationResult;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.utils.AstOptimizer;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the AST optimizer and what it saves when the program is evaluated.
+ *
+ * <p>The generated program is a chain of {@code levels} nested ifs whose conditions and
+ * assignments contain constant subexpressions and identity operations, with every fourth level
+ * guarded by a constant-zero condition that the optimizer prunes. {@code optimize} measures the
+ * pass itself; {@code evaluateOriginal} and {@code evaluateOptimized} run the interpreted program
+ * before and after optimization, with {@code a} selecting how deep the evaluation goes (level
+ * {@code a} assigns {@code x} and stops). The node counts before and after are printed once per
+ * trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizerBenchmark {
+
+  /** Number of nested if statements. */
+  @Param({"16", "256"})
+  public int levels;
+
+  private final AstOptimizer optimizer = new AstOptimizer();
+  private SyntaxNode ast;
+  private Program original;
+  private Program optimized;
+  private Environment originalEnv;
+  private Environment optimizedEnv;
+  private int a;
+  private int x;
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    // Level i continues with level i + 1 unless a == i
+    StringBuilder source = new StringBuilder();
+    StringBuilder tail = new StringBuilder();
+    for (int i = 0; i < levels; i++) {
+      if (i % 4 == 0) {
+        source.append(String.format("if (%d - %d) x = a * 100 else ", i, i));
+      }
+      source.append(String.format("if (a - (%d * 2 - %d) * 1) ", i, i));
+      tail.insert(0, " else x = (a + 4 * 2) * 1 - 0 / 3");
+    }
+    source.append("x = (1 + 2) * 3").append(tail);
+    List<Symbol> variables =
+        List.of(
+            Symbol.builder().name("x").type(Token.Type.NUMBER).build(),
+            Symbol.builder().name("a").type(Token.Type.NUMBER).build());
+
+    ast = new RecursiveDescentParser().parse(new Lexer().tokenize(source.toString()));
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(ast, variables);
+    if (!analyzer.getErrors().isEmpty()) {
+      throw new IllegalStateException(analyzer.getErrors().toString());
+    }
+    OptimizationResult result = optimizer.optimize(ast);
+    System.out.printf(
+        "%nNodes: %d before, %d after, %d changes%n",
+        result.getNodesBefore(), result.getNodesAfter(), result.getChanges().size());
+
+    BytecodeCompiler compiler = new BytecodeCompiler(-1);
+    original = compiler.compile(ast, variables);
+    optimized = compiler.compile(result.getAst(), variables);
+    originalEnv = original.newEnvironment();
+    optimizedEnv = optimized.newEnvironment();
+    // Both programs were compiled with the same variable list, so the slots agree
+    a = original.slot("a");
+    x = original.slot("x");
+  }
+
+  @Benchmark
+  public OptimizationResult optimize() {
+    return optimizer.optimize(ast);
+  }
+
+  @Benchmark
+  public long evaluateOriginal() {
+    return evaluate(original, originalEnv);
+  }
+
+  @Benchmark
+  public long evaluateOptimized() {
+    return evaluate(optimized, optimizedEnv);
+  }
+
+  /** Binds {@code a} to the next level, so evaluations cover every depth in turn. */
+  private long evaluate(Program program, Environment env) {
+    env.setNumber(a, next++ % (levels + 1));
+    program.execute(env);
+    return env.getNumber(x);
+  }
+}
@@ -0,0 +1,149 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
+import br.edu.fesa.Conditional_Command_Parser.utils.AstArena;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TokenBuffer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-stage benchmarks of the parsing pipeline over generated inputs of every shape and size.
+ *
+ * <p>Each stage is measured in isolation on pre-computed input from the previous stage, plus the
+ * end-to-end {@link ParserService#parse(String)}. Run with {@code -prof gc} (the profile default)
+ * to get the allocation rate per stage alongside throughput and average time. The {@code *Arena}
+ * variants build, analyze and print the same tree in a reused {@link AstArena} instead of node
+ * objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PipelineBenchmark {
+
+  @Param({"NESTED_IF", "ARITHMETIC", "COMMENTS", "STRINGS"})
+  public InputGenerator.Shape shape;
+
+  @Param({"100", "10000", "1000000", "10000000"})
+  public int size;
+
+  private final Lexer lexer = new Lexer();
+  private ParserService parserService;
+
+  private String input;
+  private List<Token> tokens;
+  private TokenBuffer buffer;
+  private SyntaxNode ast;
+
+  /** Reused by every arena benchmark; holds the parsed input outside of {@link #parseArena()}. */
+  private final AstArena arena = new AstArena();
+
+  private int arenaRoot;
+
+  @Setup(Level.Trial)
+  public void setUp() throws LexicalException {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator, lexer, RecursiveDescentParser::new, SemanticAnalyzer::new);
+
+    input = InputGenerator.generate(shape, size);
+    tokens = lexer.tokenize(input);
+    buffer = lexer.tokenizeToBuffer(input);
+    ast = new RecursiveDescentParser().parse(tokens);
+    new SemanticAnalyzer().analyze(ast);
+    arenaRoot = new RecursiveDescentParser().parse(buffer, arena);
+  }
+
+  @Benchmark
+  public List<Token> lex() throws LexicalException {
+    return lexer.tokenize(input);
+  }
+
+  /** Same scan as {@link #lex()}, stored as primitive arrays instead of Token objects. */
+  @Benchmark
+  public TokenBuffer lexToBuffer() throws LexicalException {
+    return lexer.tokenizeToBuffer(input);
+  }
+
+  @Benchmark
+  public SyntaxNode parse() {
+    return new RecursiveDescentParser().parse(tokens);
+  }
+
+  @Benchmark
+  public SyntaxNode parseBuffer() {
+    return new RecursiveDescentParser().parse(buffer);
+  }
+
+  /** Lexing and parsing interleaved through {@link Lexer#stream(CharSequence)}. */
+  @Benchmark
+  public SyntaxNode lexAndParseStreaming() throws LexicalException {
+    return new RecursiveDescentParser().parse(lexer.stream(input));
+  }
+
+  /** Baseline for {@link #lexAndParseStreaming()}: materialize the token list first. */
+  @Benchmark
+  public SyntaxNode lexAndParseList() throws LexicalException {
+    return new RecursiveDescentParser().parse(lexer.tokenize(input));
+  }
+
+  @Benchmark
+  public List<String> analyze() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(ast);
+    return analyzer.getErrors();
+  }
+
+  @Benchmark
+  public String printTree() {
+    return TreePrinter.generateASCIITree(ast);
+  }
+
+  /** Same parse as {@link #parseBuffer()}, into the reused arena. */
+  @Benchmark
+  public int parseArena() {
+    return new RecursiveDescentParser().parse(buffer, arena);
+  }
+
+  @Benchmark
+  public List<String> analyzeArena() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(arena, arenaRoot);
+    return analyzer.getErrors();
+  }
+
+  @Benchmark
+  public String printTreeArena() {
+    return TreePrinter.generateASCIITree(arena, arenaRoot);
+  }
+
+  @Benchmark
+  public ParserResponse pipeline() {
+    return parserService.parse(input);
+  }
+}
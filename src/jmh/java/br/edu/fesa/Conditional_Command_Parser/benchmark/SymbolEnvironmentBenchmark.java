@@ -0,0 +1,106 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.utils.AstArena;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Analysis latency of a small program against a large set of externally declared variables.
+ *
+ * <p>{@code declarePerCall} passes the {@code variables} symbols to every analysis, which declares
+ * them all again; {@code sharedEnvironment} and {@code sharedEnvironmentArenaById} analyze the same
+ * program inside one {@link SymbolEnvironment} built in setup, by name in the object tree and by
+ * lexer-interned id in an {@link AstArena}. Each call uses a fresh {@link SemanticAnalyzer}, as
+ * the parse service does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolEnvironmentBenchmark {
+
+  @Param({"1000", "50000"})
+  public int variables;
+
+  /** Nested if statements in the analyzed program. */
+  @Param({"32"})
+  public int statements;
+
+  private List<Symbol> declared;
+  private SymbolEnvironment environment;
+  private SyntaxNode program;
+  private AstArena arena;
+  private int arenaRoot;
+
+  @Setup
+  public void setUp() throws LexicalException {
+    declared = new ArrayList<>(variables);
+    SymbolEnvironment.Builder builder = SymbolEnvironment.builder();
+    for (int i = 0; i < variables; i++) {
+      declared.add(Symbol.builder().name("v" + i).type(Token.Type.NUMBER).build());
+      builder.declare("v" + i, Token.Type.NUMBER);
+    }
+    environment = builder.build();
+
+    // if (vA) vB = vC * 2 else if ... else v0 = 0, spread over the declared names
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < statements; i++) {
+      source.append("if (").append(name(i, 1)).append(") ");
+      source.append(name(i, 2)).append(" = ").append(name(i, 3)).append(" * 2 else ");
+    }
+    source.append("v0 = 0");
+    Lexer lexer = new Lexer();
+    program = new RecursiveDescentParser().parse(lexer.tokenizeToBuffer(source));
+    arena = new AstArena();
+    arenaRoot =
+        new RecursiveDescentParser()
+            .parse(lexer.tokenizeToBuffer(source, environment.newInterner()), arena);
+  }
+
+  private String name(int statement, int slot) {
+    return "v" + ((statement * 7919 + slot * 104_729) % variables);
+  }
+
+  @Benchmark
+  public List<String> declarePerCall() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(program, declared);
+    return analyzer.getErrors();
+  }
+
+  @Benchmark
+  public List<String> sharedEnvironment() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(program, environment);
+    return analyzer.getErrors();
+  }
+
+  @Benchmark
+  public List<String> sharedEnvironmentArenaById() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(arena, arenaRoot, environment);
+    return analyzer.getErrors();
+  }
+}
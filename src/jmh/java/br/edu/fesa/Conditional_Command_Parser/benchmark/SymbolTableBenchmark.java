@@ -0,0 +1,145 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.ScopeStackReferenceTable;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolTable;
+import br.edu.fesa.Conditional_Command_Parser.utils.AstArena;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scoped symbol lookup in deeply nested programs with many identifiers.
+ *
+ * <p>{@code flatTable} and {@code scopeStackReference} run the same script against {@link
+ * SymbolTable} and the original hash-map-per-scope table: open {@code depth} scopes, declaring one
+ * of {@code identifiers} names in each and looking up {@code lookups} names, then close them all,
+ * as {@link SemanticAnalyzer} does for nested {@code if} statements. {@code analyze} and {@code
+ * analyzeArenaById} check a generated program of that nesting end to end, resolving identifiers by
+ * name in the object tree and by lexer-interned id in an {@link AstArena}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolTableBenchmark {
+
+  @Param({"16", "1024", "16384"})
+  public int depth;
+
+  @Param({"1000"})
+  public int identifiers;
+
+  /** Lookups per scope. */
+  @Param({"8"})
+  public int lookups;
+
+  private String[] names;
+  private Symbol[] symbols;
+  private List<Symbol> declared;
+  private SyntaxNode program;
+  private AstArena arena;
+  private int arenaRoot;
+
+  @Setup
+  public void setUp() throws LexicalException {
+    names = new String[identifiers];
+    symbols = new Symbol[identifiers];
+    declared = new ArrayList<>();
+    for (int i = 0; i < identifiers; i++) {
+      names[i] = "v" + i;
+      symbols[i] = Symbol.builder().name(names[i]).type(Token.Type.NUMBER).build();
+      declared.add(symbols[i]);
+    }
+
+    // if (vA) vB = vC + vD else if ... else v0 = 0, over every declared name
+    StringBuilder source = new StringBuilder();
+    for (int level = 0; level < depth; level++) {
+      source.append("if (").append(name(level, 1)).append(") ");
+      source.append(name(level, 2)).append(" = ");
+      source.append(name(level, 3)).append(" + ").append(name(level, 4)).append(" else ");
+    }
+    source.append("v0 = 0");
+    Lexer lexer = new Lexer();
+    program = new RecursiveDescentParser().parse(lexer.tokenizeToBuffer(source));
+    arena = new AstArena();
+    arenaRoot =
+        new RecursiveDescentParser()
+            .parse(lexer.tokenizeToBuffer(source, new SymbolInterner()), arena);
+  }
+
+  private String name(int level, int slot) {
+    return names[(level * 7 + slot * 131) % identifiers];
+  }
+
+  @Benchmark
+  public void flatTable(Blackhole blackhole) {
+    SymbolTable table = new SymbolTable();
+    for (Symbol symbol : symbols) {
+      table.declare(symbol);
+    }
+    for (int level = 0; level < depth; level++) {
+      table.enterScope();
+      table.declare(symbols[level % identifiers]);
+      for (int i = 0; i < lookups; i++) {
+        blackhole.consume(table.lookup(name(level, i)));
+      }
+    }
+    for (int level = 0; level < depth; level++) {
+      table.exitScope();
+    }
+  }
+
+  @Benchmark
+  public void scopeStackReference(Blackhole blackhole) {
+    ScopeStackReferenceTable table = new ScopeStackReferenceTable();
+    for (Symbol symbol : symbols) {
+      table.declare(symbol);
+    }
+    for (int level = 0; level < depth; level++) {
+      table.enterScope();
+      table.declare(symbols[level % identifiers]);
+      for (int i = 0; i < lookups; i++) {
+        blackhole.consume(table.lookup(name(level, i)));
+      }
+    }
+    for (int level = 0; level < depth; level++) {
+      table.exitScope();
+    }
+  }
+
+  @Benchmark
+  public List<String> analyze() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(program, declared);
+    return analyzer.getErrors();
+  }
+
+  @Benchmark
+  public List<String> analyzeArenaById() {
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(arena, arenaRoot, declared);
+    return analyzer.getErrors();
+  }
+}
@@ -0,0 +1,62 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling of {@link TreePrinter} with tree size: {@code a = 1 + 1 + ... + 1} chains and nested
+ * {@code if} statements of growing length. Average time per node should stay flat as the size
+ * grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class TreePrinterBenchmark {
+
+  @Param({"CHAIN", "NESTED_IF"})
+  public String shape;
+
+  @Param({"1000", "4000", "16000", "64000"})
+  public int length;
+
+  private SyntaxNode ast;
+
+  @Setup
+  public void setUp() throws LexicalException {
+    String input =
+        shape.equals("CHAIN")
+            ? "a = 1" + " + 1".repeat(length - 1)
+            : "if (a) x = 1 else ".repeat(length) + "x = 0";
+    ast = new RecursiveDescentParser().parse(new Lexer().tokenize(input));
+  }
+
+  @Benchmark
+  public String toStringBuilder() {
+    return TreePrinter.generateASCIITree(ast);
+  }
+
+  @Benchmark
+  public void toWriter() throws IOException {
+    TreePrinter.writeASCIITree(ast, Writer.nullWriter());
+  }
+}
@@ -0,0 +1,82 @@
+package br.edu.fesa.Conditional_Command_Parser.benchmark;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.ValidationResult;
+import br.edu.fesa.Conditional_Command_Parser.service.ParseResultCache;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ParserService#validate(String, boolean)} against the full {@link
+ * ParserService#parse(String)} pipeline, with the result cache off, on generated inputs.
+ *
+ * <p>With {@code broken}, the input starts with a syntax error, which {@code validateFailFast}
+ * stops at while the other two go on to the end. Run with {@code -prof gc} to compare the
+ * allocation per operation: recognizing builds no tree, so it should stay flat as inputs grow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ValidateBenchmark {
+
+  @Param({"NESTED_IF", "ARITHMETIC"})
+  public InputGenerator.Shape shape;
+
+  @Param({"100", "10000", "1000000"})
+  public int size;
+
+  @Param({"false", "true"})
+  public boolean broken;
+
+  private ParserService parserService;
+  private String input;
+
+  @Setup(Level.Trial)
+  public void setUp() throws LexicalException {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator,
+            new Lexer(),
+            RecursiveDescentParser::new,
+            SemanticAnalyzer::new,
+            ParseResultCache.disabled());
+    input = (broken ? "= " : "") + InputGenerator.generate(shape, size);
+  }
+
+  @Benchmark
+  public ParserResponse pipeline() {
+    return parserService.parse(input);
+  }
+
+  @Benchmark
+  public ValidationResult validate() {
+    return parserService.validate(input, false);
+  }
+
+  @Benchmark
+  public ValidationResult validateFailFast() {
+    return parserService.validate(input, true);
+  }
+}
@@ -0,0 +1,123 @@
+package br.edu.fesa.Conditional_Command_Parser;
+
+import br.edu.fesa.Conditional_Command_Parser.cli.BulkValidator;
+import br.edu.fesa.Conditional_Command_Parser.cli.ValidationSummary;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line entry point that validates program files offline, without starting the web server.
+ *
+ * <pre>
+ * java -cp Conditional-Command-Parser.jar \
+ *     -Dloader.main=br.edu.fesa.Conditional_Command_Parser.ConditionalCommandParserCli \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --workers 8 --glob '*.txt' --output report.ndjson programs/
+ * </pre>
+ *
+ * <p>Options: {@code --workers} (default: one per processor), {@code --glob} (file-name pattern,
+ * default every file), {@code --output} (report file, default standard output), {@code
+ * --environment} (JSON object of declared variable types, such as {@code {"x": "NUMBER"}}) and
+ * {@code --mmap-threshold} (bytes, default {@value BulkValidator#DEFAULT_MMAP_THRESHOLD}). See
+ * {@link BulkValidator} for the report format; the totals are also printed to standard error.
+ *
+ * <p>Exits with 0 if every file is valid, 1 if any is not, and 2 on bad arguments or I/O failure.
+ */
+public final class ConditionalCommandParserCli {
+
+  private static final String USAGE =
+      "Usage: ConditionalCommandParserCli [--workers N] [--glob PATTERN] [--output FILE]"
+          + " [--environment FILE] [--mmap-threshold BYTES] PATH...";
+
+  private ConditionalCommandParserCli() {}
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out, System.err));
+  }
+
+  /**
+   * Runs the validator as {@link #main(String[])} does, returning the exit code.
+   *
+   * @param args command-line arguments
+   * @param out receives the report unless {@code --output} is given
+   * @param err receives the totals and any usage error
+   * @return the exit code
+   */
+  static int run(String[] args, PrintStream out, PrintStream err) {
+    int workers = Runtime.getRuntime().availableProcessors();
+    long mmapThreshold = BulkValidator.DEFAULT_MMAP_THRESHOLD;
+    String glob = null;
+    Path output = null;
+    SymbolEnvironment environment = SymbolEnvironment.EMPTY;
+    List<Path> roots = new ArrayList<>();
+    try {
+      for (int i = 0; i < args.length; i++) {
+        String arg = args[i];
+        if (!arg.startsWith("--")) {
+          roots.add(Path.of(arg));
+          continue;
+        }
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value for " + arg);
+        }
+        String value = args[++i];
+        switch (arg) {
+          case "--workers" -> workers = Integer.parseInt(value);
+          case "--mmap-threshold" -> mmapThreshold = Long.parseLong(value);
+          case "--glob" -> glob = value;
+          case "--output" -> output = Path.of(value);
+          case "--environment" -> environment = readEnvironment(Path.of(value));
+          default -> throw new IllegalArgumentException("Unknown option " + arg);
+        }
+      }
+      if (roots.isEmpty()) {
+        throw new IllegalArgumentException("No files or directories given");
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      err.println(e.getMessage());
+      err.println(USAGE);
+      return 2;
+    }
+
+    try (BulkValidator validator = new BulkValidator(workers, environment, mmapThreshold);
+        Writer report =
+            output != null
+                ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+      ValidationSummary summary = validator.validate(roots, glob, report);
+      err.printf(
+          "%d files, %d valid, %d invalid, %.1f MB in %.2f s: %.0f files/s, %.1f MB/s%n",
+          summary.getFiles(),
+          summary.getValid(),
+          summary.getInvalid(),
+          summary.getBytes() / 1048576.0,
+          summary.getElapsedNanos() / 1e9,
+          summary.getFilesPerSecond(),
+          summary.getMegabytesPerSecond());
+      return summary.getInvalid() == 0 ? 0 : 1;
+    } catch (IllegalArgumentException | IOException | UncheckedIOException e) {
+      err.println(e.getMessage());
+      return 2;
+    }
+  }
+
+  private static SymbolEnvironment readEnvironment(Path file) throws IOException {
+    Map<String, Token.Type> variables =
+        new ObjectMapper().readValue(file.toFile(), new TypeReference<>() {});
+    return SymbolEnvironment.of(variables);
+  }
+}
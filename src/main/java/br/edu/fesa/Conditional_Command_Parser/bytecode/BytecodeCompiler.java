@@ -0,0 +1,327 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+import static br.edu.fesa.Conditional_Command_Parser.bytecode.Opcode.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.SemanticException;
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles a type-checked AST into a {@link Program} that can be evaluated many times against
+ * different variable bindings.
+ *
+ * <p>The tree must have been checked by {@code SemanticAnalyzer.analyze(root, variables)} with
+ * the same variables passed to {@link #compile(SyntaxNode, List)}: the compiler picks NUMBER or
+ * FLOAT instructions from the types the analyzer annotated, and refuses any node that the
+ * analysis left untyped or ill-typed. Variables get slots in the order they are listed.
+ *
+ * <p>The tree is walked with an explicit stack, so nesting depth is not limited by the thread
+ * stack. The compiler keeps no state between calls and is safe to share.
+ *
+ * <p>Programs are interpreted at first and compiled to JVM code after {@code parser.jit.threshold}
+ * executions; see {@link Program}.
+ */
+@Component
+public class BytecodeCompiler {
+
+  /** Default number of interpreted executions before a program is compiled to JVM code. */
+  public static final int DEFAULT_JIT_THRESHOLD = 10_000;
+
+  private final int jitThreshold;
+
+  public BytecodeCompiler() {
+    this(DEFAULT_JIT_THRESHOLD);
+  }
+
+  /**
+   * @param jitThreshold interpreted executions before compiling to JVM code; 0 compiles on the
+   *     first execution and a negative value never compiles
+   */
+  @Autowired
+  public BytecodeCompiler(
+      @Value("${parser.jit.threshold:" + DEFAULT_JIT_THRESHOLD + "}") int jitThreshold) {
+    this.jitThreshold = jitThreshold;
+  }
+
+  /**
+   * Compiles {@code root}.
+   *
+   * @param root AST analyzed against {@code variables}
+   * @param variables variables the program reads and assigns; NUMBER, FLOAT, STRING or CHAR
+   * @return executable program
+   * @throws SemanticException if a node has no valid type, i.e. the analysis reported errors
+   * @throws IllegalArgumentException if a variable is declared twice or has an unsupported type
+   */
+  public Program compile(SyntaxNode root, List<Symbol> variables) throws SemanticException {
+    Emitter emitter = new Emitter(variables);
+    emitter.statement(root);
+    return emitter.build(jitThreshold);
+  }
+
+  /** Code buffer, constant pools and slot table for one compilation. */
+  private static final class Emitter {
+    private int[] code = new int[64];
+    private int pc;
+    private int depth;
+    private int maxStack;
+
+    private final List<Long> constants = new ArrayList<>();
+    private final List<Boolean> floatConstants = new ArrayList<>();
+    private final Map<Long, Integer> numberIndex = new HashMap<>();
+    private final Map<Long, Integer> floatIndex = new HashMap<>();
+    private final List<String> textConstants = new ArrayList<>();
+    private final Map<String, Integer> textIndex = new HashMap<>();
+
+    private final String[] names;
+    private final Token.Type[] types;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /** A node to compile and how far its compilation has progressed. */
+    private record Frame(SyntaxNode node, int stage, int patch) {}
+
+    private Emitter(List<Symbol> variables) {
+      names = new String[variables.size()];
+      types = new Token.Type[variables.size()];
+      for (int i = 0; i < variables.size(); i++) {
+        Symbol symbol = variables.get(i);
+        Token.Type type = symbol.getType();
+        if (type != Token.Type.NUMBER
+            && type != Token.Type.FLOAT
+            && type != Token.Type.STRING
+            && type != Token.Type.CHAR) {
+          throw new IllegalArgumentException(
+              "Variable '" + symbol.getName() + "' has unsupported type " + type);
+        }
+        if (slots.putIfAbsent(symbol.getName(), i) != null) {
+          throw new IllegalArgumentException("Duplicate variable '" + symbol.getName() + "'");
+        }
+        names[i] = symbol.getName();
+        types[i] = type;
+      }
+    }
+
+    /** Emits {@code root} followed by RETURN. */
+    private void statement(SyntaxNode root) throws SemanticException {
+      Deque<Frame> stack = new ArrayDeque<>();
+      stack.push(new Frame(root, 0, 0));
+      while (!stack.isEmpty()) {
+        Frame frame = stack.pop();
+        SyntaxNode node = frame.node();
+        if (node instanceof IfStatement ifs) {
+          ifStatement(ifs, frame, stack);
+        } else if (node instanceof Assignment asg) {
+          if (frame.stage() == 0) {
+            stack.push(new Frame(asg, 1, 0));
+            stack.push(new Frame(asg.getExpression(), 0, 0));
+          } else {
+            store(asg);
+          }
+        } else if (node instanceof BinOp bin) {
+          if (frame.stage() == 0) {
+            stack.push(new Frame(bin, 1, 0));
+            stack.push(new Frame(bin.getRight(), 0, 0));
+            stack.push(new Frame(bin.getLeft(), 0, 0));
+          } else {
+            operator(bin);
+          }
+        } else {
+          operand(node);
+        }
+      }
+      emit(RETURN);
+    }
+
+    private void ifStatement(IfStatement ifs, Frame frame, Deque<Frame> stack)
+        throws SemanticException {
+      switch (frame.stage()) {
+        case 0 -> {
+          stack.push(new Frame(ifs, 1, 0));
+          stack.push(new Frame(ifs.getCondition(), 0, 0));
+        }
+        case 1 -> {
+          SyntaxNode condition = ifs.getCondition();
+          int branch = numeric(condition) == Token.Type.FLOAT ? DIFZ : LIFZ;
+          emit(branch, 0);
+          pop(1);
+          stack.push(new Frame(ifs, 2, pc - 1));
+          stack.push(new Frame(ifs.getThenBranch(), 0, 0));
+        }
+        case 2 -> {
+          emit(GOTO, 0);
+          // The false branch of the condition jumps here
+          code[frame.patch()] = pc;
+          stack.push(new Frame(ifs, 3, pc - 1));
+          stack.push(new Frame(ifs.getElseBranch(), 0, 0));
+        }
+        default -> code[frame.patch()] = pc;
+      }
+    }
+
+    private void store(Assignment asg) throws SemanticException {
+      Integer slot = slots.get(asg.getIdentifier());
+      if (slot == null) {
+        throw error(asg, "undeclared variable '" + asg.getIdentifier() + "'");
+      }
+      Token.Type expressionType = asg.getExpression().getType();
+      if (expressionType != types[slot]) {
+        throw error(
+            asg,
+            "cannot assign " + expressionType + " to '" + asg.getIdentifier() + "' of type "
+                + types[slot]);
+      }
+      if (isText(expressionType)) {
+        emit(TSTORE, slot);
+      } else {
+        emit(STORE, slot);
+        pop(1);
+      }
+    }
+
+    private void operator(BinOp bin) throws SemanticException {
+      Token.Type type = numeric(bin);
+      boolean isFloat = type == Token.Type.FLOAT;
+      if (bin.getLeft().getType() != type || bin.getRight().getType() != type) {
+        throw error(bin, "operands of '" + bin.getOperator() + "' are not both " + type);
+      }
+      int opcode =
+          switch (bin.getOperator()) {
+            case "+" -> isFloat ? DADD : LADD;
+            case "-" -> isFloat ? DSUB : LSUB;
+            case "*" -> isFloat ? DMUL : LMUL;
+            case "/" -> isFloat ? DDIV : LDIV;
+            default -> throw error(bin, "unknown operator '" + bin.getOperator() + "'");
+          };
+      emit(opcode);
+      pop(1);
+    }
+
+    /** Emits a literal or variable read; text values go to the text register, not the stack. */
+    private void operand(SyntaxNode node) throws SemanticException {
+      if (node instanceof NumberLiteral number) {
+        long value;
+        try {
+          value = Long.parseLong(number.getValue());
+        } catch (NumberFormatException e) {
+          throw error(node, "integer literal " + number.getValue() + " out of range");
+        }
+        emit(CONST, constant(value, false));
+        push();
+      } else if (node instanceof FloatLiteral real) {
+        long bits = Double.doubleToRawLongBits(Double.parseDouble(real.getValue()));
+        emit(CONST, constant(bits, true));
+        push();
+      } else if (node instanceof StringLiteral string) {
+        emit(TCONST, text(string.getValue()));
+      } else if (node instanceof CharLiteral character) {
+        emit(TCONST, text(character.getValue()));
+      } else if (node instanceof Identifier id) {
+        Integer slot = slots.get(id.getName());
+        if (slot == null || id.getType() != types[slot]) {
+          throw error(id, "identifier '" + id.getName() + "' was not checked as a variable");
+        }
+        if (isText(types[slot])) {
+          emit(TLOAD, slot);
+        } else {
+          emit(LOAD, slot);
+          push();
+        }
+      } else {
+        throw error(node, "cannot compile " + node.getClass().getSimpleName());
+      }
+    }
+
+    /** Type of a node that must be NUMBER or FLOAT. */
+    private Token.Type numeric(SyntaxNode node) throws SemanticException {
+      Token.Type type = node.getType();
+      if (type != Token.Type.NUMBER && type != Token.Type.FLOAT) {
+        throw error(node, "expected a NUMBER or FLOAT value but the analyzer found " + type);
+      }
+      return type;
+    }
+
+    private static boolean isText(Token.Type type) {
+      return type == Token.Type.STRING || type == Token.Type.CHAR;
+    }
+
+    private int constant(long raw, boolean isFloat) {
+      Map<Long, Integer> index = isFloat ? floatIndex : numberIndex;
+      return index.computeIfAbsent(
+          raw,
+          k -> {
+            constants.add(k);
+            floatConstants.add(isFloat);
+            return constants.size() - 1;
+          });
+    }
+
+    private int text(String value) {
+      return textIndex.computeIfAbsent(
+          value,
+          k -> {
+            textConstants.add(k);
+            return textConstants.size() - 1;
+          });
+    }
+
+    private void emit(int opcode) {
+      ensure(1);
+      code[pc++] = opcode;
+    }
+
+    private void emit(int opcode, int operand) {
+      ensure(2);
+      code[pc++] = opcode;
+      code[pc++] = operand;
+    }
+
+    private void ensure(int count) {
+      if (pc + count > code.length) {
+        code = Arrays.copyOf(code, code.length << 1);
+      }
+    }
+
+    private void push() {
+      maxStack = Math.max(maxStack, ++depth);
+    }
+
+    private void pop(int count) {
+      depth -= count;
+    }
+
+    private static SemanticException error(SyntaxNode node, String message) {
+      return new SemanticException(
+          String.format(
+              "Semantic error [line %d, column %d]: %s",
+              node.getLine(), node.getColumn(), message));
+    }
+
+    private Program build(int jitThreshold) {
+      long[] pool = new long[constants.size()];
+      boolean[] floats = new boolean[constants.size()];
+      for (int i = 0; i < pool.length; i++) {
+        pool[i] = constants.get(i);
+        floats[i] = floatConstants.get(i);
+      }
+      return new Program(
+          Arrays.copyOf(code, pc),
+          pool,
+          floats,
+          textConstants.toArray(String[]::new),
+          names,
+          types,
+          Map.copyOf(slots),
+          maxStack,
+          jitThreshold);
+    }
+  }
+}
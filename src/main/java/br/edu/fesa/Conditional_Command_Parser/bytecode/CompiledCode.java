@@ -0,0 +1,12 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+/**
+ * JVM code generated by {@link JvmCompiler} for one {@link Program}.
+ *
+ * <p>Works on the arrays of an {@link Environment} directly: NUMBER and FLOAT variables as raw
+ * 64-bit values in {@code values}, STRING and CHAR variables in {@code texts}.
+ */
+interface CompiledCode {
+
+  void execute(long[] values, String[] texts);
+}
@@ -0,0 +1,79 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+
+/**
+ * Variable bindings, and the operand stack, for evaluating one {@link Program}.
+ *
+ * <p>Variables are addressed by slot, see {@link Program#slot(String)}. NUMBER and FLOAT values
+ * live unboxed in a {@code long[]}, so setting the bindings and evaluating allocate nothing. An
+ * environment can be reused for any number of evaluations but is not thread-safe: create one per
+ * thread with {@link Program#newEnvironment()}.
+ */
+public final class Environment {
+
+  private final Program program;
+  final long[] values;
+  final String[] texts;
+  final long[] stack;
+
+  Environment(Program program) {
+    this.program = program;
+    this.values = new long[program.slotCount()];
+    this.texts = new String[program.slotCount()];
+    this.stack = new long[program.maxStack()];
+  }
+
+  /** Program this environment belongs to. */
+  public Program program() {
+    return program;
+  }
+
+  public Environment setNumber(int slot, long value) {
+    values[check(slot, Token.Type.NUMBER)] = value;
+    return this;
+  }
+
+  public Environment setFloat(int slot, double value) {
+    values[check(slot, Token.Type.FLOAT)] = Double.doubleToRawLongBits(value);
+    return this;
+  }
+
+  /** Binds a STRING, or a CHAR given as a one-character string. */
+  public Environment setText(int slot, String value) {
+    Token.Type type = program.type(slot);
+    if (type != Token.Type.STRING && type != Token.Type.CHAR) {
+      throw new IllegalArgumentException(mismatch(slot, "STRING or CHAR"));
+    }
+    texts[slot] = value;
+    return this;
+  }
+
+  public long getNumber(int slot) {
+    return values[check(slot, Token.Type.NUMBER)];
+  }
+
+  public double getFloat(int slot) {
+    return Double.longBitsToDouble(values[check(slot, Token.Type.FLOAT)]);
+  }
+
+  public String getText(int slot) {
+    Token.Type type = program.type(slot);
+    if (type != Token.Type.STRING && type != Token.Type.CHAR) {
+      throw new IllegalArgumentException(mismatch(slot, "STRING or CHAR"));
+    }
+    return texts[slot];
+  }
+
+  private int check(int slot, Token.Type expected) {
+    if (program.type(slot) != expected) {
+      throw new IllegalArgumentException(mismatch(slot, expected.name()));
+    }
+    return slot;
+  }
+
+  private String mismatch(int slot, String expected) {
+    return String.format(
+        "Variable '%s' is %s, not %s", program.name(slot), program.type(slot), expected);
+  }
+}
@@ -0,0 +1,252 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+import static br.edu.fesa.Conditional_Command_Parser.bytecode.Opcode.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Translates a {@link Program} into a hidden JVM class implementing {@link CompiledCode}.
+ *
+ * <p>The class file is written with ASM and defined with {@link
+ * MethodHandles.Lookup#defineHiddenClass}, so it lives in this package, needs no class loader of
+ * its own and is unloaded once the program is garbage collected.
+ *
+ * <p>The translation follows the program's code instruction by instruction, since its operand
+ * stack maps directly onto the JVM's, with one change: NUMBER and FLOAT variables are copied into
+ * JVM locals on entry and written back on return, so that HotSpot can keep them in registers.
+ * Branches become {@code LCMP}/{@code DCMPL} plus {@code IFEQ}, and the stack is empty at every
+ * jump target because conditions are consumed before either branch runs.
+ */
+final class JvmCompiler {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final String CLASS_NAME =
+      JvmCompiler.class.getPackageName().replace('.', '/') + "/GeneratedProgram";
+
+  private static final String OBJECT = "java/lang/Object";
+  private static final String DOUBLE = "java/lang/Double";
+
+  /** Locals of {@code execute}: this, values, texts, the text register, then two per variable. */
+  private static final int VALUES = 1;
+
+  private static final int TEXTS = 2;
+  private static final int TEXT_REGISTER = 3;
+  private static final int FIRST_VARIABLE = 4;
+
+  private JvmCompiler() {}
+
+  /**
+   * Generates, defines and instantiates the class for {@code program}.
+   *
+   * @throws IllegalStateException if the class cannot be defined
+   * @throws RuntimeException from ASM if the code exceeds a JVM limit such as the 64 KB method size
+   */
+  static CompiledCode compile(Program program) {
+    byte[] bytes = generate(program);
+    try {
+      MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(bytes, true);
+      return (CompiledCode)
+          hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Cannot define generated program", e);
+    }
+  }
+
+  static byte[] generate(Program program) {
+    ClassWriter cw =
+        new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+          @Override
+          protected String getCommonSuperClass(String type1, String type2) {
+            // Only Strings and arrays ever meet at a merge point
+            return OBJECT;
+          }
+        };
+    cw.visit(
+        Opcodes.V17,
+        Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+        CLASS_NAME,
+        null,
+        OBJECT,
+        new String[] {Type.getInternalName(CompiledCode.class)});
+
+    MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+    init.visitCode();
+    init.visitVarInsn(Opcodes.ALOAD, 0);
+    init.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+    init.visitInsn(Opcodes.RETURN);
+    init.visitMaxs(0, 0);
+    init.visitEnd();
+
+    MethodVisitor mv =
+        cw.visitMethod(
+            Opcodes.ACC_PUBLIC, "execute", "([J[Ljava/lang/String;)V", null, null);
+    mv.visitCode();
+    new Translator(program, mv).translate();
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+  /** Emits the body of {@code execute} for one program. */
+  private static final class Translator {
+    private final Program program;
+    private final MethodVisitor mv;
+    private final int[] code;
+    private final Label[] labels;
+
+    private Translator(Program program, MethodVisitor mv) {
+      this.program = program;
+      this.mv = mv;
+      this.code = program.code();
+      this.labels = new Label[code.length + 1];
+    }
+
+    void translate() {
+      for (int pc = 0; pc < code.length; pc += length(code[pc])) {
+        int opcode = code[pc];
+        if (opcode == LIFZ || opcode == DIFZ || opcode == GOTO) {
+          labels[code[pc + 1]] = new Label();
+        }
+      }
+      prologue();
+      for (int pc = 0; pc < code.length; pc += length(code[pc])) {
+        if (labels[pc] != null) {
+          mv.visitLabel(labels[pc]);
+        }
+        instruction(code[pc], pc + 1 < code.length ? code[pc + 1] : 0);
+      }
+    }
+
+    /** Copies every numeric variable into its local and clears the text register. */
+    private void prologue() {
+      for (int slot = 0; slot < program.slotCount(); slot++) {
+        if (isNumeric(slot)) {
+          mv.visitVarInsn(Opcodes.ALOAD, VALUES);
+          pushInt(slot);
+          mv.visitInsn(Opcodes.LALOAD);
+          if (isFloat(slot)) {
+            mv.visitMethodInsn(
+                Opcodes.INVOKESTATIC, DOUBLE, "longBitsToDouble", "(J)D", false);
+            mv.visitVarInsn(Opcodes.DSTORE, local(slot));
+          } else {
+            mv.visitVarInsn(Opcodes.LSTORE, local(slot));
+          }
+        }
+      }
+      mv.visitInsn(Opcodes.ACONST_NULL);
+      mv.visitVarInsn(Opcodes.ASTORE, TEXT_REGISTER);
+    }
+
+    /** Writes every numeric variable back and returns. */
+    private void epilogue() {
+      for (int slot = 0; slot < program.slotCount(); slot++) {
+        if (isNumeric(slot)) {
+          mv.visitVarInsn(Opcodes.ALOAD, VALUES);
+          pushInt(slot);
+          if (isFloat(slot)) {
+            mv.visitVarInsn(Opcodes.DLOAD, local(slot));
+            mv.visitMethodInsn(
+                Opcodes.INVOKESTATIC, DOUBLE, "doubleToRawLongBits", "(D)J", false);
+          } else {
+            mv.visitVarInsn(Opcodes.LLOAD, local(slot));
+          }
+          mv.visitInsn(Opcodes.LASTORE);
+        }
+      }
+      mv.visitInsn(Opcodes.RETURN);
+    }
+
+    private void instruction(int opcode, int operand) {
+      switch (opcode) {
+        case CONST -> {
+          long raw = program.constant(operand);
+          if (program.isFloatConstant(operand)) {
+            mv.visitLdcInsn(Double.longBitsToDouble(raw));
+          } else {
+            mv.visitLdcInsn(raw);
+          }
+        }
+        case LOAD ->
+            mv.visitVarInsn(isFloat(operand) ? Opcodes.DLOAD : Opcodes.LLOAD, local(operand));
+        case STORE ->
+            mv.visitVarInsn(isFloat(operand) ? Opcodes.DSTORE : Opcodes.LSTORE, local(operand));
+        case LADD -> mv.visitInsn(Opcodes.LADD);
+        case LSUB -> mv.visitInsn(Opcodes.LSUB);
+        case LMUL -> mv.visitInsn(Opcodes.LMUL);
+        case LDIV -> mv.visitInsn(Opcodes.LDIV);
+        case DADD -> mv.visitInsn(Opcodes.DADD);
+        case DSUB -> mv.visitInsn(Opcodes.DSUB);
+        case DMUL -> mv.visitInsn(Opcodes.DMUL);
+        case DDIV -> mv.visitInsn(Opcodes.DDIV);
+        case LIFZ -> {
+          mv.visitInsn(Opcodes.LCONST_0);
+          mv.visitInsn(Opcodes.LCMP);
+          mv.visitJumpInsn(Opcodes.IFEQ, labels[operand]);
+        }
+        case DIFZ -> {
+          // DCMPL yields -1 for NaN, which, as in the interpreter, counts as nonzero
+          mv.visitInsn(Opcodes.DCONST_0);
+          mv.visitInsn(Opcodes.DCMPL);
+          mv.visitJumpInsn(Opcodes.IFEQ, labels[operand]);
+        }
+        case GOTO -> mv.visitJumpInsn(Opcodes.GOTO, labels[operand]);
+        case TCONST -> {
+          mv.visitLdcInsn(program.textConstant(operand));
+          mv.visitVarInsn(Opcodes.ASTORE, TEXT_REGISTER);
+        }
+        case TLOAD -> {
+          mv.visitVarInsn(Opcodes.ALOAD, TEXTS);
+          pushInt(operand);
+          mv.visitInsn(Opcodes.AALOAD);
+          mv.visitVarInsn(Opcodes.ASTORE, TEXT_REGISTER);
+        }
+        case TSTORE -> {
+          mv.visitVarInsn(Opcodes.ALOAD, TEXTS);
+          pushInt(operand);
+          mv.visitVarInsn(Opcodes.ALOAD, TEXT_REGISTER);
+          mv.visitInsn(Opcodes.AASTORE);
+        }
+        case RETURN -> epilogue();
+        default -> throw new IllegalStateException("Bad opcode " + opcode);
+      }
+    }
+
+    private void pushInt(int value) {
+      if (value <= 5) {
+        mv.visitInsn(Opcodes.ICONST_0 + value);
+      } else if (value <= Short.MAX_VALUE) {
+        mv.visitIntInsn(value <= Byte.MAX_VALUE ? Opcodes.BIPUSH : Opcodes.SIPUSH, value);
+      } else {
+        mv.visitLdcInsn(value);
+      }
+    }
+
+    private boolean isNumeric(int slot) {
+      Token.Type type = program.type(slot);
+      return type == Token.Type.NUMBER || type == Token.Type.FLOAT;
+    }
+
+    private boolean isFloat(int slot) {
+      return program.type(slot) == Token.Type.FLOAT;
+    }
+
+    private static int local(int slot) {
+      return FIRST_VARIABLE + 2 * slot;
+    }
+
+    private static int length(int opcode) {
+      return Opcode.hasOperand(opcode) ? 2 : 1;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+/**
+ * Instruction set of a compiled {@link Program}.
+ *
+ * <p>Programs run on a stack of raw 64-bit values: a NUMBER is a {@code long} and a FLOAT is the
+ * bit pattern of a {@code double}, so loads, stores and constants are the same for both types and
+ * only arithmetic and branches are typed. STRING and CHAR values are never combined by operators,
+ * so they travel through a single text register instead of the stack.
+ *
+ * <p>Each instruction is one {@code int} opcode followed by at most one {@code int} operand.
+ */
+public final class Opcode {
+
+  /** {@code CONST k}: push entry {@code k} of the constant pool. */
+  public static final int CONST = 0;
+
+  /** {@code LOAD s}: push the value of variable slot {@code s}. */
+  public static final int LOAD = 1;
+
+  /** {@code STORE s}: pop a value into variable slot {@code s}. */
+  public static final int STORE = 2;
+
+  /** Pop two NUMBERs and push their sum; likewise for the other {@code L} operators. */
+  public static final int LADD = 3;
+
+  public static final int LSUB = 4;
+  public static final int LMUL = 5;
+
+  /** Integer division, truncating toward zero; division by zero throws ArithmeticException. */
+  public static final int LDIV = 6;
+
+  /** Pop two FLOATs and push their sum; likewise for the other {@code D} operators. */
+  public static final int DADD = 7;
+
+  public static final int DSUB = 8;
+  public static final int DMUL = 9;
+  public static final int DDIV = 10;
+
+  /** {@code LIFZ t}: pop a NUMBER and jump to {@code t} if it is zero. */
+  public static final int LIFZ = 11;
+
+  /** {@code DIFZ t}: pop a FLOAT and jump to {@code t} if it is zero. */
+  public static final int DIFZ = 12;
+
+  /** {@code GOTO t}: jump to {@code t}. */
+  public static final int GOTO = 13;
+
+  /** {@code TCONST k}: load entry {@code k} of the text pool into the text register. */
+  public static final int TCONST = 14;
+
+  /** {@code TLOAD s}: load text slot {@code s} into the text register. */
+  public static final int TLOAD = 15;
+
+  /** {@code TSTORE s}: store the text register into text slot {@code s}. */
+  public static final int TSTORE = 16;
+
+  /** Ends the program. */
+  public static final int RETURN = 17;
+
+  private static final String[] NAMES = {
+    "CONST", "LOAD", "STORE", "LADD", "LSUB", "LMUL", "LDIV", "DADD", "DSUB", "DMUL", "DDIV",
+    "LIFZ", "DIFZ", "GOTO", "TCONST", "TLOAD", "TSTORE", "RETURN"
+  };
+
+  private Opcode() {}
+
+  /** Mnemonic of {@code opcode}, as used by {@link Program#disassemble()}. */
+  public static String name(int opcode) {
+    return NAMES[opcode];
+  }
+
+  /** True if {@code opcode} is followed by an operand. */
+  public static boolean hasOperand(int opcode) {
+    return opcode <= STORE || opcode >= LIFZ && opcode <= TSTORE;
+  }
+}
@@ -0,0 +1,269 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+import static br.edu.fesa.Conditional_Command_Parser.bytecode.Opcode.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A conditional command compiled by {@link BytecodeCompiler}: instructions, constant pools and the
+ * variable slots they refer to.
+ *
+ * <p>A program may be shared between threads; the mutable state of an evaluation lives in an
+ * {@link Environment}. {@link #execute(Environment)} first runs a single interpreter loop over the
+ * {@code int[]} code that works on primitive values only, so evaluating a program allocates
+ * nothing.
+ *
+ * <p>Execution is tiered: once a program has run {@code jitThreshold} times, {@link JvmCompiler}
+ * translates it into a hidden JVM class and later executions call that class instead, which
+ * HotSpot can then inline and optimize like any other code. A negative threshold keeps the
+ * program interpreted. Programs too large for one JVM method stay interpreted as well.
+ */
+@Slf4j
+public final class Program {
+
+  private final int[] code;
+  private final long[] constants;
+  private final boolean[] floatConstants;
+  private final String[] textConstants;
+  private final String[] names;
+  private final Token.Type[] types;
+  private final Map<String, Integer> slots;
+  private final int maxStack;
+  private final int jitThreshold;
+
+  /** Executions so far while interpreted; racy increments only delay compilation slightly. */
+  private int executions;
+
+  private final AtomicBoolean compiling = new AtomicBoolean();
+  private volatile CompiledCode compiled;
+
+  Program(
+      int[] code,
+      long[] constants,
+      boolean[] floatConstants,
+      String[] textConstants,
+      String[] names,
+      Token.Type[] types,
+      Map<String, Integer> slots,
+      int maxStack,
+      int jitThreshold) {
+    this.code = code;
+    this.constants = constants;
+    this.floatConstants = floatConstants;
+    this.textConstants = textConstants;
+    this.names = names;
+    this.types = types;
+    this.slots = slots;
+    this.maxStack = maxStack;
+    this.jitThreshold = jitThreshold;
+  }
+
+  /**
+   * Slot of the variable {@code name}, for the setters and getters of {@link Environment}.
+   *
+   * @throws IllegalArgumentException if the program was not compiled with that variable
+   */
+  public int slot(String name) {
+    Integer slot = slots.get(name);
+    if (slot == null) {
+      throw new IllegalArgumentException("Unknown variable '" + name + "'");
+    }
+    return slot;
+  }
+
+  /** Number of variable slots. */
+  public int slotCount() {
+    return names.length;
+  }
+
+  /** Name of the variable in {@code slot}. */
+  public String name(int slot) {
+    return names[slot];
+  }
+
+  /** Declared type of the variable in {@code slot}. */
+  public Token.Type type(int slot) {
+    return types[slot];
+  }
+
+  /** Deepest operand stack the program needs. */
+  public int maxStack() {
+    return maxStack;
+  }
+
+  /** Length of the code, in {@code int}s. */
+  public int codeLength() {
+    return code.length;
+  }
+
+  /** True once executions run generated JVM code instead of the interpreter. */
+  public boolean isCompiled() {
+    return compiled != null;
+  }
+
+  /** Creates a reusable environment for this program with every variable zero or null. */
+  public Environment newEnvironment() {
+    return new Environment(this);
+  }
+
+  /**
+   * Runs the program, reading and assigning the variables of {@code env}.
+   *
+   * @param env bindings created by {@link #newEnvironment()} of this program
+   * @throws ArithmeticException on an integer division by zero
+   */
+  public void execute(Environment env) {
+    if (env.program() != this) {
+      throw new IllegalArgumentException("Environment belongs to another program");
+    }
+    CompiledCode jit = compiled;
+    if (jit == null && jitThreshold >= 0 && executions++ >= jitThreshold) {
+      jit = tierUp();
+    }
+    if (jit != null) {
+      jit.execute(env.values, env.texts);
+    } else {
+      interpret(env);
+    }
+  }
+
+  /** Compiles the program to JVM code, once; returns null while or if that is not possible. */
+  private CompiledCode tierUp() {
+    if (compiling.compareAndSet(false, true)) {
+      try {
+        compiled = JvmCompiler.compile(this);
+      } catch (RuntimeException e) {
+        // E.g. a method over the 64 KB JVM limit; the interpreter handles any size
+        log.warn("Program stays interpreted: {}", e.toString());
+      }
+    }
+    return compiled;
+  }
+
+  private void interpret(Environment env) {
+    final int[] code = this.code;
+    final long[] constants = this.constants;
+    final long[] values = env.values;
+    final String[] texts = env.texts;
+    final long[] stack = env.stack;
+    int pc = 0;
+    int sp = 0;
+    String text = null;
+    while (true) {
+      switch (code[pc++]) {
+        case CONST -> stack[sp++] = constants[code[pc++]];
+        case LOAD -> stack[sp++] = values[code[pc++]];
+        case STORE -> values[code[pc++]] = stack[--sp];
+        case LADD -> {
+          sp--;
+          stack[sp - 1] += stack[sp];
+        }
+        case LSUB -> {
+          sp--;
+          stack[sp - 1] -= stack[sp];
+        }
+        case LMUL -> {
+          sp--;
+          stack[sp - 1] *= stack[sp];
+        }
+        case LDIV -> {
+          sp--;
+          stack[sp - 1] /= stack[sp];
+        }
+        case DADD -> {
+          sp--;
+          stack[sp - 1] = bits(real(stack[sp - 1]) + real(stack[sp]));
+        }
+        case DSUB -> {
+          sp--;
+          stack[sp - 1] = bits(real(stack[sp - 1]) - real(stack[sp]));
+        }
+        case DMUL -> {
+          sp--;
+          stack[sp - 1] = bits(real(stack[sp - 1]) * real(stack[sp]));
+        }
+        case DDIV -> {
+          sp--;
+          stack[sp - 1] = bits(real(stack[sp - 1]) / real(stack[sp]));
+        }
+        case LIFZ -> {
+          int target = code[pc++];
+          if (stack[--sp] == 0) {
+            pc = target;
+          }
+        }
+        case DIFZ -> {
+          int target = code[pc++];
+          if (real(stack[--sp]) == 0.0) {
+            pc = target;
+          }
+        }
+        case GOTO -> pc = code[pc];
+        case TCONST -> text = textConstants[code[pc++]];
+        case TLOAD -> text = texts[code[pc++]];
+        case TSTORE -> texts[code[pc++]] = text;
+        case RETURN -> {
+          return;
+        }
+        default -> throw new IllegalStateException("Bad opcode at " + (pc - 1));
+      }
+    }
+  }
+
+  int[] code() {
+    return code;
+  }
+
+  long constant(int index) {
+    return constants[index];
+  }
+
+  boolean isFloatConstant(int index) {
+    return floatConstants[index];
+  }
+
+  String textConstant(int index) {
+    return textConstants[index];
+  }
+
+  private static double real(long bits) {
+    return Double.longBitsToDouble(bits);
+  }
+
+  private static long bits(double value) {
+    return Double.doubleToRawLongBits(value);
+  }
+
+  /** Human-readable listing of the code, one instruction per line, for debugging and tests. */
+  public String disassemble() {
+    StringBuilder sb = new StringBuilder();
+    int pc = 0;
+    while (pc < code.length) {
+      int opcode = code[pc];
+      sb.append(pc).append(": ").append(Opcode.name(opcode));
+      if (Opcode.hasOperand(opcode)) {
+        int operand = code[pc + 1];
+        sb.append(' ').append(operand);
+        switch (opcode) {
+          case CONST -> sb.append(" (").append(describeConstant(operand)).append(')');
+          case LOAD, STORE, TLOAD, TSTORE -> sb.append(" (").append(names[operand]).append(')');
+          case TCONST -> sb.append(" (\"").append(textConstants[operand]).append("\")");
+          default -> {}
+        }
+        pc += 2;
+      } else {
+        pc++;
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  private String describeConstant(int index) {
+    long raw = constants[index];
+    return floatConstants[index] ? Double.toString(real(raw)) : Long.toString(raw);
+  }
+}
@@ -0,0 +1,66 @@
+package br.edu.fesa.Conditional_Command_Parser.cli;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Characters of an ASCII byte buffer, read in place.
+ *
+ * <p>Lets the lexer scan a memory-mapped file without decoding it into a char array first. Only
+ * lexemes the lexer asks for are copied out, by {@link #toString()} on a sub-sequence. The buffer
+ * must hold only bytes below 0x80 and must not change while the sequence is in use.
+ */
+final class AsciiCharSequence implements CharSequence {
+  private final ByteBuffer bytes;
+  private final int offset;
+  private final int length;
+
+  AsciiCharSequence(ByteBuffer bytes) {
+    this(bytes, bytes.position(), bytes.remaining());
+  }
+
+  private AsciiCharSequence(ByteBuffer bytes, int offset, int length) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /** Whether every remaining byte of {@code bytes} is ASCII. */
+  static boolean isAscii(ByteBuffer bytes) {
+    for (int i = bytes.position(); i < bytes.limit(); i++) {
+      if (bytes.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + length);
+    }
+    return (char) bytes.get(offset + index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException(
+          "Range [" + start + ", " + end + ") out of bounds for " + length);
+    }
+    return new AsciiCharSequence(bytes, offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    byte[] copy = new byte[length];
+    bytes.get(offset, copy);
+    return new String(copy, StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,255 @@
+package br.edu.fesa.Conditional_Command_Parser.cli;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.utils.AstArena;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TokenBuffer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Validates program files on disk in parallel and writes a machine-readable report.
+ *
+ * <p>Each file is lexed straight from its bytes: files of at least {@code mmapThreshold} bytes are
+ * memory-mapped with {@link FileChannel#map}, smaller ones are read into a buffer the worker
+ * reuses, since mapping costs a system call and a mapping that lives until the next garbage
+ * collection. ASCII files are scanned in place through {@link AsciiCharSequence}; anything else is
+ * decoded as UTF-8. Every worker thread keeps its own parser, analyzer and {@link AstArena}, so
+ * checking a file allocates little beyond its token buffer.
+ *
+ * <p>The report is NDJSON: one {@code {"path", "valid", "errors"}} line per file, in the order the
+ * directories were walked ({@code errors} is left out when there are none), then one {@code
+ * {"summary": {...}}} line with the totals and the throughput in files and megabytes per second.
+ * At most a few files per worker are in flight, so memory does not grow with the number of files.
+ */
+@Slf4j
+public final class BulkValidator implements AutoCloseable {
+
+  /** Default size from which files are memory-mapped rather than read. */
+  public static final long DEFAULT_MMAP_THRESHOLD = 64 * 1024;
+
+  /** Result line of one file. */
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  record FileResult(String path, boolean valid, List<String> errors, @JsonIgnore long bytes) {}
+
+  /** A file that has been scheduled but whose result is not written yet. */
+  private record Pending(Path path, Future<FileResult> future) {}
+
+  private final Lexer lexer = new Lexer();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ExecutorService executor;
+  private final int window;
+  private final SymbolEnvironment environment;
+  private final long mmapThreshold;
+  private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+  /**
+   * @param workers number of threads checking files
+   * @param environment variables every file is analyzed against
+   * @param mmapThreshold size in bytes from which files are memory-mapped; 0 maps every file
+   * @throws IllegalArgumentException if {@code workers} is not positive or the threshold negative
+   */
+  public BulkValidator(int workers, SymbolEnvironment environment, long mmapThreshold) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("workers must be positive: " + workers);
+    }
+    if (mmapThreshold < 0) {
+      throw new IllegalArgumentException("mmapThreshold must not be negative: " + mmapThreshold);
+    }
+    this.executor = Executors.newFixedThreadPool(workers);
+    this.window = workers * 4;
+    this.environment = environment;
+    this.mmapThreshold = mmapThreshold;
+  }
+
+  /**
+   * Checks every regular file under {@code roots} whose name matches {@code glob}.
+   *
+   * @param roots files and directories to check; directories are walked recursively
+   * @param glob file-name pattern such as {@code *.txt}, or null for every file
+   * @param report receives one NDJSON line per file and the summary line
+   * @return the totals also written as the last report line
+   * @throws IOException if a root cannot be walked or the report cannot be written
+   */
+  public ValidationSummary validate(List<Path> roots, String glob, Writer report)
+      throws IOException {
+    long start = System.nanoTime();
+    PathMatcher matcher =
+        glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    Deque<Pending> inFlight = new ArrayDeque<>();
+    long[] counts = new long[3]; // files, invalid, bytes
+    try {
+      for (Path root : roots) {
+        try (Stream<Path> paths = Files.walk(root)) {
+          Iterator<Path> files = paths.filter(Files::isRegularFile).iterator();
+          while (files.hasNext()) {
+            Path file = files.next();
+            if (matcher != null && !matcher.matches(file.getFileName())) {
+              continue;
+            }
+            inFlight.add(new Pending(file, executor.submit(() -> check(file))));
+            if (inFlight.size() >= window) {
+              writeNext(inFlight, report, counts);
+            }
+          }
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        writeNext(inFlight, report, counts);
+      }
+    } finally {
+      // Only has an effect when walking, writing or waiting failed part-way
+      inFlight.forEach(p -> p.future().cancel(true));
+    }
+    ValidationSummary summary =
+        ValidationSummary.builder()
+            .files(counts[0])
+            .valid(counts[0] - counts[1])
+            .invalid(counts[1])
+            .bytes(counts[2])
+            .elapsedNanos(System.nanoTime() - start)
+            .build();
+    report.write(objectMapper.writeValueAsString(Map.of("summary", summary)));
+    report.write('\n');
+    report.flush();
+    return summary;
+  }
+
+  private void writeNext(Deque<Pending> inFlight, Writer report, long[] counts)
+      throws IOException {
+    Pending pending = inFlight.poll();
+    FileResult result = await(pending);
+    counts[0]++;
+    counts[1] += result.valid() ? 0 : 1;
+    counts[2] += result.bytes();
+    report.write(objectMapper.writeValueAsString(result));
+    report.write('\n');
+  }
+
+  private static FileResult await(Pending pending) {
+    try {
+      return pending.future().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for " + pending.path());
+    } catch (ExecutionException e) {
+      return failed(pending.path(), e.getCause());
+    }
+  }
+
+  /** Reads and checks one file; never throws. */
+  FileResult check(Path file) {
+    long size = 0;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        return invalid(file, size, "File larger than " + Integer.MAX_VALUE + " bytes");
+      }
+      Worker worker = workers.get();
+      ByteBuffer bytes =
+          size >= mmapThreshold
+              ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+              : worker.read(channel, (int) size);
+      List<String> errors = worker.validate(bytes);
+      return new FileResult(file.toString(), errors.isEmpty(), errors, size);
+    } catch (CharacterCodingException e) {
+      return invalid(file, size, "Encoding error: file is not valid UTF-8");
+    } catch (IOException e) {
+      return invalid(file, size, "I/O error: " + e.getMessage());
+    } catch (RuntimeException e) {
+      return failed(file, e);
+    }
+  }
+
+  private static FileResult failed(Path file, Throwable cause) {
+    log.error("Checking {} failed", file, cause);
+    return invalid(file, 0, "Unexpected error: " + cause.getMessage());
+  }
+
+  private static FileResult invalid(Path file, long bytes, String message) {
+    return new FileResult(file.toString(), false, List.of(message), bytes);
+  }
+
+  /** Stops the worker threads. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /** Per-thread pipeline state, reused from one file to the next. */
+  private final class Worker {
+    private final RecursiveDescentParser parser = new RecursiveDescentParser();
+    private final SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    private final AstArena arena = new AstArena();
+    private final CharsetDecoder decoder =
+        StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+    /** Reads the whole file into the reused buffer. */
+    private ByteBuffer read(FileChannel channel, int size) throws IOException {
+      if (buffer.capacity() < size) {
+        buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+      }
+      buffer.clear().limit(size);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // Keep reading until the file is in or it ends early
+      }
+      return buffer.flip();
+    }
+
+    /** Lexes, parses and analyzes the program in {@code bytes}, returning all its errors. */
+    private List<String> validate(ByteBuffer bytes) throws CharacterCodingException {
+      CharSequence text =
+          AsciiCharSequence.isAscii(bytes) ? new AsciiCharSequence(bytes) : decode(bytes);
+      try {
+        TokenBuffer tokens = lexer.tokenizeToBuffer(text, environment.newInterner());
+        int root = parser.parse(tokens, arena);
+        List<String> errors = new ArrayList<>(parser.getErrors());
+        analyzer.analyze(arena, root, environment);
+        errors.addAll(analyzer.getErrors());
+        return errors;
+      } catch (LexicalException e) {
+        // As in the web pipeline, a lexical error is the only one reported
+        return List.of("Lexical error: " + e.getMessage());
+      }
+    }
+
+    private CharBuffer decode(ByteBuffer bytes) throws CharacterCodingException {
+      return decoder.reset().decode(bytes.duplicate());
+    }
+  }
+}
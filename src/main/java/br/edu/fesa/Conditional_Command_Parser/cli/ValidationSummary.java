@@ -0,0 +1,34 @@
+package br.edu.fesa.Conditional_Command_Parser.cli;
+
+import lombok.Builder;
+import lombok.Value;
+
+/** Totals of one {@link BulkValidator} run, including its throughput. */
+@Value
+@Builder
+public class ValidationSummary {
+  /** Files checked. */
+  long files;
+
+  /** Files without any lexical, syntactic or semantic error. */
+  long valid;
+
+  /** Files with at least one error, including those that could not be read. */
+  long invalid;
+
+  /** Total size of the files checked. */
+  long bytes;
+
+  /** Wall-clock time of the run. */
+  long elapsedNanos;
+
+  /** Files checked per second of wall-clock time. */
+  public double getFilesPerSecond() {
+    return elapsedNanos == 0 ? 0 : files * 1e9 / elapsedNanos;
+  }
+
+  /** Megabytes (2^20 bytes) checked per second of wall-clock time. */
+  public double getMegabytesPerSecond() {
+    return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos / (1 << 20);
+  }
+}
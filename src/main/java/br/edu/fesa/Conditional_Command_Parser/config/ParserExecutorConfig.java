@@ -0,0 +1,52 @@
+package br.edu.fesa.Conditional_Command_Parser.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Executor shared by every service that parses many inputs in parallel.
+ *
+ * <p>Parsing is CPU-bound, so by default the pool is bounded by {@code parser.batch.parallelism}
+ * (one worker per available processor unless set) and never grows with the number of queued
+ * inputs.
+ *
+ * <p>When virtual threads are enabled ({@code spring.threads.virtual.enabled=true} on Java 21 or
+ * later, e.g. with the {@code virtual} profile), every input runs on its own virtual thread
+ * instead. The JDK schedules those on one carrier thread per processor, so parallelism stays
+ * bounded, and a batch no longer competes with request threads for a separate pool.
+ */
+@Configuration
+public class ParserExecutorConfig {
+
+  /**
+   * @param parallelism number of workers; 0 or less means one per available processor
+   * @return work-stealing pool the batch inputs are parsed on
+   */
+  @Bean(destroyMethod = "shutdown")
+  @ConditionalOnThreading(Threading.PLATFORM)
+  public ExecutorService parseExecutor(@Value("${parser.batch.parallelism:0}") int parallelism) {
+    return new ForkJoinPool(
+        parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @return executor starting one virtual thread per batch input
+   */
+  @Bean(name = "parseExecutor", destroyMethod = "shutdown")
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public ExecutorService virtualParseExecutor() {
+    try {
+      // Looked up reflectively so that the default Java 17 build still compiles
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+    }
+  }
+}
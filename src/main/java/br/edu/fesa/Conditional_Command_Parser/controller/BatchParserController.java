@@ -0,0 +1,104 @@
+package br.edu.fesa.Conditional_Command_Parser.controller;
+
+import br.edu.fesa.Conditional_Command_Parser.model.ParseItemResult;
+import br.edu.fesa.Conditional_Command_Parser.service.BatchParserService;
+import br.edu.fesa.Conditional_Command_Parser.service.BatchParserService.RecordFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * JSON API for validating many programs per request.
+ *
+ * <p>POST "/parse/batch" takes a JSON array of source strings and returns one result per source,
+ * in the same order.
+ *
+ * <p>POST "/parse/stream" takes one program per line, either as raw text ({@code text/plain}) or
+ * as NDJSON ({@code application/x-ndjson}), and streams one JSON result per line back while the
+ * input is still being read.
+ */
+@RestController
+public class BatchParserController {
+
+  private static final String NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+  private final BatchParserService batchParserService;
+
+  @Autowired
+  public BatchParserController(BatchParserService batchParserService) {
+    this.batchParserService = batchParserService;
+  }
+
+  /**
+   * Parse a batch of programs in parallel.
+   *
+   * @param inputs source programs
+   * @return per-program results, in input order
+   */
+  @PostMapping(
+      value = "/parse/batch",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public List<ParseItemResult> parseBatch(@RequestBody List<String> inputs) {
+    try {
+      return batchParserService.parseAll(inputs);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+    }
+  }
+
+  /**
+   * Parse an unbounded sequence of programs, one per line, streaming the results back as NDJSON.
+   *
+   * <p>The request body is read incrementally and never held in memory as a whole; see {@link
+   * BatchParserService#parseStream}.
+   *
+   * @param contentType {@code application/x-ndjson} for JSON records, otherwise raw lines
+   * @param request source of the records
+   * @param response destination of the results
+   * @throws IOException if reading the request or writing the response fails
+   */
+  @PostMapping(
+      value = "/parse/stream",
+      consumes = {NDJSON, MediaType.TEXT_PLAIN_VALUE},
+      produces = NDJSON)
+  public void parseStream(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    RecordFormat format =
+        MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+            ? RecordFormat.NDJSON
+            : RecordFormat.LINE;
+    response.setContentType(NDJSON);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    try (Reader in =
+            new InputStreamReader(
+                request.getInputStream(),
+                contentType.getCharset() != null
+                    ? contentType.getCharset()
+                    : StandardCharsets.UTF_8);
+        Writer out =
+            new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8))) {
+      batchParserService.parseStream(in, out, format);
+    }
+  }
+}
@@ -1,29 +1,64 @@
 package br.edu.fesa.Conditional_Command_Parser.controller;
 
+import br.edu.fesa.Conditional_Command_Parser.model.CacheStatistics;
+import br.edu.fesa.Conditional_Command_Parser.model.DocumentResult;
 import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.TextEdit;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.model.ValidationResult;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.service.DocumentService;
 import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
+import br.edu.fesa.Conditional_Command_Parser.service.SymbolEnvironmentRegistry;
 import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Spring MVC controller handling the parsing web interface.
  *
- * <p>GET "/" renders the input page; POST "/parse" processes the code and returns results.
+ * <p>GET "/" renders the input page; POST "/parse" processes the code and returns results; POST
+ * "/parse/tree" returns only the ASCII tree as plain text; GET "/parse/grammar" returns the
+ * FIRST/FOLLOW sets and GET "/parse/cache" the result cache counters as JSON. POST
+ * "/parse/validate" only checks the input against the grammar and answers valid or not as JSON.
+ * "/parse/documents" opens server-side documents that are then re-analyzed incrementally, edit by
+ * edit. "/parse/environments/{name}" registers declared variables that "/parse", "/parse/tree" and
+ * "/parse/documents" analyze against when given {@code environment=name}.
  */
 @Controller
 public class ParserController {
 
   private final ParserService parserService;
+  private final DocumentService documentService;
+  private final SymbolEnvironmentRegistry environments;
 
   @Autowired
-  public ParserController(ParserService parserService) {
+  public ParserController(
+      ParserService parserService,
+      DocumentService documentService,
+      SymbolEnvironmentRegistry environments) {
     this.parserService = parserService;
+    this.documentService = documentService;
+    this.environments = environments;
   }
 
   /**
@@ -40,21 +75,32 @@ public class ParserController {
    * Handle code submission, invoke parsing pipeline, and populate the view model.
    *
    * @param input user’s code to parse
+   * @param environment name of a registered environment to analyze in, or null for none; an unknown
+   *     name is answered with 404
+   * @param grammar whether to show the FIRST/FOLLOW sets below the results
    * @param model Spring MVC model for passing attributes to the template
    * @return view name "index"
    */
   @PostMapping("/parse")
-  public String parseInput(@RequestParam String input, Model model) {
+  public String parseInput(
+      @RequestParam String input,
+      @RequestParam(required = false) String environment,
+      @RequestParam(defaultValue = "true") boolean grammar,
+      Model model) {
+    SymbolEnvironment declared = environment(environment);
     try {
       // Run the full pipeline
-      ParserResponse response = parserService.parse(input);
+      ParserResponse response = parserService.parse(input, declared);
       // Render ASCII tree
       String asciiTree = TreePrinter.generateASCIITree(response.getAst());
 
       // Add attributes for Thymeleaf or JSP
       model.addAttribute("ast", asciiTree);
-      model.addAttribute("firstSets", response.getFirstSets());
-      model.addAttribute("followSets", response.getFollowSets());
+      if (grammar && response.getGrammar() != null) {
+        // Pre-rendered once at startup and inserted verbatim
+        model.addAttribute("firstSets", response.getGrammar().getFirstSetsHtml());
+        model.addAttribute("followSets", response.getGrammar().getFollowSetsHtml());
+      }
       model.addAttribute("errors", response.getErrors());
     } catch (Exception e) {
       // Unexpected failures
@@ -62,4 +108,166 @@ public class ParserController {
     }
     return "index";
   }
+
+  /**
+   * Check code against the lexical and syntactic rules without building its tree.
+   *
+   * @param input user’s code to check
+   * @param failFast whether to stop at the first error
+   * @return whether the code is valid, with its errors
+   */
+  @PostMapping(value = "/parse/validate", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  public ValidationResult validate(
+      @RequestParam String input, @RequestParam(defaultValue = "false") boolean failFast) {
+    return parserService.validate(input, failFast);
+  }
+
+  /**
+   * Write the grammar's FIRST/FOLLOW sets as JSON, serialized once at startup. Callers that need
+   * the sets fetch them here once instead of with every parse.
+   *
+   * @param response servlet response the JSON is written to
+   * @throws IOException if writing the response fails
+   */
+  @GetMapping(value = "/parse/grammar", produces = MediaType.APPLICATION_JSON_VALUE)
+  public void grammar(HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    parserService.grammarTables().writeJson(response.getOutputStream());
+  }
+
+  /**
+   * Report hit, miss and eviction counters of the parse result cache.
+   *
+   * @return current cache statistics
+   */
+  @GetMapping(value = "/parse/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  public CacheStatistics cacheStatistics() {
+    return parserService.cacheStatistics();
+  }
+
+  /**
+   * Register, or replace, a named environment of declared variables.
+   *
+   * @param name name parse requests refer to it by
+   * @param variables declared type (NUMBER, FLOAT, STRING or CHAR) by variable name
+   */
+  @PutMapping(value = "/parse/environments/{name}", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void registerEnvironment(
+      @PathVariable String name, @RequestBody Map<String, Token.Type> variables) {
+    try {
+      environments.register(name, variables);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Remove a named environment.
+   *
+   * @param name name it was registered under
+   */
+  @DeleteMapping("/parse/environments/{name}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void removeEnvironment(@PathVariable String name) {
+    environments.remove(name);
+  }
+
+  /**
+   * Open a document for incremental editing and return the analysis of its full text.
+   *
+   * @param input initial text of the document
+   * @param environment name of a registered environment every version is analyzed in, or null for
+   *     none; an unknown name is answered with 404
+   * @param tree whether to include the rendered tree
+   * @return result carrying the document id to send edits to
+   */
+  @PostMapping(value = "/parse/documents", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  public DocumentResult openDocument(
+      @RequestParam String input,
+      @RequestParam(required = false) String environment,
+      @RequestParam(defaultValue = "true") boolean tree) {
+    return documentService.open(input, environment(environment), tree);
+  }
+
+  /**
+   * Apply edits to an open document, re-analyzing only what they change.
+   *
+   * @param documentId id returned when the document was opened
+   * @param edits replacements applied in order, each relative to the text left by the previous one
+   * @param tree whether to include the rendered tree, whose cost grows with the whole document
+   * @return result for the new version
+   */
+  @PostMapping(
+      value = "/parse/documents/{documentId}/edits",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  public DocumentResult editDocument(
+      @PathVariable String documentId,
+      @RequestBody List<TextEdit> edits,
+      @RequestParam(defaultValue = "false") boolean tree) {
+    try {
+      return documentService.edit(documentId, edits, tree);
+    } catch (NoSuchElementException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * Close a document and release its state.
+   *
+   * @param documentId id returned when the document was opened
+   */
+  @DeleteMapping("/parse/documents/{documentId}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void closeDocument(@PathVariable String documentId) {
+    documentService.close(documentId);
+  }
+
+  /**
+   * Handle code submission and stream the ASCII tree as plain text, followed by one line per error.
+   *
+   * <p>The tree is written node by node into the response, so large trees are never held in
+   * memory as a single string.
+   *
+   * @param input user’s code to parse
+   * @param environment name of a registered environment to analyze in, or null for none
+   * @param response servlet response the tree is written to
+   * @throws IOException if writing the response fails
+   */
+  @PostMapping(value = "/parse/tree", produces = MediaType.TEXT_PLAIN_VALUE)
+  public void streamTree(
+      @RequestParam String input,
+      @RequestParam(required = false) String environment,
+      HttpServletResponse response)
+      throws IOException {
+    ParserResponse result = parserService.parse(input, environment(environment));
+
+    response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    Writer writer = response.getWriter();
+    TreePrinter.writeASCIITree(result.getAst(), writer);
+    for (String error : result.getErrors()) {
+      writer.append(error).append('\n');
+    }
+  }
+
+  /** Environment registered under {@code name}, or the empty one if no name is given. */
+  private SymbolEnvironment environment(String name) {
+    if (name == null || name.isEmpty()) {
+      return SymbolEnvironment.EMPTY;
+    }
+    try {
+      return environments.get(name);
+    } catch (NoSuchElementException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
 }
@@ -1,14 +1,22 @@
 package br.edu.fesa.Conditional_Command_Parser.exception;
 
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
 import java.io.Serial;
 
 /**
  * Thrown when a lexical error is encountered, for example an unrecognized character or an
  * unterminated string/char literal.
+ *
+ * <p>The lexer throws it with a {@link Diagnostic} and without a stack trace: the error is a fact
+ * about the input, and speculative scans in {@link
+ * br.edu.fesa.Conditional_Command_Parser.utils.Lexer#tokenizeInParallel} throw and discard many of
+ * them. The message is rendered from the diagnostic when first asked for.
  */
 public class LexicalException extends Exception {
   @Serial private static final long serialVersionUID = 1L;
 
+  private final transient Diagnostic diagnostic;
+
   /**
    * Constructs a new LexicalException with the specified detail message.
    *
@@ -16,5 +24,28 @@ public class LexicalException extends Exception {
    */
   public LexicalException(String message) {
     super(message);
+    this.diagnostic = null;
+  }
+
+  /**
+   * Constructs a new LexicalException for {@code diagnostic}, without a stack trace.
+   *
+   * @param diagnostic the lexical error, with its position
+   */
+  public LexicalException(Diagnostic diagnostic) {
+    super(null, null, false, false);
+    this.diagnostic = diagnostic;
+  }
+
+  /** The error as a diagnostic; one without a position if only a message was given. */
+  public Diagnostic getDiagnostic() {
+    return diagnostic != null
+        ? diagnostic
+        : new Diagnostic(Diagnostic.Code.LEXICAL_ERROR, -1, 0, 0, super.getMessage());
+  }
+
+  @Override
+  public String getMessage() {
+    return diagnostic != null ? diagnostic.getDetail() : super.getMessage();
   }
 }
@@ -1,14 +1,21 @@
 package br.edu.fesa.Conditional_Command_Parser.exception;
 
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
 import java.io.Serial;
 
 /**
  * Thrown when a syntactic error is detected during parsing, occurs if the parser encounters an
  * unexpected token or a structure mismatch.
+ *
+ * <p>The parser throws it with a {@link Diagnostic} to unwind to its recovery point, where only
+ * the diagnostic is kept, so it carries no stack trace and its message is rendered only if asked
+ * for.
  */
 public class SyntaxException extends Exception {
   @Serial private static final long serialVersionUID = 1L;
 
+  private final transient Diagnostic diagnostic;
+
   /**
    * Constructs a new SyntaxException with the specified detail message.
    *
@@ -16,5 +23,26 @@ public class SyntaxException extends Exception {
    */
   public SyntaxException(String message) {
     super(message);
+    this.diagnostic = null;
+  }
+
+  /**
+   * Constructs a new SyntaxException for {@code diagnostic}, without a stack trace.
+   *
+   * @param diagnostic the syntax error, with its position
+   */
+  public SyntaxException(Diagnostic diagnostic) {
+    super(null, null, false, false);
+    this.diagnostic = diagnostic;
+  }
+
+  /** The error as a diagnostic, or null if only a message was given. */
+  public Diagnostic getDiagnostic() {
+    return diagnostic;
+  }
+
+  @Override
+  public String getMessage() {
+    return diagnostic != null ? diagnostic.getMessage() : super.getMessage();
   }
 }
@@ -0,0 +1,118 @@
+package br.edu.fesa.Conditional_Command_Parser.intern;
+
+import java.util.Objects;
+
+/**
+ * Immutable, hash-consed AST node created by a {@link NodeTable}.
+ *
+ * <p>A table holds at most one node for each distinct subtree, so structurally equal subtrees are
+ * the same object and may be shared by many programs and threads. For that reason interned nodes
+ * carry no source position and no semantic type: types live in the {@link TypeTable} of each
+ * {@link InternedTree}.
+ *
+ * <p>Children are themselves canonical, so equality compares the kind, the value and the children
+ * by identity and costs the same for every subtree size. Nodes from different tables must not be
+ * mixed.
+ */
+public final class InternedNode {
+
+  /** Node kinds, one per {@code SyntaxNode} subclass. */
+  public enum Kind {
+    /** Children: condition, then branch, else branch. */
+    IF,
+    /** Value: assigned identifier. Child: expression. */
+    ASSIGNMENT,
+    /** Value: operator. Children: left and right operand. */
+    BINARY,
+    /** Value: name. */
+    IDENTIFIER,
+    /** Value: literal text. */
+    NUMBER,
+    /** Value: literal text. */
+    FLOAT,
+    /** Value: literal text without quotes. */
+    STRING,
+    /** Value: literal text without quotes. */
+    CHAR
+  }
+
+  private final Kind kind;
+  private final String value;
+  private final InternedNode first;
+  private final InternedNode second;
+  private final InternedNode third;
+  private final int hash;
+
+  InternedNode(
+      Kind kind, String value, InternedNode first, InternedNode second, InternedNode third) {
+    this.kind = kind;
+    this.value = value;
+    this.first = first;
+    this.second = second;
+    this.third = third;
+    int h = kind.hashCode();
+    h = 31 * h + Objects.hashCode(value);
+    h = 31 * h + System.identityHashCode(first);
+    h = 31 * h + System.identityHashCode(second);
+    h = 31 * h + System.identityHashCode(third);
+    this.hash = h;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /** Operator, identifier or literal text; null for {@link Kind#IF}. */
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Child {@code index} in source order, as listed for each {@link Kind}.
+   *
+   * @return the child, or null if it is missing from a partial parse or the kind has fewer
+   *     children
+   */
+  public InternedNode getChild(int index) {
+    return switch (index) {
+      case 0 -> first;
+      case 1 -> second;
+      case 2 -> third;
+      default -> null;
+    };
+  }
+
+  /** Number of child slots of this kind, including missing children. */
+  public int getChildCount() {
+    return switch (kind) {
+      case IF -> 3;
+      case BINARY -> 2;
+      case ASSIGNMENT -> 1;
+      default -> 0;
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof InternedNode other
+        && hash == other.hash
+        && kind == other.kind
+        && Objects.equals(value, other.value)
+        && first == other.first
+        && second == other.second
+        && third == other.third;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return value == null ? kind.name() : kind + "(" + value + ")";
+  }
+}
@@ -0,0 +1,108 @@
+package br.edu.fesa.Conditional_Command_Parser.intern;
+
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * One program in interned form: a root node shared through a {@link NodeTable} and the types of
+ * its nodes. Immutable and safe to share between threads and caches.
+ */
+public final class InternedTree {
+
+  private final InternedNode root;
+  private final TypeTable types;
+
+  InternedTree(InternedNode root, TypeTable types) {
+    this.root = root;
+    this.types = types;
+  }
+
+  /** Root node; null for an empty parse. */
+  public InternedNode getRoot() {
+    return root;
+  }
+
+  public TypeTable getTypes() {
+    return types;
+  }
+
+  /**
+   * Builds a fresh, unshared {@link SyntaxNode} tree with the types of this tree, for passes that
+   * work on mutable nodes such as {@code BytecodeCompiler}. Interned nodes have no positions, so
+   * every node is at line 0, column 0.
+   */
+  public SyntaxNode toSyntaxNode() {
+    if (root == null) {
+      return null;
+    }
+    // Post-order with an explicit stack; converted children wait on the results stack
+    Deque<Object> stack = new ArrayDeque<>();
+    Deque<SyntaxNode> results = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Object next = stack.pop();
+      if (next instanceof Finish finish) {
+        results.push(build(finish.node(), results));
+        continue;
+      }
+      InternedNode node = (InternedNode) next;
+      stack.push(new Finish(node));
+      for (int i = node.getChildCount() - 1; i >= 0; i--) {
+        InternedNode child = node.getChild(i);
+        stack.push(child == null ? MISSING : child);
+      }
+    }
+    return results.pop();
+  }
+
+  /** Marks that the children of {@code node} are converted and the node itself is next. */
+  private record Finish(InternedNode node) {}
+
+  /** Stands for a missing child, which {@link ArrayDeque} cannot hold. */
+  private static final InternedNode MISSING =
+      new InternedNode(InternedNode.Kind.IDENTIFIER, null, null, null, null);
+
+  private SyntaxNode build(InternedNode node, Deque<SyntaxNode> results) {
+    if (node == MISSING) {
+      return NULL_NODE;
+    }
+    SyntaxNode built =
+        switch (node.getKind()) {
+          case IF -> {
+            SyntaxNode elseBranch = pop(results);
+            SyntaxNode thenBranch = pop(results);
+            yield IfStatement.builder()
+                .condition(pop(results))
+                .thenBranch(thenBranch)
+                .elseBranch(elseBranch)
+                .build();
+          }
+          case ASSIGNMENT ->
+              Assignment.builder().identifier(node.getValue()).expression(pop(results)).build();
+          case BINARY -> {
+            SyntaxNode right = pop(results);
+            yield BinOp.builder()
+                .operator(node.getValue())
+                .left(pop(results))
+                .right(right)
+                .build();
+          }
+          case IDENTIFIER -> Identifier.builder().name(node.getValue()).build();
+          case NUMBER -> NumberLiteral.builder().value(node.getValue()).build();
+          case FLOAT -> FloatLiteral.builder().value(node.getValue()).build();
+          case STRING -> StringLiteral.builder().value(node.getValue()).build();
+          case CHAR -> CharLiteral.builder().value(node.getValue()).build();
+        };
+    built.setType(types.get(node));
+    return built;
+  }
+
+  private static SyntaxNode pop(Deque<SyntaxNode> results) {
+    SyntaxNode node = results.pop();
+    return node == NULL_NODE ? null : node;
+  }
+
+  /** Converted form of {@link #MISSING} on the results stack. */
+  private static final SyntaxNode NULL_NODE = new SyntaxNode() {};
+}
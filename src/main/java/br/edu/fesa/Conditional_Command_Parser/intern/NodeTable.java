@@ -0,0 +1,131 @@
+package br.edu.fesa.Conditional_Command_Parser.intern;
+
+import br.edu.fesa.Conditional_Command_Parser.intern.InternedNode.Kind;
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hash-consing table that turns {@link SyntaxNode} trees into shared, immutable {@link
+ * InternedNode}s.
+ *
+ * <p>Every literal, identifier and composite subtree is stored once per table: interning
+ * {@code if (a + 1) x = a + 1 else y = a + 1} yields a single {@code a + 1} node, and so does
+ * interning it again in another program. Retained heap then grows with the number of distinct
+ * subtrees in a corpus instead of with its total size. Types move to a per-program {@link
+ * TypeTable} and source positions are dropped, so analyze (and report errors) before interning.
+ *
+ * <p>The table is thread-safe and lock-free for lookups; concurrent callers interning equal
+ * subtrees get the same node. Nodes are held until the table itself is unreachable, so scope a
+ * table to a corpus, a batch or a cache rather than to the application.
+ */
+public final class NodeTable {
+
+  private final ConcurrentMap<InternedNode, InternedNode> nodes = new ConcurrentHashMap<>();
+
+  /**
+   * Interns {@code root} and collects its types. The input tree is not modified.
+   *
+   * @param root AST, usually after semantic analysis; may be null
+   * @return interned tree whose nodes are shared with earlier calls on this table
+   * @throws IllegalArgumentException if two occurrences of one subtree have different types
+   */
+  public InternedTree intern(SyntaxNode root) {
+    TypeTable.Builder types = new TypeTable.Builder();
+    if (root == null) {
+      return new InternedTree(null, types.build());
+    }
+    // Post-order with an explicit stack: children are interned first and wait on the results
+    // stack, a frame in stage 1 combines them into its own node
+    Deque<Frame> stack = new ArrayDeque<>();
+    Deque<InternedNode> results = new ArrayDeque<>();
+    stack.push(new Frame(root, 0));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.pop();
+      SyntaxNode node = frame.node();
+      if (node == null) {
+        results.push(MISSING);
+      } else if (frame.stage() == 0 && hasChildren(node)) {
+        stack.push(new Frame(node, 1));
+        pushChildren(node, stack);
+      } else {
+        InternedNode interned = combine(node, results);
+        types.put(interned, node.getType());
+        results.push(interned);
+      }
+    }
+    return new InternedTree(results.pop(), types.build());
+  }
+
+  /** Number of distinct nodes held. */
+  public int size() {
+    return nodes.size();
+  }
+
+  /** A node to intern and whether its children are done. */
+  private record Frame(SyntaxNode node, int stage) {}
+
+  /** Placeholder for a missing child on the results stack, which cannot hold null. */
+  private static final InternedNode MISSING = new InternedNode(Kind.IF, null, null, null, null);
+
+  private static boolean hasChildren(SyntaxNode node) {
+    return node instanceof IfStatement || node instanceof Assignment || node instanceof BinOp;
+  }
+
+  /** Pushes the children in reverse, so they are interned in source order. */
+  private static void pushChildren(SyntaxNode node, Deque<Frame> stack) {
+    if (node instanceof IfStatement ifs) {
+      stack.push(new Frame(ifs.getElseBranch(), 0));
+      stack.push(new Frame(ifs.getThenBranch(), 0));
+      stack.push(new Frame(ifs.getCondition(), 0));
+    } else if (node instanceof Assignment asg) {
+      stack.push(new Frame(asg.getExpression(), 0));
+    } else if (node instanceof BinOp bin) {
+      stack.push(new Frame(bin.getRight(), 0));
+      stack.push(new Frame(bin.getLeft(), 0));
+    }
+  }
+
+  private InternedNode combine(SyntaxNode node, Deque<InternedNode> results) {
+    if (node instanceof IfStatement) {
+      InternedNode elseBranch = pop(results);
+      InternedNode thenBranch = pop(results);
+      return canonical(Kind.IF, null, pop(results), thenBranch, elseBranch);
+    } else if (node instanceof Assignment asg) {
+      return canonical(Kind.ASSIGNMENT, asg.getIdentifier(), pop(results), null, null);
+    } else if (node instanceof BinOp bin) {
+      InternedNode right = pop(results);
+      return canonical(Kind.BINARY, bin.getOperator(), pop(results), right, null);
+    } else if (node instanceof Identifier id) {
+      return canonical(Kind.IDENTIFIER, id.getName(), null, null, null);
+    } else if (node instanceof NumberLiteral n) {
+      return canonical(Kind.NUMBER, n.getValue(), null, null, null);
+    } else if (node instanceof FloatLiteral f) {
+      return canonical(Kind.FLOAT, f.getValue(), null, null, null);
+    } else if (node instanceof StringLiteral s) {
+      return canonical(Kind.STRING, s.getValue(), null, null, null);
+    } else if (node instanceof CharLiteral c) {
+      return canonical(Kind.CHAR, c.getValue(), null, null, null);
+    }
+    throw new IllegalArgumentException("Cannot intern " + node.getClass().getSimpleName());
+  }
+
+  private static InternedNode pop(Deque<InternedNode> results) {
+    InternedNode node = results.pop();
+    return node == MISSING ? null : node;
+  }
+
+  /** The table's node equal to the given one, added first if there is none. */
+  private InternedNode canonical(
+      Kind kind, String value, InternedNode first, InternedNode second, InternedNode third) {
+    InternedNode candidate = new InternedNode(kind, value, first, second, third);
+    InternedNode existing = nodes.get(candidate);
+    if (existing != null) {
+      return existing;
+    }
+    existing = nodes.putIfAbsent(candidate, candidate);
+    return existing != null ? existing : candidate;
+  }
+}
@@ -0,0 +1,120 @@
+package br.edu.fesa.Conditional_Command_Parser.intern;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Semantic types of the nodes of one {@link InternedTree}, kept beside the shared nodes instead of
+ * inside them.
+ *
+ * <p>One entry per distinct node is enough: the language has no declarations, so every
+ * occurrence of a subtree in a program resolves its identifiers against the same global symbols
+ * and gets the same type. Literal types follow from their kind and are not stored. The table is
+ * immutable once built.
+ *
+ * <p>A corpus keeps one table per program, so entries are stored in two flat arrays probed by
+ * identity hash, with type ordinals as bytes, rather than in a map with an entry per node.
+ */
+public final class TypeTable {
+
+  private static final Token.Type[] TYPES = Token.Type.values();
+
+  private static final TypeTable EMPTY = new TypeTable(new InternedNode[1], new byte[1], 0);
+
+  private final InternedNode[] nodes;
+
+  /** Ordinal of the type of the node in the same slot of {@link #nodes}. */
+  private final byte[] types;
+
+  private final int size;
+
+  private TypeTable(InternedNode[] nodes, byte[] types, int size) {
+    this.nodes = nodes;
+    this.types = types;
+    this.size = size;
+  }
+
+  /**
+   * Type of {@code node} in this tree.
+   *
+   * @return the type the analyzer assigned, or null if the tree was not analyzed
+   */
+  public Token.Type get(InternedNode node) {
+    return switch (node.getKind()) {
+      case NUMBER -> Token.Type.NUMBER;
+      case FLOAT -> Token.Type.FLOAT;
+      case STRING -> Token.Type.STRING;
+      case CHAR -> Token.Type.CHAR;
+      default -> lookup(node);
+    };
+  }
+
+  /** Number of stored entries. */
+  public int size() {
+    return size;
+  }
+
+  private Token.Type lookup(InternedNode node) {
+    int mask = nodes.length - 1;
+    for (int i = slot(node, mask); nodes[i] != null; i = (i + 1) & mask) {
+      if (nodes[i] == node) {
+        return TYPES[types[i]];
+      }
+    }
+    return null;
+  }
+
+  private static int slot(InternedNode node, int mask) {
+    int h = System.identityHashCode(node);
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /** Collects the types of one tree while it is interned. */
+  static final class Builder {
+    private final Map<InternedNode, Token.Type> types = new IdentityHashMap<>();
+
+    /**
+     * Records the type of one occurrence of {@code node}.
+     *
+     * @throws IllegalArgumentException if another occurrence of the node has a different type
+     */
+    void put(InternedNode node, Token.Type type) {
+      if (type == null || isLiteral(node.getKind())) {
+        return;
+      }
+      Token.Type previous = types.putIfAbsent(node, type);
+      if (previous != null && previous != type) {
+        throw new IllegalArgumentException(
+            "Subtree " + node + " has types " + previous + " and " + type + " in one program");
+      }
+    }
+
+    private static boolean isLiteral(InternedNode.Kind kind) {
+      return kind != InternedNode.Kind.IF
+          && kind != InternedNode.Kind.ASSIGNMENT
+          && kind != InternedNode.Kind.BINARY
+          && kind != InternedNode.Kind.IDENTIFIER;
+    }
+
+    TypeTable build() {
+      if (types.isEmpty()) {
+        return EMPTY;
+      }
+      // At most half full, so probes stay short and always reach an empty slot
+      int capacity = Integer.highestOneBit(types.size() * 2 - 1) << 1;
+      InternedNode[] nodes = new InternedNode[capacity];
+      byte[] values = new byte[capacity];
+      int mask = capacity - 1;
+      for (Map.Entry<InternedNode, Token.Type> entry : types.entrySet()) {
+        int i = slot(entry.getKey(), mask);
+        while (nodes[i] != null) {
+          i = (i + 1) & mask;
+        }
+        nodes[i] = entry.getKey();
+        values[i] = (byte) entry.getValue().ordinal();
+      }
+      return new TypeTable(nodes, values, types.size());
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/** Point-in-time counters of the parse result cache. */
+@Value
+@Builder
+public class CacheStatistics {
+  /** Whether caching is switched on; all counters are zero when it is not. */
+  boolean enabled;
+
+  /** Approximate number of cached responses. */
+  long size;
+
+  /** Lookups answered from the cache. */
+  long hits;
+
+  /** Lookups that had to run the pipeline. */
+  long misses;
+
+  /** Entries removed because of size or age. */
+  long evictions;
+
+  /** Fraction of lookups that were hits. */
+  double hitRate;
+}
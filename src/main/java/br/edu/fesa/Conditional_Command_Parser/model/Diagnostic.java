@@ -0,0 +1,250 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * One problem found in a program: what it is ({@link Code}), where it is, and the values its
+ * message refers to.
+ *
+ * <p>The lexer, parser and semantic analyzer record diagnostics on their hot paths without
+ * formatting anything. The message is rendered from the code's template the first time it is
+ * asked for, typically when a page or JSON response displays it, and kept for later calls. Lists of
+ * diagnostics are handed to the display layers as {@link #messages(List)}, which renders each
+ * element only when it is read.
+ */
+public final class Diagnostic {
+
+  /** How serious a diagnostic is. */
+  public enum Severity {
+    ERROR,
+    WARNING
+  }
+
+  /** Analysis that reports a diagnostic, which decides how its message starts. */
+  public enum Stage {
+    LEXICAL,
+    SYNTAX,
+    SEMANTIC
+  }
+
+  /**
+   * Kind of diagnostic, with the template of its message. Templates refer to the position as
+   * {@code {line}} and {@code {column}}, and to the arguments by index as {@code {0}}, {@code {1}}.
+   */
+  public enum Code {
+    INVALID_CHARACTER(Stage.LEXICAL, "Invalid character '{0}' at {line}:{column}"),
+    INVALID_CHAR_LITERAL(Stage.LEXICAL, "Unterminated or invalid char literal at {line}:{column}"),
+    UNTERMINATED_BLOCK_COMMENT(
+        Stage.LEXICAL, "Unterminated block comment starting at {line}:{column}"),
+    UNTERMINATED_STRING(Stage.LEXICAL, "Unterminated string literal at {line}:{column}"),
+    /** Lexical error with a message formatted by its producer. */
+    LEXICAL_ERROR(Stage.LEXICAL, "{0}"),
+    UNEXPECTED_TOKEN(Stage.SYNTAX, "expected '{0}' but found '{1}'"),
+    EXPECTED_OPERAND(
+        Stage.SYNTAX, "expected '(', id, number, string, char or float but found '{0}'"),
+    NESTING_TOO_DEEP(Stage.SYNTAX, "nesting deeper than {0} levels"),
+    INCOMPATIBLE_TYPES(Stage.SEMANTIC, "incompatible types {0} and {1} for operator '{2}'"),
+    UNDECLARED_IDENTIFIER(Stage.SEMANTIC, "undeclared identifier '{0}'"),
+    UNDECLARED_VARIABLE(Stage.SEMANTIC, "undeclared variable '{0}'"),
+    TYPE_MISMATCH(Stage.SEMANTIC, "type mismatch on '{0}' - expected {1} but got {2}"),
+    NON_NUMERIC_CONDITION(Stage.SEMANTIC, "non-numeric if condition of type {0}");
+
+    private static final int LINE = -1;
+    private static final int COLUMN = -2;
+
+    private final Stage stage;
+    private final String template;
+
+    // The template split once: text[i] is followed by slot[i], an argument index, LINE or COLUMN
+    private final String[] text;
+    private final int[] slot;
+
+    Code(Stage stage, String template) {
+      this.stage = stage;
+      this.template = template;
+      int slots = (int) template.chars().filter(c -> c == '{').count();
+      this.text = new String[slots + 1];
+      this.slot = new int[slots];
+      int from = 0;
+      for (int i = 0; i < slots; i++) {
+        int open = template.indexOf('{', from);
+        int close = template.indexOf('}', open);
+        text[i] = template.substring(from, open);
+        String name = template.substring(open + 1, close);
+        slot[i] =
+            switch (name) {
+              case "line" -> LINE;
+              case "column" -> COLUMN;
+              default -> Integer.parseInt(name);
+            };
+        from = close + 1;
+      }
+      text[slots] = template.substring(from);
+    }
+
+    public Stage getStage() {
+      return stage;
+    }
+
+    public Severity getSeverity() {
+      return Severity.ERROR;
+    }
+
+    public String getTemplate() {
+      return template;
+    }
+  }
+
+  private static final Object[] NO_ARGUMENTS = {};
+
+  private final Code code;
+  private final int offset;
+  private final int line;
+  private final int column;
+  private final Object[] arguments;
+
+  // Rendered on first use; racy but idempotent, like String.hashCode
+  private String detail;
+  private String message;
+
+  /**
+   * @param code kind of diagnostic
+   * @param offset offset of the reported position in the input, or -1 if not known
+   * @param line line of the reported position
+   * @param column column of the reported position
+   * @param arguments values the template refers to, by index; kept, not copied
+   */
+  public Diagnostic(Code code, int offset, int line, int column, Object... arguments) {
+    this.code = code;
+    this.offset = offset;
+    this.line = line;
+    this.column = column;
+    this.arguments = arguments.length == 0 ? NO_ARGUMENTS : arguments;
+  }
+
+  public Code getCode() {
+    return code;
+  }
+
+  public Severity getSeverity() {
+    return code.getSeverity();
+  }
+
+  /** Offset of the reported position in the input, or -1 if the producer does not record it. */
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLine() {
+    return line;
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  /** Values the message refers to. */
+  public List<Object> getArguments() {
+    return List.of(arguments);
+  }
+
+  /**
+   * Full message, as shown to users, e.g. {@code Syntax error [line 1, column 5]: expected 'EOF'
+   * but found 'ID'} or {@code Lexical error: Invalid character '$' at 1:7}.
+   */
+  public String getMessage() {
+    String m = message;
+    if (m == null) {
+      StringBuilder sb = new StringBuilder(64);
+      switch (code.getStage()) {
+        case LEXICAL -> sb.append("Lexical error: ");
+        case SYNTAX -> header(sb, "Syntax error");
+        case SEMANTIC -> header(sb, "Semantic error");
+      }
+      m = sb.append(getDetail()).toString();
+      message = m;
+    }
+    return m;
+  }
+
+  /**
+   * The message without its leading "Lexical error: " or "Syntax error [line, column]: "; for
+   * lexical errors this is the message of the {@link
+   * br.edu.fesa.Conditional_Command_Parser.exception.LexicalException}.
+   */
+  public String getDetail() {
+    String d = detail;
+    if (d == null) {
+      d = render(new StringBuilder(48)).toString();
+      detail = d;
+    }
+    return d;
+  }
+
+  private void header(StringBuilder sb, String title) {
+    sb.append(title).append(" [line ").append(line).append(", column ").append(column);
+    sb.append("]: ");
+  }
+
+  private StringBuilder render(StringBuilder sb) {
+    for (int i = 0; i < code.slot.length; i++) {
+      sb.append(code.text[i]);
+      switch (code.slot[i]) {
+        case Code.LINE -> sb.append(line);
+        case Code.COLUMN -> sb.append(column);
+        default -> sb.append(arguments[code.slot[i]]);
+      }
+    }
+    return sb.append(code.text[code.slot.length]);
+  }
+
+  /**
+   * Messages of {@code diagnostics} as a read-only view; each is rendered when it is first read.
+   *
+   * @param diagnostics diagnostics to show; must not change afterwards
+   */
+  public static List<String> messages(List<Diagnostic> diagnostics) {
+    return diagnostics.isEmpty() ? List.of() : new Messages(diagnostics);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof Diagnostic other
+        && code == other.code
+        && offset == other.offset
+        && line == other.line
+        && column == other.column
+        && Arrays.equals(arguments, other.arguments);
+  }
+
+  @Override
+  public int hashCode() {
+    return ((code.hashCode() * 31 + line) * 31 + column) * 31 + Arrays.hashCode(arguments);
+  }
+
+  @Override
+  public String toString() {
+    return getMessage();
+  }
+
+  private static final class Messages extends AbstractList<String> implements RandomAccess {
+    private final List<Diagnostic> diagnostics;
+
+    Messages(List<Diagnostic> diagnostics) {
+      this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public String get(int index) {
+      return diagnostics.get(index).getMessage();
+    }
+
+    @Override
+    public int size() {
+      return diagnostics.size();
+    }
+  }
+}
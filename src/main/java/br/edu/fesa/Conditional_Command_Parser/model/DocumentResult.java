@@ -0,0 +1,28 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/** Analysis result for one version of a document edited through the incremental API. */
+@Value
+@Builder
+public class DocumentResult {
+  /** Identifier to send further edits to. */
+  String documentId;
+
+  /** Number of edits applied since the document was opened. */
+  long version;
+
+  /** ASCII rendering of the AST; empty if there is none or it was not asked for. */
+  String ast;
+
+  /** All lexical, syntactic, and semantic errors, as in {@link ParserResponse#getErrors()}. */
+  List<String> errors;
+
+  /** Tokens scanned for this version; the whole text when the document was opened. */
+  int relexedTokens;
+
+  /** Subtrees taken over unchanged from the previous version. */
+  int reusedSubtrees;
+}
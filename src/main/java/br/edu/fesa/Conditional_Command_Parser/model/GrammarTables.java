@@ -0,0 +1,261 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Immutable FIRST and FOLLOW sets of a grammar, computed once and shared by every response.
+ *
+ * <p>Terminals are numbered in the order given, and each set is a {@code long} bitmask over those
+ * numbers, so membership is a shift and a mask. The map views, their HTML text and their JSON
+ * are all produced when the tables are built; handing them out or writing them to a response costs
+ * nothing per request.
+ */
+public final class GrammarTables {
+
+  /** Largest terminal alphabet a {@code long} mask can hold. */
+  public static final int MAX_TERMINALS = Long.SIZE;
+
+  private final String[] nonTerminals;
+  private final String[] terminals;
+  private final long[] first;
+  private final long[] follow;
+
+  private final Map<String, Set<String>> firstSets;
+  private final Map<String, Set<String>> followSets;
+  private final String firstSetsHtml;
+  private final String followSetsHtml;
+  private final String json;
+  private final byte[] jsonBytes;
+
+  private GrammarTables(
+      List<String> nonTerminals, List<String> terminals, long[] first, long[] follow) {
+    this.nonTerminals = nonTerminals.toArray(String[]::new);
+    this.terminals = terminals.toArray(String[]::new);
+    this.first = first;
+    this.follow = follow;
+    this.firstSets = views(first);
+    this.followSets = views(follow);
+    this.firstSetsHtml = HtmlUtils.htmlEscape(firstSets.toString());
+    this.followSetsHtml = HtmlUtils.htmlEscape(followSets.toString());
+    this.json =
+        "{\"firstSets\":" + json(firstSets) + ",\"followSets\":" + json(followSets) + "}";
+    this.jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compiles the given sets into tables.
+   *
+   * @param nonTerminals nonterminals, in display order
+   * @param terminals terminal alphabet, in display order; at most {@link #MAX_TERMINALS}
+   * @param firstSets FIRST set of each nonterminal
+   * @param followSets FOLLOW set of each nonterminal
+   * @return the tables
+   * @throws IllegalArgumentException if the alphabet is too large or a set names a symbol that is
+   *     not in it
+   */
+  public static GrammarTables of(
+      List<String> nonTerminals,
+      List<String> terminals,
+      Map<String, ? extends Set<String>> firstSets,
+      Map<String, ? extends Set<String>> followSets) {
+    if (terminals.size() > MAX_TERMINALS) {
+      throw new IllegalArgumentException(
+          "At most " + MAX_TERMINALS + " terminals supported, got " + terminals.size());
+    }
+    long[] first = new long[nonTerminals.size()];
+    long[] follow = new long[nonTerminals.size()];
+    for (int i = 0; i < nonTerminals.size(); i++) {
+      first[i] = mask(terminals, firstSets.get(nonTerminals.get(i)));
+      follow[i] = mask(terminals, followSets.get(nonTerminals.get(i)));
+    }
+    return new GrammarTables(nonTerminals, terminals, first, follow);
+  }
+
+  private static long mask(List<String> terminals, Set<String> set) {
+    long mask = 0;
+    if (set != null) {
+      for (String terminal : set) {
+        int index = terminals.indexOf(terminal);
+        if (index < 0) {
+          throw new IllegalArgumentException("Not a terminal: '" + terminal + "'");
+        }
+        mask |= 1L << index;
+      }
+    }
+    return mask;
+  }
+
+  /** Number of {@code terminal} in the alphabet, or -1 if it is not a terminal. */
+  public int terminal(String terminal) {
+    for (int i = 0; i < terminals.length; i++) {
+      if (terminals[i].equals(terminal)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * FIRST set of {@code nonTerminal} as a mask over terminal numbers.
+   *
+   * @throws NoSuchElementException if it is not a nonterminal of the grammar
+   */
+  public long first(String nonTerminal) {
+    return first[nonTerminal(nonTerminal)];
+  }
+
+  /**
+   * FOLLOW set of {@code nonTerminal} as a mask over terminal numbers.
+   *
+   * @throws NoSuchElementException if it is not a nonterminal of the grammar
+   */
+  public long follow(String nonTerminal) {
+    return follow[nonTerminal(nonTerminal)];
+  }
+
+  /** Whether terminal number {@code terminal} is in {@code mask}. */
+  public static boolean contains(long mask, int terminal) {
+    return terminal >= 0 && terminal < MAX_TERMINALS && (mask & (1L << terminal)) != 0;
+  }
+
+  /** FIRST sets by nonterminal, in display order; the maps and sets are unmodifiable. */
+  public Map<String, Set<String>> getFirstSets() {
+    return firstSets;
+  }
+
+  /** FOLLOW sets by nonterminal, in display order; the maps and sets are unmodifiable. */
+  public Map<String, Set<String>> getFollowSets() {
+    return followSets;
+  }
+
+  /**
+   * Display text of {@link #getFirstSets()}, such as {@code {S=[if, id], ...}}, already escaped
+   * for insertion into an HTML page.
+   */
+  public String getFirstSetsHtml() {
+    return firstSetsHtml;
+  }
+
+  /** Display text of {@link #getFollowSets()}, already escaped for HTML. */
+  public String getFollowSetsHtml() {
+    return followSetsHtml;
+  }
+
+  /** Both set families as JSON, {@code {"firstSets": {...}, "followSets": {...}}}. */
+  public String getJson() {
+    return json;
+  }
+
+  /**
+   * Writes {@link #getJson()}, already encoded as UTF-8, to {@code out}.
+   *
+   * @throws IOException if writing fails
+   */
+  public void writeJson(OutputStream out) throws IOException {
+    out.write(jsonBytes);
+  }
+
+  private int nonTerminal(String nonTerminal) {
+    for (int i = 0; i < nonTerminals.length; i++) {
+      if (nonTerminals[i].equals(nonTerminal)) {
+        return i;
+      }
+    }
+    throw new NoSuchElementException("Not a nonterminal: '" + nonTerminal + "'");
+  }
+
+  private Map<String, Set<String>> views(long[] masks) {
+    Map<String, Set<String>> views = new LinkedHashMap<>();
+    for (int i = 0; i < nonTerminals.length; i++) {
+      views.put(nonTerminals[i], new TerminalSet(masks[i]));
+    }
+    return Collections.unmodifiableMap(views);
+  }
+
+  private static String json(Map<String, Set<String>> sets) {
+    StringBuilder out = new StringBuilder("{");
+    for (Map.Entry<String, Set<String>> entry : sets.entrySet()) {
+      if (out.length() > 1) {
+        out.append(',');
+      }
+      quote(entry.getKey(), out).append(":[");
+      boolean firstTerminal = true;
+      for (String terminal : entry.getValue()) {
+        if (!firstTerminal) {
+          out.append(',');
+        }
+        quote(terminal, out);
+        firstTerminal = false;
+      }
+      out.append(']');
+    }
+    return out.append('}').toString();
+  }
+
+  private static StringBuilder quote(String text, StringBuilder out) {
+    out.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c < 0x20) {
+        out.append(String.format("\\u%04x", (int) c));
+      } else {
+        out.append(c);
+      }
+    }
+    return out.append('"');
+  }
+
+  /** Read-only set of the terminals in a mask, iterated in alphabet order. */
+  private final class TerminalSet extends AbstractSet<String> {
+    private final long mask;
+
+    private TerminalSet(long mask) {
+      this.mask = mask;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof String terminal && GrammarTables.contains(mask, terminal(terminal));
+    }
+
+    @Override
+    public int size() {
+      return Long.bitCount(mask);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return new Iterator<>() {
+        private long remaining = mask;
+
+        @Override
+        public boolean hasNext() {
+          return remaining != 0;
+        }
+
+        @Override
+        public String next() {
+          if (remaining == 0) {
+            throw new NoSuchElementException();
+          }
+          int index = Long.numberOfTrailingZeros(remaining);
+          remaining &= remaining - 1;
+          return terminals[index];
+        }
+      };
+    }
+  }
+}
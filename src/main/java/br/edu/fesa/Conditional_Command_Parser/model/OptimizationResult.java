@@ -0,0 +1,22 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/** Tree produced by the AST optimizer and a record of what it changed. */
+@Value
+@Builder
+public class OptimizationResult {
+  /** Root of the optimized tree; unchanged subtrees are shared with the input tree. */
+  SyntaxNode ast;
+
+  /** Number of nodes in the input tree. */
+  int nodesBefore;
+
+  /** Number of nodes in the optimized tree. */
+  int nodesAfter;
+
+  /** One human-readable line per rewrite, in the order the rewrites were made. */
+  List<String> changes;
+}
@@ -0,0 +1,24 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/** Result for one input of a batch: the fields of a {@link ParserResponse} that vary per input. */
+@Value
+@Builder
+@Jacksonized
+public class ParseItemResult {
+  /** Position of the input in the batch, starting at 0. */
+  long index;
+
+  /** True if no lexical, syntactic or semantic error was found. */
+  boolean valid;
+
+  /** All errors for this input, or the failure that stopped it. */
+  List<String> errors;
+
+  /** ASCII rendering of the AST (empty if there is none). */
+  String ast;
+}
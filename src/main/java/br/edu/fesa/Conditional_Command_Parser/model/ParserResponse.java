@@ -1,30 +1,51 @@
 package br.edu.fesa.Conditional_Command_Parser.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
 /**
  * Container for the result of parsing and semantic analysis.
  *
- * <p>Includes the AST root, collected errors, and FIRST/FOLLOW sets used by the parser.
+ * <p>Includes the AST root, collected errors, and FIRST/FOLLOW sets used by the parser. The sets
+ * are not copied per response: every response refers to the same precomputed {@link
+ * GrammarTables}, or to none when the caller asked to leave them out.
+ *
+ * <p>{@link br.edu.fesa.Conditional_Command_Parser.service.ParseResultCache} hands the same
+ * instance to every caller. The response itself has no setters, but its AST is a graph of ordinary
+ * mutable nodes: it is fully annotated before the response is built, and callers must not modify it
+ * afterwards.
  */
-@Data
+@Value
 @Builder
 @AllArgsConstructor
 public class ParserResponse {
   /** Root of the generated abstract syntax tree (AST). */
   private SyntaxNode ast;
 
-  /** All lexical, syntactic, and semantic errors encountered. */
+  /**
+   * All lexical, syntactic, and semantic errors encountered. When built from {@link #diagnostics},
+   * a view that renders each message when it is first read.
+   */
   private List<String> errors;
 
-  /** FIRST sets computed for each nonterminal (for debugging or display). */
-  private Map<String, Set<String>> firstSets;
+  /** The same errors as structured diagnostics, or null if the response was built from messages. */
+  @JsonIgnore private List<Diagnostic> diagnostics;
+
+  /** FIRST/FOLLOW sets of the grammar (for debugging or display), or null if left out. */
+  private GrammarTables grammar;
+
+  /** FIRST sets computed for each nonterminal, or null if left out. */
+  public Map<String, Set<String>> getFirstSets() {
+    return grammar != null ? grammar.getFirstSets() : null;
+  }
 
-  /** FOLLOW sets computed for each nonterminal (for debugging or display). */
-  private Map<String, Set<String>> followSets;
+  /** FOLLOW sets computed for each nonterminal, or null if left out. */
+  public Map<String, Set<String>> getFollowSets() {
+    return grammar != null ? grammar.getFollowSets() : null;
+  }
 }
@@ -0,0 +1,84 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Semantic errors of one analyzed AST subtree, in the order the analyzer reports them.
+ *
+ * <p>Kept by subtree root in a map the caller of {@link
+ * br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer#analyzeIncremental} owns, so that a
+ * later version of a document that reuses the subtree unchanged can take its errors over without
+ * walking it again. A sequence refers to the sequences of its children instead of copying them,
+ * and a node whose errors all come from one child shares that child's sequence, so the sequences
+ * of a whole tree hold each diagnostic once and add up to space proportional to the number of
+ * errors.
+ */
+public final class SubtreeDiagnostics {
+
+  /** Sequence of a subtree without errors. */
+  public static final SubtreeDiagnostics NONE = new SubtreeDiagnostics(new Object[0], 0);
+
+  // Each part is a Diagnostic or a non-empty SubtreeDiagnostics
+  private final Object[] parts;
+  private final int size;
+
+  private SubtreeDiagnostics(Object[] parts, int size) {
+    this.parts = parts;
+    this.size = size;
+  }
+
+  /**
+   * Sequence of a node's subtree from its parts in report order.
+   *
+   * @param parts children's sequences and the node's own {@link Diagnostic}s; nulls are skipped
+   * @return the sequence, which is {@link #NONE} or the only child's when nothing else is added
+   */
+  public static SubtreeDiagnostics of(Object... parts) {
+    List<Object> kept = new ArrayList<>(parts.length);
+    int size = 0;
+    for (Object part : parts) {
+      if (part instanceof SubtreeDiagnostics sequence) {
+        if (sequence.size > 0) {
+          kept.add(sequence);
+          size += sequence.size;
+        }
+      } else if (part instanceof Diagnostic) {
+        kept.add(part);
+        size++;
+      }
+    }
+    if (kept.isEmpty()) {
+      return NONE;
+    }
+    if (kept.size() == 1 && kept.get(0) instanceof SubtreeDiagnostics only) {
+      return only;
+    }
+    return new SubtreeDiagnostics(kept.toArray(), size);
+  }
+
+  /** Number of diagnostics in the subtree. */
+  public int size() {
+    return size;
+  }
+
+  /** Appends the diagnostics, in report order, to {@code out}. */
+  public void addTo(Collection<Diagnostic> out) {
+    // Sequences nest as deep as the tree, so they are flattened with an explicit stack
+    Deque<Object> stack = new ArrayDeque<>();
+    stack.push(this);
+    while (!stack.isEmpty()) {
+      Object next = stack.pop();
+      if (next instanceof SubtreeDiagnostics sequence) {
+        for (int i = sequence.parts.length - 1; i >= 0; i--) {
+          stack.push(sequence.parts[i]);
+        }
+      } else {
+        out.add((Diagnostic) next);
+      }
+    }
+  }
+}
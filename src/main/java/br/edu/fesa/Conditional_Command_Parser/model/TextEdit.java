@@ -0,0 +1,25 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * A single replacement in a source text: {@code removedLength} characters starting at {@code
+ * offset} are replaced by {@code insertedText}.
+ *
+ * <p>Offsets count UTF-16 characters, like {@link String#length()}.
+ */
+@Value
+@Builder
+@Jacksonized
+public class TextEdit {
+  /** Position of the first replaced character. */
+  int offset;
+
+  /** Number of characters removed at {@code offset}; 0 for a pure insertion. */
+  int removedLength;
+
+  /** Text inserted at {@code offset}; empty for a pure deletion. */
+  @Builder.Default String insertedText = "";
+}
@@ -0,0 +1,23 @@
+package br.edu.fesa.Conditional_Command_Parser.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Answer of a validate-only run: whether the input is lexically and syntactically valid, and the
+ * errors that say why not. No tree is built, so declarations and types are not checked.
+ */
+@Value
+@Builder
+public class ValidationResult {
+  /** True if no lexical or syntax error was found. */
+  boolean valid;
+
+  /** Messages of {@link #diagnostics}, each rendered when first read. */
+  List<String> errors;
+
+  /** The errors found; only the first one when validating fail-fast. */
+  @JsonIgnore List<Diagnostic> diagnostics;
+}
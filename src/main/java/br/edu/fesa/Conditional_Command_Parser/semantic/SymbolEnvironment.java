@@ -0,0 +1,157 @@
+package br.edu.fesa.Conditional_Command_Parser.semantic;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable set of declared variables, the outermost scope a program is analyzed in.
+ *
+ * <p>An environment is built once, for example per tenant, and then shared by any number of
+ * concurrent analyses: a {@link SymbolTable} created over it resolves the environment's variables
+ * straight from its arrays and keeps only its own declarations, so a 50,000-variable environment
+ * costs nothing per analysis. Names are numbered by a private {@link SymbolInterner}; interners
+ * from {@link #newInterner()} continue that numbering, so identifiers the lexer tags with ids
+ * resolve to the environment's symbols by index.
+ */
+public final class SymbolEnvironment {
+
+  /** Environment without any variable. */
+  public static final SymbolEnvironment EMPTY = builder().build();
+
+  private final SymbolInterner names;
+
+  /** Symbol of every id of {@link #names}. */
+  private final Symbol[] symbols;
+
+  private SymbolEnvironment(SymbolInterner names, Symbol[] symbols) {
+    this.names = names;
+    this.symbols = symbols;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builds an environment declaring each variable of {@code variables} with its type.
+   *
+   * @param variables declared type by variable name
+   * @return the new environment
+   * @throws IllegalArgumentException if a name is not an identifier or a type is not a value type
+   */
+  public static SymbolEnvironment of(Map<String, Token.Type> variables) {
+    Builder builder = builder();
+    variables.forEach(builder::declare);
+    return builder.build();
+  }
+
+  /** Number of variables declared. */
+  public int size() {
+    return symbols.length;
+  }
+
+  /**
+   * Looks up a variable by name.
+   *
+   * @return its symbol, or null if the environment does not declare it
+   */
+  public Symbol lookup(String name) {
+    return lookup(names.find(name));
+  }
+
+  /**
+   * Looks up a variable by id in this environment's numbering.
+   *
+   * @return its symbol, or null if {@code id} is not one of the environment's
+   */
+  public Symbol lookup(int id) {
+    return id >= 0 && id < symbols.length ? symbols[id] : null;
+  }
+
+  /**
+   * Creates an interner for one analysis that gives the environment's variables their ids here.
+   * Pass it to {@link
+   * br.edu.fesa.Conditional_Command_Parser.utils.Lexer#tokenizeToBuffer(CharSequence,
+   * SymbolInterner)} to resolve identifiers by id.
+   */
+  public SymbolInterner newInterner() {
+    return new SymbolInterner(names);
+  }
+
+  /** Whether ids from {@code interner} are in this environment's numbering. */
+  public boolean isNumbering(SymbolInterner interner) {
+    SymbolInterner parent = interner.getParent();
+    return parent == names || (parent == null && symbols.length == 0);
+  }
+
+  /** Collects declarations; each name may be declared once. A builder builds one environment. */
+  public static final class Builder {
+    private final SymbolInterner names = new SymbolInterner();
+    private Symbol[] symbols = new Symbol[16];
+    private boolean built;
+
+    private Builder() {}
+
+    /**
+     * Declares {@code name} with {@code type}.
+     *
+     * @return this builder
+     * @throws IllegalArgumentException if {@code name} is not an identifier, is already declared,
+     *     or {@code type} is not NUMBER, FLOAT, STRING or CHAR
+     * @throws IllegalStateException if the environment has already been built
+     */
+    public Builder declare(String name, Token.Type type) {
+      checkNotBuilt();
+      if (!isIdentifier(name)) {
+        throw new IllegalArgumentException("Not an identifier: '" + name + "'");
+      }
+      if (type != Token.Type.NUMBER
+          && type != Token.Type.FLOAT
+          && type != Token.Type.STRING
+          && type != Token.Type.CHAR) {
+        throw new IllegalArgumentException("Not a value type for '" + name + "': " + type);
+      }
+      if (names.find(name) != SymbolInterner.NONE) {
+        throw new IllegalArgumentException("Variable declared twice: '" + name + "'");
+      }
+      int id = names.intern(name);
+      if (id == symbols.length) {
+        symbols = Arrays.copyOf(symbols, id << 1);
+      }
+      symbols[id] = Symbol.builder().name(name).type(type).build();
+      return this;
+    }
+
+    /**
+     * @throws IllegalStateException if called twice
+     */
+    public SymbolEnvironment build() {
+      checkNotBuilt();
+      // The interner is handed over and never written again
+      built = true;
+      return new SymbolEnvironment(names, Arrays.copyOf(symbols, names.size()));
+    }
+
+    private void checkNotBuilt() {
+      if (built) {
+        throw new IllegalStateException("Environment already built");
+      }
+    }
+
+    /** Matches the lexer's identifiers, [a-zA-Z_][a-zA-Z0-9_]*, other than the keywords. */
+    private static boolean isIdentifier(String name) {
+      if (name == null || name.isEmpty() || name.equals("if") || name.equals("else")) {
+        return false;
+      }
+      for (int i = 0; i < name.length(); i++) {
+        char c = name.charAt(i);
+        boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+        if (!letter && !(i > 0 && c >= '0' && c <= '9')) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package br.edu.fesa.Conditional_Command_Parser.semantic;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense integer ids to identifier names: the first distinct name gets 0, the next 1, and
+ * so on.
+ *
+ * <p>A {@link SymbolTable} indexes its bindings by these ids, so a lookup by id is an array access.
+ * Names can be interned straight from a span of the source text without creating a string for
+ * names already seen, which lets {@link
+ * br.edu.fesa.Conditional_Command_Parser.utils.Lexer#tokenizeToBuffer(CharSequence,
+ * SymbolInterner)} tag every identifier token with its id while scanning.
+ *
+ * <p>An interner can be layered on a parent that no longer changes, such as the one inside a
+ * {@link SymbolEnvironment}: names of the parent keep the parent's ids and new names are numbered
+ * after them, so a per-request interner reuses a large shared one without copying it.
+ *
+ * <p>Hashes are those of {@link String#hashCode()}, scrambled into an open-addressed table with
+ * linear probing. Ids are never removed. An interner is not thread-safe; share it only between the
+ * stages of one analysis. A parent is only read, so any number of threads may layer on it.
+ */
+public final class SymbolInterner {
+
+  /** Id of names that were never interned. */
+  public static final int NONE = -1;
+
+  /** Interner whose names come first, or null. */
+  private final SymbolInterner parent;
+
+  /** Number of ids taken by the parent; the first id of this interner's own names. */
+  private final int base;
+
+  /** Slot of each bucket: own id + 1, or 0 if empty. The length is a power of two. */
+  private int[] slots = new int[64];
+
+  private String[] names = new String[32];
+  private int[] hashes = new int[32];
+
+  /** Number of names interned here, not counting the parent's. */
+  private int size;
+
+  public SymbolInterner() {
+    this(null);
+  }
+
+  /**
+   * Creates an interner that knows every name of {@code parent} under the same id. The parent
+   * must not intern anything afterwards.
+   *
+   * @param parent interner to layer on, or null
+   */
+  public SymbolInterner(SymbolInterner parent) {
+    this.parent = parent;
+    this.base = parent != null ? parent.size() : 0;
+  }
+
+  /** Interner this one is layered on, or null. */
+  public SymbolInterner getParent() {
+    return parent;
+  }
+
+  /**
+   * Number of distinct names known, the parent's included; ids range from 0 to {@code size() -
+   * 1}.
+   */
+  public int size() {
+    return base + size;
+  }
+
+  /** Name of symbol {@code id}. */
+  public String name(int id) {
+    if (id < 0 || id >= base + size) {
+      throw new IndexOutOfBoundsException("Symbol id " + id + " out of bounds for " + size());
+    }
+    return id < base ? parent.name(id) : names[id - base];
+  }
+
+  /** Id of {@code name}, assigning the next one if it is new. */
+  public int intern(String name) {
+    int id = find(name);
+    return id != NONE ? id : add(name, name.hashCode());
+  }
+
+  /**
+   * Id of the name in {@code text} between {@code start} and {@code end}, assigning the next one
+   * if it is new. Only a new name is copied out of {@code text}.
+   */
+  public int intern(CharSequence text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    int id = find(text, start, end, hash);
+    return id != NONE ? id : add(text.subSequence(start, end).toString(), hash);
+  }
+
+  /**
+   * Id of {@code name}, without interning it.
+   *
+   * @return the id, or {@link #NONE} if the name was never interned
+   */
+  public int find(String name) {
+    return find(name, 0, name.length(), name.hashCode());
+  }
+
+  /** Id of the name in {@code text} between {@code start} and {@code end} with the given hash. */
+  private int find(CharSequence text, int start, int end, int hash) {
+    if (parent != null) {
+      int id = parent.find(text, start, end, hash);
+      if (id != NONE) {
+        return id;
+      }
+    }
+    int mask = slots.length - 1;
+    for (int bucket = mix(hash) & mask; slots[bucket] != 0; bucket = (bucket + 1) & mask) {
+      int own = slots[bucket] - 1;
+      if (hashes[own] == hash && matches(names[own], text, start, end)) {
+        return base + own;
+      }
+    }
+    return NONE;
+  }
+
+  private int add(String name, int hash) {
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size << 1);
+      hashes = Arrays.copyOf(hashes, size << 1);
+    }
+    int own = size++;
+    names[own] = name;
+    hashes[own] = hash;
+    // Keep the table at most half full
+    if (size * 2 > slots.length) {
+      slots = new int[slots.length << 1];
+      for (int i = 0; i < size; i++) {
+        place(i);
+      }
+    } else {
+      place(own);
+    }
+    return base + own;
+  }
+
+  private void place(int own) {
+    int mask = slots.length - 1;
+    int bucket = mix(hashes[own]) & mask;
+    while (slots[bucket] != 0) {
+      bucket = (bucket + 1) & mask;
+    }
+    slots[bucket] = own + 1;
+  }
+
+  /**
+   * Scrambles a string hash before it is masked to a bucket. Names such as {@code v1, v2, ...}
+   * have consecutive hashes, which linear probing would pack into long runs.
+   */
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static boolean matches(String name, CharSequence text, int start, int end) {
+    if (name.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (name.charAt(i) != text.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
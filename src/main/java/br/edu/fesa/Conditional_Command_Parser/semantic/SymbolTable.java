@@ -1,31 +1,134 @@
 package br.edu.fesa.Conditional_Command_Parser.semantic;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
-/** Symbol table supporting nested scopes via a stack of hash maps. */
+/**
+ * Symbol table supporting nested scopes with constant-time declare and lookup.
+ *
+ * <p>Names are mapped to ids by a {@link SymbolInterner}, and the table keeps, per id, only the
+ * innermost visible symbol and the scope depth it was declared at (a shadow stack collapsed to its
+ * top). Declaring in a nested scope first saves the binding it shadows on an undo log;
+ * {@link #exitScope()} replays the log back to where the scope started. Lookups are therefore one
+ * array access whatever the nesting depth, and entering or leaving a scope allocates nothing once
+ * the arrays have grown to the deepest program seen.
+ *
+ * <p>A table may be layered on a shared {@link SymbolEnvironment}, which acts as a read-only scope
+ * around the global one: its variables are visible unless declared again, and nothing of it is
+ * copied into the table.
+ */
 public class SymbolTable {
-  private final Deque<Map<String, Symbol>> scopes = new ArrayDeque<>();
+  private final SymbolEnvironment environment;
+  private final SymbolInterner names;
 
-  /** Initializes the table with a global scope. */
+  /** Number of ids that belong to the environment; the table's own names are numbered after. */
+  private final int base;
+
+  /** Innermost visible symbol per own id (id - base), or null. */
+  private Symbol[] bindings = new Symbol[16];
+
+  /** Scope depth of each binding in {@link #bindings}. */
+  private int[] bindingDepth = new int[16];
+
+  /** Like {@link #bindings} for environment ids declared again; allocated on first use. */
+  private Symbol[] shadows;
+
+  private int[] shadowDepth;
+
+  /** Current scope depth; 0 is the global scope. */
+  private int depth;
+
+  // Undo log: the binding each nested declaration replaced, newest last
+  private int[] undoId = new int[16];
+  private Symbol[] undoSymbol = new Symbol[16];
+  private int[] undoDepth = new int[16];
+  private int undoSize;
+
+  /** Length of the undo log when each open nested scope was entered, indexed by depth - 1. */
+  private int[] scopeStart = new int[16];
+
+  /** Initializes the table with a global scope and its own interner. */
   public SymbolTable() {
-    enterScope();
+    this(new SymbolInterner());
+  }
+
+  /**
+   * Initializes the table with a global scope, resolving names through {@code names}; ids the
+   * caller got from the same interner can be looked up with {@link #lookup(int)}.
+   *
+   * @param names interner shared with, e.g., the lexer
+   */
+  public SymbolTable(SymbolInterner names) {
+    this(SymbolEnvironment.EMPTY, names);
+  }
+
+  /**
+   * Initializes the table with a global scope inside {@code environment}.
+   *
+   * @param environment shared variables visible to every scope
+   */
+  public SymbolTable(SymbolEnvironment environment) {
+    this(environment, environment.newInterner());
+  }
+
+  /**
+   * Initializes the table with a global scope inside {@code environment}, resolving names through
+   * {@code names}.
+   *
+   * @param environment shared variables visible to every scope
+   * @param names interner from {@link SymbolEnvironment#newInterner()} of the same environment
+   * @throws IllegalArgumentException if {@code names} numbers names differently
+   */
+  public SymbolTable(SymbolEnvironment environment, SymbolInterner names) {
+    if (!environment.isNumbering(names)) {
+      throw new IllegalArgumentException("Interner is not layered on the environment");
+    }
+    this.environment = environment;
+    this.names = names;
+    this.base = environment.size();
+  }
+
+  /** Environment around the global scope. */
+  public SymbolEnvironment getEnvironment() {
+    return environment;
+  }
+
+  /** Interner this table resolves names with. */
+  public SymbolInterner getNames() {
+    return names;
   }
 
   /** Enters a new nested scope. */
   public void enterScope() {
-    scopes.push(new HashMap<>());
+    if (depth == scopeStart.length) {
+      scopeStart = Arrays.copyOf(scopeStart, depth << 1);
+    }
+    scopeStart[depth++] = undoSize;
   }
 
   /** Exits the current scope, discarding its symbols. */
   public void exitScope() {
-    if (scopes.size() > 1) {
-      scopes.pop();
+    if (depth == 0) {
+      return;
+    }
+    int start = scopeStart[--depth];
+    while (undoSize > start) {
+      undoSize--;
+      bind(undoId[undoSize], undoSymbol[undoSize], undoDepth[undoSize]);
+      undoSymbol[undoSize] = null;
     }
   }
 
+  /** Removes every symbol and scope, keeping the interner and the allocated capacity. */
+  public void clear() {
+    Arrays.fill(bindings, null);
+    if (shadows != null) {
+      Arrays.fill(shadows, null);
+    }
+    Arrays.fill(undoSymbol, 0, undoSize, null);
+    undoSize = 0;
+    depth = 0;
+  }
+
   /**
    * Declare a new symbol in the current scope.
    *
@@ -33,11 +136,25 @@ public class SymbolTable {
    * @return false if a symbol with the same name already exists in this scope
    */
   public boolean declare(Symbol sym) {
-    Map<String, Symbol> current = scopes.peek();
-    if (current.containsKey(sym.getName())) {
+    int id = names.intern(sym.getName());
+    Symbol current = own(id);
+    int currentDepth = current != null ? ownDepth(id) : 0;
+    if (current != null && currentDepth == depth) {
       return false;
     }
-    current.put(sym.getName(), sym);
+    // Global declarations are never undone, so only nested ones are logged
+    if (depth > 0) {
+      if (undoSize == undoId.length) {
+        undoId = Arrays.copyOf(undoId, undoSize << 1);
+        undoSymbol = Arrays.copyOf(undoSymbol, undoSize << 1);
+        undoDepth = Arrays.copyOf(undoDepth, undoSize << 1);
+      }
+      undoId[undoSize] = id;
+      undoSymbol[undoSize] = current;
+      undoDepth[undoSize] = currentDepth;
+      undoSize++;
+    }
+    bind(id, sym, depth);
     return true;
   }
 
@@ -48,11 +165,53 @@ public class SymbolTable {
    * @return the corresponding Symbol or null if not found
    */
   public Symbol lookup(String name) {
-    for (Map<String, Symbol> scope : scopes) {
-      if (scope.containsKey(name)) {
-        return scope.get(name);
+    int id = names.find(name);
+    return id == SymbolInterner.NONE ? null : lookup(id);
+  }
+
+  /**
+   * Look up a symbol by its id in this table's interner.
+   *
+   * @param id symbol id
+   * @return the innermost visible Symbol, from the environment if the table declares none, or
+   *     null if not found
+   */
+  public Symbol lookup(int id) {
+    Symbol sym = own(id);
+    return sym != null ? sym : environment.lookup(id);
+  }
+
+  /** Symbol the table itself binds to {@code id}, or null. */
+  private Symbol own(int id) {
+    if (id >= base) {
+      int index = id - base;
+      return index < bindings.length ? bindings[index] : null;
+    }
+    return id >= 0 && shadows != null ? shadows[id] : null;
+  }
+
+  /** Scope depth of the binding {@link #own(int)} returns. */
+  private int ownDepth(int id) {
+    return id >= base ? bindingDepth[id - base] : shadowDepth[id];
+  }
+
+  private void bind(int id, Symbol sym, int symDepth) {
+    if (id >= base) {
+      int index = id - base;
+      if (index >= bindings.length) {
+        int grown = Math.max(index + 1, bindings.length << 1);
+        bindings = Arrays.copyOf(bindings, grown);
+        bindingDepth = Arrays.copyOf(bindingDepth, grown);
+      }
+      bindings[index] = sym;
+      bindingDepth[index] = symDepth;
+    } else {
+      if (shadows == null) {
+        shadows = new Symbol[base];
+        shadowDepth = new int[base];
       }
+      shadows[id] = sym;
+      shadowDepth[id] = symDepth;
     }
-    return null;
   }
 }
@@ -0,0 +1,248 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import br.edu.fesa.Conditional_Command_Parser.model.ParseItemResult;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the {@link ParserService} pipeline over many independent inputs in parallel.
+ *
+ * <p>Inputs are parsed on the shared, bounded {@code parseExecutor} and results are returned in
+ * input order. A failure in one input never affects the others: it is reported as that item's
+ * error.
+ *
+ * <p>{@link #parseStream(Reader, Writer, RecordFormat)} does the same for inputs of any size: it
+ * reads one record per line, keeps at most {@code parser.stream.window} records in flight and
+ * writes results in order as they finish. A slow reader of the output blocks the writer, which in
+ * turn stops further input from being read, so memory stays bounded by the window and the record
+ * length limit.
+ */
+@Service
+@Slf4j
+public class BatchParserService {
+
+  /** Default limit on the number of inputs in one batch. */
+  public static final int DEFAULT_MAX_ITEMS = 100_000;
+
+  /** Default number of streamed records being parsed or waiting to be written at once. */
+  public static final int DEFAULT_WINDOW = 64;
+
+  /** Default limit, in characters, on one streamed record. */
+  public static final int DEFAULT_MAX_RECORD_LENGTH = 1 << 20;
+
+  /** How each line of a streamed input encodes its program. */
+  public enum RecordFormat {
+    /** The whole line is the program. */
+    LINE,
+
+    /**
+     * The line is a JSON value: either a string holding the program or an object whose
+     * {@code "input"} field holds it. Blank lines are skipped.
+     */
+    NDJSON
+  }
+
+  private final ParserService parserService;
+  private final ExecutorService executor;
+  private final ObjectMapper objectMapper;
+  private final int maxItems;
+  private final int window;
+  private final int maxRecordLength;
+
+  /**
+   * @param parserService runs the pipeline for one input
+   * @param executor bounded pool the inputs are parsed on
+   * @param objectMapper reads NDJSON records and writes results
+   * @param maxItems maximum number of inputs accepted in one batch
+   * @param window maximum number of streamed records in flight
+   * @param maxRecordLength longest streamed record, in characters
+   */
+  @Autowired
+  public BatchParserService(
+      ParserService parserService,
+      @Qualifier("parseExecutor") ExecutorService executor,
+      ObjectMapper objectMapper,
+      @Value("${parser.batch.max-items:" + DEFAULT_MAX_ITEMS + "}") int maxItems,
+      @Value("${parser.stream.window:" + DEFAULT_WINDOW + "}") int window,
+      @Value("${parser.stream.max-record-length:" + DEFAULT_MAX_RECORD_LENGTH + "}")
+          int maxRecordLength) {
+    this.parserService = parserService;
+    this.executor = executor;
+    this.objectMapper = objectMapper;
+    this.maxItems = maxItems;
+    this.window = Math.max(window, 1);
+    this.maxRecordLength = maxRecordLength;
+  }
+
+  /**
+   * Parses every input and returns one result per input, in the same order.
+   *
+   * @param inputs source programs
+   * @return results, {@code results.get(i)} belonging to {@code inputs.get(i)}
+   * @throws IllegalArgumentException if there are more than {@code parser.batch.max-items} inputs
+   */
+  public List<ParseItemResult> parseAll(List<String> inputs) {
+    if (inputs.size() > maxItems) {
+      throw new IllegalArgumentException(
+          String.format("Batch of %d inputs exceeds the limit of %d", inputs.size(), maxItems));
+    }
+    List<Future<ParseItemResult>> futures = new ArrayList<>(inputs.size());
+    try {
+      for (int i = 0; i < inputs.size(); i++) {
+        futures.add(submit(i, inputs.get(i)));
+      }
+      List<ParseItemResult> results = new ArrayList<>(inputs.size());
+      for (int i = 0; i < futures.size(); i++) {
+        results.add(await(i, futures.get(i)));
+      }
+      return results;
+    } finally {
+      // Only has an effect when the caller was interrupted part-way
+      futures.forEach(f -> f.cancel(true));
+    }
+  }
+
+  /**
+   * Parses one program per line of {@code in} and writes one JSON result per line to {@code out},
+   * in input order.
+   *
+   * <p>The {@code index} of each result is the line number of its record, starting at 0. Records
+   * that are too long or not valid for {@code format} get an error result without being parsed.
+   * The output is flushed whenever no further input is available yet, so results keep flowing
+   * while the client is still sending.
+   *
+   * @param in records, one per line
+   * @param out destination of the results
+   * @param format encoding of the records
+   * @throws IOException if reading the input or writing the output fails
+   */
+  public void parseStream(Reader in, Writer out, RecordFormat format) throws IOException {
+    RecordReader reader = new RecordReader(in, maxRecordLength);
+    Deque<Pending> inFlight = new ArrayDeque<>(window);
+    try {
+      while (reader.next()) {
+        long index = reader.lineNumber();
+        String record = reader.record();
+        if (format == RecordFormat.NDJSON && record != null && record.isBlank()) {
+          continue;
+        }
+        inFlight.add(new Pending(index, submitRecord(index, record, format)));
+        // Write every finished result at the head; block only when the window is full
+        while (!inFlight.isEmpty()
+            && (inFlight.size() >= window || inFlight.peek().future().isDone())) {
+          writeNext(inFlight, out);
+        }
+        if (!reader.ready()) {
+          out.flush();
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        writeNext(inFlight, out);
+      }
+      out.flush();
+    } finally {
+      // Only has an effect when reading, writing or waiting failed part-way
+      inFlight.forEach(p -> p.future().cancel(true));
+    }
+  }
+
+  /** A streamed record that has been scheduled but whose result is not written yet. */
+  private record Pending(long index, Future<ParseItemResult> future) {}
+
+  private void writeNext(Deque<Pending> inFlight, Writer out) throws IOException {
+    Pending pending = inFlight.poll();
+    write(await(pending.index(), pending.future()), out);
+  }
+
+  private Future<ParseItemResult> submitRecord(long index, String record, RecordFormat format) {
+    if (record == null) {
+      return CompletableFuture.completedFuture(
+          error(index, "Record exceeds " + maxRecordLength + " characters"));
+    }
+    if (format == RecordFormat.LINE) {
+      return submit(index, record);
+    }
+    try {
+      JsonNode node = objectMapper.readTree(record);
+      JsonNode input = node.isObject() ? node.get("input") : node;
+      if (input != null && input.isTextual()) {
+        return submit(index, input.textValue());
+      }
+    } catch (JsonProcessingException e) {
+      // Reported below like any other malformed record
+    }
+    return CompletableFuture.completedFuture(
+        error(index, "Invalid record: expected a JSON string or {\"input\": string}"));
+  }
+
+  private void write(ParseItemResult result, Writer out) throws IOException {
+    out.write(objectMapper.writeValueAsString(result));
+    out.write('\n');
+  }
+
+  /** Schedules one input on the parse executor. */
+  Future<ParseItemResult> submit(long index, String input) {
+    return executor.submit(() -> parseItem(index, input));
+  }
+
+  /** Waits for one scheduled input, turning a failed task into an error item. */
+  ParseItemResult await(long index, Future<ParseItemResult> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for batch item " + index);
+    } catch (ExecutionException e) {
+      return failed(index, e.getCause());
+    }
+  }
+
+  /** Runs the pipeline for one input; never throws. */
+  ParseItemResult parseItem(long index, String input) {
+    try {
+      ParserResponse response = parserService.parse(input == null ? "" : input);
+      return ParseItemResult.builder()
+          .index(index)
+          .valid(response.getErrors().isEmpty())
+          .errors(response.getErrors())
+          .ast(TreePrinter.generateASCIITree(response.getAst()))
+          .build();
+    } catch (RuntimeException e) {
+      return failed(index, e);
+    }
+  }
+
+  private static ParseItemResult failed(long index, Throwable cause) {
+    log.error("Batch item {} failed", index, cause);
+    return error(index, "Unexpected error: " + cause.getMessage());
+  }
+
+  private static ParseItemResult error(long index, String message) {
+    return ParseItemResult.builder()
+        .index(index)
+        .valid(false)
+        .errors(List.of(message))
+        .ast("")
+        .build();
+  }
+}
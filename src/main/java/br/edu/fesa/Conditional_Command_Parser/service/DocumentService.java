@@ -0,0 +1,192 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
+import br.edu.fesa.Conditional_Command_Parser.model.DocumentResult;
+import br.edu.fesa.Conditional_Command_Parser.model.SubtreeDiagnostics;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.TextEdit;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.utils.IncrementalParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.ParseSnapshot;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps open documents on the server and re-analyzes them edit by edit.
+ *
+ * <p>Each document holds the {@link ParseSnapshot} of its latest version, so an edit is lexed and
+ * parsed incrementally by {@link IncrementalParser}. Programs declare nothing, so the types and
+ * errors of a subtree the parser reused are still valid: {@link
+ * SemanticAnalyzer#analyzeIncremental} walks only the nodes built for the new version and takes
+ * over the errors of the rest, which each document records by subtree in a map of its own. The
+ * map holds its nodes weakly, so subtrees no version refers to any more are dropped. Rendering the
+ * whole tree is left to callers that ask for it, since it costs as much as the document.
+ *
+ * <p>A document is analyzed in the {@link SymbolEnvironment} it was opened with, for its whole
+ * life: replacing a registered environment does not affect documents already open with it.
+ *
+ * <p>Edits to one document are applied one at a time; different documents are independent. Idle
+ * documents are dropped after {@code parser.documents.idle-timeout}, and at most {@code
+ * parser.documents.max-open} are kept.
+ */
+@Service
+@Slf4j
+public class DocumentService {
+
+  /** Latest version of an open document, with the errors recorded for its analyzed subtrees. */
+  private record Document(
+      ParseSnapshot snapshot,
+      SymbolEnvironment environment,
+      Map<SyntaxNode, SubtreeDiagnostics> analyzed,
+      long version,
+      List<Diagnostic> errors) {}
+
+  private final IncrementalParser incrementalParser;
+  private final ObjectFactory<SemanticAnalyzer> semanticAnalyzerFactory;
+  private final Cache<String, Document> documents;
+
+  /**
+   * @param incrementalParser lexes and parses successive versions
+   * @param semanticAnalyzerFactory supplies a fresh semantic analyzer for every version
+   * @param maxOpen maximum number of documents kept
+   * @param idleTimeout how long a document is kept without being edited
+   */
+  @Autowired
+  public DocumentService(
+      IncrementalParser incrementalParser,
+      ObjectFactory<SemanticAnalyzer> semanticAnalyzerFactory,
+      @Value("${parser.documents.max-open:1000}") long maxOpen,
+      @Value("${parser.documents.idle-timeout:30m}") Duration idleTimeout) {
+    this.incrementalParser = incrementalParser;
+    this.semanticAnalyzerFactory = semanticAnalyzerFactory;
+    this.documents =
+        Caffeine.newBuilder().maximumSize(maxOpen).expireAfterAccess(idleTimeout).build();
+  }
+
+  /**
+   * Opens a new document and analyzes its full text.
+   *
+   * @param input initial text
+   * @return result for version 0, with the rendered tree
+   */
+  public DocumentResult open(String input) {
+    return open(input, SymbolEnvironment.EMPTY, true);
+  }
+
+  /**
+   * Opens a new document and analyzes its full text.
+   *
+   * @param input initial text
+   * @param environment declarations every version of the document is analyzed against
+   * @param includeTree whether to render the tree, whose text grows with the document and, for
+   *     deeply nested programs, with the square of its depth
+   * @return result for version 0
+   */
+  public DocumentResult open(String input, SymbolEnvironment environment, boolean includeTree) {
+    String id = UUID.randomUUID().toString();
+    // Weak keys compare by identity, which is what tells a reused subtree from an equal new one
+    Map<SyntaxNode, SubtreeDiagnostics> analyzed =
+        Caffeine.newBuilder().weakKeys().<SyntaxNode, SubtreeDiagnostics>build().asMap();
+    Document document = analyze(incrementalParser.parse(input), environment, analyzed, 0);
+    documents.put(id, document);
+    return toResult(id, document, includeTree);
+  }
+
+  /**
+   * Applies edits, in order, to an open document and analyzes the result, without rendering the
+   * tree.
+   *
+   * @param documentId identifier returned by {@link #open(String)}
+   * @param edits replacements, each relative to the text left by the previous one
+   * @return result for the new version, with an empty {@code ast}
+   * @throws NoSuchElementException if the document is unknown or has expired
+   * @throws IllegalArgumentException if an edit does not fit the text; no edit is applied then
+   */
+  public DocumentResult edit(String documentId, List<TextEdit> edits) {
+    return edit(documentId, edits, false);
+  }
+
+  /**
+   * Applies edits, in order, to an open document and analyzes the result.
+   *
+   * @param documentId identifier returned by {@link #open(String)}
+   * @param edits replacements, each relative to the text left by the previous one
+   * @param includeTree whether to render the whole new tree, which takes time proportional to the
+   *     document rather than to the edit
+   * @return result for the new version
+   * @throws NoSuchElementException if the document is unknown or has expired
+   * @throws IllegalArgumentException if an edit does not fit the text; no edit is applied then
+   */
+  public DocumentResult edit(String documentId, List<TextEdit> edits, boolean includeTree) {
+    Document updated =
+        documents
+            .asMap()
+            .computeIfPresent(
+                documentId,
+                (id, current) -> {
+                  ParseSnapshot snapshot = current.snapshot();
+                  for (TextEdit edit : edits) {
+                    snapshot = incrementalParser.apply(snapshot, edit);
+                  }
+                  return analyze(
+                      snapshot, current.environment(), current.analyzed(), current.version() + 1);
+                });
+    if (updated == null) {
+      throw new NoSuchElementException("Unknown document: " + documentId);
+    }
+    return toResult(documentId, updated, includeTree);
+  }
+
+  /** Drops a document; unknown identifiers are ignored. */
+  public void close(String documentId) {
+    documents.invalidate(documentId);
+  }
+
+  private Document analyze(
+      ParseSnapshot snapshot,
+      SymbolEnvironment environment,
+      Map<SyntaxNode, SubtreeDiagnostics> analyzed,
+      long version) {
+    if (snapshot.getLexicalDiagnostic() != null) {
+      // As in ParserService: a lexical error aborts the analysis and is the only error
+      return new Document(
+          snapshot, environment, analyzed, version, List.of(snapshot.getLexicalDiagnostic()));
+    }
+    SemanticAnalyzer semanticAnalyzer = semanticAnalyzerFactory.getObject();
+    semanticAnalyzer.analyzeIncremental(snapshot.getAst(), environment, analyzed);
+
+    List<Diagnostic> errors = new ArrayList<>(snapshot.getSyntaxDiagnostics());
+    errors.addAll(semanticAnalyzer.getDiagnostics());
+    log.debug(
+        "Document version {}: relexed {} tokens, reused {} subtrees",
+        version,
+        snapshot.getRelexedTokens(),
+        snapshot.getReusedSubtrees());
+    return new Document(snapshot, environment, analyzed, version, List.copyOf(errors));
+  }
+
+  private static DocumentResult toResult(String id, Document document, boolean includeTree) {
+    ParseSnapshot snapshot = document.snapshot();
+    return DocumentResult.builder()
+        .documentId(id)
+        .version(document.version())
+        .ast(includeTree ? TreePrinter.generateASCIITree(snapshot.getAst()) : "")
+        .errors(Diagnostic.messages(document.errors()))
+        .relexedTokens(snapshot.getRelexedTokens())
+        .reusedSubtrees(snapshot.getReusedSubtrees())
+        .build();
+  }
+}
@@ -0,0 +1,168 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import br.edu.fesa.Conditional_Command_Parser.model.CacheStatistics;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, content-addressed cache of complete {@link ParserResponse}s.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the input, so the cache never keeps the input text
+ * itself alive and identical snippets share one entry no matter who submits them. Each entry
+ * weighs as many units as its input has characters, a cheap stand-in for the size of its AST; the
+ * total weight and the time since an entry was computed are both capped. Responses analyzed in a
+ * {@link SymbolEnvironment} are kept apart per environment instance, so replacing an environment
+ * never serves results of the old one.
+ *
+ * <p>Configured by {@code parser.cache.enabled}, {@code parser.cache.max-weight} and {@code
+ * parser.cache.expire-after-write}. When disabled, every lookup simply computes the response.
+ *
+ * <p>A miss runs the pipeline outside the cache, with no lock held: a large input can take seconds,
+ * and computing inside the cache would block unrelated keys that share its hash bin. Concurrent
+ * misses for the same input may therefore compute it more than once; the first result stored wins
+ * and every caller gets that one.
+ *
+ * <p>A cached response is handed to every caller that asks for the same input, so callers must
+ * treat it, and its AST in particular, as read-only. Nothing enforces this: AST nodes keep their
+ * setters, which the parser and the semantic analyzer need while building them.
+ */
+@Component
+public class ParseResultCache {
+
+  /** Default total weight: one million input characters across all entries. */
+  public static final long DEFAULT_MAX_WEIGHT = 1_000_000;
+
+  /**
+   * Digest of an input plus its length, which doubles as the entry's weight, and the environment
+   * it was analyzed in (compared by identity).
+   */
+  private record Key(String digest, int length, SymbolEnvironment environment) {}
+
+  private final Cache<Key, ParserResponse> cache;
+
+  /**
+   * @param enabled whether responses are cached at all
+   * @param maxWeight maximum total number of input characters held by cached entries
+   * @param expireAfterWrite how long an entry stays valid after it was computed
+   */
+  @Autowired
+  public ParseResultCache(
+      @Value("${parser.cache.enabled:true}") boolean enabled,
+      @Value("${parser.cache.max-weight:" + DEFAULT_MAX_WEIGHT + "}") long maxWeight,
+      @Value("${parser.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+    this(enabled, maxWeight, expireAfterWrite, Ticker.systemTicker());
+  }
+
+  /** Same as the public constructor, with an explicit time source for tests. */
+  ParseResultCache(boolean enabled, long maxWeight, Duration expireAfterWrite, Ticker ticker) {
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("maxWeight must not be negative: " + maxWeight);
+    }
+    this.cache =
+        enabled && maxWeight > 0
+            ? Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, ParserResponse value) -> key.length())
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                // Run eviction on the calling thread so counters are exact when a call returns
+                .executor(Runnable::run)
+                .recordStats()
+                .build()
+            : null;
+  }
+
+  /** Returns a cache that always computes; used when no cache is configured. */
+  public static ParseResultCache disabled() {
+    return new ParseResultCache(false, 0, Duration.ZERO, Ticker.systemTicker());
+  }
+
+  /** Whether responses are actually cached. */
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Returns the cached response for {@code input}, computing and storing it on a miss.
+   *
+   * @param input source code the response belongs to
+   * @param compute runs the pipeline for {@code input}
+   * @return the response, shared with every caller asking for the same input; must not be
+   *     modified
+   */
+  public ParserResponse get(String input, Function<String, ParserResponse> compute) {
+    return get(input, SymbolEnvironment.EMPTY, compute);
+  }
+
+  /**
+   * Returns the cached response for {@code input} analyzed in {@code environment}, computing and
+   * storing it on a miss.
+   *
+   * @param input source code the response belongs to
+   * @param environment environment the response was analyzed in
+   * @param compute runs the pipeline for {@code input}
+   * @return the response, shared with every caller asking for the same input and environment;
+   *     must not be modified
+   */
+  public ParserResponse get(
+      String input, SymbolEnvironment environment, Function<String, ParserResponse> compute) {
+    if (cache == null) {
+      return compute.apply(input);
+    }
+    Key key = new Key(digest(input), input.length(), environment);
+    ParserResponse cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    // Computed outside the cache so no lock is held for the whole pipeline run
+    ParserResponse response = compute.apply(input);
+    ParserResponse raced = cache.asMap().putIfAbsent(key, response);
+    return raced != null ? raced : response;
+  }
+
+  /** Drops every entry; counters are kept. */
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  /** Snapshot of the hit, miss and eviction counters. */
+  public CacheStatistics statistics() {
+    if (cache == null) {
+      return CacheStatistics.builder().enabled(false).build();
+    }
+    CacheStats stats = cache.stats();
+    return CacheStatistics.builder()
+        .enabled(true)
+        .size(cache.estimatedSize())
+        .hits(stats.hitCount())
+        .misses(stats.missCount())
+        .evictions(stats.evictionCount())
+        .hitRate(stats.hitRate())
+        .build();
+  }
+
+  private static String digest(String input) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(input.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to provide SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
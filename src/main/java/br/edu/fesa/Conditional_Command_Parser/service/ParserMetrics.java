@@ -0,0 +1,201 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters of the {@link ParserService} pipeline.
+ *
+ * <ul>
+ *   <li>{@code parser.stage}: time per pipeline run spent in each {@link Stage}, tagged {@code
+ *       stage}
+ *   <li>{@code parser.input.size}: characters per input
+ *   <li>{@code parser.tokens} and {@code parser.ast.nodes}: tokens scanned and nodes built
+ *   <li>{@code parser.errors}: errors found, tagged {@code kind} (lexical, syntax or semantic)
+ * </ul>
+ *
+ * <p>Every meter is registered once, up front, so recording is a clock read and an update of a
+ * fixed histogram bucket or adder: no lookup by name and tags, and no allocation. Timers and the
+ * size summary publish histograms rather than precomputed percentiles, so p50 and p99 are computed
+ * by the monitoring system and can be aggregated across instances.
+ *
+ * <p>The pipeline streams tokens from the lexer into the parser, so the two stages normally run
+ * interleaved and are timed together as {@link Stage#LEXING_PARSING}. Timing every token would
+ * cost more than scanning it; instead, one run in {@code parser.metrics.stage-sample-interval}
+ * lexes the whole input first and times {@link Stage#LEXING} and {@link Stage#PARSING} apart. Such
+ * a run is slower than a streamed one, up to twice as slow on large inputs, so the default
+ * interval keeps the average cost near 1%.
+ *
+ * <p>Configured by {@code parser.metrics.enabled} and {@code parser.metrics.stage-sample-interval}.
+ * When disabled, nothing is registered and every method returns at once.
+ */
+@Component
+public class ParserMetrics {
+
+  /** By default, one run in this many times lexing and parsing apart. */
+  public static final int DEFAULT_STAGE_SAMPLE_INTERVAL = 100;
+
+  /** Part of a pipeline run, as tagged on {@code parser.stage}. */
+  public enum Stage {
+    /** Tokenizing the whole input; sampled runs only. */
+    LEXING("lexing"),
+    /** Parsing already scanned tokens; sampled runs only. */
+    PARSING("parsing"),
+    /** Lexing and parsing together, streamed or not; every run. */
+    LEXING_PARSING("lexing_parsing"),
+    /** Semantic analysis of the tree. */
+    SEMANTIC("semantic"),
+    /** Building the response from the results. */
+    RESPONSE("response");
+
+    private final String tag;
+
+    Stage(String tag) {
+      this.tag = tag;
+    }
+
+    /** Value of the {@code stage} tag. */
+    public String getTag() {
+      return tag;
+    }
+  }
+
+  /** Kind of error, as tagged on {@code parser.errors}. */
+  public enum ErrorKind {
+    LEXICAL,
+    SYNTAX,
+    SEMANTIC
+  }
+
+  private final boolean enabled;
+  private final int stageSampleInterval;
+  private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+  private final Map<ErrorKind, Counter> errors = new EnumMap<>(ErrorKind.class);
+  private final DistributionSummary inputSize;
+  private final Counter tokens;
+  private final Counter nodes;
+
+  /**
+   * @param registry registry the meters are added to
+   * @param enabled whether anything is recorded at all
+   * @param stageSampleInterval one run in this many times lexing and parsing apart; 0 never does
+   */
+  @Autowired
+  public ParserMetrics(
+      MeterRegistry registry,
+      @Value("${parser.metrics.enabled:true}") boolean enabled,
+      @Value("${parser.metrics.stage-sample-interval:" + DEFAULT_STAGE_SAMPLE_INTERVAL + "}")
+          int stageSampleInterval) {
+    if (stageSampleInterval < 0) {
+      throw new IllegalArgumentException(
+          "stageSampleInterval must not be negative: " + stageSampleInterval);
+    }
+    this.enabled = enabled;
+    this.stageSampleInterval = enabled ? stageSampleInterval : 0;
+    if (!enabled) {
+      this.inputSize = null;
+      this.tokens = null;
+      this.nodes = null;
+      return;
+    }
+    for (Stage stage : Stage.values()) {
+      stages.put(
+          stage,
+          Timer.builder("parser.stage")
+              .description("Time spent in one stage of a parse pipeline run")
+              .tag("stage", stage.getTag())
+              .publishPercentileHistogram()
+              .minimumExpectedValue(Duration.ofNanos(500))
+              .maximumExpectedValue(Duration.ofSeconds(30))
+              .register(registry));
+    }
+    for (ErrorKind kind : ErrorKind.values()) {
+      errors.put(
+          kind,
+          Counter.builder("parser.errors")
+              .description("Errors reported by the parse pipeline")
+              .tag("kind", kind.name().toLowerCase())
+              .register(registry));
+    }
+    this.inputSize =
+        DistributionSummary.builder("parser.input.size")
+            .description("Length of the inputs run through the parse pipeline")
+            .baseUnit("characters")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue((double) (1 << 26))
+            .register(registry);
+    this.tokens =
+        Counter.builder("parser.tokens")
+            .description("Tokens scanned by the parse pipeline, EOF excluded")
+            .register(registry);
+    this.nodes =
+        Counter.builder("parser.ast.nodes")
+            .description("AST nodes built by the parse pipeline")
+            .register(registry);
+  }
+
+  /** Returns metrics that record nothing; used when no registry is configured. */
+  public static ParserMetrics disabled() {
+    return new ParserMetrics(null, false, 0);
+  }
+
+  /** Whether anything is recorded. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Whether the current run should time lexing and parsing apart. */
+  public boolean sampleStages() {
+    return stageSampleInterval > 0
+        && (stageSampleInterval == 1
+            || ThreadLocalRandom.current().nextInt(stageSampleInterval) == 0);
+  }
+
+  /** Clock reading to pass to {@link #record}; 0 when disabled. */
+  public long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the time since {@code start} for {@code stage}.
+   *
+   * @param stage stage that just finished
+   * @param start value of {@link #start()} or of an earlier {@code record} when the stage began
+   * @return the current clock reading, where the next stage begins
+   */
+  public long record(Stage stage, long start) {
+    if (!enabled) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    stages.get(stage).record(now - start, TimeUnit.NANOSECONDS);
+    return now;
+  }
+
+  /** Records the size of one input and the tokens and nodes the pipeline made of it. */
+  public void recordInput(int length, int tokenCount, int nodeCount) {
+    if (enabled) {
+      inputSize.record(length);
+      tokens.increment(tokenCount);
+      nodes.increment(nodeCount);
+    }
+  }
+
+  /** Counts {@code count} errors of {@code kind}. */
+  public void recordErrors(ErrorKind kind, int count) {
+    if (enabled && count > 0) {
+      errors.get(kind).increment(count);
+    }
+  }
+}
@@ -1,17 +1,26 @@
 package br.edu.fesa.Conditional_Command_Parser.service;
 
 import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.CacheStatistics;
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
+import br.edu.fesa.Conditional_Command_Parser.model.GrammarTables;
 import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
 import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
 import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.model.ValidationResult;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserMetrics.ErrorKind;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserMetrics.Stage;
 import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
 import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
 import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
 import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TokenBuffer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TokenStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -19,11 +28,26 @@ import org.springframework.stereotype.Service;
  * Service that orchestrates the complete parsing pipeline:
  *
  * <ol>
- *   <li>Lexical analysis (Lexer)
+ *   <li>Lexical analysis (Lexer), streamed one token at a time into
  *   <li>Syntactic analysis with error recovery (RecursiveDescentParser)
  *   <li>Semantic analysis (SemanticAnalyzer)
  *   <li>Packaging results into a ParserResponse
  * </ol>
+ *
+ * <p>The service is a stateless singleton and safe to call from many request threads at once. The
+ * parser and the semantic analyzer keep per-run state, so each call obtains its own instances from
+ * their prototype-scoped factories instead of sharing one.
+ *
+ * <p>Responses depend only on the input text, so they are served from a {@link ParseResultCache}
+ * when one is enabled. A cached response, AST included, is shared by every caller and must be
+ * treated as read-only.
+ *
+ * <p>Errors are collected as {@link Diagnostic}s and their messages rendered only when a response
+ * is displayed, so error-heavy input, such as a program being typed in an editor, costs no string
+ * formatting until the page or JSON is written.
+ *
+ * <p>Each run of the pipeline, that is each cache miss, is timed stage by stage and counted in
+ * {@link ParserMetrics}.
  */
 @Service
 @Slf4j
@@ -31,27 +55,83 @@ public class ParserService {
 
   private final FirstFollowCalculator firstFollowCalculator;
   private final Lexer lexer;
-  private final RecursiveDescentParser parser;
-  private final SemanticAnalyzer semanticAnalyzer;
+  private final ObjectFactory<RecursiveDescentParser> parserFactory;
+  private final ObjectFactory<SemanticAnalyzer> semanticAnalyzerFactory;
+  private final ParseResultCache cache;
+  private final ParserMetrics metrics;
+
+  /**
+   * Constructs the ParserService without a result cache.
+   *
+   * @param firstFollowCalculator computes FIRST/FOLLOW sets for display
+   * @param lexer performs lexical analysis (tokenization); stateless and shared
+   * @param parserFactory supplies a fresh syntactic analyzer for every call (prototype-scoped)
+   * @param semanticAnalyzerFactory supplies a fresh semantic analyzer for every call
+   *     (prototype-scoped)
+   */
+  public ParserService(
+      FirstFollowCalculator firstFollowCalculator,
+      Lexer lexer,
+      ObjectFactory<RecursiveDescentParser> parserFactory,
+      ObjectFactory<SemanticAnalyzer> semanticAnalyzerFactory) {
+    this(
+        firstFollowCalculator,
+        lexer,
+        parserFactory,
+        semanticAnalyzerFactory,
+        ParseResultCache.disabled());
+  }
 
   /**
    * Constructs the ParserService with its required components.
    *
    * @param firstFollowCalculator computes FIRST/FOLLOW sets for display
-   * @param lexer performs lexical analysis (tokenization)
-   * @param parser performs syntactic analysis (prototype-scoped)
-   * @param semanticAnalyzer performs semantic checks on the AST
+   * @param lexer performs lexical analysis (tokenization); stateless and shared
+   * @param parserFactory supplies a fresh syntactic analyzer for every call (prototype-scoped)
+   * @param semanticAnalyzerFactory supplies a fresh semantic analyzer for every call
+   *     (prototype-scoped)
+   * @param cache stores finished responses by input content
+   */
+  public ParserService(
+      FirstFollowCalculator firstFollowCalculator,
+      Lexer lexer,
+      ObjectFactory<RecursiveDescentParser> parserFactory,
+      ObjectFactory<SemanticAnalyzer> semanticAnalyzerFactory,
+      ParseResultCache cache) {
+    this(
+        firstFollowCalculator,
+        lexer,
+        parserFactory,
+        semanticAnalyzerFactory,
+        cache,
+        ParserMetrics.disabled());
+  }
+
+  /**
+   * Constructs the ParserService with its required components and metrics.
+   *
+   * @param firstFollowCalculator computes FIRST/FOLLOW sets for display
+   * @param lexer performs lexical analysis (tokenization); stateless and shared
+   * @param parserFactory supplies a fresh syntactic analyzer for every call (prototype-scoped)
+   * @param semanticAnalyzerFactory supplies a fresh semantic analyzer for every call
+   *     (prototype-scoped)
+   * @param cache stores finished responses by input content
+   * @param metrics records the timings and counts of every pipeline run
    */
   @Autowired
   public ParserService(
       FirstFollowCalculator firstFollowCalculator,
       Lexer lexer,
-      RecursiveDescentParser parser,
-      SemanticAnalyzer semanticAnalyzer) {
+      ObjectFactory<RecursiveDescentParser> parserFactory,
+      ObjectFactory<SemanticAnalyzer> semanticAnalyzerFactory,
+      ParseResultCache cache,
+      ParserMetrics metrics) {
     this.firstFollowCalculator = firstFollowCalculator;
     this.lexer = lexer;
-    this.parser = parser;
-    this.semanticAnalyzer = semanticAnalyzer;
+    this.parserFactory = parserFactory;
+    this.semanticAnalyzerFactory = semanticAnalyzerFactory;
+    this.cache = cache;
+    this.metrics = metrics;
   }
 
   /**
@@ -62,48 +142,139 @@ public class ParserService {
    *     <ul>
    *       <li>AST (possibly partial if errors occurred)
    *       <li>All lexical, syntactic, and semantic errors found
-   *       <li>FIRST and FOLLOW sets for each nonterminal
+   *       <li>FIRST and FOLLOW sets for each nonterminal, shared by all responses
    *     </ul>
+   *     The response may be shared with other callers and must not be modified.
    */
   public ParserResponse parse(String input) {
+    return parse(input, SymbolEnvironment.EMPTY);
+  }
+
+  /**
+   * Runs the full compile pipeline on the given input string, with the variables of {@code
+   * environment} declared for the semantic analysis.
+   *
+   * @param input source code to be analyzed
+   * @param environment shared declarations, e.g. those of the calling tenant
+   * @return the same as {@link #parse(String)}
+   */
+  public ParserResponse parse(String input, SymbolEnvironment environment) {
+    return cache.get(input, environment, source -> runPipeline(source, environment));
+  }
+
+  /**
+   * Checks the input against the lexical and syntactic rules only, without building a tree,
+   * running semantic analysis or attaching the grammar sets.
+   *
+   * <p>Reports the same lexical and syntax errors as {@link #parse(String)}. With {@code failFast}
+   * it stops at the first error instead: the rest of the input is neither parsed nor scanned.
+   * Results are not cached; validating is cheaper than a cache lookup, which digests the input.
+   *
+   * @param input source code to check
+   * @param failFast whether to stop at the first error
+   * @return whether the input is valid, with its errors
+   */
+  public ValidationResult validate(String input, boolean failFast) {
+    List<Diagnostic> diagnostics;
     try {
-      // 1) Lexical Analysis
-      List<Token> tokens = lexer.tokenize(input);
-      log.debug("Generated tokens: {}", tokens);
+      TokenStream tokens = lexer.stream(input);
+      RecursiveDescentParser parser = parserFactory.getObject();
+      if (parser.recognize(tokens, failFast) || !failFast) {
+        // As in parse(): scan the rest, so that a later lexical error replaces any syntax error
+        while (tokens.type() != Token.Type.EOF) {
+          tokens.advance();
+        }
+      }
+      diagnostics = parser.getDiagnostics();
+    } catch (LexicalException lexEx) {
+      diagnostics = List.of(lexEx.getDiagnostic());
+    }
+    return ValidationResult.builder()
+        .valid(diagnostics.isEmpty())
+        .errors(Diagnostic.messages(diagnostics))
+        .diagnostics(diagnostics)
+        .build();
+  }
 
-      // 2) Syntactic Analysis (error recovery)
-      SyntaxNode ast = parser.parse(tokens);
-      List<String> syntaxErrors = parser.getErrors();
+  /** FIRST/FOLLOW tables every response refers to. */
+  public GrammarTables grammarTables() {
+    return firstFollowCalculator.getTables();
+  }
+
+  /** Snapshot of the result cache counters. */
+  public CacheStatistics cacheStatistics() {
+    return cache.statistics();
+  }
+
+  private ParserResponse runPipeline(String input, SymbolEnvironment environment) {
+    long start = metrics.start();
+    try {
+      RecursiveDescentParser parser = parserFactory.getObject();
+      SyntaxNode ast;
+      int tokenCount;
+      if (metrics.sampleStages()) {
+        // 1) Lexical Analysis of the whole input first, so each stage is timed on its own
+        TokenBuffer buffer = lexer.tokenizeToBuffer(input);
+        long lexed = metrics.record(Stage.LEXING, start);
+        // 2) Syntactic Analysis
+        ast = parser.parse(buffer);
+        metrics.record(Stage.PARSING, lexed);
+        tokenCount = buffer.size() - 1;
+      } else {
+        // 1+2) Lexical and Syntactic Analysis, interleaved: the parser pulls tokens on demand
+        TokenStream tokens = lexer.stream(input);
+        ast = parser.parse(tokens);
+        // Scan whatever the parser left unread, so a later lexical error still aborts the run
+        while (tokens.type() != Token.Type.EOF) {
+          tokens.advance();
+        }
+        tokenCount = tokens.index();
+      }
+      long parsed = metrics.record(Stage.LEXING_PARSING, start);
+      metrics.recordInput(input.length(), tokenCount, parser.getNodeCount());
+      List<Diagnostic> syntaxErrors = parser.getDiagnostics();
+      metrics.recordErrors(ErrorKind.SYNTAX, syntaxErrors.size());
       if (!syntaxErrors.isEmpty()) {
-        log.error("Syntax errors: {}", syntaxErrors);
+        log.debug("Syntax errors: {}", syntaxErrors);
       }
 
       // 3) Semantic Analysis
-      semanticAnalyzer.analyze(ast);
-      List<String> semanticErrors = semanticAnalyzer.getErrors();
+      SemanticAnalyzer semanticAnalyzer = semanticAnalyzerFactory.getObject();
+      semanticAnalyzer.analyze(ast, environment);
+      List<Diagnostic> semanticErrors = semanticAnalyzer.getDiagnostics();
+      long analyzed = metrics.record(Stage.SEMANTIC, parsed);
+      metrics.recordErrors(ErrorKind.SEMANTIC, semanticErrors.size());
       if (!semanticErrors.isEmpty()) {
-        log.error("Semantic errors: {}", semanticErrors);
+        log.debug("Semantic errors: {}", semanticErrors);
       }
 
       // 4) Collect all errors together
-      List<String> allErrors = new ArrayList<>(syntaxErrors);
+      List<Diagnostic> allErrors = new ArrayList<>(syntaxErrors);
       allErrors.addAll(semanticErrors);
+      List<Diagnostic> diagnostics = List.copyOf(allErrors);
 
       // 5) Build and return response
-      return ParserResponse.builder()
-          .ast(ast)
-          .errors(allErrors.isEmpty() ? Collections.emptyList() : allErrors)
-          .firstSets(firstFollowCalculator.getFirstSets())
-          .followSets(firstFollowCalculator.getFollowSets())
-          .build();
+      ParserResponse response =
+          ParserResponse.builder()
+              .ast(ast)
+              .errors(Diagnostic.messages(diagnostics))
+              .diagnostics(diagnostics)
+              .grammar(firstFollowCalculator.getTables())
+              .build();
+      metrics.record(Stage.RESPONSE, analyzed);
+      return response;
 
     } catch (LexicalException lexEx) {
       // On lexical error, abort further analysis and return only this error
-      log.error("Lexical error: {}", lexEx.getMessage());
+      Diagnostic diagnostic = lexEx.getDiagnostic();
+      log.debug("{}", diagnostic);
+      metrics.record(Stage.LEXING_PARSING, start);
+      metrics.recordInput(input.length(), 0, 0);
+      metrics.recordErrors(ErrorKind.LEXICAL, 1);
       return ParserResponse.builder()
-          .errors(Collections.singletonList("Lexical error: " + lexEx.getMessage()))
-          .firstSets(firstFollowCalculator.getFirstSets())
-          .followSets(firstFollowCalculator.getFollowSets())
+          .errors(Diagnostic.messages(List.of(diagnostic)))
+          .diagnostics(List.of(diagnostic))
+          .grammar(firstFollowCalculator.getTables())
           .build();
     }
   }
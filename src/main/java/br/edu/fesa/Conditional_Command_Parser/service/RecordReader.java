@@ -0,0 +1,98 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a character stream into newline-terminated records of bounded length.
+ *
+ * <p>Unlike {@code BufferedReader.readLine()}, a record longer than the limit is never held in
+ * memory: its characters are skipped up to the next line break and {@link #record()} returns
+ * null for it. Memory use is therefore bounded by the limit, whatever the size of the input.
+ * Both {@code \n} and {@code \r\n} end a record.
+ */
+final class RecordReader {
+
+  private final Reader in;
+  private final int maxLength;
+  private final char[] buffer = new char[8192];
+  private final StringBuilder line = new StringBuilder();
+
+  private int pos;
+  private int limit;
+  private long lineNumber = -1;
+  private String record;
+
+  /**
+   * @param in source of the records
+   * @param maxLength longest record, in characters, that {@link #record()} returns
+   */
+  RecordReader(Reader in, int maxLength) {
+    this.in = in;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * Moves to the next record.
+   *
+   * @return false at the end of the input
+   * @throws IOException if reading fails
+   */
+  boolean next() throws IOException {
+    line.setLength(0);
+    boolean tooLong = false;
+    boolean any = false;
+    while (true) {
+      if (pos == limit) {
+        limit = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (limit <= 0) {
+          limit = 0;
+          if (!any) {
+            return false;
+          }
+          break;
+        }
+      }
+      any = true;
+      int startPos = pos;
+      while (pos < limit && buffer[pos] != '\n') {
+        pos++;
+      }
+      if (!tooLong) {
+        line.append(buffer, startPos, pos - startPos);
+        if (line.length() > maxLength + 1) {
+          // One extra character is allowed for a trailing '\r'
+          tooLong = true;
+          line.setLength(0);
+        }
+      }
+      if (pos < limit) {
+        pos++;
+        break;
+      }
+    }
+    int length = line.length();
+    if (length > 0 && line.charAt(length - 1) == '\r') {
+      line.setLength(--length);
+    }
+    lineNumber++;
+    record = tooLong || length > maxLength ? null : line.toString();
+    return true;
+  }
+
+  /** Current record without its line break, or null if it exceeded the length limit. */
+  String record() {
+    return record;
+  }
+
+  /** Line number of the current record, starting at 0. */
+  long lineNumber() {
+    return lineNumber;
+  }
+
+  /** True if more input can be read without blocking. */
+  boolean ready() throws IOException {
+    return pos < limit || in.ready();
+  }
+}
@@ -0,0 +1,60 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Named {@link SymbolEnvironment}s, e.g. one per tenant, that parse requests can refer to.
+ *
+ * <p>An environment is built once when it is registered and then shared, read-only, by every
+ * request that names it. Registering a name again replaces its environment; requests already
+ * running keep the one they started with.
+ */
+@Service
+@Slf4j
+public class SymbolEnvironmentRegistry {
+
+  private final Map<String, SymbolEnvironment> environments = new ConcurrentHashMap<>();
+
+  /**
+   * Builds an environment from {@code variables} and registers it under {@code name}.
+   *
+   * @param name name requests refer to the environment by
+   * @param variables declared type by variable name
+   * @return the new environment
+   * @throws IllegalArgumentException if a variable name or type is invalid
+   */
+  public SymbolEnvironment register(String name, Map<String, Token.Type> variables) {
+    SymbolEnvironment environment = SymbolEnvironment.of(variables);
+    environments.put(name, environment);
+    log.info("Registered environment '{}' with {} variables", name, environment.size());
+    return environment;
+  }
+
+  /**
+   * Returns the environment registered under {@code name}.
+   *
+   * @throws NoSuchElementException if none is
+   */
+  public SymbolEnvironment get(String name) {
+    SymbolEnvironment environment = environments.get(name);
+    if (environment == null) {
+      throw new NoSuchElementException("Unknown environment: " + name);
+    }
+    return environment;
+  }
+
+  /**
+   * Removes the environment registered under {@code name}, if any.
+   *
+   * @return whether one was registered
+   */
+  public boolean remove(String name) {
+    return environments.remove(name) != null;
+  }
+}
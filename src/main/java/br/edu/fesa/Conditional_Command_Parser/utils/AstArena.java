@@ -0,0 +1,383 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import java.util.Arrays;
+
+/**
+ * Flat, index-addressed AST stored in parallel primitive arrays, as an alternative to the {@link
+ * SyntaxNode} object graph.
+ *
+ * <p>Each node is an index with a kind byte, a type byte, up to three child indexes, a source span
+ * (start and end line and column) and, for identifiers, literals, operators and assignments, its
+ * text. Identifiers and assignments parsed from tokens with symbol ids also keep the id, so the
+ * analyzer resolves them without hashing names. A node occupies 34 bytes plus its text reference,
+ * and a whole tree is a handful of arrays instead of one object per node, so building, analyzing
+ * and printing it creates almost no garbage and walks memory sequentially.
+ *
+ * <p>The arena is filled by {@link RecursiveDescentParser#parse(TokenStream, AstArena)}, which
+ * clears it first, so one arena can be reused for any number of parses and keeps its capacity.
+ * {@link SemanticAnalyzer} and {@link TreePrinter} read it through a {@link Cursor}, and {@link
+ * #toSyntaxNode()} builds the equivalent object tree when one is needed. An arena is not
+ * thread-safe; use one per thread.
+ */
+public final class AstArena {
+
+  /** Index meaning "no node": the root of a failed parse, or a missing child. */
+  public static final int NONE = -1;
+
+  // Node kinds
+  public static final int IF = 0;
+  public static final int ASSIGNMENT = 1;
+  public static final int BINARY = 2;
+  public static final int IDENTIFIER = 3;
+  public static final int NUMBER = 4;
+  public static final int FLOAT = 5;
+  public static final int STRING = 6;
+  public static final int CHAR = 7;
+
+  private static final Token.Type[] TYPES = Token.Type.values();
+
+  /** Stored in {@link #type} for nodes the analyzer has not annotated. */
+  private static final byte NO_TYPE = -1;
+
+  private byte[] kind;
+  private byte[] type;
+  private int[] first;
+  private int[] second;
+  private int[] third;
+  private int[] line;
+  private int[] column;
+  private int[] endLine;
+  private int[] endColumn;
+  private String[] text;
+  private int[] symbol;
+  private int size;
+
+  /** Interner the symbol ids refer to, or null if the tokens carried none. */
+  private SymbolInterner symbols;
+  private int root = NONE;
+
+  /** Nodes created but not yet attached to a parent, while a parse is running. */
+  private int[] open = new int[16];
+
+  private int openCount;
+
+  private final Builder builder = new Builder();
+
+  public AstArena() {
+    this(64);
+  }
+
+  /**
+   * @param capacity initial number of node slots
+   */
+  public AstArena(int capacity) {
+    int initial = Math.max(capacity, 8);
+    kind = new byte[initial];
+    type = new byte[initial];
+    first = new int[initial];
+    second = new int[initial];
+    third = new int[initial];
+    line = new int[initial];
+    column = new int[initial];
+    endLine = new int[initial];
+    endColumn = new int[initial];
+    text = new String[initial];
+    symbol = new int[initial];
+  }
+
+  /** Removes every node, keeping the allocated capacity. */
+  public void clear() {
+    Arrays.fill(text, 0, size, null);
+    size = 0;
+    root = NONE;
+    openCount = 0;
+    symbols = null;
+  }
+
+  /** Number of nodes, including any left over from a parse that failed. */
+  public int size() {
+    return size;
+  }
+
+  /** Root node of the last parse, or {@link #NONE} if it failed at the top level. */
+  public int root() {
+    return root;
+  }
+
+  /** Interner the {@link Cursor#symbol() symbol ids} refer to, or null if none were recorded. */
+  public SymbolInterner symbols() {
+    return symbols;
+  }
+
+  void setSymbols(SymbolInterner symbols) {
+    this.symbols = symbols;
+  }
+
+  /** Opens a cursor positioned on the root. Each call returns an independent cursor. */
+  public Cursor cursor() {
+    Cursor cursor = new Cursor();
+    cursor.node = root;
+    return cursor;
+  }
+
+  /** Builder the parser fills this arena through. */
+  AstBuilder builder() {
+    return builder;
+  }
+
+  /** Makes the single remaining open node the root; called when a parse succeeds. */
+  void finish() {
+    root = openCount == 1 ? open[0] : NONE;
+    openCount = 0;
+  }
+
+  /** Drops the open nodes of a parse that failed; the root stays {@link #NONE}. */
+  void abandon() {
+    root = NONE;
+    openCount = 0;
+  }
+
+  /**
+   * Builds the {@link SyntaxNode} tree equivalent to this arena, with the same positions and
+   * types. The result does not share anything with the arena.
+   *
+   * @return root of the object tree, or null if the parse failed
+   */
+  public SyntaxNode toSyntaxNode() {
+    if (root == NONE) {
+      return null;
+    }
+    // Children always have lower indexes than their parents, so one pass in index order converts
+    // every child before it is needed
+    SyntaxNode[] nodes = new SyntaxNode[size];
+    for (int n = 0; n < size; n++) {
+      SyntaxNode node =
+          switch (kind[n]) {
+            case IF ->
+                IfStatement.builder()
+                    .line(line[n])
+                    .column(column[n])
+                    .condition(nodes[first[n]])
+                    .thenBranch(nodes[second[n]])
+                    .elseBranch(nodes[third[n]])
+                    .build();
+            case ASSIGNMENT ->
+                Assignment.builder()
+                    .line(line[n])
+                    .column(column[n])
+                    .identifier(text[n])
+                    .expression(nodes[first[n]])
+                    .build();
+            case BINARY ->
+                BinOp.builder()
+                    .line(line[n])
+                    .column(column[n])
+                    .operator(text[n])
+                    .left(nodes[first[n]])
+                    .right(nodes[second[n]])
+                    .build();
+            case IDENTIFIER ->
+                Identifier.builder().line(line[n]).column(column[n]).name(text[n]).build();
+            case NUMBER ->
+                NumberLiteral.builder().line(line[n]).column(column[n]).value(text[n]).build();
+            case FLOAT ->
+                FloatLiteral.builder().line(line[n]).column(column[n]).value(text[n]).build();
+            case STRING ->
+                StringLiteral.builder().line(line[n]).column(column[n]).value(text[n]).build();
+            default -> CharLiteral.builder().line(line[n]).column(column[n]).value(text[n]).build();
+          };
+      if (type[n] != NO_TYPE) {
+        node.setType(TYPES[type[n]]);
+      }
+      nodes[n] = node;
+    }
+    return nodes[root];
+  }
+
+  private int add(
+      int nodeKind,
+      String nodeText,
+      int nodeSymbol,
+      int childCount,
+      int nodeLine,
+      int nodeColumn,
+      int nodeEndLine,
+      int nodeEndColumn) {
+    if (size == kind.length) {
+      grow();
+    }
+    int n = size++;
+    kind[n] = (byte) nodeKind;
+    type[n] = NO_TYPE;
+    text[n] = nodeText;
+    symbol[n] = nodeSymbol;
+    line[n] = nodeLine;
+    column[n] = nodeColumn;
+    endLine[n] = nodeEndLine;
+    endColumn[n] = nodeEndColumn;
+    // Children are the last childCount open nodes, in source order
+    openCount -= childCount;
+    first[n] = childCount > 0 ? open[openCount] : NONE;
+    second[n] = childCount > 1 ? open[openCount + 1] : NONE;
+    third[n] = childCount > 2 ? open[openCount + 2] : NONE;
+    if (openCount == open.length) {
+      open = Arrays.copyOf(open, open.length << 1);
+    }
+    open[openCount++] = n;
+    return n;
+  }
+
+  private void grow() {
+    int grown = kind.length << 1;
+    kind = Arrays.copyOf(kind, grown);
+    type = Arrays.copyOf(type, grown);
+    first = Arrays.copyOf(first, grown);
+    second = Arrays.copyOf(second, grown);
+    third = Arrays.copyOf(third, grown);
+    line = Arrays.copyOf(line, grown);
+    column = Arrays.copyOf(column, grown);
+    endLine = Arrays.copyOf(endLine, grown);
+    endColumn = Arrays.copyOf(endColumn, grown);
+    text = Arrays.copyOf(text, grown);
+    symbol = Arrays.copyOf(symbol, grown);
+  }
+
+  private void check(int node) {
+    if (node < 0 || node >= size) {
+      throw new IndexOutOfBoundsException("Node " + node + " out of bounds for " + size);
+    }
+  }
+
+  /** Appends the parser's nodes to the arena. */
+  private final class Builder implements AstBuilder {
+
+    @Override
+    public void leaf(
+        Token.Type tokenType,
+        String value,
+        int id,
+        int line,
+        int column,
+        int endLine,
+        int endColumn) {
+      int nodeKind =
+          switch (tokenType) {
+            case ID -> IDENTIFIER;
+            case NUMBER -> NUMBER;
+            case FLOAT -> FLOAT;
+            case STRING -> STRING;
+            case CHAR -> CHAR;
+            default -> throw new IllegalArgumentException("Not a leaf token: " + tokenType);
+          };
+      add(nodeKind, value, id, 0, line, column, endLine, endColumn);
+    }
+
+    @Override
+    public void binary(String operator, int line, int column, int endLine, int endColumn) {
+      add(BINARY, operator, SymbolInterner.NONE, 2, line, column, endLine, endColumn);
+    }
+
+    @Override
+    public void assignment(
+        String identifier, int id, int line, int column, int endLine, int endColumn) {
+      add(ASSIGNMENT, identifier, id, 1, line, column, endLine, endColumn);
+    }
+
+    @Override
+    public void ifStatement(int line, int column, int endLine, int endColumn) {
+      add(IF, null, SymbolInterner.NONE, 3, line, column, endLine, endColumn);
+    }
+  }
+
+  /**
+   * Movable view of one node of the arena. Consumers keep a single cursor and move it from node to
+   * node by index instead of holding node objects.
+   */
+  public final class Cursor {
+    private int node;
+
+    private Cursor() {}
+
+    /**
+     * Moves to {@code target}.
+     *
+     * @return this cursor
+     * @throws IndexOutOfBoundsException if there is no such node
+     */
+    public Cursor moveTo(int target) {
+      check(target);
+      node = target;
+      return this;
+    }
+
+    /** Index of the current node. */
+    public int node() {
+      return node;
+    }
+
+    /** Kind of the current node: {@link AstArena#IF}, {@link AstArena#ASSIGNMENT}, ... */
+    public int kind() {
+      return kind[node];
+    }
+
+    /** Semantic type set by the analyzer, or null before analysis. */
+    public Token.Type type() {
+      byte t = type[node];
+      return t == NO_TYPE ? null : TYPES[t];
+    }
+
+    /** Annotates the current node with its semantic type. */
+    public void setType(Token.Type nodeType) {
+      type[node] = nodeType == null ? NO_TYPE : (byte) nodeType.ordinal();
+    }
+
+    /**
+     * Child {@code index} in source order: condition, then and else branch of an if; expression
+     * of an assignment; left and right operand of a binary operation.
+     *
+     * @return child node index, or {@link AstArena#NONE} if this kind has fewer children
+     */
+    public int child(int index) {
+      return switch (index) {
+        case 0 -> first[node];
+        case 1 -> second[node];
+        case 2 -> third[node];
+        default -> NONE;
+      };
+    }
+
+    /** Identifier name, literal text, operator or assigned variable; null for an if. */
+    public String text() {
+      return text[node];
+    }
+
+    /**
+     * Symbol id of an identifier or assigned variable in {@link AstArena#symbols()}.
+     *
+     * @return the id, or {@link SymbolInterner#NONE} for other nodes and arenas without symbols
+     */
+    public int symbol() {
+      return symbol[node];
+    }
+
+    public int line() {
+      return line[node];
+    }
+
+    public int column() {
+      return column[node];
+    }
+
+    /** Line of the first token after the node. */
+    public int endLine() {
+      return endLine[node];
+    }
+
+    /** Column of the first token after the node. */
+    public int endColumn() {
+      return endColumn[node];
+    }
+  }
+}
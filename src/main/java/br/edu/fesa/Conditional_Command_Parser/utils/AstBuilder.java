@@ -0,0 +1,37 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+
+/**
+ * Receives the nodes of a parse from {@link RecursiveDescentParser}, children before parents.
+ *
+ * <p>Each call creates one node; composite nodes take their children from the most recently
+ * created nodes that have no parent yet, in source order. Start positions are those of the node's
+ * first token (its operator for binary operations), end positions those of the first token after
+ * it.
+ */
+interface AstBuilder {
+
+  /**
+   * Creates an identifier or literal; {@code type} is ID, NUMBER, FLOAT, STRING or CHAR, and
+   * {@code symbol} the interned id of an identifier, if the tokens carry one.
+   */
+  void leaf(
+      Token.Type type,
+      String text,
+      int symbol,
+      int line,
+      int column,
+      int endLine,
+      int endColumn);
+
+  /** Combines the last two nodes under {@code operator}. */
+  void binary(String operator, int line, int column, int endLine, int endColumn);
+
+  /** Assigns the last node to {@code identifier}, whose interned id is {@code symbol}. */
+  void assignment(
+      String identifier, int symbol, int line, int column, int endLine, int endColumn);
+
+  /** Combines the last three nodes as condition, then branch and else branch. */
+  void ifStatement(int line, int column, int endLine, int endColumn);
+}
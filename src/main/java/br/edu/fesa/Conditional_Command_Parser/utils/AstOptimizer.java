@@ -0,0 +1,421 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optimization pass over an AST annotated by {@link SemanticAnalyzer}:
+ *
+ * <ul>
+ *   <li>Folds NUMBER and FLOAT operations whose operands are both literals
+ *   <li>Removes identity operations ({@code x + 0}, {@code x - 0}, {@code x * 1}, {@code x / 1})
+ *       and replaces {@code x * 0} by {@code 0}
+ *   <li>Replaces an if statement whose condition folds to a constant by the branch it selects
+ * </ul>
+ *
+ * <p>Every rewrite keeps the result of evaluating the program unchanged. Integer division by a
+ * constant zero is left in place so that it still fails at run time, {@code x * 0} is only
+ * simplified for NUMBER operands that cannot divide by zero, and FLOAT rewrites are limited to
+ * those that hold for negative zero, infinities and NaN. Folding that would give a non-finite
+ * FLOAT is skipped. Operations the analyzer did not type as NUMBER or FLOAT are left alone, so
+ * trees with semantic errors can be optimized as well.
+ *
+ * <p>The input tree is not modified: rewritten nodes are new, and unchanged subtrees are shared
+ * between the input and the result. The tree is walked with an explicit stack, so nesting depth
+ * is not limited by the thread stack. The optimizer keeps no state between calls and is safe to
+ * share.
+ */
+@Component
+public class AstOptimizer {
+
+  /**
+   * Optimizes {@code root}.
+   *
+   * @param root AST after semantic analysis; may be null
+   * @return the optimized tree, node counts and the list of changes
+   */
+  public OptimizationResult optimize(SyntaxNode root) {
+    if (root == null) {
+      return OptimizationResult.builder().changes(List.of()).build();
+    }
+    Pass pass = new Pass();
+    SyntaxNode ast = pass.rewrite(root);
+    return OptimizationResult.builder()
+        .ast(ast)
+        .nodesBefore(countNodes(root))
+        .nodesAfter(countNodes(ast))
+        .changes(List.copyOf(pass.changes))
+        .build();
+  }
+
+  /**
+   * Number of nodes in the tree rooted at {@code root}.
+   *
+   * @param root AST root; may be null
+   * @return node count, 0 for null
+   */
+  public static int countNodes(SyntaxNode root) {
+    int count = 0;
+    Deque<SyntaxNode> stack = new ArrayDeque<>();
+    if (root != null) {
+      stack.push(root);
+    }
+    while (!stack.isEmpty()) {
+      SyntaxNode node = stack.pop();
+      count++;
+      if (node instanceof IfStatement ifs) {
+        pushIfPresent(stack, ifs.getCondition());
+        pushIfPresent(stack, ifs.getThenBranch());
+        pushIfPresent(stack, ifs.getElseBranch());
+      } else if (node instanceof Assignment asg) {
+        pushIfPresent(stack, asg.getExpression());
+      } else if (node instanceof BinOp bin) {
+        pushIfPresent(stack, bin.getLeft());
+        pushIfPresent(stack, bin.getRight());
+      }
+    }
+    return count;
+  }
+
+  private static void pushIfPresent(Deque<SyntaxNode> stack, SyntaxNode node) {
+    if (node != null) {
+      stack.push(node);
+    }
+  }
+
+  /** State of one optimization run: the rewritten subtrees and the changes made. */
+  private static final class Pass {
+    private final List<String> changes = new ArrayList<>();
+
+    /** Rewritten subtrees waiting for their parent, most recent on top. */
+    private final Deque<SyntaxNode> results = new ArrayDeque<>();
+
+    /** A node to rewrite and how far its rewrite has progressed. */
+    private record Frame(SyntaxNode node, int stage) {}
+
+    /**
+     * Rewrites children before their parent. Missing children (from a partial parse) are kept
+     * on the result stack as a {@link #MISSING} marker so that every parent finds its slots.
+     */
+    private SyntaxNode rewrite(SyntaxNode root) {
+      Deque<Frame> stack = new ArrayDeque<>();
+      stack.push(new Frame(root, 0));
+      while (!stack.isEmpty()) {
+        Frame frame = stack.pop();
+        SyntaxNode node = frame.node();
+        if (node == null) {
+          results.push(MISSING);
+        } else if (node instanceof IfStatement ifs) {
+          ifStatement(ifs, frame.stage(), stack);
+        } else if (node instanceof Assignment asg) {
+          if (frame.stage() == 0) {
+            stack.push(new Frame(asg, 1));
+            stack.push(new Frame(asg.getExpression(), 0));
+          } else {
+            results.push(assignment(asg, pop()));
+          }
+        } else if (node instanceof BinOp bin) {
+          if (frame.stage() == 0) {
+            // Left operand is rewritten first, then the right one
+            stack.push(new Frame(bin, 1));
+            stack.push(new Frame(bin.getRight(), 0));
+            stack.push(new Frame(bin.getLeft(), 0));
+          } else {
+            SyntaxNode right = pop();
+            SyntaxNode left = pop();
+            results.push(binOp(bin, left, right));
+          }
+        } else {
+          results.push(node);
+        }
+      }
+      return pop();
+    }
+
+    private void ifStatement(IfStatement ifs, int stage, Deque<Frame> stack) {
+      switch (stage) {
+        case 0 -> {
+          stack.push(new Frame(ifs, 1));
+          stack.push(new Frame(ifs.getCondition(), 0));
+        }
+        case 1 -> {
+          SyntaxNode condition = results.peek();
+          Boolean taken = truth(condition);
+          if (taken == null) {
+            // Rewrite both branches; the condition stays on the result stack for stage 2
+            stack.push(new Frame(ifs, 2));
+            stack.push(new Frame(ifs.getElseBranch(), 0));
+            stack.push(new Frame(ifs.getThenBranch(), 0));
+            return;
+          }
+          results.pop();
+          changes.add(
+              at(ifs)
+                  + "removed the "
+                  + (taken ? "else" : "then")
+                  + " branch of an if whose condition is always "
+                  + describe(condition));
+          // The selected branch takes the place of the whole if statement
+          stack.push(new Frame(taken ? ifs.getThenBranch() : ifs.getElseBranch(), 0));
+        }
+        default -> {
+          SyntaxNode elseBranch = pop();
+          SyntaxNode thenBranch = pop();
+          SyntaxNode condition = pop();
+          if (condition == ifs.getCondition()
+              && thenBranch == ifs.getThenBranch()
+              && elseBranch == ifs.getElseBranch()) {
+            results.push(ifs);
+            return;
+          }
+          IfStatement copy =
+              IfStatement.builder()
+                  .line(ifs.getLine())
+                  .column(ifs.getColumn())
+                  .condition(condition)
+                  .thenBranch(thenBranch)
+                  .elseBranch(elseBranch)
+                  .build();
+          copy.setType(ifs.getType());
+          results.push(copy);
+        }
+      }
+    }
+
+    private static SyntaxNode assignment(Assignment asg, SyntaxNode expression) {
+      if (expression == asg.getExpression()) {
+        return asg;
+      }
+      Assignment copy =
+          Assignment.builder()
+              .line(asg.getLine())
+              .column(asg.getColumn())
+              .identifier(asg.getIdentifier())
+              .expression(expression)
+              .build();
+      copy.setType(asg.getType());
+      return copy;
+    }
+
+    private SyntaxNode binOp(BinOp bin, SyntaxNode left, SyntaxNode right) {
+      Token.Type type = bin.getType();
+      boolean numeric = type == Token.Type.NUMBER || type == Token.Type.FLOAT;
+      if (numeric && left != null && right != null
+          && left.getType() == type && right.getType() == type) {
+        SyntaxNode simplified =
+            type == Token.Type.NUMBER
+                ? simplifyNumber(bin, left, right)
+                : simplifyFloat(bin, left, right);
+        if (simplified != null) {
+          return simplified;
+        }
+      }
+      if (left == bin.getLeft() && right == bin.getRight()) {
+        return bin;
+      }
+      BinOp copy =
+          BinOp.builder()
+              .line(bin.getLine())
+              .column(bin.getColumn())
+              .operator(bin.getOperator())
+              .left(left)
+              .right(right)
+              .build();
+      copy.setType(type);
+      return copy;
+    }
+
+    private SyntaxNode simplifyNumber(BinOp bin, SyntaxNode left, SyntaxNode right) {
+      Long l = numberValue(left);
+      Long r = numberValue(right);
+      String op = bin.getOperator();
+      if (l != null && r != null) {
+        if (op.equals("/") && r == 0) {
+          // Keep the division so that it still throws when evaluated
+          return null;
+        }
+        long value =
+            switch (op) {
+              case "+" -> l + r;
+              case "-" -> l - r;
+              case "*" -> l * r;
+              case "/" -> l / r;
+              default -> throw new IllegalStateException("Unknown operator '" + op + "'");
+            };
+        return folded(bin, left, right, numberLiteral(bin, value));
+      }
+      SyntaxNode replacement =
+          switch (op) {
+            case "+" -> isNumber(r, 0) ? left : isNumber(l, 0) ? right : null;
+            case "-" -> isNumber(r, 0) ? left : null;
+            case "/" -> isNumber(r, 1) ? left : null;
+            case "*" -> {
+              if (isNumber(r, 1) || isNumber(l, 0) && !mayThrow(right)) {
+                yield left;
+              }
+              yield isNumber(l, 1) || isNumber(r, 0) && !mayThrow(left) ? right : null;
+            }
+            default -> null;
+          };
+      return replacement == null ? null : identity(bin, left, right, replacement);
+    }
+
+    private SyntaxNode simplifyFloat(BinOp bin, SyntaxNode left, SyntaxNode right) {
+      Double l = floatValue(left);
+      Double r = floatValue(right);
+      String op = bin.getOperator();
+      if (l != null && r != null) {
+        double value =
+            switch (op) {
+              case "+" -> l + r;
+              case "-" -> l - r;
+              case "*" -> l * r;
+              case "/" -> l / r;
+              default -> throw new IllegalStateException("Unknown operator '" + op + "'");
+            };
+        if (!Double.isFinite(value)) {
+          return null;
+        }
+        return folded(bin, left, right, floatLiteral(bin, value));
+      }
+      // x + 0.0 is not x when x is -0.0, and x * 0.0 is not 0.0 for infinities, NaN or negatives
+      SyntaxNode replacement =
+          switch (op) {
+            case "-" -> isPositiveZero(r) ? left : null;
+            case "*" -> isFloat(r, 1.0) ? left : isFloat(l, 1.0) ? right : null;
+            case "/" -> isFloat(r, 1.0) ? left : null;
+            default -> null;
+          };
+      return replacement == null ? null : identity(bin, left, right, replacement);
+    }
+
+    private SyntaxNode folded(BinOp bin, SyntaxNode left, SyntaxNode right, SyntaxNode literal) {
+      changes.add(at(bin) + "folded " + operation(bin, left, right) + " into " + describe(literal));
+      return literal;
+    }
+
+    private SyntaxNode identity(
+        BinOp bin, SyntaxNode left, SyntaxNode right, SyntaxNode replacement) {
+      changes.add(
+          at(bin)
+              + "simplified "
+              + operation(bin, left, right)
+              + " into "
+              + describe(replacement));
+      return replacement;
+    }
+
+    private SyntaxNode pop() {
+      SyntaxNode node = results.pop();
+      return node == MISSING ? null : node;
+    }
+  }
+
+  /** Placeholder for an absent child on the result stack, which cannot hold null. */
+  private static final SyntaxNode MISSING = new SyntaxNode() {};
+
+  /** Whether a constant condition selects the then branch, or null if it is not constant. */
+  private static Boolean truth(SyntaxNode condition) {
+    Long number = numberValue(condition);
+    if (number != null) {
+      return number != 0;
+    }
+    Double real = floatValue(condition);
+    // NaN is nonzero, as for the evaluator
+    return real == null ? null : real != 0.0;
+  }
+
+  private static Long numberValue(SyntaxNode node) {
+    if (node instanceof NumberLiteral literal) {
+      try {
+        return Long.parseLong(literal.getValue());
+      } catch (NumberFormatException e) {
+        // Out of range; left for the compiler to report
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static Double floatValue(SyntaxNode node) {
+    if (node instanceof FloatLiteral literal) {
+      try {
+        return Double.parseDouble(literal.getValue());
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static boolean isNumber(Long value, long expected) {
+    return value != null && value == expected;
+  }
+
+  private static boolean isFloat(Double value, double expected) {
+    return value != null && value == expected;
+  }
+
+  private static boolean isPositiveZero(Double value) {
+    return value != null && Double.doubleToRawLongBits(value) == 0L;
+  }
+
+  /** Whether evaluating {@code node} may throw, i.e. it contains an integer division. */
+  private static boolean mayThrow(SyntaxNode node) {
+    Deque<SyntaxNode> stack = new ArrayDeque<>();
+    stack.push(node);
+    while (!stack.isEmpty()) {
+      if (stack.pop() instanceof BinOp bin) {
+        if (bin.getOperator().equals("/") && bin.getType() != Token.Type.FLOAT) {
+          return true;
+        }
+        pushIfPresent(stack, bin.getLeft());
+        pushIfPresent(stack, bin.getRight());
+      }
+    }
+    return false;
+  }
+
+  private static NumberLiteral numberLiteral(SyntaxNode at, long value) {
+    return NumberLiteral.builder()
+        .line(at.getLine())
+        .column(at.getColumn())
+        .value(Long.toString(value))
+        .build();
+  }
+
+  private static FloatLiteral floatLiteral(SyntaxNode at, double value) {
+    return FloatLiteral.builder()
+        .line(at.getLine())
+        .column(at.getColumn())
+        .value(Double.toString(value))
+        .build();
+  }
+
+  // Change log text is built by concatenation: there is one line per rewrite, and String.format
+  // would cost more than the rewrite itself.
+
+  private static String at(SyntaxNode node) {
+    return "line " + node.getLine() + ", column " + node.getColumn() + ": ";
+  }
+
+  private static String operation(BinOp bin, SyntaxNode left, SyntaxNode right) {
+    return describe(left) + " " + bin.getOperator() + " " + describe(right);
+  }
+
+  /** Short description of an operand for the change log. */
+  private static String describe(SyntaxNode node) {
+    if (node instanceof NumberLiteral n) {
+      return n.getValue();
+    } else if (node instanceof FloatLiteral f) {
+      return f.getValue();
+    } else if (node instanceof Identifier id) {
+      return id.getName();
+    }
+    return "(...)";
+  }
+}
@@ -1,5 +1,6 @@
 package br.edu.fesa.Conditional_Command_Parser.utils;
 
+import br.edu.fesa.Conditional_Command_Parser.model.GrammarTables;
 import java.util.*;
 import javax.annotation.PostConstruct;
 import org.springframework.stereotype.Component;
@@ -9,6 +10,9 @@ import org.springframework.stereotype.Component;
  *
  * <p>The grammar is defined internally, and sets are computed iteratively. ε-productions are not
  * supported in this implementation.
+ *
+ * <p>The sets are computed once, at startup or on first use, and compiled into immutable {@link
+ * GrammarTables} that every response shares.
  */
 @Component
 public class FirstFollowCalculator {
@@ -19,22 +23,42 @@ public class FirstFollowCalculator {
   /** FOLLOW sets for each nonterminal. */
   private final Map<String, Set<String>> followSets = new HashMap<>();
 
-  /** Grammar productions: Nonterminal → list of alternative right-hand sides. */
-  private final Map<String, List<List<String>>> grammar = new HashMap<>();
+  /** Grammar productions, in definition order: Nonterminal → alternative right-hand sides. */
+  private final Map<String, List<List<String>>> grammar = new LinkedHashMap<>();
+
+  /** All nonterminal symbols in the grammar, in definition order. */
+  private final Set<String> nonTerminals = new LinkedHashSet<>();
 
-  /** All nonterminal symbols in the grammar. */
-  private final Set<String> nonTerminals = new HashSet<>();
+  /** Compiled sets, or null before {@link #calculateSets()}. */
+  private volatile GrammarTables tables;
 
   /**
    * Initializes grammar definitions and computes FIRST and FOLLOW sets.
    *
-   * <p>This method runs once after bean construction.
+   * <p>This method runs once after bean construction; later calls, and calls from {@link
+   * #getTables()} on an instance created outside Spring, do nothing once the sets exist.
    */
   @PostConstruct
-  public void calculateSets() {
+  public synchronized void calculateSets() {
+    if (tables != null) {
+      return;
+    }
     defineGrammar();
     computeFirstSets();
     computeFollowSets();
+    tables = GrammarTables.of(List.copyOf(nonTerminals), terminals(), firstSets, followSets);
+  }
+
+  /**
+   * Returns the compiled FIRST and FOLLOW tables, calculating them first if needed.
+   *
+   * @return the shared, immutable tables
+   */
+  public GrammarTables getTables() {
+    if (tables == null) {
+      calculateSets();
+    }
+    return tables;
   }
 
   /**
@@ -43,7 +67,7 @@ public class FirstFollowCalculator {
    * @return map of nonterminal → FIRST set
    */
   public Map<String, Set<String>> getFirstSets() {
-    return Collections.unmodifiableMap(firstSets);
+    return getTables().getFirstSets();
   }
 
   /**
@@ -52,7 +76,7 @@ public class FirstFollowCalculator {
    * @return map of nonterminal → FOLLOW set
    */
   public Map<String, Set<String>> getFollowSets() {
-    return Collections.unmodifiableMap(followSets);
+    return getTables().getFollowSets();
   }
 
   // ─── Internal helpers ───────────────────────────────────────────────────────
@@ -75,6 +99,22 @@ public class FirstFollowCalculator {
     grammar.put("F", List.of(List.of("(", "E", ")"), List.of("id")));
   }
 
+  /** Terminals in order of first appearance in the productions, then the end-marker "$". */
+  private List<String> terminals() {
+    Set<String> terminals = new LinkedHashSet<>();
+    for (List<List<String>> alternatives : grammar.values()) {
+      for (List<String> production : alternatives) {
+        for (String symbol : production) {
+          if (!nonTerminals.contains(symbol)) {
+            terminals.add(symbol);
+          }
+        }
+      }
+    }
+    terminals.add("$");
+    return List.copyOf(terminals);
+  }
+
   private void computeFirstSets() {
     // Initialize empty FIRST sets
     nonTerminals.forEach(nt -> firstSets.put(nt, new HashSet<>()));
@@ -0,0 +1,112 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.TextEdit;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lexes and parses successive versions of a text, redoing only the work an edit invalidates.
+ *
+ * <p>For each {@link TextEdit} the lexer rescans just the damaged token window and copies the rest
+ * of the previous {@link TokenBuffer} (see {@link Lexer#relex}). The parser then runs over the new
+ * buffer but takes over every statement and parenthesized factor of the previous AST whose tokens,
+ * lookahead and source positions are unchanged, instead of descending into it again. The result is
+ * always identical to a full parse of the new text.
+ *
+ * <p>Stateless apart from its collaborators; all state lives in the {@link ParseSnapshot}s.
+ */
+@Component
+public class IncrementalParser {
+
+  private final Lexer lexer;
+  private final ObjectFactory<RecursiveDescentParser> parserFactory;
+
+  /**
+   * @param lexer shared lexer
+   * @param parserFactory supplies a fresh parser for every call (prototype-scoped)
+   */
+  @Autowired
+  public IncrementalParser(Lexer lexer, ObjectFactory<RecursiveDescentParser> parserFactory) {
+    this.lexer = lexer;
+    this.parserFactory = parserFactory;
+  }
+
+  /**
+   * Lexes and parses a whole text, producing the first snapshot of a document.
+   *
+   * @param source text to parse
+   * @return snapshot of {@code source}
+   */
+  public ParseSnapshot parse(String source) {
+    TokenBuffer tokens;
+    try {
+      tokens = lexer.tokenizeToBuffer(source);
+    } catch (LexicalException e) {
+      return new ParseSnapshot(source, e.getDiagnostic());
+    }
+    return parse(source, tokens, new SubtreeIndex(tokens.size()), tokens.size());
+  }
+
+  /**
+   * Applies an edit to the text of {@code previous} and parses the result incrementally.
+   *
+   * @param previous snapshot of the text before the edit
+   * @param edit replacement to apply
+   * @return snapshot of the edited text
+   * @throws IllegalArgumentException if the edit does not fit inside the previous text
+   */
+  public ParseSnapshot apply(ParseSnapshot previous, TextEdit edit) {
+    String oldSource = previous.getSource();
+    int offset = edit.getOffset();
+    int removed = edit.getRemovedLength();
+    String inserted = edit.getInsertedText() == null ? "" : edit.getInsertedText();
+    if (offset < 0 || removed < 0 || offset > oldSource.length() - removed) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Edit [offset %d, removed %d] is outside the text of length %d",
+              offset, removed, oldSource.length()));
+    }
+    String source =
+        new StringBuilder(oldSource.length() - removed + inserted.length())
+            .append(oldSource, 0, offset)
+            .append(inserted)
+            .append(oldSource, offset + removed, oldSource.length())
+            .toString();
+
+    if (previous.getTokens() == null) {
+      // Nothing to reuse from a text that did not tokenize
+      return parse(source);
+    }
+    Lexer.Relexed relexed;
+    try {
+      relexed =
+          lexer.relex(previous.getTokens(), source, offset, removed, inserted.length());
+    } catch (LexicalException e) {
+      // Rescan everything so the message is exactly the one a full run reports
+      return parse(source);
+    }
+    SubtreeIndex subtrees = previous.subtrees().splice(relexed, previous.getTokens());
+    return parse(
+        source,
+        relexed.buffer(),
+        subtrees,
+        relexed.newDamageEnd() - relexed.damageStart());
+  }
+
+  private ParseSnapshot parse(
+      String source, TokenBuffer tokens, SubtreeIndex subtrees, int relexedTokens) {
+    RecursiveDescentParser parser = parserFactory.getObject();
+    SyntaxNode ast = parser.parseIncremental(tokens, subtrees);
+    return new ParseSnapshot(
+        source,
+        tokens,
+        subtrees,
+        ast,
+        parser.getDiagnostics(),
+        relexedTokens,
+        parser.getReusedSubtrees());
+  }
+}
@@ -1,12 +1,16 @@
 package br.edu.fesa.Conditional_Command_Parser.utils;
 
 import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
 import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.springframework.stereotype.Component;
 
 /**
@@ -21,233 +25,892 @@ import org.springframework.stereotype.Component;
  *   <li>BLOCK_COMMENT: between "/*" and "*&#47;"
  * </ul>
  *
+ * <p>The scanner is a single left-to-right pass driven by a character-class lookup table. It reads
+ * the input in place and never copies the remaining text or runs a regular expression, so
+ * tokenizing is linear in the input length. It can run ahead of a consumer one token at a time
+ * through {@link #stream(CharSequence)}, or materialize every token with {@link
+ * #tokenize(CharSequence)}. {@link #tokenizeInParallel} splits a large input into chunks that are
+ * scanned on several threads and merged into the same tokens.
+ *
  * Emits tokens of type {@link Token.Type} and tracks line/column positions. Throws {@link
- * LexicalException} on unrecognized characters or unterminated literals.
+ * LexicalException} on unrecognized characters or unterminated literals. As it always has, an
+ * opening quote or "/*" that is the very last thing in the input is not reported.
  */
 @Component
 public class Lexer {
 
-  private enum State {
-    DEFAULT,
-    STRING,
-    LINE_COMMENT,
-    BLOCK_COMMENT
+  // ─── Character classes ──────────────────────────────────────────────────────
+
+  private static final byte OTHER = 0;
+  private static final byte SPACE = 1;
+  private static final byte DIGIT = 2;
+  private static final byte LETTER = 3; // [a-zA-Z_]
+  private static final byte PUNCT = 4; // ( ) = + - *
+  private static final byte SLASH = 5; // '/', divide or comment start
+  private static final byte DOUBLE_QUOTE = 6;
+  private static final byte SINGLE_QUOTE = 7;
+
+  /** Character class of every ASCII character; anything above 0x7F is classified on the fly. */
+  private static final byte[] CHAR_CLASS = new byte[128];
+
+  /** Token type of each single-character operator, indexed by character. */
+  private static final Token.Type[] PUNCT_TYPE = new Token.Type[128];
+
+  /** Shared lexeme of each single-character operator, indexed by character. */
+  private static final String[] PUNCT_LEXEME = new String[128];
+
+  static {
+    for (char c = 0; c < 128; c++) {
+      if (Character.isWhitespace(c)) {
+        CHAR_CLASS[c] = SPACE;
+      } else if (c >= '0' && c <= '9') {
+        CHAR_CLASS[c] = DIGIT;
+      } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_') {
+        CHAR_CLASS[c] = LETTER;
+      }
+    }
+    punct('(', Token.Type.LPAREN);
+    punct(')', Token.Type.RPAREN);
+    punct('=', Token.Type.EQUALS);
+    punct('+', Token.Type.PLUS);
+    punct('-', Token.Type.MINUS);
+    punct('*', Token.Type.TIMES);
+    punct('/', Token.Type.DIVIDE);
+    CHAR_CLASS['/'] = SLASH;
+    CHAR_CLASS['"'] = DOUBLE_QUOTE;
+    CHAR_CLASS['\''] = SINGLE_QUOTE;
   }
 
-  private static final Pattern FLOAT_PATTERN = Pattern.compile("^\\d+\\.\\d+");
-  private static final Pattern NUMBER_PATTERN = Pattern.compile("^\\d+");
-  private static final Pattern CHAR_PATTERN = Pattern.compile("^'(\\\\.|[^\\\\'])'");
-  private static final Pattern ID_PATTERN = Pattern.compile("^[a-zA-Z_][a-zA-Z0-9_]*");
-  private static final Map<String, Token.Type> KEYWORDS =
-      Map.of(
-          "if", Token.Type.IF,
-          "else", Token.Type.ELSE);
+  private static void punct(char c, Token.Type type) {
+    CHAR_CLASS[c] = PUNCT;
+    PUNCT_TYPE[c] = type;
+    PUNCT_LEXEME[c] = String.valueOf(c);
+  }
 
   /**
    * Tokenizes the entire input, producing a list of tokens and one EOF token.
    *
+   * <p>Convenience wrapper that drains {@link #stream(CharSequence)} into a list.
+   *
    * @param input raw source code to tokenize
    * @return list of tokens including EOF
    * @throws LexicalException if an invalid character or unterminated literal is encountered
    */
-  public List<Token> tokenize(String input) throws LexicalException {
+  public List<Token> tokenize(CharSequence input) throws LexicalException {
     List<Token> tokens = new ArrayList<>();
-    State state = State.DEFAULT;
+    TokenStream stream = stream(input);
+    while (true) {
+      tokens.add(stream.token());
+      if (stream.type() == Token.Type.EOF) {
+        return tokens;
+      }
+      stream.advance();
+    }
+  }
 
-    int pos = 0, line = 1, column = 1;
-    int startLine = 1, startCol = 1;
+  /**
+   * Tokenizes the entire input into a compact {@link TokenBuffer} of primitive arrays.
+   *
+   * <p>Unlike {@link #tokenize(CharSequence)}, no {@link Token} or lexeme string is created; the
+   * buffer records each token's span in {@code input} and resolves lexemes lazily.
+   *
+   * @param input raw source code to tokenize; must not change while the buffer is in use
+   * @return buffer of all tokens, ending with EOF
+   * @throws LexicalException if an invalid character or unterminated literal is encountered
+   */
+  public TokenBuffer tokenizeToBuffer(CharSequence input) throws LexicalException {
+    return tokenizeToBuffer(input, null);
+  }
 
-    while (pos < input.length()) {
-      char c = input.charAt(pos);
+  /**
+   * Tokenizes the entire input into a {@link TokenBuffer} that also records the symbol id of
+   * every identifier, interned into {@code symbols} as it is scanned. The parser carries the ids
+   * into an {@link AstArena}, so semantic analysis resolves identifiers without hashing names.
+   *
+   * @param input raw source code to tokenize; must not change while the buffer is in use
+   * @param symbols interner to add identifier names to, or null to record no ids
+   * @return buffer of all tokens, ending with EOF
+   * @throws LexicalException if an invalid character or unterminated literal is encountered
+   */
+  public TokenBuffer tokenizeToBuffer(CharSequence input, SymbolInterner symbols)
+      throws LexicalException {
+    // Start small relative to the input; the buffer doubles when full
+    TokenBuffer buffer = new TokenBuffer(input, input.length() / 8 + 16, symbols);
+    Scanner scanner = new Scanner(input);
+    do {
+      scanner.scan();
+      buffer.add(
+          scanner.type,
+          scanner.valueStart,
+          scanner.valueEnd,
+          scanner.tokenLine,
+          scanner.tokenColumn);
+    } while (scanner.type != Token.Type.EOF);
+    return buffer;
+  }
 
-      switch (state) {
-        case DEFAULT:
-          // Skip whitespace and track line/column
-          if (Character.isWhitespace(c)) {
-            if (c == '\n') {
-              line++;
-              column = 1;
-            } else {
-              column++;
+  /**
+   * Opens a lazy token stream over the input, positioned on its first token.
+   *
+   * <p>Each {@link TokenStream#advance()} scans exactly one more token, so a consumer such as
+   * {@link RecursiveDescentParser} runs interleaved with the lexer and only the current token is
+   * held in memory. Lexical errors surface from the {@code advance()} call that reaches them.
+   *
+   * @param input raw source code to tokenize; must not change while the stream is in use
+   * @return stream positioned on the first token (EOF for empty input)
+   * @throws LexicalException if the first token is invalid
+   */
+  public TokenStream stream(CharSequence input) throws LexicalException {
+    Scanner scanner = new Scanner(input);
+    scanner.scan();
+    return scanner;
+  }
+
+  /**
+   * Result of {@link #relex}: the new buffer and how its indexes line up with the previous one.
+   *
+   * <p>Tokens {@code [0, damageStart)} are unchanged. Old tokens from {@code oldDamageEnd} on
+   * reappear from {@code newDamageEnd} on with the same text, their source offsets shifted and
+   * their lines moved by {@code lineDelta}; those still on old line {@code columnDeltaLine} also
+   * move by {@code columnDelta} columns.
+   */
+  record Relexed(
+      TokenBuffer buffer,
+      int damageStart,
+      int oldDamageEnd,
+      int newDamageEnd,
+      int lineDelta,
+      int columnDelta,
+      int columnDeltaLine) {
+
+    /** Whether old token {@code index} (past the damage) keeps its line and column. */
+    boolean keepsPosition(TokenBuffer previous, int index) {
+      return lineDelta == 0 && (columnDelta == 0 || previous.line(index) != columnDeltaLine);
+    }
+  }
+
+  /**
+   * Re-tokenizes {@code source} after an edit, scanning only around the damaged region.
+   *
+   * <p>Scanning resumes at the token before the first token the edit touches, where the scanner is
+   * known to be between tokens, and stops as soon as a new token starts where an old token past
+   * the edit started: the text from there on is unchanged, so the old tail is copied over with its
+   * positions shifted instead of being scanned again.
+   *
+   * @param previous tokens of the text before the edit
+   * @param source text after the edit
+   * @param offset where the edit starts
+   * @param removedLength number of characters the edit removed at {@code offset}
+   * @param insertedLength number of characters the edit inserted at {@code offset}
+   * @return the new buffer and its alignment with {@code previous}
+   * @throws LexicalException if the damaged region does not scan; the message may differ from a
+   *     full {@link #tokenizeToBuffer(CharSequence)}, which callers should run to report it
+   */
+  Relexed relex(
+      TokenBuffer previous, CharSequence source, int offset, int removedLength, int insertedLength)
+      throws LexicalException {
+    int oldSize = previous.size();
+    int touched = previous.firstEndingAtOrAfter(offset);
+    int restart = Math.max(touched - 1, 0);
+
+    TokenBuffer buffer = new TokenBuffer(source, oldSize + 16, previous.symbols());
+    buffer.append(previous, 0, restart, 0, 0, 0, 0);
+    Scanner scanner =
+        touched == 0
+            ? new Scanner(source, 0, 1, 1)
+            : new Scanner(
+                source,
+                previous.rawStart(restart),
+                previous.line(restart),
+                previous.column(restart));
+
+    int delta = insertedLength - removedLength;
+    int editEnd = offset + insertedLength;
+    int candidate = touched;
+    while (true) {
+      scanner.scan();
+      int newStart = scanner.rawStart();
+      if (newStart >= editEnd) {
+        // Same text from here on: resynchronize if an old token started at the same place
+        int oldStart = newStart - delta;
+        while (candidate < oldSize && previous.rawStart(candidate) < oldStart) {
+          candidate++;
+        }
+        if (candidate < oldSize && previous.rawStart(candidate) == oldStart) {
+          int lineDelta = scanner.tokenLine - previous.line(candidate);
+          int columnDelta = scanner.tokenColumn - previous.column(candidate);
+          int columnDeltaLine = previous.line(candidate);
+          int newDamageEnd = buffer.size();
+          buffer.append(
+              previous, candidate, oldSize, delta, lineDelta, columnDelta, columnDeltaLine);
+          return new Relexed(
+              buffer, restart, candidate, newDamageEnd, lineDelta, columnDelta, columnDeltaLine);
+        }
+      }
+      buffer.add(
+          scanner.type,
+          scanner.valueStart,
+          scanner.valueEnd,
+          scanner.tokenLine,
+          scanner.tokenColumn);
+      if (scanner.type == Token.Type.EOF) {
+        return new Relexed(buffer, restart, oldSize, buffer.size(), 0, 0, 0);
+      }
+    }
+  }
+
+  /**
+   * Tokenizes {@code input} exactly as {@link #tokenizeToBuffer(CharSequence, SymbolInterner)}
+   * does, scanning chunks of about {@code chunkLength} characters concurrently on {@code executor}.
+   *
+   * <p>Every chunk after the first starts just past a line break where its range has one, so a line
+   * comment never runs into it. It may still start inside a string literal or block comment, which
+   * only the chunks before it can tell, so it is scanned speculatively from each state it may be
+   * in: as if between tokens, as if its first unescaped '"' closed a string and as if its first
+   * "*&#47;" closed a comment. A speculative run stops once one of its tokens starts where a token
+   * of the first run starts, since a scan from a token start never depends on what came before.
+   *
+   * <p>A sequential merge then walks the chunks from the real scanner position. It scans on from
+   * there until a token starts where a token of some run starts, copies that run from there on with
+   * its lines and columns shifted, and carries on from where the run left the chunk. Only tokens no
+   * run predicted, such as an identifier cut in two by a chunk boundary, are scanned twice. Symbol
+   * ids are interned during the merge.
+   *
+   * @param input raw source code to tokenize; must not change while the buffer is in use
+   * @param symbols interner to add identifier names to, or null to record no ids
+   * @param executor pool the chunks are scanned on
+   * @param chunkLength approximate number of characters per chunk; an input no longer than this is
+   *     scanned on the calling thread
+   * @return buffer of all tokens, ending with EOF
+   * @throws LexicalException if an invalid character or unterminated literal is encountered; the
+   *     input is then scanned again sequentially, so the error is the one it would report
+   */
+  public TokenBuffer tokenizeInParallel(
+      CharSequence input, SymbolInterner symbols, ExecutorService executor, int chunkLength)
+      throws LexicalException {
+    if (chunkLength < 1) {
+      throw new IllegalArgumentException("chunkLength must be positive: " + chunkLength);
+    }
+    int length = input.length();
+    int chunks = length == 0 ? 1 : (length - 1) / chunkLength + 1;
+    if (chunks == 1) {
+      return tokenizeToBuffer(input, symbols);
+    }
+    List<Callable<Speculation>> tasks = new ArrayList<>(chunks);
+    for (int k = 0; k < chunks; k++) {
+      int chunk = k;
+      tasks.add(
+          () ->
+              new Speculation(
+                  input,
+                  chunkStart(input, chunk, chunks),
+                  chunkStart(input, chunk + 1, chunks)));
+    }
+    List<Speculation> speculations = new ArrayList<>(chunks);
+    try {
+      for (Future<Speculation> future : executor.invokeAll(tasks)) {
+        speculations.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while tokenizing in parallel");
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e);
+    }
+    TokenBuffer merged = merge(input, symbols, speculations);
+    // A chunk that does not scan is reported by the sequential scanner, with its exact message
+    return merged != null ? merged : tokenizeToBuffer(input, symbols);
+  }
+
+  /** Offset where chunk {@code k} of {@code chunks} starts: after a line break if there is one. */
+  private static int chunkStart(CharSequence input, int k, int chunks) {
+    int length = input.length();
+    if (k == 0 || k == chunks) {
+      return k == 0 ? 0 : length;
+    }
+    int from = (int) ((long) length * k / chunks);
+    int to = (int) ((long) length * (k + 1) / chunks);
+    for (int i = from; i < to; i++) {
+      if (input.charAt(i) == '\n') {
+        return i + 1;
+      }
+    }
+    return from;
+  }
+
+  /**
+   * Joins the speculative runs of every chunk along the real scan. The pieces to copy are planned
+   * first, so the result is allocated once at its final size.
+   *
+   * @return the tokens, or null if the input does not scan
+   */
+  private static TokenBuffer merge(
+      CharSequence input, SymbolInterner symbols, List<Speculation> chunks) {
+    List<Segment> plan = new ArrayList<>();
+    // Tokens no run predicted, scanned during the merge
+    TokenBuffer fixups = new TokenBuffer(input, 16);
+    // Real scanner position, always between two tokens
+    int pos = 0;
+    int line = 1;
+    int column = 1;
+    try {
+      chunks:
+      for (Speculation chunk : chunks) {
+        if (pos >= chunk.to) {
+          // A token or comment of an earlier chunk spans this one
+          continue;
+        }
+        Scanner scanner = new Scanner(input, pos, line, column);
+        while (true) {
+          scanner.scan();
+          int start = scanner.rawStart();
+          if (scanner.type == Token.Type.EOF) {
+            addFixup(plan, fixups, scanner);
+            break chunks;
+          }
+          if (start >= chunk.to) {
+            pos = start;
+            line = scanner.tokenLine;
+            column = scanner.tokenColumn;
+            break;
+          }
+          Run run = null;
+          int index = -1;
+          for (Run candidate : chunk.runs) {
+            index = candidate.tokens.startingAt(start);
+            if (index >= 0) {
+              run = candidate;
+              break;
             }
-            pos++;
-            continue;
           }
-
-          // Enter string literal state
-          if (c == '"') {
-            state = State.STRING;
-            startLine = line;
-            startCol = column;
-            pos++;
-            column++;
+          if (run == null) {
+            addFixup(plan, fixups, scanner);
             continue;
           }
-
-          // Enter line comment state
-          if (c == '/' && pos + 1 < input.length() && input.charAt(pos + 1) == '/') {
-            state = State.LINE_COMMENT;
-            pos += 2;
-            column += 2;
-            continue;
+          int lineDelta = scanner.tokenLine - run.tokens.line(index);
+          int columnDelta = scanner.tokenColumn - run.tokens.column(index);
+          int columnLine = run.tokens.line(index);
+          plan.add(
+              new Segment(
+                  run.tokens, index, run.tokens.size(), lineDelta, columnDelta, columnLine));
+          Run last = run;
+          if (run.join >= 0) {
+            last = chunk.runs[0];
+            plan.add(
+                new Segment(
+                    last.tokens,
+                    run.join,
+                    last.tokens.size(),
+                    lineDelta,
+                    columnDelta,
+                    columnLine));
           }
+          if (last.failed) {
+            return null;
+          }
+          if (last.eof) {
+            break chunks;
+          }
+          pos = last.exitStart;
+          line = last.exitLine + lineDelta;
+          column = last.exitColumn + (last.exitLine == columnLine ? columnDelta : 0);
+          break;
+        }
+      }
+    } catch (LexicalException e) {
+      return null;
+    }
 
-          // Enter block comment state
-          if (c == '/' && pos + 1 < input.length() && input.charAt(pos + 1) == '*') {
-            state = State.BLOCK_COMMENT;
-            pos += 2;
-            column += 2;
-            continue;
+    int total = 0;
+    for (Segment segment : plan) {
+      total += segment.to() - segment.from();
+    }
+    TokenBuffer merged = new TokenBuffer(input, total, symbols);
+    for (Segment segment : plan) {
+      merged.append(
+          segment.tokens(),
+          segment.from(),
+          segment.to(),
+          0,
+          segment.lineDelta(),
+          segment.columnDelta(),
+          segment.columnLine());
+    }
+    return merged;
+  }
+
+  /** Tokens {@code [from, to)} of {@code tokens}, moved as {@link TokenBuffer#append} does. */
+  private record Segment(
+      TokenBuffer tokens, int from, int to, int lineDelta, int columnDelta, int columnLine) {}
+
+  /** Adds the current token to {@code fixups}, extending the last segment if it ends there. */
+  private static void addFixup(List<Segment> plan, TokenBuffer fixups, Scanner scanner) {
+    add(fixups, scanner);
+    int end = fixups.size();
+    int last = plan.size() - 1;
+    if (last >= 0 && plan.get(last).tokens() == fixups && plan.get(last).to() == end - 1) {
+      plan.set(last, new Segment(fixups, plan.get(last).from(), end, 0, 0, 0));
+    } else {
+      plan.add(new Segment(fixups, end - 1, end, 0, 0, 0));
+    }
+  }
+
+  private static void add(TokenBuffer buffer, Scanner scanner) {
+    buffer.add(
+        scanner.type, scanner.valueStart, scanner.valueEnd, scanner.tokenLine, scanner.tokenColumn);
+  }
+
+  /**
+   * Tokens of one chunk scanned from every state the scanner may be in at its start, with lines
+   * and columns counted from 1:1 at the chunk start. {@code runs[0]} assumes the chunk starts
+   * between tokens; the others assume it starts inside a string or a block comment.
+   */
+  private static final class Speculation {
+    private final int to;
+    private final Run[] runs;
+
+    private Speculation(CharSequence input, int from, int to) {
+      this.to = to;
+      Run first = new Run(input, from, 1, 1, to, null);
+      if (from == 0) {
+        // The first chunk is known to start between tokens
+        runs = new Run[] {first};
+        return;
+      }
+      List<Run> all = new ArrayList<>(3);
+      all.add(first);
+      // If the chunk starts inside a string or comment, the first run reads the quote closing it
+      // as an opening one, and the "*/" closing it as '*' and '/'
+      int quote = -1;
+      int commentEnd = -1;
+      TokenBuffer tokens = first.tokens;
+      for (int i = 0; i < tokens.size() && (quote < 0 || commentEnd < 0); i++) {
+        Token.Type type = tokens.type(i);
+        if (quote < 0 && type == Token.Type.STRING) {
+          quote = tokens.rawStart(i) + 1;
+        } else if (commentEnd < 0
+            && type == Token.Type.TIMES
+            && i + 1 < tokens.size()
+            && tokens.type(i + 1) == Token.Type.DIVIDE
+            && tokens.start(i + 1) == tokens.start(i) + 1) {
+          commentEnd = tokens.start(i) + 2;
+        }
+      }
+      if (first.failed) {
+        // The first run may have stopped on text inside the string or comment, such as an
+        // apostrophe, before reaching its end: look for the end in the text instead
+        for (int i = from; i < to && (quote < 0 || commentEnd < 0); i++) {
+          char c = input.charAt(i);
+          if (quote < 0 && c == '"' && (i == from || input.charAt(i - 1) != '\\')) {
+            quote = i + 1;
+          } else if (commentEnd < 0 && c == '*' && i + 1 < to && input.charAt(i + 1) == '/') {
+            commentEnd = i + 2;
           }
+        }
+      }
+      for (int start : new int[] {quote, commentEnd}) {
+        if (start >= 0) {
+          int[] position = position(input, from, start);
+          all.add(new Run(input, start, position[0], position[1], to, first.tokens));
+        }
+      }
+      runs = all.toArray(new Run[0]);
+    }
 
-          // Remaining substring for regex matching
-          String rest = input.substring(pos);
+    /** Line and column of {@code offset} when {@code from} is at 1:1, as the scanner counts. */
+    private static int[] position(CharSequence input, int from, int offset) {
+      int line = 1;
+      int column = 1;
+      for (int i = from; i < offset; i++) {
+        if (input.charAt(i) == '\n') {
+          line++;
+          column = 1;
+        } else {
+          column++;
+        }
+      }
+      return new int[] {line, column};
+    }
+  }
 
-          // Try floating-point literal
-          if (Character.isDigit(c)) {
-            Matcher fm = FLOAT_PATTERN.matcher(rest);
-            if (fm.lookingAt()) {
-              String lex = fm.group();
-              tokens.add(new Token(Token.Type.FLOAT, lex, line, column));
-              pos += lex.length();
-              column += lex.length();
-              continue;
+  /**
+   * Tokens scanned from one assumed state, up to the first token past the chunk, the end of input,
+   * a lexical error, or a token that starts where a token of {@code main} does.
+   */
+  private static final class Run {
+    private final TokenBuffer tokens;
+
+    /** Index in the first run of the token this run joined it at, or -1. */
+    private int join = -1;
+
+    /** Whether scanning failed right after the last token. */
+    private boolean failed;
+
+    /** Whether the last token is EOF. */
+    private boolean eof;
+
+    // Start, line and column of the first token past the chunk
+    private int exitStart;
+    private int exitLine;
+    private int exitColumn;
+
+    private Run(CharSequence input, int from, int line, int column, int to, TokenBuffer main) {
+      tokens = new TokenBuffer(input, (to - from) / 8 + 16);
+      Scanner scanner = new Scanner(input, from, line, column);
+      try {
+        while (true) {
+          scanner.scan();
+          if (scanner.type == Token.Type.EOF) {
+            add(tokens, scanner);
+            eof = true;
+            return;
+          }
+          int start = scanner.rawStart();
+          if (start >= to) {
+            exitStart = start;
+            exitLine = scanner.tokenLine;
+            exitColumn = scanner.tokenColumn;
+            return;
+          }
+          if (main != null) {
+            join = main.startingAt(start);
+            if (join >= 0) {
+              return;
             }
           }
+          add(tokens, scanner);
+        }
+      } catch (LexicalException e) {
+        failed = true;
+      }
+    }
+  }
+
+  /** Single-pass scanner over one input; the current token lives in plain fields. */
+  private static final class Scanner implements TokenStream {
+    private final CharSequence input;
+    private final int length;
+
+    private int pos = 0, line = 1, column = 1;
+    // Position of the most recent string literal; also reported for unterminated block comments.
+    private int startPos = 0, startLine = 1, startCol = 1;
+
+    // Current token: type, position, and lexeme as a slice of the input (or a shared constant)
+    private int index;
+    private Token.Type type;
+    private int tokenLine, tokenColumn;
+    private int valueStart, valueEnd;
+    private String value;
 
-          // Try integer literal
-          if (Character.isDigit(c)) {
-            Matcher nm = NUMBER_PATTERN.matcher(rest);
-            if (nm.lookingAt()) {
-              String lex = nm.group();
-              tokens.add(new Token(Token.Type.NUMBER, lex, line, column));
-              pos += lex.length();
-              column += lex.length();
-              continue;
+    private Scanner(CharSequence input) {
+      this.input = input;
+      this.length = input.length();
+    }
+
+    /** Starts scanning at {@code pos}, which must lie between two tokens. */
+    private Scanner(CharSequence input, int pos, int line, int column) {
+      this(input);
+      this.pos = pos;
+      this.line = line;
+      this.column = column;
+    }
+
+    /** Offset of the first character of the current token, including an opening quote. */
+    private int rawStart() {
+      return type == Token.Type.STRING || type == Token.Type.CHAR ? valueStart - 1 : valueStart;
+    }
+
+    @Override
+    public Token.Type type() {
+      return type;
+    }
+
+    @Override
+    public String value() {
+      if (value == null) {
+        value = input.subSequence(valueStart, valueEnd).toString();
+      }
+      return value;
+    }
+
+    @Override
+    public int line() {
+      return tokenLine;
+    }
+
+    @Override
+    public int column() {
+      return tokenColumn;
+    }
+
+    @Override
+    public int offset() {
+      return rawStart();
+    }
+
+    @Override
+    public int index() {
+      return index;
+    }
+
+    @Override
+    public void advance() throws LexicalException {
+      if (type != Token.Type.EOF) {
+        scan();
+        index++;
+      }
+    }
+
+    private void emit(Token.Type t, int tLine, int tColumn, int start, int end, String constant) {
+      type = t;
+      tokenLine = tLine;
+      tokenColumn = tColumn;
+      valueStart = start;
+      valueEnd = end;
+      value = constant;
+    }
+
+    /** Scans forward to the next token (or EOF) and makes it current. */
+    private void scan() throws LexicalException {
+      while (pos < length) {
+        char c = input.charAt(pos);
+
+        switch (classOf(c)) {
+          case SPACE -> {
+            // Skip whitespace and track line/column
+            if (c == '\n') {
+              line++;
+              column = 1;
+            } else {
+              column++;
             }
+            pos++;
           }
 
-          // Try character literal
-          if (c == '\'') {
-            Matcher cm = CHAR_PATTERN.matcher(rest);
-            if (cm.find()) {
-              String lex = cm.group();
-              String val = lex.substring(1, lex.length() - 1);
-              tokens.add(new Token(Token.Type.CHAR, val, line, column));
-              pos += lex.length();
-              column += lex.length();
-              continue;
-            } else {
-              throw new LexicalException(
-                  String.format("Unterminated or invalid char literal at %d:%d", line, column));
+          case LETTER -> {
+            // Identifier or keyword
+            int end = pos + 1;
+            while (end < length && isIdentifierPart(input.charAt(end))) {
+              end++;
             }
+            Token.Type t = keywordOrId(input, pos, end - pos);
+            String keyword =
+                switch (t) {
+                  case IF -> "if";
+                  case ELSE -> "else";
+                  default -> null;
+                };
+            emit(t, line, column, pos, end, keyword);
+            column += end - pos;
+            pos = end;
+            return;
           }
 
-          // Identifier or keyword
-          Matcher idm = ID_PATTERN.matcher(rest);
-          if (idm.find()) {
-            String lex = idm.group();
-            Token.Type type = KEYWORDS.getOrDefault(lex, Token.Type.ID);
-            tokens.add(new Token(type, lex, line, column));
-            pos += lex.length();
-            column += lex.length();
-            continue;
+          case DIGIT -> {
+            // Integer literal, or floating-point literal if "." and a digit follow
+            int end = skipDigits(input, pos + 1, length);
+            Token.Type t = Token.Type.NUMBER;
+            if (end + 1 < length && input.charAt(end) == '.' && isDigit(input.charAt(end + 1))) {
+              end = skipDigits(input, end + 2, length);
+              t = Token.Type.FLOAT;
+            }
+            emit(t, line, column, pos, end, null);
+            column += end - pos;
+            pos = end;
+            return;
           }
 
-          // Single-character operators/punctuation
-          Token.Type t =
-              switch (c) {
-                case '(' -> Token.Type.LPAREN;
-                case ')' -> Token.Type.RPAREN;
-                case '=' -> Token.Type.EQUALS;
-                case '+' -> Token.Type.PLUS;
-                case '-' -> Token.Type.MINUS;
-                case '*' -> Token.Type.TIMES;
-                case '/' -> Token.Type.DIVIDE;
-                default -> null;
-              };
-          if (t != null) {
-            tokens.add(new Token(t, String.valueOf(c), line, column));
+          case PUNCT -> {
+            // Single-character operators/punctuation
+            emit(PUNCT_TYPE[c], line, column, pos, pos + 1, PUNCT_LEXEME[c]);
             pos++;
             column++;
-            continue;
+            return;
           }
 
-          // No valid token found
-          throw new LexicalException(
-              String.format("Invalid character '%c' at %d:%d", c, line, column));
-
-        case STRING:
-          // Collect until closing quote
-          StringBuilder sb = new StringBuilder();
-          while (pos < input.length()) {
-            char ch = input.charAt(pos);
-            if (ch == '\\' && pos + 1 < input.length()) {
-              sb.append(ch).append(input.charAt(pos + 1));
+          case SLASH -> {
+            char next = pos + 1 < length ? input.charAt(pos + 1) : '\0';
+            if (next == '/') {
+              // Line comment: skip until end-of-line, leaving the '\n' to the whitespace rule
               pos += 2;
               column += 2;
-            } else if (ch == '"') {
-              pos++;
-              column++;
-              tokens.add(new Token(Token.Type.STRING, sb.toString(), startLine, startCol));
-              state = State.DEFAULT;
-              break;
-            } else {
-              if (ch == '\n') {
-                line++;
-                column = 1;
-              } else {
+              while (pos < length && input.charAt(pos) != '\n') {
+                pos++;
                 column++;
               }
-              sb.append(ch);
+            } else if (next == '*') {
+              skipBlockComment();
+            } else {
+              emit(Token.Type.DIVIDE, line, column, pos, pos + 1, PUNCT_LEXEME['/']);
               pos++;
+              column++;
+              return;
             }
           }
-          if (state == State.STRING) {
-            throw new LexicalException(
-                String.format("Unterminated string literal at %d:%d", startLine, startCol));
-          }
-          continue;
 
-        case LINE_COMMENT:
-          // Skip until end-of-line
-          while (pos < input.length() && input.charAt(pos) != '\n') {
-            pos++;
-            column++;
+          case DOUBLE_QUOTE -> {
+            if (scanString()) {
+              return;
+            }
           }
-          state = State.DEFAULT;
-          continue;
 
-        case BLOCK_COMMENT:
-          // Skip until closing */
-          boolean closed = false;
-          while (pos < input.length()) {
-            char ch = input.charAt(pos);
-            if (ch == '\n') {
-              line++;
-              column = 1;
-              pos++;
-            } else if (ch == '*' && pos + 1 < input.length() && input.charAt(pos + 1) == '/') {
-              pos += 2;
-              column += 2;
-              closed = true;
-              break;
-            } else {
-              pos++;
-              column++;
+          case SINGLE_QUOTE -> {
+            // Character literal: a single (possibly escaped) code point between quotes
+            int end = charLiteralEnd(input, pos, length);
+            if (end < 0) {
+              throw new LexicalException(
+                  new Diagnostic(Diagnostic.Code.INVALID_CHAR_LITERAL, pos, line, column));
             }
+            emit(Token.Type.CHAR, line, column, pos + 1, end - 1, null);
+            column += end - pos;
+            pos = end;
+            return;
           }
-          if (!closed) {
-            throw new LexicalException(
-                String.format("Unterminated block comment starting at %d:%d", startLine, startCol));
+
+          default ->
+              // No valid token found
+              throw new LexicalException(
+                  new Diagnostic(Diagnostic.Code.INVALID_CHARACTER, pos, line, column, c));
+        }
+      }
+
+      // End of input
+      emit(Token.Type.EOF, line, column, pos, pos, "");
+    }
+
+    /** Skips a block comment starting at {@code pos}; the opening "/*" is not yet consumed. */
+    private void skipBlockComment() throws LexicalException {
+      pos += 2;
+      column += 2;
+      int commentStart = pos;
+      while (pos < length) {
+        char ch = input.charAt(pos);
+        if (ch == '\n') {
+          line++;
+          column = 1;
+          pos++;
+        } else if (ch == '*' && pos + 1 < length && input.charAt(pos + 1) == '/') {
+          pos += 2;
+          column += 2;
+          return;
+        } else {
+          pos++;
+          column++;
+        }
+      }
+      if (pos > commentStart) {
+        throw new LexicalException(
+            new Diagnostic(
+                Diagnostic.Code.UNTERMINATED_BLOCK_COMMENT, startPos, startLine, startCol));
+      }
+    }
+
+    /**
+     * Scans a string literal starting at the opening quote, keeping escapes verbatim.
+     *
+     * @return true if a STRING token was emitted, false if the quote was the last character
+     */
+    private boolean scanString() throws LexicalException {
+      startPos = pos;
+      startLine = line;
+      startCol = column;
+      pos++;
+      column++;
+      int contentStart = pos;
+      while (pos < length) {
+        char ch = input.charAt(pos);
+        if (ch == '\\' && pos + 1 < length) {
+          pos += 2;
+          column += 2;
+        } else if (ch == '"') {
+          emit(Token.Type.STRING, startLine, startCol, contentStart, pos, null);
+          pos++;
+          column++;
+          return true;
+        } else {
+          if (ch == '\n') {
+            line++;
+            column = 1;
+          } else {
+            column++;
           }
-          state = State.DEFAULT;
-          continue;
+          pos++;
+        }
       }
+      if (pos > contentStart) {
+        throw new LexicalException(
+            new Diagnostic(Diagnostic.Code.UNTERMINATED_STRING, startPos, startLine, startCol));
+      }
+      return false;
+    }
+  }
+
+  // ─── Internal helpers ───────────────────────────────────────────────────────
+
+  private static byte classOf(char c) {
+    if (c < 128) {
+      return CHAR_CLASS[c];
+    }
+    return Character.isWhitespace(c) ? SPACE : OTHER;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return c < 128 && (CHAR_CLASS[c] == LETTER || CHAR_CLASS[c] == DIGIT);
+  }
+
+  private static int skipDigits(CharSequence input, int pos, int length) {
+    while (pos < length && isDigit(input.charAt(pos))) {
+      pos++;
     }
+    return pos;
+  }
+
+  /** Classifies the identifier at {@code [start, start + len)} without materializing it. */
+  private static Token.Type keywordOrId(CharSequence input, int start, int len) {
+    if (len == 2 && input.charAt(start) == 'i' && input.charAt(start + 1) == 'f') {
+      return Token.Type.IF;
+    }
+    if (len == 4
+        && input.charAt(start) == 'e'
+        && input.charAt(start + 1) == 'l'
+        && input.charAt(start + 2) == 's'
+        && input.charAt(start + 3) == 'e') {
+      return Token.Type.ELSE;
+    }
+    return Token.Type.ID;
+  }
+
+  /**
+   * Matches {@code '(\\.|[^\\'])'} at {@code start}, where "." and the negated class consume one
+   * code point and "." excludes line terminators.
+   *
+   * @return index just past the closing quote, or -1 if no valid literal starts here
+   */
+  private static int charLiteralEnd(CharSequence input, int start, int length) {
+    int pos = start + 1;
+    if (pos >= length) {
+      return -1;
+    }
+    char c = input.charAt(pos);
+    if (c == '\\') {
+      pos++;
+      if (pos >= length || isLineTerminator(input.charAt(pos))) {
+        return -1;
+      }
+      pos += Character.charCount(Character.codePointAt(input, pos));
+    } else if (c != '\'') {
+      pos += Character.charCount(Character.codePointAt(input, pos));
+    } else {
+      return -1;
+    }
+    return pos < length && input.charAt(pos) == '\'' ? pos + 1 : -1;
+  }
 
-    // Append EOF token
-    tokens.add(new Token(Token.Type.EOF, "", line, column));
-    return tokens;
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
   }
 }
@@ -0,0 +1,201 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Lexes and parses one input that holds many programs one after another, such as a file of
+ * conditional commands, on several threads.
+ *
+ * <p>The input is read as a sequence of statements {@code S S ...}, each of which is one program.
+ * The grammar is LL(1), so a program ends where its last assignment's expression is followed by
+ * anything but an operator, at a point where no {@code if} still waits for a statement. Those
+ * boundaries are found in one pass over the token types, without parsing.
+ *
+ * <p>{@link #parse(CharSequence)} tokenizes through {@link Lexer#tokenizeInParallel} and then
+ * parses the programs in groups spanning about {@code chunkLength} characters, each group on the
+ * executor with its own parser. {@link #parseSequentially(CharSequence)} does the same work on the
+ * calling thread; both return the same programs, trees and errors.
+ */
+public class MultiProgramParser {
+
+  /** Default number of characters each thread lexes or parses at a time. */
+  public static final int DEFAULT_CHUNK_LENGTH = 1 << 20;
+
+  /**
+   * One program of the input.
+   *
+   * @param line line of its first token
+   * @param column column of its first token
+   * @param ast root of its tree, or null if parsing failed at top-level
+   * @param errors its syntax errors
+   */
+  public record Program(int line, int column, SyntaxNode ast, List<String> errors) {}
+
+  private final Lexer lexer;
+  private final Supplier<RecursiveDescentParser> parsers;
+  private final ExecutorService executor;
+  private final int chunkLength;
+
+  /**
+   * @param lexer tokenizes the input
+   * @param parsers creates a parser for each group of programs parsed at once
+   * @param executor pool the chunks are lexed and the programs parsed on
+   * @param chunkLength approximate number of characters per lexing chunk and per parsing group
+   * @throws IllegalArgumentException if {@code chunkLength} is not positive
+   */
+  public MultiProgramParser(
+      Lexer lexer,
+      Supplier<RecursiveDescentParser> parsers,
+      ExecutorService executor,
+      int chunkLength) {
+    if (chunkLength < 1) {
+      throw new IllegalArgumentException("chunkLength must be positive: " + chunkLength);
+    }
+    this.lexer = lexer;
+    this.parsers = parsers;
+    this.executor = executor;
+    this.chunkLength = chunkLength;
+  }
+
+  /**
+   * Lexes and parses every program of {@code input} on the executor.
+   *
+   * @param input programs one after another; must not change during the call
+   * @return the programs in input order; empty if the input holds no tokens
+   * @throws LexicalException if the input does not tokenize, as the sequential lexer reports it
+   */
+  public List<Program> parse(CharSequence input) throws LexicalException {
+    TokenBuffer tokens = lexer.tokenizeInParallel(input, null, executor, chunkLength);
+    int[] starts = programStarts(tokens);
+
+    List<Callable<List<Program>>> tasks = new ArrayList<>();
+    int from = 0;
+    for (int i = 1; i <= starts.length; i++) {
+      if (i == starts.length
+          || tokens.start(starts[i]) - tokens.start(starts[from]) >= chunkLength) {
+        int first = from;
+        int last = i;
+        tasks.add(() -> parse(tokens, starts, first, last));
+        from = i;
+      }
+    }
+    if (tasks.size() < 2) {
+      return parse(tokens, starts, 0, starts.length);
+    }
+
+    List<Program> programs = new ArrayList<>(starts.length);
+    try {
+      for (Future<List<Program>> group : executor.invokeAll(tasks)) {
+        programs.addAll(group.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while parsing in parallel");
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e);
+    }
+    return programs;
+  }
+
+  /**
+   * Lexes and parses every program of {@code input} on the calling thread.
+   *
+   * @param input programs one after another
+   * @return the programs in input order; empty if the input holds no tokens
+   * @throws LexicalException if the input does not tokenize
+   */
+  public List<Program> parseSequentially(CharSequence input) throws LexicalException {
+    TokenBuffer tokens = lexer.tokenizeToBuffer(input);
+    int[] starts = programStarts(tokens);
+    return parse(tokens, starts, 0, starts.length);
+  }
+
+  /** Parses programs {@code [first, last)} with one parser. */
+  private List<Program> parse(TokenBuffer tokens, int[] starts, int first, int last) {
+    RecursiveDescentParser parser = parsers.get();
+    List<Program> programs = new ArrayList<>(last - first);
+    for (int i = first; i < last; i++) {
+      int start = starts[i];
+      int end = i + 1 < starts.length ? starts[i + 1] : tokens.size() - 1;
+      SyntaxNode ast;
+      try {
+        ast = parser.parse(tokens.cursor(start, end));
+      } catch (LexicalException e) {
+        // A buffer cursor never scans, so it cannot fail
+        throw new IllegalStateException(e);
+      }
+      programs.add(
+          new Program(tokens.line(start), tokens.column(start), ast, parser.getErrors()));
+    }
+    return programs;
+  }
+
+  /**
+   * Index of the first token of every program in {@code tokens}.
+   *
+   * <p>Tracks how many statements the current program still needs: one to begin with, one more
+   * for each {@code if}, one fewer for each finished assignment. An assignment is finished when,
+   * outside parentheses, the token after its last operand is not an operator. Invalid input is
+   * split the same way, so each piece reports its own errors.
+   */
+  static int[] programStarts(TokenBuffer tokens) {
+    int[] starts = new int[16];
+    int count = 0;
+    int needed = 0;
+    int depth = 0;
+    boolean inAssignment = false;
+    Token.Type previous = null;
+    for (int i = 0; i < tokens.size() - 1; i++) {
+      Token.Type type = tokens.type(i);
+      if (inAssignment && depth == 0 && endsOperand(previous) && !isOperator(type)) {
+        inAssignment = false;
+        needed--;
+      }
+      if (needed <= 0) {
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count << 1);
+        }
+        starts[count++] = i;
+        needed = 1;
+        depth = 0;
+        inAssignment = false;
+      }
+      switch (type) {
+        case IF -> needed++;
+        case LPAREN -> depth++;
+        case RPAREN -> depth = Math.max(depth - 1, 0);
+        case EQUALS -> inAssignment |= depth == 0;
+        default -> {}
+      }
+      previous = type;
+    }
+    return Arrays.copyOf(starts, count);
+  }
+
+  private static boolean endsOperand(Token.Type type) {
+    return type == Token.Type.ID
+        || type == Token.Type.NUMBER
+        || type == Token.Type.FLOAT
+        || type == Token.Type.STRING
+        || type == Token.Type.CHAR
+        || type == Token.Type.RPAREN;
+  }
+
+  private static boolean isOperator(Token.Type type) {
+    return type == Token.Type.PLUS
+        || type == Token.Type.MINUS
+        || type == Token.Type.TIMES
+        || type == Token.Type.DIVIDE;
+  }
+}
@@ -0,0 +1,86 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Lexical and syntactic result for one version of a source text, kept so that the next edit can be
+ * parsed incrementally by {@link IncrementalParser}.
+ *
+ * <p>A later snapshot may share AST subtrees with this one. Semantic analysis annotates nodes in
+ * place, so only the AST of the newest snapshot of a document should be analyzed or inspected.
+ */
+@Getter
+public final class ParseSnapshot {
+
+  /** Full source text of this version. */
+  private final String source;
+
+  /** Tokens of {@code source}, or null if it has a lexical error. */
+  private final TokenBuffer tokens;
+
+  /** Root of the AST (null on a lexical or top-level syntax error). */
+  private final SyntaxNode ast;
+
+  /** Syntax errors, as {@link RecursiveDescentParser#getDiagnostics()} reports them. */
+  private final List<Diagnostic> syntaxDiagnostics;
+
+  /** Lexical error that stopped the analysis, or null. */
+  private final Diagnostic lexicalDiagnostic;
+
+  /** Number of tokens scanned for this version; the whole text for a full parse. */
+  private final int relexedTokens;
+
+  /** Number of subtrees taken over unchanged from the previous version. */
+  private final int reusedSubtrees;
+
+  @Getter(AccessLevel.NONE)
+  private final SubtreeIndex subtrees;
+
+  ParseSnapshot(
+      String source,
+      TokenBuffer tokens,
+      SubtreeIndex subtrees,
+      SyntaxNode ast,
+      List<Diagnostic> syntaxDiagnostics,
+      int relexedTokens,
+      int reusedSubtrees) {
+    this.source = source;
+    this.tokens = tokens;
+    this.subtrees = subtrees;
+    this.ast = ast;
+    this.syntaxDiagnostics = List.copyOf(syntaxDiagnostics);
+    this.lexicalDiagnostic = null;
+    this.relexedTokens = relexedTokens;
+    this.reusedSubtrees = reusedSubtrees;
+  }
+
+  /** Snapshot of a text that does not tokenize. */
+  ParseSnapshot(String source, Diagnostic lexicalDiagnostic) {
+    this.source = source;
+    this.tokens = null;
+    this.subtrees = null;
+    this.ast = null;
+    this.syntaxDiagnostics = List.of();
+    this.lexicalDiagnostic = lexicalDiagnostic;
+    this.relexedTokens = 0;
+    this.reusedSubtrees = 0;
+  }
+
+  /** Syntax errors, in the format of {@link RecursiveDescentParser#getErrors()}. */
+  public List<String> getSyntaxErrors() {
+    return Diagnostic.messages(syntaxDiagnostics);
+  }
+
+  /** Message of the lexical error that stopped the analysis, or null. */
+  public String getLexicalError() {
+    return lexicalDiagnostic != null ? lexicalDiagnostic.getDetail() : null;
+  }
+
+  SubtreeIndex subtrees() {
+    return subtrees;
+  }
+}
@@ -1,10 +1,16 @@
 package br.edu.fesa.Conditional_Command_Parser.utils;
 
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
 import br.edu.fesa.Conditional_Command_Parser.exception.SyntaxException;
 import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -12,209 +18,602 @@ import org.springframework.stereotype.Component;
  * Recursive-descent parser with error recovery.
  *
  * <p>This class holds parser state (tokens, position, errors) and so is defined as a
- * prototype-scoped Spring bean. Use {@link #parse(List)} for each new input.
+ * prototype-scoped Spring bean. Use {@link #parse(TokenStream)}, {@link #parse(TokenBuffer)} or
+ * {@link #parse(List)} for each new input. Tokens are read through a {@link TokenStream} with one
+ * token of lookahead, so a lazy stream from {@link Lexer#stream(CharSequence)} is parsed while it
+ * is being scanned, and a {@link TokenBuffer} is walked by index without any per-token objects.
+ *
+ * <p>The tree is built through an {@link AstBuilder}: as {@link SyntaxNode} objects by the
+ * single-argument {@code parse} methods, or straight into the arrays of an {@link AstArena} by
+ * {@link #parse(TokenStream, AstArena)}, which allocates no per-node objects. Both produce the same
+ * tree and the same errors. {@link #recognize(TokenStream, boolean)} runs the same grammar without
+ * building anything, for callers that only need to know whether the input is valid.
+ *
+ * <p>The grammar is parsed top-down exactly as a recursive-descent parser would, but the pending
+ * work of each nonterminal lives on an explicit continuation stack on the heap instead of the Java
+ * call stack. Nesting depth is therefore limited only by {@code maxDepth}: deeper {@code if}
+ * statements or parentheses are reported as a {@link SyntaxException} rather than a {@link
+ * StackOverflowError}.
  */
 @Component
 @Scope("prototype")
 public class RecursiveDescentParser {
 
-  private List<Token> tokens;
-  private int currentPosition;
-  private Token currentToken;
-  private final List<String> errors = new ArrayList<>();
+  /** Default limit on nested {@code if} statements plus open parentheses. */
+  public static final int DEFAULT_MAX_DEPTH = 1_000_000;
+
+  /** Continuation steps; each one is the remainder of a grammar rule after a sub-parse. */
+  private enum Step {
+    PARSE_S,
+    IF_AFTER_CONDITION, // if ( E . ) S else S
+    IF_AFTER_THEN, // if ( E ) S . else S
+    IF_DONE, // if ( E ) S else S .
+    ASSIGNMENT_DONE, // id = E .
+    PARSE_E,
+    E_LOOP, // E → T . { (+|-) T }
+    E_COMBINE, // E → T (+|-) T .
+    PARSE_T,
+    T_LOOP, // T → F . { (*|/) F }
+    T_COMBINE, // T → F (*|/) F .
+    PARSE_F,
+    F_CLOSE // F → ( E . )
+  }
+
+  /**
+   * A pending step plus the position, lexeme and symbol id of the token it needs when it resumes,
+   * and the buffer index its rule started at (only tracked when reusing subtrees, otherwise -1).
+   */
+  private record Frame(Step step, int line, int column, String text, int symbol, int start) {}
+
+  private static final Frame PARSE_S = at(Step.PARSE_S, 0, 0, -1);
+  private static final Frame PARSE_E = at(Step.PARSE_E, 0, 0, -1);
+  private static final Frame E_LOOP = at(Step.E_LOOP, 0, 0, -1);
+  private static final Frame PARSE_T = at(Step.PARSE_T, 0, 0, -1);
+  private static final Frame T_LOOP = at(Step.T_LOOP, 0, 0, -1);
+  private static final Frame PARSE_F = at(Step.PARSE_F, 0, 0, -1);
+  private static final Frame F_CLOSE = at(Step.F_CLOSE, 0, 0, -1);
+
+  /** A continuation of every step without position or lexeme, used while only recognizing. */
+  private static final Frame[] BARE_FRAMES = new Frame[Step.values().length];
+
+  static {
+    for (Step step : Step.values()) {
+      BARE_FRAMES[step.ordinal()] = at(step, 0, 0, -1);
+    }
+  }
+
+  /** Receives the nodes of a recognizing parse, and drops them. */
+  private static final AstBuilder NO_TREE =
+      new AstBuilder() {
+        @Override
+        public void leaf(
+            Token.Type type,
+            String text,
+            int symbol,
+            int line,
+            int column,
+            int endLine,
+            int endColumn) {}
+
+        @Override
+        public void binary(String operator, int line, int column, int endLine, int endColumn) {}
+
+        @Override
+        public void assignment(
+            String identifier, int symbol, int line, int column, int endLine, int endColumn) {}
+
+        @Override
+        public void ifStatement(int line, int column, int endLine, int endColumn) {}
+      };
+
+  private final int maxDepth;
+
+  private TokenStream tokens;
+  private final List<Diagnostic> errors = new ArrayList<>();
+  private int nodeCount;
+
+  // Set only by recognize(): no positions or lexemes are captured, and the first error ends it
+  private boolean recognizing;
+  private boolean failFast;
+
+  // Set only by parseIncremental(): the buffer cursor and the subtrees to reuse and record
+  private TokenBuffer.Cursor cursor;
+  private SubtreeIndex subtrees;
+  private int reusedSubtrees;
 
   public RecursiveDescentParser() {
     // No-arg constructor; initialize state in parse()
+    this(DEFAULT_MAX_DEPTH);
   }
 
   /**
-   * Parses a token stream into an AST. Collects syntax errors and attempts to recover.
+   * @param maxDepth maximum number of simultaneously open {@code if} statements and parentheses
+   */
+  @Autowired
+  public RecursiveDescentParser(
+      @Value("${parser.max-depth:" + DEFAULT_MAX_DEPTH + "}") int maxDepth) {
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("maxDepth must be positive: " + maxDepth);
+    }
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * Parses a token list into an AST. Collects syntax errors and attempts to recover.
    *
    * @param tokenList list of tokens from the lexer
    * @return root of the AST (null if parsing failed at top-level)
    */
   public SyntaxNode parse(List<Token> tokenList) {
-    this.tokens = tokenList;
-    this.currentPosition = 0;
-    this.currentToken = tokens.get(0);
+    try {
+      return parse(TokenStream.of(tokenList));
+    } catch (LexicalException e) {
+      // A list stream never scans, so it cannot fail
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Parses a token buffer into an AST by walking it with an index cursor.
+   *
+   * @param buffer tokens from {@link Lexer#tokenizeToBuffer(CharSequence)}
+   * @return root of the AST (null if parsing failed at top-level)
+   */
+  public SyntaxNode parse(TokenBuffer buffer) {
+    try {
+      return parse(buffer.cursor());
+    } catch (LexicalException e) {
+      // A buffer cursor never scans, so it cannot fail
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Parses a token buffer, reusing the subtrees in {@code index} wherever their tokens allow and
+   * recording every statement and parenthesized factor it completes into the same index.
+   *
+   * @param buffer tokens to parse
+   * @param index subtrees valid for {@code buffer}; updated in place
+   * @return root of the AST (null if parsing failed at top-level)
+   */
+  SyntaxNode parseIncremental(TokenBuffer buffer, SubtreeIndex index) {
+    this.cursor = buffer.cursor();
+    this.subtrees = index;
+    this.reusedSubtrees = 0;
+    try {
+      return parse(cursor);
+    } catch (LexicalException e) {
+      // A buffer cursor never scans, so it cannot fail
+      throw new IllegalStateException(e);
+    } finally {
+      this.cursor = null;
+      this.subtrees = null;
+    }
+  }
+
+  /** Number of subtrees taken over unchanged by the last {@link #parseIncremental} call. */
+  int getReusedSubtrees() {
+    return reusedSubtrees;
+  }
+
+  /**
+   * Parses a token stream into an AST. Collects syntax errors and attempts to recover.
+   *
+   * <p>The stream is left on the first token the parser did not consume, which is EOF unless a
+   * syntax error stopped the parse early.
+   *
+   * @param tokenStream tokens positioned at the start of the input
+   * @return root of the AST (null if parsing failed at top-level)
+   * @throws LexicalException if the stream fails to scan a token the parser asks for
+   */
+  public SyntaxNode parse(TokenStream tokenStream) throws LexicalException {
+    TreeBuilder tree = new TreeBuilder();
+    return parse(tokenStream, tree) ? tree.nodes.pop() : null;
+  }
+
+  /**
+   * Parses a token stream into {@code arena}, replacing its previous contents. Errors, recovery
+   * and the position the stream is left at are the same as for {@link #parse(TokenStream)}.
+   *
+   * @param tokenStream tokens positioned at the start of the input
+   * @param arena arena to fill; cleared first, so it can be reused across parses
+   * @return index of the root node, or {@link AstArena#NONE} if parsing failed at top-level
+   * @throws LexicalException if the stream fails to scan a token the parser asks for
+   */
+  public int parse(TokenStream tokenStream, AstArena arena) throws LexicalException {
+    arena.clear();
+    arena.setSymbols(tokenStream.symbols());
+    if (parse(tokenStream, arena.builder())) {
+      arena.finish();
+    } else {
+      arena.abandon();
+    }
+    return arena.root();
+  }
+
+  /**
+   * Parses a token buffer into {@code arena} by walking it with an index cursor.
+   *
+   * @param buffer tokens from {@link Lexer#tokenizeToBuffer(CharSequence)}
+   * @param arena arena to fill; cleared first
+   * @return index of the root node, or {@link AstArena#NONE} if parsing failed at top-level
+   */
+  public int parse(TokenBuffer buffer, AstArena arena) {
+    try {
+      return parse(buffer.cursor(), arena);
+    } catch (LexicalException e) {
+      // A buffer cursor never scans, so it cannot fail
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Checks a token stream against the grammar without building a tree. Reports the same errors
+   * and leaves the stream at the same token as {@link #parse(TokenStream)}, but captures no
+   * lexemes, positions or nodes along the way.
+   *
+   * @param tokenStream tokens positioned at the start of the input
+   * @param failFast whether to stop at the first syntax error instead of recovering to look for
+   *     another
+   * @return whether no syntax error was found; the errors are in {@link #getDiagnostics()}
+   * @throws LexicalException if the stream fails to scan a token the parser asks for
+   */
+  public boolean recognize(TokenStream tokenStream, boolean failFast) throws LexicalException {
+    this.recognizing = true;
+    this.failFast = failFast;
+    try {
+      parse(tokenStream, NO_TREE);
+      return errors.isEmpty();
+    } finally {
+      this.recognizing = false;
+      this.failFast = false;
+    }
+  }
+
+  /**
+   * Parses {@code tokenStream} into {@code out}, collecting errors.
+   *
+   * @return whether a complete statement was built, which is then the only node left open
+   */
+  private boolean parse(TokenStream tokenStream, AstBuilder out) throws LexicalException {
+    this.tokens = tokenStream;
     this.errors.clear();
+    this.nodeCount = 0;
 
-    SyntaxNode root;
+    boolean parsed;
     try {
-      root = parseS();
+      parseS(out);
+      parsed = true;
     } catch (SyntaxException ex) {
-      errors.add(ex.getMessage());
+      errors.add(ex.getDiagnostic());
+      if (failFast) {
+        return false;
+      }
       synchronize(Set.of(Token.Type.IF, Token.Type.ID, Token.Type.EOF));
-      root = null;
+      parsed = false;
     }
 
     try {
       eat(Token.Type.EOF);
     } catch (SyntaxException ex) {
-      errors.add(ex.getMessage());
+      errors.add(ex.getDiagnostic());
     }
-    return root;
+    return parsed;
   }
 
   /** Returns collected syntax errors from the last parse. */
   public List<String> getErrors() {
+    return Diagnostic.messages(getDiagnostics());
+  }
+
+  /** Returns the syntax errors of the last parse as diagnostics, with their messages unrendered. */
+  public List<Diagnostic> getDiagnostics() {
     return List.copyOf(errors);
   }
 
-  private void advance() {
-    currentPosition++;
-    if (currentPosition < tokens.size()) {
-      currentToken = tokens.get(currentPosition);
-    }
+  /**
+   * Number of AST nodes the last parse built, including those of statements discarded by error
+   * recovery and excluding subtrees reused by an incremental parse. After {@link #recognize}, the
+   * number of nodes the tree would have had.
+   */
+  public int getNodeCount() {
+    return nodeCount;
   }
 
-  private void eat(Token.Type expected) throws SyntaxException {
-    if (currentToken.getType() == expected) {
-      advance();
+  private void eat(Token.Type expected) throws SyntaxException, LexicalException {
+    if (tokens.type() == expected) {
+      tokens.advance();
     } else {
-      throw new SyntaxException(
-          String.format(
-              "Syntax error [line %d, column %d]: expected '%s' but found '%s'",
-              currentToken.getLine(), currentToken.getColumn(), expected, currentToken.getType()));
-    }
-  }
-
-  private void synchronize(Set<Token.Type> syncSet) {
-    while (currentToken.getType() != Token.Type.EOF && !syncSet.contains(currentToken.getType())) {
-      advance();
-    }
-  }
-
-  private SyntaxNode parseS() throws SyntaxException {
-    if (currentToken.getType() == Token.Type.IF) {
-      return parseIfStatement();
-    }
-    return parseAssignment();
-  }
-
-  private IfStatement parseIfStatement() throws SyntaxException {
-    Token start = currentToken;
-    eat(Token.Type.IF);
-    eat(Token.Type.LPAREN);
-    SyntaxNode cond = parseE();
-    eat(Token.Type.RPAREN);
-    SyntaxNode thenBranch = parseS();
-    eat(Token.Type.ELSE);
-    SyntaxNode elseBranch = parseS();
-    return IfStatement.builder()
-        .line(start.getLine())
-        .column(start.getColumn())
-        .condition(cond)
-        .thenBranch(thenBranch)
-        .elseBranch(elseBranch)
-        .build();
-  }
-
-  private Assignment parseAssignment() throws SyntaxException {
-    Token idTok = currentToken;
-    eat(Token.Type.ID);
-    eat(Token.Type.EQUALS);
-    SyntaxNode expr = parseE();
-    return Assignment.builder()
-        .line(idTok.getLine())
-        .column(idTok.getColumn())
-        .identifier(idTok.getValue())
-        .expression(expr)
-        .build();
-  }
-
-  private SyntaxNode parseE() throws SyntaxException {
-    SyntaxNode node = parseT();
-    while (currentToken.getType() == Token.Type.PLUS
-        || currentToken.getType() == Token.Type.MINUS) {
-      Token op = currentToken;
-      eat(op.getType());
-      SyntaxNode right = parseT();
-      node =
-          BinOp.builder()
-              .line(op.getLine())
-              .column(op.getColumn())
-              .operator(op.getValue())
-              .left(node)
-              .right(right)
-              .build();
+      throw error(Diagnostic.Code.UNEXPECTED_TOKEN, expected, tokens.type());
+    }
+  }
+
+  private void synchronize(Set<Token.Type> syncSet) throws LexicalException {
+    while (tokens.type() != Token.Type.EOF && !syncSet.contains(tokens.type())) {
+      tokens.advance();
+    }
+  }
+
+  /** Captures the current token for a continuation, before it is consumed. */
+  private Frame resumeAt(Step step) {
+    if (recognizing) {
+      return BARE_FRAMES[step.ordinal()];
+    }
+    return new Frame(
+        step, tokens.line(), tokens.column(), tokens.value(), tokens.symbol(), position());
+  }
+
+  /** A continuation that needs no lexeme, resuming with the given position and start index. */
+  private static Frame at(Step step, int line, int column, int start) {
+    return new Frame(step, line, column, null, SymbolInterner.NONE, start);
+  }
+
+  /** Buffer index of the current token when reusing subtrees, otherwise -1. */
+  private int position() {
+    return cursor != null ? cursor.index() : -1;
+  }
+
+  /**
+   * Takes over the recorded subtree starting at the current token, if there is one.
+   *
+   * <p>The parse it replaces could only fail by nesting too deeply, and a subtree of {@code n}
+   * tokens nests at most {@code n / 2} levels, so subtrees that might cross the limit are parsed
+   * again instead.
+   */
+  private boolean reuseSubtree(Deque<SyntaxNode> nodes, int depth) {
+    int start = cursor.index();
+    SyntaxNode subtree = subtrees.node(start);
+    if (subtree == null) {
+      return false;
+    }
+    int end = subtrees.end(start);
+    if ((long) depth + (end - start) / 2 > maxDepth) {
+      return false;
+    }
+    nodes.push(subtree);
+    cursor.seek(end);
+    reusedSubtrees++;
+    return true;
+  }
+
+  /** Records the subtree on top of {@code nodes} as spanning {@code start} up to here. */
+  private void recordSubtree(int start, Deque<SyntaxNode> nodes) {
+    if (subtrees != null) {
+      subtrees.record(start, nodes.peek(), cursor.index());
+    }
+  }
+
+  /**
+   * Parses one statement S and everything below it.
+   *
+   * <p>Each case of the switch is the part of a grammar rule between two sub-parses. Starting a
+   * sub-parse pushes the continuation of the current rule and then the sub-rule; finished nodes
+   * are handed to {@code out} in the order the recursive version would return them.
+   */
+  private void parseS(AstBuilder out) throws SyntaxException, LexicalException {
+    Deque<Frame> frames = new ArrayDeque<>();
+    // Subtrees are only reused by parseIncremental(), which always builds objects
+    Deque<SyntaxNode> nodes = subtrees != null ? ((TreeBuilder) out).nodes : null;
+    int depth = 0;
+
+    frames.push(PARSE_S);
+    while (!frames.isEmpty()) {
+      Frame frame = frames.pop();
+      switch (frame.step()) {
+        // S → if ( E ) S else S | id = E
+        case PARSE_S -> {
+          if (subtrees != null
+              && (tokens.type() == Token.Type.IF || tokens.type() == Token.Type.ID)
+              && reuseSubtree(nodes, depth)) {
+            continue;
+          }
+          if (tokens.type() == Token.Type.IF) {
+            depth = enter(depth);
+            Frame start =
+                recognizing
+                    ? BARE_FRAMES[Step.IF_AFTER_CONDITION.ordinal()]
+                    : at(Step.IF_AFTER_CONDITION, tokens.line(), tokens.column(), position());
+            eat(Token.Type.IF);
+            eat(Token.Type.LPAREN);
+            frames.push(start);
+            frames.push(PARSE_E);
+          } else {
+            Frame start = resumeAt(Step.ASSIGNMENT_DONE);
+            eat(Token.Type.ID);
+            eat(Token.Type.EQUALS);
+            frames.push(start);
+            frames.push(PARSE_E);
+          }
+        }
+        case IF_AFTER_CONDITION -> {
+          eat(Token.Type.RPAREN);
+          frames.push(
+              recognizing
+                  ? BARE_FRAMES[Step.IF_AFTER_THEN.ordinal()]
+                  : at(Step.IF_AFTER_THEN, frame.line(), frame.column(), frame.start()));
+          frames.push(PARSE_S);
+        }
+        case IF_AFTER_THEN -> {
+          eat(Token.Type.ELSE);
+          frames.push(
+              recognizing
+                  ? BARE_FRAMES[Step.IF_DONE.ordinal()]
+                  : at(Step.IF_DONE, frame.line(), frame.column(), frame.start()));
+          frames.push(PARSE_S);
+        }
+        case IF_DONE -> {
+          nodeCount++;
+          out.ifStatement(frame.line(), frame.column(), tokens.line(), tokens.column());
+          recordSubtree(frame.start(), nodes);
+          depth--;
+        }
+        case ASSIGNMENT_DONE -> {
+          nodeCount++;
+          out.assignment(
+              frame.text(),
+              frame.symbol(),
+              frame.line(),
+              frame.column(),
+              tokens.line(),
+              tokens.column());
+          recordSubtree(frame.start(), nodes);
+        }
+
+        // E → T { (+|-) T }
+        case PARSE_E -> {
+          frames.push(E_LOOP);
+          frames.push(PARSE_T);
+        }
+        case E_LOOP -> {
+          if (tokens.type() == Token.Type.PLUS || tokens.type() == Token.Type.MINUS) {
+            frames.push(resumeAt(Step.E_COMBINE));
+            frames.push(PARSE_T);
+            tokens.advance();
+          }
+        }
+        case E_COMBINE -> {
+          nodeCount++;
+          out.binary(frame.text(), frame.line(), frame.column(), tokens.line(), tokens.column());
+          frames.push(E_LOOP);
+        }
+
+        // T → F { (*|/) F }
+        case PARSE_T -> {
+          frames.push(T_LOOP);
+          frames.push(PARSE_F);
+        }
+        case T_LOOP -> {
+          if (tokens.type() == Token.Type.TIMES || tokens.type() == Token.Type.DIVIDE) {
+            frames.push(resumeAt(Step.T_COMBINE));
+            frames.push(PARSE_F);
+            tokens.advance();
+          }
+        }
+        case T_COMBINE -> {
+          nodeCount++;
+          out.binary(frame.text(), frame.line(), frame.column(), tokens.line(), tokens.column());
+          frames.push(T_LOOP);
+        }
+
+        // F → ( E ) | string | char | float | number | id
+        case PARSE_F -> {
+          if (tokens.type() == Token.Type.LPAREN) {
+            if (subtrees != null && reuseSubtree(nodes, depth)) {
+              continue;
+            }
+            depth = enter(depth);
+            Frame close =
+                subtrees == null ? F_CLOSE : at(Step.F_CLOSE, 0, 0, position());
+            eat(Token.Type.LPAREN);
+            frames.push(close);
+            frames.push(PARSE_E);
+          } else {
+            parseFactorLiteral(out);
+          }
+        }
+        case F_CLOSE -> {
+          eat(Token.Type.RPAREN);
+          recordSubtree(frame.start(), nodes);
+          depth--;
+        }
+      }
+    }
+  }
+
+  /** Counts one more open {@code if} or parenthesis, failing once the limit is exceeded. */
+  private int enter(int depth) throws SyntaxException {
+    if (depth >= maxDepth) {
+      throw error(Diagnostic.Code.NESTING_TOO_DEEP, maxDepth);
     }
-    return node;
+    return depth + 1;
   }
 
-  private SyntaxNode parseT() throws SyntaxException {
-    SyntaxNode node = parseF();
-    while (currentToken.getType() == Token.Type.TIMES
-        || currentToken.getType() == Token.Type.DIVIDE) {
-      Token op = currentToken;
-      eat(op.getType());
-      SyntaxNode right = parseF();
-      node =
+  /** Parses the non-parenthesized alternatives of F. */
+  private void parseFactorLiteral(AstBuilder out) throws SyntaxException, LexicalException {
+    Token.Type type = tokens.type();
+    switch (type) {
+      case STRING, CHAR, FLOAT, NUMBER, ID -> {
+        int line = tokens.line();
+        int column = tokens.column();
+        String value = recognizing ? null : tokens.value();
+        int symbol = tokens.symbol();
+        tokens.advance();
+        nodeCount++;
+        out.leaf(type, value, symbol, line, column, tokens.line(), tokens.column());
+      }
+      default -> throw error(Diagnostic.Code.EXPECTED_OPERAND, type);
+    }
+  }
+
+  /** A stackless syntax error at the current token; nothing is formatted until it is shown. */
+  private SyntaxException error(Diagnostic.Code code, Object... arguments) {
+    return new SyntaxException(
+        new Diagnostic(code, tokens.offset(), tokens.line(), tokens.column(), arguments));
+  }
+
+  /** Builds {@link SyntaxNode} objects on a stack; the finished tree is its only element. */
+  private static final class TreeBuilder implements AstBuilder {
+    private final Deque<SyntaxNode> nodes = new ArrayDeque<>();
+
+    @Override
+    public void leaf(
+        Token.Type type,
+        String text,
+        int symbol,
+        int line,
+        int column,
+        int endLine,
+        int endColumn) {
+      nodes.push(
+          switch (type) {
+            case STRING -> StringLiteral.builder().line(line).column(column).value(text).build();
+            case CHAR -> CharLiteral.builder().line(line).column(column).value(text).build();
+            case FLOAT -> FloatLiteral.builder().line(line).column(column).value(text).build();
+            case NUMBER -> NumberLiteral.builder().line(line).column(column).value(text).build();
+            case ID -> Identifier.builder().line(line).column(column).name(text).build();
+            default -> throw new IllegalArgumentException("Not a leaf token: " + type);
+          });
+    }
+
+    @Override
+    public void binary(String operator, int line, int column, int endLine, int endColumn) {
+      SyntaxNode right = nodes.pop();
+      SyntaxNode left = nodes.pop();
+      nodes.push(
           BinOp.builder()
-              .line(op.getLine())
-              .column(op.getColumn())
-              .operator(op.getValue())
-              .left(node)
+              .line(line)
+              .column(column)
+              .operator(operator)
+              .left(left)
               .right(right)
-              .build();
-    }
-    return node;
-  }
-
-  private SyntaxNode parseF() throws SyntaxException {
-    if (currentToken.getType() == Token.Type.LPAREN) {
-      eat(Token.Type.LPAREN);
-      SyntaxNode inner = parseE();
-      eat(Token.Type.RPAREN);
-      return inner;
-    }
-    if (currentToken.getType() == Token.Type.STRING) {
-      Token tok = currentToken;
-      eat(Token.Type.STRING);
-      return StringLiteral.builder()
-          .line(tok.getLine())
-          .column(tok.getColumn())
-          .value(tok.getValue())
-          .build();
-    }
-    if (currentToken.getType() == Token.Type.CHAR) {
-      Token tok = currentToken;
-      eat(Token.Type.CHAR);
-      return CharLiteral.builder()
-          .line(tok.getLine())
-          .column(tok.getColumn())
-          .value(tok.getValue())
-          .build();
-    }
-    if (currentToken.getType() == Token.Type.FLOAT) {
-      Token tok = currentToken;
-      eat(Token.Type.FLOAT);
-      return FloatLiteral.builder()
-          .line(tok.getLine())
-          .column(tok.getColumn())
-          .value(tok.getValue())
-          .build();
-    }
-    if (currentToken.getType() == Token.Type.NUMBER || currentToken.getType() == Token.Type.ID) {
-      Token tok = currentToken;
-      eat(tok.getType());
-      if (tok.getType() == Token.Type.NUMBER) {
-        return NumberLiteral.builder()
-            .line(tok.getLine())
-            .column(tok.getColumn())
-            .value(tok.getValue())
-            .build();
-      }
-      return Identifier.builder()
-          .line(tok.getLine())
-          .column(tok.getColumn())
-          .name(tok.getValue())
-          .build();
-    }
-    throw new SyntaxException(
-        String.format(
-            "Syntax error [line %d, column %d]: expected '(', id, number, string, char or float but"
-                + " found '%s'",
-            currentToken.getLine(), currentToken.getColumn(), currentToken.getType()));
+              .build());
+    }
+
+    @Override
+    public void assignment(
+        String identifier, int symbol, int line, int column, int endLine, int endColumn) {
+      nodes.push(
+          Assignment.builder()
+              .line(line)
+              .column(column)
+              .identifier(identifier)
+              .expression(nodes.pop())
+              .build());
+    }
+
+    @Override
+    public void ifStatement(int line, int column, int endLine, int endColumn) {
+      SyntaxNode elseBranch = nodes.pop();
+      SyntaxNode thenBranch = nodes.pop();
+      SyntaxNode condition = nodes.pop();
+      nodes.push(
+          IfStatement.builder()
+              .line(line)
+              .column(column)
+              .condition(condition)
+              .thenBranch(thenBranch)
+              .elseBranch(elseBranch)
+              .build());
+    }
   }
 }
@@ -1,9 +1,18 @@
 package br.edu.fesa.Conditional_Command_Parser.utils;
 
 import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
 import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolTable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 /**
@@ -15,19 +24,49 @@ import org.springframework.stereotype.Component;
  *   <li>Detection of undeclared identifiers and type mismatches
  *   <li>Annotates AST nodes with their semantic type
  * </ul>
+ *
+ * <p>Trees are accepted both as {@link SyntaxNode} objects and as an {@link AstArena}, which is
+ * read through a cursor and annotated in place; both report the same errors.
+ *
+ * <p>Variables a program runs against can be supplied as a {@link SymbolEnvironment}, built once
+ * and shared by every analysis, instead of being declared again on each run.
+ *
+ * <p>Programs declare nothing themselves, so the types and errors of a subtree depend only on the
+ * subtree and the environment. {@link #analyzeIncremental} relies on this to skip the subtrees a
+ * new version of a document reuses from the previous one.
+ *
+ * <p>The analyzer keeps the symbol table and collected errors of the current run, so it is a
+ * prototype-scoped bean: obtain a new instance for each concurrent analysis.
  */
 @Component
+@Scope("prototype")
 public class SemanticAnalyzer {
 
   private SymbolTable symTable = new SymbolTable();
-  private final List<String> errors = new ArrayList<>();
+  private final List<Diagnostic> errors = new ArrayList<>();
+
+  /**
+   * Errors of the subtrees analyzed incrementally so far, by root node, as passed to {@link
+   * #analyzeIncremental}; null outside an incremental run.
+   */
+  private Map<SyntaxNode, SubtreeDiagnostics> analyzed;
 
   /**
    * Returns the list of semantic errors found in the last analysis.
    *
-   * @return unmodifiable list of error messages
+   * @return unmodifiable list of error messages, each rendered when first read
    */
   public List<String> getErrors() {
+    return Diagnostic.messages(getDiagnostics());
+  }
+
+  /**
+   * Returns the semantic errors of the last analysis as diagnostics. Trees do not record source
+   * offsets, so their offset is -1.
+   *
+   * @return unmodifiable list of diagnostics
+   */
+  public List<Diagnostic> getDiagnostics() {
     return List.copyOf(errors);
   }
 
@@ -38,102 +77,461 @@ public class SemanticAnalyzer {
    * @param root root of the AST to analyze
    */
   public void analyze(SyntaxNode root) {
-    errors.clear();
-    symTable = new SymbolTable();
+    analyze(root, List.of());
+  }
+
+  /**
+   * Analyzes the given AST root with {@code declared} already in the global scope, e.g. the
+   * variables a program will be evaluated against. Clears previous state and reinitializes the
+   * symbol table.
+   *
+   * @param root root of the AST to analyze
+   * @param declared symbols visible to the whole program
+   */
+  public void analyze(SyntaxNode root, Collection<Symbol> declared) {
+    reset(SymbolEnvironment.EMPTY, null, declared);
     visit(root);
   }
 
-  // Recursive visitor dispatch:
+  /**
+   * Analyzes the given AST root inside {@code environment}, whose variables are visible to the
+   * whole program. Clears previous state; the environment is neither copied nor modified.
+   *
+   * @param root root of the AST to analyze
+   * @param environment shared declarations
+   */
+  public void analyze(SyntaxNode root, SymbolEnvironment environment) {
+    reset(environment, null, List.of());
+    visit(root);
+  }
+
+  /**
+   * Analyzes {@code root} inside {@code environment} like {@link #analyze(SyntaxNode,
+   * SymbolEnvironment)}, but takes over every subtree found in {@code analyzed} instead of walking
+   * it again, and adds the errors of each subtree it does walk to {@code analyzed}.
+   *
+   * <p>Meant for the successive trees of an incrementally parsed document, which share unchanged
+   * subtrees: analyzing a new version costs as much as the nodes the parser built for it, plus the
+   * errors reported. Every version must be analyzed in the same environment and with the same map;
+   * the errors are the same as those of a full analysis.
+   *
+   * @param root root of the AST to analyze
+   * @param environment shared declarations, the same for every version
+   * @param analyzed errors by subtree root, owned by the caller; must compare keys by identity, and
+   *     may drop the entries of nodes no longer reachable, e.g. through weak keys
+   */
+  public void analyzeIncremental(
+      SyntaxNode root,
+      SymbolEnvironment environment,
+      Map<SyntaxNode, SubtreeDiagnostics> analyzed) {
+    reset(environment, null, List.of());
+    this.analyzed = analyzed;
+    try {
+      visit(root);
+    } finally {
+      this.analyzed = null;
+    }
+  }
+
+  /**
+   * Analyzes the subtree at {@code root} in {@code arena} and annotates its nodes with their types.
+   *
+   * @param arena tree filled by {@link RecursiveDescentParser#parse(TokenStream, AstArena)}
+   * @param root node to start at, usually the one the parser returned
+   */
+  public void analyze(AstArena arena, int root) {
+    analyze(arena, root, List.of());
+  }
+
+  /**
+   * Analyzes the subtree at {@code root} in {@code arena} with {@code declared} already in the
+   * global scope. Reports the same errors as {@link #analyze(SyntaxNode, Collection)} does on the
+   * equivalent object tree. If the arena carries symbol ids, identifiers are resolved by id in a
+   * table over the arena's interner.
+   *
+   * @param arena tree filled by {@link RecursiveDescentParser#parse(TokenStream, AstArena)}
+   * @param root node to start at; nothing is analyzed if {@link AstArena#NONE}
+   * @param declared symbols visible to the whole program
+   */
+  public void analyze(AstArena arena, int root, Collection<Symbol> declared) {
+    analyze(arena, root, SymbolEnvironment.EMPTY, declared);
+  }
 
-  private void visit(SyntaxNode node) {
-    if (node instanceof Assignment) {
-      visitAssignment((Assignment) node);
-    } else if (node instanceof IfStatement) {
-      visitIf((IfStatement) node);
-    } else if (node instanceof BinOp) {
-      visitBinOp((BinOp) node);
-    } else if (node instanceof NumberLiteral) {
-      node.setType(Token.Type.NUMBER);
-    } else if (node instanceof FloatLiteral) {
-      node.setType(Token.Type.FLOAT);
-    } else if (node instanceof StringLiteral) {
-      node.setType(Token.Type.STRING);
-    } else if (node instanceof CharLiteral) {
-      node.setType(Token.Type.CHAR);
-    } else if (node instanceof Identifier) {
-      visitIdentifier((Identifier) node);
+  /**
+   * Analyzes the subtree at {@code root} in {@code arena} inside {@code environment}. Identifiers
+   * are resolved by id when the arena was lexed with an interner from {@link
+   * SymbolEnvironment#newInterner()}, and by name otherwise.
+   *
+   * @param arena tree filled by {@link RecursiveDescentParser#parse(TokenStream, AstArena)}
+   * @param root node to start at; nothing is analyzed if {@link AstArena#NONE}
+   * @param environment shared declarations
+   */
+  public void analyze(AstArena arena, int root, SymbolEnvironment environment) {
+    analyze(arena, root, environment, List.of());
+  }
+
+  private void analyze(
+      AstArena arena, int root, SymbolEnvironment environment, Collection<Symbol> declared) {
+    SymbolInterner ids = arena.symbols();
+    boolean byId = ids != null && environment.isNumbering(ids);
+    reset(environment, byId ? ids : null, declared);
+    if (root != AstArena.NONE) {
+      new ArenaVisitor(arena, byId).visit(root);
     }
-    // Extend here for other node types (e.g., declarations).
   }
 
-  private void visitAssignment(Assignment asg) {
+  /**
+   * Clears the errors and the symbol table, which is reused across runs unless it has to switch
+   * to another environment or interner, and declares {@code declared} globally.
+   *
+   * @param names interner the table must use, or null for any in the environment's numbering
+   */
+  private void reset(
+      SymbolEnvironment environment, SymbolInterner names, Collection<Symbol> declared) {
+    errors.clear();
+    if (symTable.getEnvironment() == environment
+        && (names == null || symTable.getNames() == names)) {
+      symTable.clear();
+    } else {
+      symTable =
+          names != null ? new SymbolTable(environment, names) : new SymbolTable(environment);
+    }
+    declared.forEach(symTable::declare);
+  }
+
+  // Visitor dispatch:
+  //
+  // The tree is walked with an explicit stack so that arbitrarily deep trees (long operator chains,
+  // deeply nested ifs) cannot overflow the thread stack. A composite node is revisited once after
+  // each child completes; its stage says which part of the original recursive visit comes next.
+
+  /** A node to visit, how far its visit has progressed, and the symbol resolved so far. */
+  private record Frame(SyntaxNode node, int stage, Symbol symbol) {}
+
+  private void visit(SyntaxNode root) {
+    Deque<Frame> stack = new ArrayDeque<>();
+    stack.push(new Frame(root, 0, null));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.pop();
+      SyntaxNode node = frame.node();
+      if (analyzed != null && frame.stage() == 0 && node != null) {
+        SubtreeDiagnostics reused = analyzed.get(node);
+        if (reused != null) {
+          // Reused from an earlier version: its types are set and its errors recorded
+          reused.addTo(errors);
+          continue;
+        }
+      }
+      if (node instanceof Assignment) {
+        visitAssignment((Assignment) node, frame, stack);
+      } else if (node instanceof IfStatement) {
+        visitIf((IfStatement) node, frame.stage(), stack);
+      } else if (node instanceof BinOp) {
+        visitBinOp((BinOp) node, frame.stage(), stack);
+      } else if (node instanceof NumberLiteral) {
+        visitLiteral(node, Token.Type.NUMBER);
+      } else if (node instanceof FloatLiteral) {
+        visitLiteral(node, Token.Type.FLOAT);
+      } else if (node instanceof StringLiteral) {
+        visitLiteral(node, Token.Type.STRING);
+      } else if (node instanceof CharLiteral) {
+        visitLiteral(node, Token.Type.CHAR);
+      } else if (node instanceof Identifier) {
+        visitIdentifier((Identifier) node);
+      }
+      // Extend here for other node types (e.g., declarations).
+    }
+  }
+
+  /** Schedules {@code node} to continue at {@code stage} once {@code child} has been visited. */
+  private static void resumeAfter(
+      Deque<Frame> stack, SyntaxNode node, int stage, Symbol symbol, SyntaxNode child) {
+    stack.push(new Frame(node, stage, symbol));
+    stack.push(new Frame(child, 0, null));
+  }
+
+  private void visitAssignment(Assignment asg, Frame frame, Deque<Frame> stack) {
     String name = asg.getIdentifier();
-    var sym = symTable.lookup(name);
-    if (sym == null) {
-      errors.add(
-          String.format(
-              "Semantic error [line %d, column %d]: undeclared variable '%s'",
-              asg.getLine(), asg.getColumn(), name));
-      asg.setType(Token.Type.EOF);
+    if (frame.stage() == 0) {
+      var sym = symTable.lookup(name);
+      if (sym == null) {
+        int before = errors.size();
+        undeclaredVariable(asg.getLine(), asg.getColumn(), name);
+        asg.setType(Token.Type.EOF);
+        if (analyzed != null) {
+          record(asg, errorSince(before));
+        }
+        return;
+      }
+      resumeAfter(stack, asg, 1, sym, asg.getExpression());
       return;
     }
-    visit(asg.getExpression());
+    var sym = frame.symbol();
     Token.Type exprType = asg.getExpression().getType();
+    int before = errors.size();
     if (exprType != sym.getType()) {
-      errors.add(
-          String.format(
-              "Semantic error [line %d, column %d]: type mismatch on '%s' - expected %s but got %s",
-              asg.getLine(), asg.getColumn(), name, sym.getType(), exprType));
+      typeMismatch(asg.getLine(), asg.getColumn(), name, sym.getType(), exprType);
     }
     asg.setType(sym.getType());
+    if (analyzed != null) {
+      record(asg, recorded(asg.getExpression()), errorSince(before));
+    }
+  }
+
+  private void visitIf(IfStatement ifs, int stage, Deque<Frame> stack) {
+    switch (stage) {
+      case 0 -> resumeAfter(stack, ifs, 1, null, ifs.getCondition());
+      case 1 -> {
+        checkCondition(ifs.getLine(), ifs.getColumn(), ifs.getCondition().getType());
+        symTable.enterScope();
+        resumeAfter(stack, ifs, 2, null, ifs.getThenBranch());
+      }
+      case 2 -> {
+        symTable.exitScope();
+        symTable.enterScope();
+        resumeAfter(stack, ifs, 3, null, ifs.getElseBranch());
+      }
+      default -> {
+        symTable.exitScope();
+        ifs.setType(Token.Type.EOF);
+        if (analyzed != null) {
+          // The condition's error, if any, was reported between the condition and the branches
+          SubtreeDiagnostics thenErrors = recorded(ifs.getThenBranch());
+          SubtreeDiagnostics elseErrors = recorded(ifs.getElseBranch());
+          Diagnostic conditionError =
+              isNumeric(ifs.getCondition().getType())
+                  ? null
+                  : errors.get(errors.size() - thenErrors.size() - elseErrors.size() - 1);
+          record(ifs, recorded(ifs.getCondition()), conditionError, thenErrors, elseErrors);
+        }
+      }
+    }
+  }
+
+  private void visitBinOp(BinOp bin, int stage, Deque<Frame> stack) {
+    if (stage == 0) {
+      // Left operand is visited first, then the right one
+      stack.push(new Frame(bin, 1, null));
+      stack.push(new Frame(bin.getRight(), 0, null));
+      stack.push(new Frame(bin.getLeft(), 0, null));
+      return;
+    }
+    int before = errors.size();
+    bin.setType(
+        binOpType(
+            bin.getLine(),
+            bin.getColumn(),
+            bin.getLeft().getType(),
+            bin.getRight().getType(),
+            bin.getOperator()));
+    if (analyzed != null) {
+      record(bin, recorded(bin.getLeft()), recorded(bin.getRight()), errorSince(before));
+    }
+  }
+
+  private void visitIdentifier(Identifier id) {
+    int before = errors.size();
+    id.setType(
+        identifierType(id.getLine(), id.getColumn(), id.getName(), symTable.lookup(id.getName())));
+    if (analyzed != null) {
+      record(id, errorSince(before));
+    }
   }
 
-  private void visitIf(IfStatement ifs) {
-    visit(ifs.getCondition());
-    var condType = ifs.getCondition().getType();
-    if (condType != Token.Type.NUMBER && condType != Token.Type.FLOAT) {
-      errors.add(
-          String.format(
-              "Semantic error [line %d, column %d]: non-numeric if condition of type %s",
-              ifs.getLine(), ifs.getColumn(), condType));
+  private void visitLiteral(SyntaxNode literal, Token.Type type) {
+    literal.setType(type);
+    if (analyzed != null) {
+      analyzed.put(literal, SubtreeDiagnostics.NONE);
     }
-    symTable.enterScope();
-    visit(ifs.getThenBranch());
-    symTable.exitScope();
+  }
 
-    symTable.enterScope();
-    visit(ifs.getElseBranch());
-    symTable.exitScope();
+  // Error sequences of an incremental run
 
-    ifs.setType(Token.Type.EOF);
+  /** Stores the errors of the subtree at {@code node}, given in report order. */
+  private void record(SyntaxNode node, Object... parts) {
+    analyzed.put(node, SubtreeDiagnostics.of(parts));
   }
 
-  private void visitBinOp(BinOp bin) {
-    visit(bin.getLeft());
-    visit(bin.getRight());
-    var lt = bin.getLeft().getType();
-    var rt = bin.getRight().getType();
+  /** Errors recorded for the subtree at {@code node}, which has just been analyzed. */
+  private SubtreeDiagnostics recorded(SyntaxNode node) {
+    SubtreeDiagnostics sequence = node != null ? analyzed.get(node) : null;
+    return sequence != null ? sequence : SubtreeDiagnostics.NONE;
+  }
+
+  /** The one error reported since the list had {@code size} elements, or null if none was. */
+  private Diagnostic errorSince(int size) {
+    return errors.size() > size ? errors.get(size) : null;
+  }
+
+  // Checks and messages shared by both tree representations
+
+  /** Type of a binary operation on operands of the given types, reporting incompatible ones. */
+  private Token.Type binOpType(
+      int line, int column, Token.Type lt, Token.Type rt, String operator) {
     if (lt == rt && (lt == Token.Type.NUMBER || lt == Token.Type.FLOAT)) {
-      bin.setType(lt);
-    } else {
-      errors.add(
-          String.format(
-              "Semantic error [line %d, column %d]: incompatible types %s and %s for operator '%s'",
-              bin.getLine(), bin.getColumn(), lt, rt, bin.getOperator()));
-      bin.setType(Token.Type.EOF);
+      return lt;
     }
+    error(Diagnostic.Code.INCOMPATIBLE_TYPES, line, column, lt, rt, operator);
+    return Token.Type.EOF;
   }
 
-  private void visitIdentifier(Identifier id) {
-    var sym = symTable.lookup(id.getName());
+  /** Declared type of an identifier resolved to {@code sym}, reporting it if undeclared. */
+  private Token.Type identifierType(int line, int column, String name, Symbol sym) {
     if (sym == null) {
-      errors.add(
-          String.format(
-              "Semantic error [line %d, column %d]: undeclared identifier '%s'",
-              id.getLine(), id.getColumn(), id.getName()));
-      id.setType(Token.Type.EOF);
-    } else {
-      id.setType(sym.getType());
+      error(Diagnostic.Code.UNDECLARED_IDENTIFIER, line, column, name);
+      return Token.Type.EOF;
+    }
+    return sym.getType();
+  }
+
+  private void undeclaredVariable(int line, int column, String name) {
+    error(Diagnostic.Code.UNDECLARED_VARIABLE, line, column, name);
+  }
+
+  private void typeMismatch(
+      int line, int column, String name, Token.Type expected, Token.Type actual) {
+    error(Diagnostic.Code.TYPE_MISMATCH, line, column, name, expected, actual);
+  }
+
+  /** Reports an if condition that is neither NUMBER nor FLOAT. */
+  private void checkCondition(int line, int column, Token.Type condType) {
+    if (!isNumeric(condType)) {
+      error(Diagnostic.Code.NON_NUMERIC_CONDITION, line, column, condType);
+    }
+  }
+
+  private static boolean isNumeric(Token.Type type) {
+    return type == Token.Type.NUMBER || type == Token.Type.FLOAT;
+  }
+
+  /** Records an error; its message is rendered only if it is shown. */
+  private void error(Diagnostic.Code code, int line, int column, Object... arguments) {
+    errors.add(new Diagnostic(code, -1, line, column, arguments));
+  }
+
+  /**
+   * The same walk as {@link #visit(SyntaxNode)} over an arena: frames are pairs of ints on a
+   * growable array (node index and stage), and one cursor reads and annotates every node.
+   */
+  private final class ArenaVisitor {
+    private final AstArena.Cursor node;
+    private final AstArena.Cursor child;
+
+    /** Whether the arena's symbol ids are in the table's numbering. */
+    private final boolean byId;
+
+    private int[] stack = new int[64];
+
+    /** Symbol resolved by an assignment in stage 0, kept beside its frame until stage 1. */
+    private Symbol[] symbols = new Symbol[32];
+
+    private int top;
+
+    private ArenaVisitor(AstArena arena, boolean byId) {
+      this.node = arena.cursor();
+      this.child = arena.cursor();
+      this.byId = byId;
+    }
+
+    private void visit(int root) {
+      push(root, 0);
+      while (top > 0) {
+        top -= 2;
+        int stage = stack[top + 1];
+        node.moveTo(stack[top]);
+        switch (node.kind()) {
+          case AstArena.ASSIGNMENT -> visitAssignment(stage);
+          case AstArena.IF -> visitIf(stage);
+          case AstArena.BINARY -> visitBinOp(stage);
+          case AstArena.NUMBER -> node.setType(Token.Type.NUMBER);
+          case AstArena.FLOAT -> node.setType(Token.Type.FLOAT);
+          case AstArena.STRING -> node.setType(Token.Type.STRING);
+          case AstArena.CHAR -> node.setType(Token.Type.CHAR);
+          default ->
+              node.setType(identifierType(node.line(), node.column(), node.text(), resolve()));
+        }
+      }
+    }
+
+    /** Symbol of the current identifier or assignment, by id when the arena has usable ids. */
+    private Symbol resolve() {
+      int id = byId ? node.symbol() : SymbolInterner.NONE;
+      return id != SymbolInterner.NONE ? symTable.lookup(id) : symTable.lookup(node.text());
+    }
+
+    private void push(int index, int stage) {
+      if (top == stack.length) {
+        stack = Arrays.copyOf(stack, top << 1);
+        symbols = Arrays.copyOf(symbols, top);
+      }
+      stack[top] = index;
+      stack[top + 1] = stage;
+      top += 2;
+    }
+
+    /** Schedules the current node to continue at {@code stage} after its child {@code index}. */
+    private void resumeAfter(int stage, int index) {
+      push(node.node(), stage);
+      push(node.child(index), 0);
+    }
+
+    private Token.Type childType(int index) {
+      return child.moveTo(node.child(index)).type();
+    }
+
+    private void visitAssignment(int stage) {
+      String name = node.text();
+      if (stage == 0) {
+        var sym = resolve();
+        if (sym == null) {
+          undeclaredVariable(node.line(), node.column(), name);
+          node.setType(Token.Type.EOF);
+          return;
+        }
+        symbols[top >> 1] = sym;
+        resumeAfter(1, 0);
+        return;
+      }
+      // Popping the frame left top on it; take its symbol and release the slot
+      var sym = symbols[top >> 1];
+      symbols[top >> 1] = null;
+      Token.Type exprType = childType(0);
+      if (exprType != sym.getType()) {
+        typeMismatch(node.line(), node.column(), name, sym.getType(), exprType);
+      }
+      node.setType(sym.getType());
+    }
+
+    private void visitIf(int stage) {
+      switch (stage) {
+        case 0 -> resumeAfter(1, 0);
+        case 1 -> {
+          checkCondition(node.line(), node.column(), childType(0));
+          symTable.enterScope();
+          resumeAfter(2, 1);
+        }
+        case 2 -> {
+          symTable.exitScope();
+          symTable.enterScope();
+          resumeAfter(3, 2);
+        }
+        default -> {
+          symTable.exitScope();
+          node.setType(Token.Type.EOF);
+        }
+      }
+    }
+
+    private void visitBinOp(int stage) {
+      if (stage == 0) {
+        // Left operand is visited first, then the right one
+        push(node.node(), 1);
+        push(node.child(1), 0);
+        push(node.child(0), 0);
+        return;
+      }
+      node.setType(
+          binOpType(node.line(), node.column(), childType(0), childType(1), node.text()));
     }
   }
 }
@@ -0,0 +1,68 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+
+/**
+ * Completed subtrees of one parse, indexed by the token they start at.
+ *
+ * <p>{@link RecursiveDescentParser} records every statement {@code S} and every parenthesized
+ * factor {@code ( E )} it finishes, together with the index just past its last token. The parse
+ * of either nonterminal depends only on its own tokens plus, for {@code S}, the one token of
+ * lookahead after it, so when those are unchanged the recorded node can be reused as is.
+ *
+ * <p>Statements start at an {@code if} or identifier and factors at {@code (}, so one slot per
+ * token is enough.
+ */
+final class SubtreeIndex {
+
+  private final SyntaxNode[] node;
+  private final int[] end;
+
+  /** Creates an empty index for a buffer of {@code size} tokens. */
+  SubtreeIndex(int size) {
+    this.node = new SyntaxNode[size];
+    this.end = new int[size];
+  }
+
+  /** Subtree starting at token {@code start}, or null if none is known. */
+  SyntaxNode node(int start) {
+    return node[start];
+  }
+
+  /** Index of the token after the subtree starting at {@code start}. */
+  int end(int start) {
+    return end[start];
+  }
+
+  void record(int start, SyntaxNode subtree, int subtreeEnd) {
+    node[start] = subtree;
+    end[start] = subtreeEnd;
+  }
+
+  /**
+   * Carries the entries still valid after {@code relexed} over to an index for its new buffer.
+   *
+   * <p>An entry before the damage survives if its tokens and lookahead all precede the damage; an
+   * entry after it survives if it kept its source positions, since nodes carry line and column.
+   *
+   * @param relexed alignment of the new tokens with the ones this index was built for
+   * @param previous tokens this index was built for
+   * @return index for {@code relexed.buffer()} holding the surviving entries
+   */
+  SubtreeIndex splice(Lexer.Relexed relexed, TokenBuffer previous) {
+    SubtreeIndex spliced = new SubtreeIndex(relexed.buffer().size());
+    int damageStart = relexed.damageStart();
+    for (int i = 0; i < damageStart; i++) {
+      if (node[i] != null && end[i] < damageStart) {
+        spliced.record(i, node[i], end[i]);
+      }
+    }
+    int shift = relexed.newDamageEnd() - relexed.oldDamageEnd();
+    for (int i = relexed.oldDamageEnd(); i < node.length; i++) {
+      if (node[i] != null && relexed.keepsPosition(previous, i)) {
+        spliced.record(i + shift, node[i], end[i] + shift);
+      }
+    }
+    return spliced;
+  }
+}
@@ -0,0 +1,375 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import java.util.Arrays;
+
+/**
+ * Compact, index-addressed storage for all tokens of one input.
+ *
+ * <p>Tokens are kept as parallel primitive arrays (struct of arrays) instead of one {@link Token}
+ * object each: a byte for the type and four ints for the lexeme span and source position, 17 bytes
+ * per token in total. Lexemes are not copied; {@link #value(int)} slices them from the source on
+ * demand, and keywords, operators and EOF resolve to shared constants. For STRING and CHAR tokens
+ * the span covers the literal without its quotes, matching {@link Token#getValue()}.
+ *
+ * <p>The buffer is filled by {@link Lexer#tokenizeToBuffer(CharSequence)} and is read-only
+ * afterwards, so it may be shared between threads once built. Index {@code size() - 1} is always
+ * the EOF token.
+ *
+ * <p>When filled by {@link Lexer#tokenizeToBuffer(CharSequence, SymbolInterner)}, every ID token
+ * also carries its {@link #symbol(int) symbol id}, interned from the source span as it is added.
+ */
+public final class TokenBuffer {
+
+  private static final Token.Type[] TYPES = Token.Type.values();
+
+  /** Lexeme of every token type whose text never varies; null for literals and identifiers. */
+  private static final String[] FIXED_LEXEME = new String[TYPES.length];
+
+  static {
+    FIXED_LEXEME[Token.Type.IF.ordinal()] = "if";
+    FIXED_LEXEME[Token.Type.ELSE.ordinal()] = "else";
+    FIXED_LEXEME[Token.Type.LPAREN.ordinal()] = "(";
+    FIXED_LEXEME[Token.Type.RPAREN.ordinal()] = ")";
+    FIXED_LEXEME[Token.Type.EQUALS.ordinal()] = "=";
+    FIXED_LEXEME[Token.Type.PLUS.ordinal()] = "+";
+    FIXED_LEXEME[Token.Type.MINUS.ordinal()] = "-";
+    FIXED_LEXEME[Token.Type.TIMES.ordinal()] = "*";
+    FIXED_LEXEME[Token.Type.DIVIDE.ordinal()] = "/";
+    FIXED_LEXEME[Token.Type.EOF.ordinal()] = "";
+  }
+
+  private final CharSequence source;
+
+  private byte[] type;
+  private int[] start;
+  private int[] end;
+  private int[] line;
+  private int[] column;
+  private int size;
+
+  /** Interner of identifier names, or null if symbol ids are not recorded. */
+  private final SymbolInterner symbols;
+
+  /** Symbol id of each ID token, {@link SymbolInterner#NONE} for others; null without symbols. */
+  private int[] symbol;
+
+  /**
+   * @param source input the token spans refer to
+   * @param capacity initial number of token slots
+   */
+  TokenBuffer(CharSequence source, int capacity) {
+    this(source, capacity, null);
+  }
+
+  /**
+   * @param source input the token spans refer to
+   * @param capacity initial number of token slots
+   * @param symbols interner to record the symbol id of every ID token with, or null
+   */
+  TokenBuffer(CharSequence source, int capacity, SymbolInterner symbols) {
+    int initial = Math.max(capacity, 8);
+    this.source = source;
+    this.symbols = symbols;
+    this.symbol = symbols != null ? new int[initial] : null;
+    this.type = new byte[initial];
+    this.start = new int[initial];
+    this.end = new int[initial];
+    this.line = new int[initial];
+    this.column = new int[initial];
+  }
+
+  /** Appends one token; used by the lexer while filling the buffer. */
+  void add(Token.Type tokenType, int valueStart, int valueEnd, int tokenLine, int tokenColumn) {
+    if (size == type.length) {
+      int grown = size << 1;
+      type = Arrays.copyOf(type, grown);
+      start = Arrays.copyOf(start, grown);
+      end = Arrays.copyOf(end, grown);
+      line = Arrays.copyOf(line, grown);
+      column = Arrays.copyOf(column, grown);
+      if (symbol != null) {
+        symbol = Arrays.copyOf(symbol, grown);
+      }
+    }
+    if (symbol != null) {
+      symbol[size] =
+          tokenType == Token.Type.ID
+              ? symbols.intern(source, valueStart, valueEnd)
+              : SymbolInterner.NONE;
+    }
+    type[size] = (byte) tokenType.ordinal();
+    start[size] = valueStart;
+    end[size] = valueEnd;
+    line[size] = tokenLine;
+    column[size] = tokenColumn;
+    size++;
+  }
+
+  /**
+   * Appends tokens {@code [from, to)} of {@code other}, moving them by the given deltas.
+   *
+   * @param other buffer to copy from
+   * @param from first index to copy
+   * @param to index after the last one to copy
+   * @param offsetDelta added to every start and end offset
+   * @param lineDelta added to every line
+   * @param columnDelta added to the column of tokens on line {@code columnLine} of {@code other}
+   * @param columnLine the only line whose columns move
+   */
+  void append(
+      TokenBuffer other,
+      int from,
+      int to,
+      int offsetDelta,
+      int lineDelta,
+      int columnDelta,
+      int columnLine) {
+    int count = to - from;
+    if (size + count > type.length) {
+      int grown = Math.max(size + count, size << 1);
+      type = Arrays.copyOf(type, grown);
+      start = Arrays.copyOf(start, grown);
+      end = Arrays.copyOf(end, grown);
+      line = Arrays.copyOf(line, grown);
+      column = Arrays.copyOf(column, grown);
+      if (symbol != null) {
+        symbol = Arrays.copyOf(symbol, grown);
+      }
+    }
+    if (symbol != null) {
+      if (other.symbols == symbols) {
+        System.arraycopy(other.symbol, from, symbol, size, count);
+      } else {
+        for (int i = 0; i < count; i++) {
+          symbol[size + i] =
+              other.type[from + i] == Token.Type.ID.ordinal()
+                  ? symbols.intern(other.source, other.start[from + i], other.end[from + i])
+                  : SymbolInterner.NONE;
+        }
+      }
+    }
+    System.arraycopy(other.type, from, type, size, count);
+    System.arraycopy(other.start, from, start, size, count);
+    System.arraycopy(other.end, from, end, size, count);
+    System.arraycopy(other.line, from, line, size, count);
+    System.arraycopy(other.column, from, column, size, count);
+    if (offsetDelta != 0 || lineDelta != 0 || columnDelta != 0) {
+      for (int i = size; i < size + count; i++) {
+        start[i] += offsetDelta;
+        end[i] += offsetDelta;
+        if (line[i] == columnLine) {
+          column[i] += columnDelta;
+        }
+        line[i] += lineDelta;
+      }
+    }
+    size += count;
+  }
+
+  /** Offset of the first character of the token, including the opening quote of a literal. */
+  int rawStart(int index) {
+    return isQuoted(index) ? start[index] - 1 : start[index];
+  }
+
+  /** Offset just past the last character of the token, including the closing quote of a literal. */
+  int rawEnd(int index) {
+    return isQuoted(index) ? end[index] + 1 : end[index];
+  }
+
+  private boolean isQuoted(int index) {
+    int t = type[check(index)];
+    return t == Token.Type.STRING.ordinal() || t == Token.Type.CHAR.ordinal();
+  }
+
+  /** Index of the first token whose text ends at or after {@code offset}; EOF always qualifies. */
+  int firstEndingAtOrAfter(int offset) {
+    int low = 0;
+    int high = size - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (rawEnd(mid) >= offset) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  /** Index of the token whose text starts at {@code offset}, or -1 if none does. */
+  int startingAt(int offset) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midStart = rawStart(mid);
+      if (midStart < offset) {
+        low = mid + 1;
+      } else if (midStart > offset) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /** Number of tokens, including the trailing EOF. */
+  public int size() {
+    return size;
+  }
+
+  /** Input the token spans refer to. */
+  public CharSequence source() {
+    return source;
+  }
+
+  public Token.Type type(int index) {
+    return TYPES[type[check(index)]];
+  }
+
+  /** Offset in {@link #source()} where the lexeme of the token starts. */
+  public int start(int index) {
+    return start[check(index)];
+  }
+
+  /** Offset in {@link #source()} just past the lexeme of the token. */
+  public int end(int index) {
+    return end[check(index)];
+  }
+
+  public int line(int index) {
+    return line[check(index)];
+  }
+
+  public int column(int index) {
+    return column[check(index)];
+  }
+
+  /** Lexeme of the token; a shared constant for fixed tokens, otherwise a new slice. */
+  public String value(int index) {
+    String fixed = FIXED_LEXEME[type[check(index)]];
+    return fixed != null ? fixed : source.subSequence(start[index], end[index]).toString();
+  }
+
+  /** Interner the symbol ids of this buffer refer to, or null if none were recorded. */
+  public SymbolInterner symbols() {
+    return symbols;
+  }
+
+  /**
+   * Symbol id of the token at {@code index} in {@link #symbols()}.
+   *
+   * @return the id of an ID token, or {@link SymbolInterner#NONE} for other tokens and buffers
+   *     without symbols
+   */
+  public int symbol(int index) {
+    check(index);
+    return symbol != null ? symbol[index] : SymbolInterner.NONE;
+  }
+
+  /** Materializes the token at {@code index} as a standalone {@link Token}. */
+  public Token token(int index) {
+    return new Token(type(index), value(index), line[index], column[index]);
+  }
+
+  /** Opens a cursor positioned on the first token. Each call returns an independent cursor. */
+  public Cursor cursor() {
+    return new Cursor(0, size - 1);
+  }
+
+  /**
+   * Opens a cursor over tokens {@code [from, to)} only, as if they were followed by EOF. The EOF
+   * takes the position of token {@code to}, so a parse of the range reports running out of input
+   * where the next token starts.
+   *
+   * @param from index of the first token
+   * @param to index of the token that reads as EOF; {@code size() - 1} for the whole buffer
+   * @return cursor positioned on token {@code from}
+   */
+  public Cursor cursor(int from, int to) {
+    if (from < 0 || from > to || to >= size) {
+      throw new IndexOutOfBoundsException(
+          "Token range [" + from + ", " + to + ") out of bounds for " + size);
+    }
+    return new Cursor(from, to);
+  }
+
+  private int check(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Token index " + index + " out of bounds for " + size);
+    }
+    return index;
+  }
+
+  /** {@link TokenStream} that walks the buffer by index and never allocates per token. */
+  public final class Cursor implements TokenStream {
+    private int index;
+
+    /** Index of the token that reads as EOF; the real EOF unless the cursor covers a range. */
+    private final int limit;
+
+    private Cursor(int from, int limit) {
+      this.index = from;
+      this.limit = limit;
+    }
+
+    @Override
+    public int offset() {
+      return rawStart(index);
+    }
+
+    /** Index of the current token in the buffer. */
+    @Override
+    public int index() {
+      return index;
+    }
+
+    @Override
+    public Token.Type type() {
+      return index == limit ? Token.Type.EOF : TYPES[type[index]];
+    }
+
+    @Override
+    public String value() {
+      return index == limit ? "" : TokenBuffer.this.value(index);
+    }
+
+    @Override
+    public int line() {
+      return line[index];
+    }
+
+    @Override
+    public int column() {
+      return column[index];
+    }
+
+    @Override
+    public int symbol() {
+      return symbol != null && index != limit ? symbol[index] : SymbolInterner.NONE;
+    }
+
+    @Override
+    public SymbolInterner symbols() {
+      return symbols;
+    }
+
+    @Override
+    public void advance() {
+      if (index < limit) {
+        index++;
+      }
+    }
+
+    /** Jumps to token {@code target}; used to skip over a reused subtree. */
+    void seek(int target) {
+      if (check(target) > limit) {
+        throw new IndexOutOfBoundsException("Token index " + target + " past " + limit);
+      }
+      index = target;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import java.util.List;
+
+/**
+ * Pull-based cursor over a sequence of tokens, always positioned on a current token.
+ *
+ * <p>Consumers read the current token through the accessors and move on with {@link #advance()}.
+ * The grammar is LL(1), so one token of lookahead is all the parser ever needs and producers are
+ * free to scan lazily. Once the cursor reaches EOF it stays there.
+ */
+public interface TokenStream {
+
+  /** Type of the current token. */
+  Token.Type type();
+
+  /** Lexeme of the current token; may be materialized on first call. */
+  String value();
+
+  /** Source line of the current token. */
+  int line();
+
+  /** Source column of the current token. */
+  int column();
+
+  /**
+   * Offset in the input of the first character of the current token, its opening quote included.
+   *
+   * @return the offset, or -1 if the producer does not record offsets
+   */
+  default int offset() {
+    return -1;
+  }
+
+  /**
+   * Interned symbol id of the current token, if the producer records them.
+   *
+   * @return the id of an ID token, otherwise {@link SymbolInterner#NONE}
+   */
+  default int symbol() {
+    return SymbolInterner.NONE;
+  }
+
+  /** Interner the ids from {@link #symbol()} refer to, or null if the producer records none. */
+  default SymbolInterner symbols() {
+    return null;
+  }
+
+  /**
+   * Index of the current token in the sequence being walked: the number of tokens the stream has
+   * moved past, if it started at the first one.
+   */
+  int index();
+
+  /**
+   * Moves to the next token. Does nothing when the current token is EOF.
+   *
+   * @throws LexicalException if the next token cannot be scanned
+   */
+  void advance() throws LexicalException;
+
+  /** Returns the current token as a standalone {@link Token}. */
+  default Token token() {
+    return new Token(type(), value(), line(), column());
+  }
+
+  /**
+   * Wraps an already tokenized list; the list must end with an EOF token.
+   *
+   * @param tokens tokens including the trailing EOF
+   * @return stream positioned on the first token
+   */
+  static TokenStream of(List<Token> tokens) {
+    return new TokenStream() {
+      private int position = 0;
+
+      private Token current() {
+        return tokens.get(position);
+      }
+
+      @Override
+      public Token.Type type() {
+        return current().getType();
+      }
+
+      @Override
+      public String value() {
+        return current().getValue();
+      }
+
+      @Override
+      public int line() {
+        return current().getLine();
+      }
+
+      @Override
+      public int column() {
+        return current().getColumn();
+      }
+
+      @Override
+      public int index() {
+        return position;
+      }
+
+      @Override
+      public void advance() {
+        if (position < tokens.size() - 1) {
+          position++;
+        }
+      }
+
+      @Override
+      public Token token() {
+        return current();
+      }
+    };
+  }
+}
@@ -1,7 +1,12 @@
 package br.edu.fesa.Conditional_Command_Parser.utils;
 
 import br.edu.fesa.Conditional_Command_Parser.model.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -9,9 +14,21 @@ import java.util.List;
  *
  * <p>Each node is printed on its own line with Unicode branch characters, and child branches are
  * labeled ("Condition", "Left", "Right", etc.) for clarity.
+ *
+ * <p>Rendering writes every node exactly once into a single {@link Appendable} and copies
+ * indentation from one shared prefix buffer, so the cost is linear in the size of the output. Use
+ * {@link #writeASCIITree(SyntaxNode, Appendable)} to stream straight into a {@code Writer}. Nodes
+ * are visited from an explicit stack, so tree depth is not limited by the thread stack. Trees in an
+ * {@link AstArena} are printed identically by {@link #writeASCIITree(AstArena, int, Appendable)}.
  */
 public class TreePrinter {
 
+  /** Indentation for each ancestor level below the root. */
+  private static final String PIPE = "│  ";
+
+  /** Branch marker in front of every non-root node. */
+  private static final String BRANCH = "├─ ";
+
   /**
    * Generates a complete ASCII tree from the given AST root.
    *
@@ -19,90 +36,252 @@ public class TreePrinter {
    * @return multi-line string depicting the tree structure
    */
   public static String generateASCIITree(SyntaxNode node) {
-    return generateASCIITree(node, 0, null);
+    StringBuilder sb = new StringBuilder();
+    try {
+      writeASCIITree(node, sb);
+    } catch (IOException e) {
+      // StringBuilder never throws
+      throw new UncheckedIOException(e);
+    }
+    return sb.toString();
   }
 
   /**
-   * Recursive helper that builds the ASCII tree.
+   * Writes the ASCII tree of the given AST root to {@code out}, node by node.
    *
-   * @param node current AST node (may be null)
-   * @param indent depth for branching characters
-   * @param childLabel optional label for this branch (e.g. "Left", "Then")
-   * @return ASCII lines for this subtree
+   * @param node root of the AST (nothing is written if null)
+   * @param out destination, e.g. a {@code StringBuilder} or a response {@code Writer}
+   * @throws IOException if writing to {@code out} fails
    */
-  private static String generateASCIITree(SyntaxNode node, int indent, String childLabel) {
-    if (node == null) {
-      return "";
-    }
+  public static void writeASCIITree(SyntaxNode node, Appendable out) throws IOException {
+    new Renderer(out).render(node, 0, null);
+  }
 
+  /**
+   * Generates the ASCII tree of the subtree at {@code root} in {@code arena}.
+   *
+   * @param arena parsed tree
+   * @param root node to start at, usually the one the parser returned
+   * @return the same text as {@link #generateASCIITree(SyntaxNode)} on the equivalent object tree
+   */
+  public static String generateASCIITree(AstArena arena, int root) {
     StringBuilder sb = new StringBuilder();
+    try {
+      writeASCIITree(arena, root, sb);
+    } catch (IOException e) {
+      // StringBuilder never throws
+      throw new UncheckedIOException(e);
+    }
+    return sb.toString();
+  }
 
-    // Build indentation prefix ("│  " per level, then "├─ ")
-    String indentStr = "";
-    for (int i = 0; i < indent - 1; i++) {
-      indentStr += "│  ";
+  /**
+   * Writes the ASCII tree of the subtree at {@code root} in {@code arena} to {@code out}, node by
+   * node.
+   *
+   * @param arena parsed tree
+   * @param root node to start at (nothing is written if {@link AstArena#NONE})
+   * @param out destination, e.g. a {@code StringBuilder} or a response {@code Writer}
+   * @throws IOException if writing to {@code out} fails
+   */
+  public static void writeASCIITree(AstArena arena, int root, Appendable out)
+      throws IOException {
+    if (root != AstArena.NONE) {
+      new ArenaRenderer(arena, out).render(root);
     }
+  }
+
+  /** Writes the indentation and optional branch label that start every node line. */
+  private static void appendLinePrefix(
+      StringBuilder prefix, Appendable out, int indent, String childLabel) throws IOException {
+    // Indentation prefix ("│  " per level, then "├─ ")
     if (indent > 0) {
-      indentStr += "├─ ";
+      int width = (indent - 1) * PIPE.length();
+      while (prefix.length() < width) {
+        prefix.append(PIPE);
+      }
+      out.append(prefix, 0, width).append(BRANCH);
     }
 
     // Optional branch label
-    String labelPrefix = (childLabel != null) ? childLabel + ": " : "";
+    if (childLabel != null) {
+      out.append(childLabel).append(": ");
+    }
+  }
 
-    // Append this node’s representation
-    sb.append(indentStr).append(labelPrefix).append(getNodeRepresentation(node)).append("\n");
+  /** Holds the output and the shared indentation buffer for one rendering pass. */
+  private static final class Renderer {
+    private final Appendable out;
 
-    // Recurse into known children
-    if (node instanceof IfStatement) {
-      IfStatement ifs = (IfStatement) node;
-      sb.append(generateASCIITree(ifs.getCondition(), indent + 1, "Condition"));
-      sb.append(generateASCIITree(ifs.getThenBranch(), indent + 1, "Then"));
-      sb.append(generateASCIITree(ifs.getElseBranch(), indent + 1, "Else"));
+    /** {@code PIPE} repeated for the deepest level seen so far; prefixes are slices of it. */
+    private final StringBuilder prefix = new StringBuilder();
 
-    } else if (node instanceof Assignment) {
-      Assignment asg = (Assignment) node;
-      sb.append(generateASCIITree(asg.getExpression(), indent + 1, "Expression"));
+    /** Nodes still to be written, in pre-order; replaces recursion so depth is unbounded. */
+    private final Deque<Pending> pending = new ArrayDeque<>();
 
-    } else if (node instanceof BinOp) {
-      BinOp bin = (BinOp) node;
-      sb.append(generateASCIITree(bin.getLeft(), indent + 1, "Left"));
-      sb.append(generateASCIITree(bin.getRight(), indent + 1, "Right"));
+    /** A subtree waiting to be written at a given depth under an optional branch label. */
+    private record Pending(SyntaxNode node, int indent, String childLabel) {}
 
-    } else {
-      // No children for literals and identifiers; override getChildren() if you add more
-      for (SyntaxNode child : getChildren(node)) {
-        sb.append(generateASCIITree(child, indent + 1, null));
+    private Renderer(Appendable out) {
+      this.out = out;
+    }
+
+    /**
+     * Writes the ASCII tree rooted at {@code root}.
+     *
+     * @param root AST root (may be null)
+     * @param indent depth for branching characters
+     * @param childLabel optional label for this branch (e.g. "Left", "Then")
+     */
+    private void render(SyntaxNode root, int indent, String childLabel) throws IOException {
+      push(root, indent, childLabel);
+      while (!pending.isEmpty()) {
+        Pending next = pending.pop();
+        renderNode(next.node(), next.indent(), next.childLabel());
       }
     }
-    return sb.toString();
+
+    private void push(SyntaxNode node, int indent, String childLabel) {
+      if (node != null) {
+        pending.push(new Pending(node, indent, childLabel));
+      }
+    }
+
+    /** Writes one node line and schedules its children, last child first. */
+    private void renderNode(SyntaxNode node, int indent, String childLabel) throws IOException {
+      appendLinePrefix(prefix, out, indent, childLabel);
+
+      // This node’s representation
+      appendNodeRepresentation(node, out);
+      out.append('\n');
+
+      // Schedule known children (reversed, so they are written in source order)
+      if (node instanceof IfStatement) {
+        IfStatement ifs = (IfStatement) node;
+        push(ifs.getElseBranch(), indent + 1, "Else");
+        push(ifs.getThenBranch(), indent + 1, "Then");
+        push(ifs.getCondition(), indent + 1, "Condition");
+
+      } else if (node instanceof Assignment) {
+        Assignment asg = (Assignment) node;
+        push(asg.getExpression(), indent + 1, "Expression");
+
+      } else if (node instanceof BinOp) {
+        BinOp bin = (BinOp) node;
+        push(bin.getRight(), indent + 1, "Right");
+        push(bin.getLeft(), indent + 1, "Left");
+
+      } else {
+        // No children for literals and identifiers; override getChildren() if you add more
+        List<SyntaxNode> children = getChildren(node);
+        for (int i = children.size() - 1; i >= 0; i--) {
+          push(children.get(i), indent + 1, null);
+        }
+      }
+    }
+  }
+
+  /**
+   * {@link Renderer} for an arena: pending nodes are kept as node index, depth and label number in
+   * parallel arrays, and one cursor reads every node.
+   */
+  private static final class ArenaRenderer {
+    /** Branch labels, referred to by position in {@link #label}. */
+    private static final String[] LABELS = {
+      null, "Condition", "Then", "Else", "Expression", "Left", "Right"
+    };
+
+    private final AstArena.Cursor node;
+    private final Appendable out;
+    private final StringBuilder prefix = new StringBuilder();
+    private int[] pending = new int[32];
+    private int[] indent = new int[32];
+    private byte[] label = new byte[32];
+    private int count;
+
+    private ArenaRenderer(AstArena arena, Appendable out) {
+      this.node = arena.cursor();
+      this.out = out;
+    }
+
+    private void render(int root) throws IOException {
+      push(root, 0, 0);
+      while (count > 0) {
+        count--;
+        renderNode(pending[count], indent[count], LABELS[label[count]]);
+      }
+    }
+
+    private void push(int index, int depth, int labelNumber) {
+      if (count == pending.length) {
+        pending = Arrays.copyOf(pending, count << 1);
+        indent = Arrays.copyOf(indent, count << 1);
+        label = Arrays.copyOf(label, count << 1);
+      }
+      pending[count] = index;
+      indent[count] = depth;
+      label[count] = (byte) labelNumber;
+      count++;
+    }
+
+    /** Writes one node line and schedules its children, last child first. */
+    private void renderNode(int index, int depth, String childLabel) throws IOException {
+      appendLinePrefix(prefix, out, depth, childLabel);
+      node.moveTo(index);
+      switch (node.kind()) {
+        case AstArena.IDENTIFIER -> out.append("ID(").append(node.text()).append(')');
+        case AstArena.NUMBER -> out.append("NUMBER(").append(node.text()).append(')');
+        case AstArena.FLOAT -> out.append("FLOAT(").append(node.text()).append(')');
+        case AstArena.STRING -> out.append("STRING(\"").append(node.text()).append("\")");
+        case AstArena.CHAR -> out.append("CHAR('").append(node.text()).append("')");
+        case AstArena.BINARY -> {
+          out.append("BINOP(").append(node.text()).append(')');
+          push(node.child(1), depth + 1, 6);
+          push(node.child(0), depth + 1, 5);
+        }
+        case AstArena.ASSIGNMENT -> {
+          out.append("ASSIGN(").append(node.text()).append(')');
+          push(node.child(0), depth + 1, 4);
+        }
+        default -> {
+          out.append("IF");
+          push(node.child(2), depth + 1, 3);
+          push(node.child(1), depth + 1, 2);
+          push(node.child(0), depth + 1, 1);
+        }
+      }
+      out.append('\n');
+    }
   }
 
   /**
-   * Returns the one-line representation for each AST node type.
+   * Appends the one-line representation for each AST node type.
    *
    * @param node AST node
-   * @return string label for the node
+   * @param out destination of the label
    */
-  private static String getNodeRepresentation(SyntaxNode node) {
+  private static void appendNodeRepresentation(SyntaxNode node, Appendable out)
+      throws IOException {
     if (node instanceof Identifier) {
-      return "ID(" + ((Identifier) node).getName() + ")";
+      out.append("ID(").append(((Identifier) node).getName()).append(')');
     } else if (node instanceof NumberLiteral) {
-      return "NUMBER(" + ((NumberLiteral) node).getValue() + ")";
+      out.append("NUMBER(").append(((NumberLiteral) node).getValue()).append(')');
     } else if (node instanceof FloatLiteral) {
-      return "FLOAT(" + ((FloatLiteral) node).getValue() + ")";
+      out.append("FLOAT(").append(((FloatLiteral) node).getValue()).append(')');
     } else if (node instanceof StringLiteral) {
-      return "STRING(\"" + ((StringLiteral) node).getValue() + "\")";
+      out.append("STRING(\"").append(((StringLiteral) node).getValue()).append("\")");
     } else if (node instanceof CharLiteral) {
-      return "CHAR('" + ((CharLiteral) node).getValue() + "')";
+      out.append("CHAR('").append(((CharLiteral) node).getValue()).append("')");
     } else if (node instanceof BinOp) {
-      return "BINOP(" + ((BinOp) node).getOperator() + ")";
+      out.append("BINOP(").append(((BinOp) node).getOperator()).append(')');
     } else if (node instanceof Assignment) {
-      return "ASSIGN(" + ((Assignment) node).getIdentifier() + ")";
+      out.append("ASSIGN(").append(((Assignment) node).getIdentifier()).append(')');
     } else if (node instanceof IfStatement) {
-      return "IF";
+      out.append("IF");
+    } else {
+      // Fallback: use class name
+      out.append(node.getClass().getSimpleName());
     }
-    // Fallback: use class name
-    return node.getClass().getSimpleName();
   }
 
   /**
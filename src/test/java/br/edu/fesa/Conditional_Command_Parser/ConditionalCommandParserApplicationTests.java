@@ -1,11 +1,56 @@
 package br.edu.fesa.Conditional_Command_Parser;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
 
 @SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
 class ConditionalCommandParserApplicationTests {
 
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ParserService parserService;
+
   @Test
   void contextLoads() {}
+
+  @Test
+  void prometheusEndpointExposesPipelineMetrics() throws Exception {
+    parserService.parse("metricsProbe = 1");
+
+    mockMvc
+        .perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("parser_stage_seconds_bucket{")))
+        .andExpect(content().string(containsString("stage=\"semantic\"")))
+        .andExpect(content().string(containsString("parser_errors_total{kind=\"semantic\"}")))
+        .andExpect(content().string(containsString("parser_input_size_characters_count")));
+  }
+
+  @Test
+  void validateEndpointAnswersWithoutTree() throws Exception {
+    mockMvc
+        .perform(post("/parse/validate").param("input", "x = = 1 y").param("failFast", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.valid").value(false))
+        .andExpect(jsonPath("$.errors.length()").value(1))
+        .andExpect(jsonPath("$.diagnostics").doesNotExist());
+    mockMvc
+        .perform(post("/parse/validate").param("input", "if (a) b = 1 else b = 2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.valid").value(true));
+  }
 }
@@ -0,0 +1,76 @@
+package br.edu.fesa.Conditional_Command_Parser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests the command-line options and exit codes of the offline validator. */
+class ConditionalCommandParserCliTest {
+
+  @TempDir Path dir;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+  private int run(String... args) {
+    return ConditionalCommandParserCli.run(
+        args,
+        new PrintStream(out, true, StandardCharsets.UTF_8),
+        new PrintStream(err, true, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Exits with 0 when every file is valid in the given environment")
+  void validFiles() throws IOException {
+    Files.writeString(dir.resolve("a.cmd"), "if (x) x = 1 else x = 2");
+    Files.writeString(dir.resolve("b.cmd"), "x = x + 1");
+    Path environment = Files.writeString(dir.resolve("env.json"), "{\"x\": \"NUMBER\"}");
+    Path report = dir.resolve("report.ndjson");
+
+    int code =
+        run(
+            "--workers", "2",
+            "--glob", "*.cmd",
+            "--environment", environment.toString(),
+            "--output", report.toString(),
+            dir.toString());
+
+    assertEquals(0, code, err.toString(StandardCharsets.UTF_8));
+    List<String> lines = Files.readAllLines(report);
+    assertEquals(3, lines.size());
+    assertTrue(lines.get(2).startsWith("{\"summary\":{\"files\":2,\"valid\":2,\"invalid\":0"));
+    assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("2 files, 2 valid, 0 invalid"));
+    assertEquals(0, out.size());
+  }
+
+  @Test
+  @DisplayName("Exits with 1 when a file is invalid and writes the report to standard output")
+  void invalidFile() throws IOException {
+    Path file = Files.writeString(dir.resolve("a.cmd"), "x = 1");
+
+    assertEquals(1, run(file.toString()));
+    String report = out.toString(StandardCharsets.UTF_8);
+    assertTrue(report.contains("\"valid\":false"), report);
+    assertTrue(report.contains("undeclared variable 'x'"), report);
+  }
+
+  @Test
+  @DisplayName("Exits with 2 on bad arguments")
+  void usage() {
+    assertEquals(2, run());
+    assertEquals(2, run("--workers"));
+    assertEquals(2, run("--color", "red", dir.toString()));
+    assertEquals(2, run("--workers", "0", dir.toString()));
+    assertEquals(2, run(dir.resolve("missing").toString()));
+    assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage:"));
+  }
+}
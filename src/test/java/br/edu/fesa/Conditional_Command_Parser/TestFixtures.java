@@ -0,0 +1,45 @@
+package br.edu.fesa.Conditional_Command_Parser;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.List;
+
+/** Helpers shared by tests in several packages. */
+public final class TestFixtures {
+
+  private TestFixtures() {}
+
+  /** A declared variable with no source position. */
+  public static Symbol var(String name, Type type) {
+    return Symbol.builder().name(name).type(type).line(0).column(0).build();
+  }
+
+  /** Lexes, parses and analyzes {@code source} against {@code variables}, errors or not. */
+  public static SyntaxNode analyzed(String source, List<Symbol> variables) throws LexicalException {
+    SyntaxNode root = new RecursiveDescentParser().parse(new Lexer().tokenize(source));
+    new SemanticAnalyzer().analyze(root, variables);
+    return root;
+  }
+
+  /**
+   * Lexes, parses and analyzes {@code source} against {@code variables}, failing the test on any
+   * semantic error.
+   */
+  public static SyntaxNode analyzedWithoutErrors(String source, List<Symbol> variables)
+      throws LexicalException {
+    SyntaxNode root = new RecursiveDescentParser().parse(new Lexer().tokenize(source));
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(root, variables);
+    assertTrue(
+        analyzer.getErrors().isEmpty(),
+        () -> "Semantic errors: " + analyzer.getErrors() + " in " + source);
+    return root;
+  }
+}
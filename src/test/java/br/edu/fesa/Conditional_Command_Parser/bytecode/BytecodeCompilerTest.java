@@ -0,0 +1,244 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.exception.SemanticException;
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests that compiled programs evaluate conditional commands correctly and without allocating. */
+class BytecodeCompilerTest {
+
+  /** Interpreter only; JvmCompilerTest checks the compiled tier against it. */
+  private final BytecodeCompiler compiler = new BytecodeCompiler(-1);
+
+  /** Lexes, parses, analyzes against {@code variables} and compiles {@code source}. */
+  private Program compile(String source, List<Symbol> variables)
+      throws LexicalException, SemanticException {
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    SyntaxNode root = parser.parse(new Lexer().tokenize(source));
+    assertTrue(parser.getErrors().isEmpty(), () -> "Syntax errors: " + parser.getErrors());
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(root, variables);
+    assertTrue(analyzer.getErrors().isEmpty(), () -> "Semantic errors: " + analyzer.getErrors());
+    return compiler.compile(root, variables);
+  }
+
+  @Test
+  @DisplayName("Integer arithmetic follows precedence and truncating division")
+  void numberArithmetic() throws Exception {
+    Program program =
+        compile(
+            "x = (a + 2) * b - a / 3",
+            List.of(var("x", Type.NUMBER), var("a", Type.NUMBER), var("b", Type.NUMBER)));
+    Environment env = program.newEnvironment();
+    env.setNumber(program.slot("a"), 7).setNumber(program.slot("b"), 5);
+
+    program.execute(env);
+
+    assertEquals(43, env.getNumber(program.slot("x")));
+  }
+
+  @Test
+  @DisplayName("Float arithmetic uses double precision")
+  void floatArithmetic() throws Exception {
+    Program program =
+        compile("r = f * 2.5 - 1.0 / f", List.of(var("r", Type.FLOAT), var("f", Type.FLOAT)));
+    Environment env = program.newEnvironment().setFloat(program.slot("f"), 4.0);
+
+    program.execute(env);
+
+    assertEquals(4.0 * 2.5 - 1.0 / 4.0, env.getFloat(program.slot("r")));
+  }
+
+  @Test
+  @DisplayName("Nonzero conditions take the then branch, zero the else branch")
+  void branches() throws Exception {
+    Program program =
+        compile(
+            "if (a - 3) if (f) x = 1 else x = 2 else x = 3",
+            List.of(var("x", Type.NUMBER), var("a", Type.NUMBER), var("f", Type.FLOAT)));
+    Environment env = program.newEnvironment();
+    int a = program.slot("a");
+    int f = program.slot("f");
+    int x = program.slot("x");
+
+    program.execute(env.setNumber(a, 3));
+    assertEquals(3, env.getNumber(x));
+    program.execute(env.setNumber(a, 4).setFloat(f, 0.5));
+    assertEquals(1, env.getNumber(x));
+    program.execute(env.setFloat(f, 0.0));
+    assertEquals(2, env.getNumber(x));
+  }
+
+  @Test
+  @DisplayName("STRING and CHAR values are assigned from literals and other variables")
+  void textValues() throws Exception {
+    Program program =
+        compile(
+            "if (n) s = t else s = \"none\"",
+            List.of(var("n", Type.NUMBER), var("s", Type.STRING), var("t", Type.STRING)));
+    Environment env = program.newEnvironment().setText(program.slot("t"), "given");
+
+    program.execute(env.setNumber(program.slot("n"), 1));
+    assertEquals("given", env.getText(program.slot("s")));
+    program.execute(env.setNumber(program.slot("n"), 0));
+    assertEquals("none", env.getText(program.slot("s")));
+
+    Program chars = compile("c = 'z'", List.of(var("c", Type.CHAR)));
+    Environment charEnv = chars.newEnvironment();
+    chars.execute(charEnv);
+    assertEquals("z", charEnv.getText(0));
+  }
+
+  @Test
+  @DisplayName("Integer division by zero throws ArithmeticException")
+  void divisionByZero() throws Exception {
+    Program program =
+        compile("x = 1 / d", List.of(var("x", Type.NUMBER), var("d", Type.NUMBER)));
+    assertThrows(ArithmeticException.class, () -> program.execute(program.newEnvironment()));
+  }
+
+  @Test
+  @DisplayName("Trees that failed analysis are rejected")
+  void rejectsUncheckedTrees() throws Exception {
+    SyntaxNode root = new RecursiveDescentParser().parse(new Lexer().tokenize("x = y + 1"));
+    List<Symbol> variables = List.of(var("x", Type.NUMBER), var("y", Type.FLOAT));
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(root, variables);
+    assertFalse(analyzer.getErrors().isEmpty());
+
+    SemanticException e =
+        assertThrows(SemanticException.class, () -> compiler.compile(root, variables));
+    assertTrue(e.getMessage().startsWith("Semantic error [line 1, column"), e.getMessage());
+  }
+
+  @Test
+  @DisplayName("Environments check variable types and ownership")
+  void environmentChecks() throws Exception {
+    Program program = compile("x = 1", List.of(var("x", Type.NUMBER)));
+    Environment env = program.newEnvironment();
+    assertThrows(IllegalArgumentException.class, () -> env.setFloat(0, 1.0));
+    assertThrows(IllegalArgumentException.class, () -> program.slot("y"));
+
+    Program other = compile("x = 1", List.of(var("x", Type.NUMBER)));
+    assertThrows(IllegalArgumentException.class, () -> other.execute(env));
+  }
+
+  @Test
+  @DisplayName("Disassembly lists typed instructions with resolved operands")
+  void disassemble() throws Exception {
+    Program program =
+        compile(
+            "if (n) f = f * 2.0 else f = 1.0",
+            List.of(var("n", Type.NUMBER), var("f", Type.FLOAT)));
+
+    assertEquals(
+        String.join(
+            "\n",
+            "0: LOAD 0 (n)",
+            "2: LIFZ 13",
+            "4: LOAD 1 (f)",
+            "6: CONST 0 (2.0)",
+            "8: DMUL",
+            "9: STORE 1 (f)",
+            "11: GOTO 17",
+            "13: CONST 1 (1.0)",
+            "15: STORE 1 (f)",
+            "17: RETURN",
+            ""),
+        program.disassemble());
+    assertEquals(2, program.maxStack());
+  }
+
+  @Test
+  @DisplayName("Deeply nested trees compile and run without recursion")
+  void deepNesting() throws Exception {
+    // if (n) c = c + 1 else if (n) ... with 100k levels, built and typed directly so that only
+    // the compiler and the interpreter see the full depth
+    int depth = 100_000;
+    SyntaxNode stmt = increment();
+    for (int i = 0; i < depth; i++) {
+      stmt =
+          IfStatement.builder()
+              .line(1)
+              .column(1)
+              .condition(typed(Identifier.builder().line(1).column(1).name("n").build()))
+              .thenBranch(increment())
+              .elseBranch(stmt)
+              .build();
+    }
+    Program program =
+        compiler.compile(stmt, List.of(var("n", Type.NUMBER), var("c", Type.NUMBER)));
+    Environment env = program.newEnvironment();
+
+    program.execute(env);
+    assertEquals(1, env.getNumber(program.slot("c")));
+  }
+
+  private static Assignment increment() {
+    return Assignment.builder()
+        .line(1)
+        .column(1)
+        .identifier("c")
+        .expression(
+            typed(
+                BinOp.builder()
+                    .line(1)
+                    .column(1)
+                    .operator("+")
+                    .left(typed(Identifier.builder().line(1).column(1).name("c").build()))
+                    .right(NumberLiteral.builder().line(1).column(1).value("1").build())
+                    .build()))
+        .build();
+  }
+
+  /** Annotates {@code node} as NUMBER, as the analyzer would for these variables. */
+  private static SyntaxNode typed(SyntaxNode node) {
+    node.setType(Type.NUMBER);
+    return node;
+  }
+
+  @Test
+  @DisplayName("Repeated evaluation against new bindings allocates nothing")
+  void evaluationDoesNotAllocate() throws Exception {
+    Program program =
+        compile(
+            "if (a) x = (a + b) * 3 - b / 2 else x = b",
+            List.of(var("x", Type.NUMBER), var("a", Type.NUMBER), var("b", Type.NUMBER)));
+    Environment env = program.newEnvironment();
+    int a = program.slot("a");
+    int b = program.slot("b");
+    int x = program.slot("x");
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+
+    long checksum = 0;
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < 100_000; i++) {
+      env.setNumber(a, i % 7).setNumber(b, i);
+      program.execute(env);
+      checksum += env.getNumber(x);
+    }
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    long expected = 0;
+    for (int i = 0; i < 100_000; i++) {
+      expected += i % 7 != 0 ? (i % 7 + i) * 3L - i / 2 : i;
+    }
+    assertEquals(expected, checksum);
+    // Allows for the measurement itself, but not for anything per evaluation
+    assertTrue(allocated < 10_000, () -> "Allocated " + allocated + " bytes");
+  }
+}
@@ -0,0 +1,191 @@
+package br.edu.fesa.Conditional_Command_Parser.bytecode;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.analyzedWithoutErrors;
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that programs compiled to JVM code behave exactly like the interpreter. */
+class JvmCompilerTest {
+
+  private static final List<Symbol> VARIABLES =
+      List.of(
+          var("a", Type.NUMBER),
+          var("b", Type.NUMBER),
+          var("c", Type.NUMBER),
+          var("f", Type.FLOAT),
+          var("g", Type.FLOAT),
+          var("s", Type.STRING),
+          var("t", Type.STRING));
+
+  private static SyntaxNode analyze(String source) throws Exception {
+    return analyzedWithoutErrors(source, VARIABLES);
+  }
+
+  @ParameterizedTest(name = "seed {0}")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  @DisplayName("Random programs give the same results compiled and interpreted")
+  void matchesInterpreter(long seed) throws Exception {
+    Random random = new Random(seed);
+    for (int n = 0; n < 40; n++) {
+      String source = new ProgramGenerator(random).statement(4);
+      SyntaxNode root = analyze(source);
+      Program interpreted = new BytecodeCompiler(-1).compile(root, VARIABLES);
+      Program jit = new BytecodeCompiler(0).compile(root, VARIABLES);
+      Environment expected = interpreted.newEnvironment();
+      Environment actual = jit.newEnvironment();
+
+      for (int run = 0; run < 20; run++) {
+        long bindings = random.nextLong();
+        for (Environment env : List.of(expected, actual)) {
+          // Same draws for both environments
+          Random values = new Random(bindings);
+          Program p = env.program();
+          env.setNumber(p.slot("a"), values.nextInt(5) - 2)
+              .setNumber(p.slot("b"), values.nextInt(5) - 2)
+              .setNumber(p.slot("c"), values.nextInt(5) - 2)
+              .setFloat(p.slot("f"), values.nextInt(5) - 2)
+              .setFloat(p.slot("g"), values.nextInt(3) / 2.0)
+              .setText(p.slot("t"), "t" + run);
+        }
+        String outcome = run(interpreted, expected);
+        assertEquals(outcome, run(jit, actual), source);
+      }
+      assertTrue(jit.isCompiled(), source);
+    }
+  }
+
+  /** Executes and describes the resulting variables, or the exception thrown. */
+  private static String run(Program program, Environment env) {
+    try {
+      program.execute(env);
+    } catch (ArithmeticException e) {
+      return "ArithmeticException";
+    }
+    StringBuilder sb = new StringBuilder();
+    for (Symbol v : VARIABLES) {
+      int slot = program.slot(v.getName());
+      sb.append(v.getName()).append('=');
+      switch (v.getType()) {
+        case NUMBER -> sb.append(env.getNumber(slot));
+        case FLOAT -> sb.append(env.getFloat(slot));
+        default -> sb.append(env.getText(slot));
+      }
+      sb.append(' ');
+    }
+    return sb.toString();
+  }
+
+  @Test
+  @DisplayName("Programs are interpreted until the threshold, then compiled")
+  void tiersUpAfterThreshold() throws Exception {
+    Program program =
+        new BytecodeCompiler(3).compile(analyze("if (a) b = b + 1 else b = 0"), VARIABLES);
+    Environment env = program.newEnvironment().setNumber(program.slot("a"), 1);
+    int b = program.slot("b");
+
+    for (int i = 1; i <= 3; i++) {
+      program.execute(env);
+      assertFalse(program.isCompiled());
+      assertEquals(i, env.getNumber(b));
+    }
+    program.execute(env);
+    assertTrue(program.isCompiled());
+    assertEquals(4, env.getNumber(b));
+  }
+
+  @Test
+  @DisplayName("Compiled integer division by zero throws ArithmeticException")
+  void divisionByZero() throws Exception {
+    Program program = new BytecodeCompiler(0).compile(analyze("a = b / c"), VARIABLES);
+    assertThrows(ArithmeticException.class, () -> program.execute(program.newEnvironment()));
+    assertTrue(program.isCompiled());
+  }
+
+  @Test
+  @DisplayName("Programs too large for one JVM method stay interpreted")
+  void tooLargeStaysInterpreted() throws Exception {
+    // if (a) b = 1 else if (a) b = 1 ... b = 2 with 20k levels, typed directly as in
+    // BytecodeCompilerTest.deepNesting
+    SyntaxNode stmt = assign(2);
+    for (int i = 0; i < 20_000; i++) {
+      stmt =
+          IfStatement.builder()
+              .line(1)
+              .column(1)
+              .condition(number(Identifier.builder().line(1).column(1).name("a").build()))
+              .thenBranch(assign(1))
+              .elseBranch(stmt)
+              .build();
+    }
+    Program program = new BytecodeCompiler(0).compile(stmt, VARIABLES);
+    Environment env = program.newEnvironment();
+
+    program.execute(env);
+
+    assertFalse(program.isCompiled());
+    assertEquals(2, env.getNumber(program.slot("b")));
+  }
+
+  private static Assignment assign(int value) {
+    return Assignment.builder()
+        .line(1)
+        .column(1)
+        .identifier("b")
+        .expression(
+            number(NumberLiteral.builder().line(1).column(1).value(String.valueOf(value)).build()))
+        .build();
+  }
+
+  private static SyntaxNode number(SyntaxNode node) {
+    node.setType(Type.NUMBER);
+    return node;
+  }
+
+  /** Generates well-typed random programs over {@link #VARIABLES}. */
+  private static final class ProgramGenerator {
+    private static final String[] OPERATORS = {"+", "-", "*", "/"};
+    private final Random random;
+
+    ProgramGenerator(Random random) {
+      this.random = random;
+    }
+
+    String statement(int depth) {
+      if (depth > 0 && random.nextInt(3) > 0) {
+        Type conditionType = random.nextBoolean() ? Type.NUMBER : Type.FLOAT;
+        return "if (" + expression(conditionType, 3) + ") " + statement(depth - 1)
+            + " else " + statement(depth - 1);
+      }
+      return switch (random.nextInt(5)) {
+        case 0 -> "a = " + expression(Type.NUMBER, 3);
+        case 1 -> "b = " + expression(Type.NUMBER, 3);
+        case 2 -> "f = " + expression(Type.FLOAT, 3);
+        case 3 -> "g = " + expression(Type.FLOAT, 3);
+        default -> random.nextBoolean() ? "s = t" : "s = \"lit\"";
+      };
+    }
+
+    String expression(Type type, int depth) {
+      if (depth > 0 && random.nextInt(3) > 0) {
+        String op = OPERATORS[random.nextInt(OPERATORS.length)];
+        String e = expression(type, depth - 1) + " " + op + " " + expression(type, depth - 1);
+        return random.nextBoolean() ? "(" + e + ")" : e;
+      }
+      boolean literal = random.nextInt(3) == 0;
+      if (type == Type.NUMBER) {
+        return literal ? String.valueOf(random.nextInt(4)) : "abc".charAt(random.nextInt(3)) + "";
+      }
+      return literal ? random.nextInt(4) + ".5" : random.nextBoolean() ? "f" : "g";
+    }
+  }
+}
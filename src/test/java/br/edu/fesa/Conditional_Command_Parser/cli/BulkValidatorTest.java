@@ -0,0 +1,139 @@
+package br.edu.fesa.Conditional_Command_Parser.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.service.ParserService;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that bulk validation of files reports what the web pipeline reports for their text. */
+class BulkValidatorTest {
+
+  private static final SymbolEnvironment ENVIRONMENT =
+      SymbolEnvironment.of(Map.of("x", Token.Type.NUMBER, "s", Token.Type.STRING));
+
+  private static final Map<String, String> PROGRAMS =
+      Map.of(
+          "valid.txt", "if (x) s = \"ok\" else x = x * 2",
+          "undeclared.txt", "y = 1",
+          "syntax.txt", "if (x s = \"a\" else s = \"b\"",
+          "lexical.txt", "x = 1 $",
+          "accented.txt", "s = \"ação\"",
+          "comment.txt", "// só um comentário\nx = 1 /* fim */");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private ParserService parserService;
+
+  @TempDir Path dir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator, new Lexer(), RecursiveDescentParser::new, SemanticAnalyzer::new);
+    Files.createDirectories(dir.resolve("nested/deeper"));
+    for (Map.Entry<String, String> program : PROGRAMS.entrySet()) {
+      Files.writeString(dir.resolve("nested/deeper").resolve(program.getKey()), program.getValue());
+    }
+    Files.write(dir.resolve("nested/binary.txt"), new byte[] {'x', ' ', '=', ' ', (byte) 0xC3});
+    Files.writeString(dir.resolve("notes.md"), "not a program");
+  }
+
+  /** Runs the validator and returns the report lines by file name, then the summary. */
+  private Map<String, JsonNode> validate(long mmapThreshold, int workers) throws IOException {
+    StringWriter report = new StringWriter();
+    try (BulkValidator validator = new BulkValidator(workers, ENVIRONMENT, mmapThreshold)) {
+      validator.validate(List.of(dir), "*.txt", report);
+    }
+    Map<String, JsonNode> lines = new HashMap<>();
+    for (String line : report.toString().split("\n")) {
+      JsonNode node = objectMapper.readTree(line);
+      String key =
+          node.has("summary")
+              ? "summary"
+              : Path.of(node.get("path").asText()).getFileName().toString();
+      assertNull(lines.put(key, node), "Duplicate line " + line);
+    }
+    return lines;
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0, BulkValidator.DEFAULT_MMAP_THRESHOLD})
+  @DisplayName("Mapped and read files report the same errors as ParserService")
+  void matchesParserService(long mmapThreshold) throws IOException {
+    Map<String, JsonNode> lines = validate(mmapThreshold, 3);
+
+    for (Map.Entry<String, String> program : PROGRAMS.entrySet()) {
+      List<String> expected = parserService.parse(program.getValue(), ENVIRONMENT).getErrors();
+      JsonNode line = lines.get(program.getKey());
+      List<String> errors = new ArrayList<>();
+      if (line.has("errors")) {
+        line.get("errors").forEach(error -> errors.add(error.asText()));
+      }
+      assertEquals(expected, errors, program.getKey());
+      assertEquals(expected.isEmpty(), line.get("valid").asBoolean(), program.getKey());
+    }
+    assertEquals(
+        "Encoding error: file is not valid UTF-8",
+        lines.get("binary.txt").get("errors").get(0).asText());
+    assertFalse(lines.containsKey("notes.md"));
+  }
+
+  @Test
+  @DisplayName("The summary counts files, bytes and throughput")
+  void summary() throws IOException {
+    JsonNode summary =
+        validate(BulkValidator.DEFAULT_MMAP_THRESHOLD, 1).get("summary").get("summary");
+
+    long bytes = 5;
+    for (String program : PROGRAMS.values()) {
+      bytes += program.getBytes(StandardCharsets.UTF_8).length;
+    }
+    assertEquals(7, summary.get("files").asLong());
+    assertEquals(3, summary.get("valid").asLong());
+    assertEquals(4, summary.get("invalid").asLong());
+    assertEquals(bytes, summary.get("bytes").asLong());
+    assertTrue(summary.get("filesPerSecond").asDouble() > 0);
+    assertTrue(summary.has("megabytesPerSecond"));
+  }
+
+  @Test
+  @DisplayName("ASCII sequences read the buffer in place")
+  void asciiCharSequence() {
+    ByteBuffer bytes = ByteBuffer.wrap("ab = 12".getBytes(StandardCharsets.US_ASCII));
+    AsciiCharSequence text = new AsciiCharSequence(bytes);
+
+    assertTrue(AsciiCharSequence.isAscii(bytes));
+    assertEquals(7, text.length());
+    assertEquals('=', text.charAt(3));
+    assertEquals("12", text.subSequence(5, 7).toString());
+    assertEquals("b", text.subSequence(1, 5).subSequence(0, 1).toString());
+    assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(7));
+    assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(3, 8));
+    assertFalse(AsciiCharSequence.isAscii(ByteBuffer.wrap(new byte[] {'a', (byte) 0x80})));
+  }
+}
@@ -0,0 +1,135 @@
+package br.edu.fesa.Conditional_Command_Parser.intern;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.analyzed;
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests that interned trees share equal subtrees and keep their types on the side. */
+class NodeTableTest {
+
+  private final NodeTable table = new NodeTable();
+
+  @Test
+  @DisplayName("Equal subtrees become one node, within and across programs")
+  void sharesEqualSubtrees() throws Exception {
+    InternedTree first = table.intern(analyzed("if (a + 1) x = a + 1 else y = a + 1", List.of()));
+    InternedNode ifs = first.getRoot();
+    InternedNode condition = ifs.getChild(0);
+    assertSame(condition, ifs.getChild(1).getChild(0));
+    assertSame(condition, ifs.getChild(2).getChild(0));
+    // IF, x =, y =, a + 1, a, 1
+    assertEquals(6, table.size());
+
+    InternedTree second = table.intern(analyzed("z = (a + 1) * 2", List.of()));
+    assertSame(condition, second.getRoot().getChild(0).getChild(0));
+    // z =, _ * 2, 2
+    assertEquals(9, table.size());
+
+    InternedTree again = table.intern(analyzed("if (a + 1) x = a + 1 else y = a + 1", List.of()));
+    assertSame(ifs, again.getRoot());
+    assertEquals(9, table.size());
+  }
+
+  @Test
+  @DisplayName("Types are kept in a per-program side table")
+  void typesLiveBesideTheNodes() throws Exception {
+    List<Symbol> variables = List.of(var("x", Type.NUMBER), var("a", Type.NUMBER));
+    SyntaxNode source = analyzed("x = a + 1", variables);
+    InternedTree numbers = table.intern(source);
+    // Without declarations the analyzer stops at the undeclared x and leaves a + 1 untyped
+    InternedTree unchecked = table.intern(analyzed("x = a + 1", List.of()));
+
+    // Same nodes, different types
+    assertSame(numbers.getRoot(), unchecked.getRoot());
+    InternedNode sum = numbers.getRoot().getChild(0);
+    assertEquals(Type.NUMBER, numbers.getTypes().get(sum));
+    assertNull(unchecked.getTypes().get(sum));
+    assertEquals(Type.EOF, unchecked.getTypes().get(unchecked.getRoot()));
+    assertEquals(Type.NUMBER, unchecked.getTypes().get(sum.getChild(1)));
+    // The input tree still has its own annotations
+    assertEquals(Type.NUMBER, ((Assignment) source).getExpression().getType());
+  }
+
+  @Test
+  @DisplayName("Converting back gives an equal tree with the same types")
+  void roundTrip() throws Exception {
+    List<Symbol> variables = List.of(var("s", Type.STRING), var("f", Type.FLOAT));
+    SyntaxNode source =
+        analyzed("if (f * 2.0) s = \"yes\" else if (f) s = \"no\" else q = 'c'", variables);
+
+    SyntaxNode copy = table.intern(source).toSyntaxNode();
+
+    assertEquals(TreePrinter.generateASCIITree(source), TreePrinter.generateASCIITree(copy));
+    IfStatement ifs = (IfStatement) copy;
+    assertEquals(Type.FLOAT, ifs.getCondition().getType());
+    assertEquals(Type.STRING, ifs.getThenBranch().getType());
+  }
+
+  @Test
+  @DisplayName("Partial parses keep their missing children")
+  void missingChildren() {
+    SyntaxNode partial =
+        IfStatement.builder()
+            .condition(Identifier.builder().name("a").build())
+            .thenBranch(null)
+            .elseBranch(Identifier.builder().name("b").build())
+            .build();
+
+    InternedTree tree = table.intern(partial);
+
+    assertNull(tree.getRoot().getChild(1));
+    assertNull(((IfStatement) tree.toSyntaxNode()).getThenBranch());
+    assertNull(table.intern(null).getRoot());
+  }
+
+  @Test
+  @DisplayName("Concurrent interning of equal programs yields the same nodes")
+  void concurrentInterning() throws Exception {
+    String source = "if (a * 2) x = (b + 1) * (b + 1) else x = a - 1";
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<InternedNode>> roots = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        roots.add(pool.submit(() -> table.intern(analyzed(source, List.of())).getRoot()));
+      }
+      InternedNode expected = roots.get(0).get();
+      for (Future<InternedNode> root : roots) {
+        assertSame(expected, root.get());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Deeply nested trees are interned without recursion")
+  void deepNesting() {
+    // 1 + 1 + ... + 1: 200k distinct prefixes, but only one literal node
+    SyntaxNode expression = NumberLiteral.builder().value("1").build();
+    for (int i = 0; i < 200_000; i++) {
+      expression =
+          BinOp.builder()
+              .operator("+")
+              .left(expression)
+              .right(NumberLiteral.builder().value("1").build())
+              .build();
+    }
+
+    InternedTree tree = table.intern(expression);
+
+    assertEquals(200_001, table.size());
+    assertNotNull(tree.toSyntaxNode());
+  }
+}
@@ -0,0 +1,150 @@
+package br.edu.fesa.Conditional_Command_Parser.semantic;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.utils.AstArena;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for shared SymbolEnvironments and the tables and analyses layered on them. */
+class SymbolEnvironmentTest {
+
+  private static final SymbolEnvironment ENVIRONMENT =
+      SymbolEnvironment.builder()
+          .declare("x", Type.NUMBER)
+          .declare("f", Type.FLOAT)
+          .declare("s", Type.STRING)
+          .build();
+
+  @Test
+  @DisplayName("The builder rejects invalid and repeated declarations")
+  void builderValidation() {
+    SymbolEnvironment.Builder builder = SymbolEnvironment.builder().declare("a", Type.CHAR);
+
+    assertThrows(IllegalArgumentException.class, () -> builder.declare("a", Type.NUMBER));
+    assertThrows(IllegalArgumentException.class, () -> builder.declare("1a", Type.NUMBER));
+    assertThrows(IllegalArgumentException.class, () -> builder.declare("if", Type.NUMBER));
+    assertThrows(IllegalArgumentException.class, () -> builder.declare("b", Type.PLUS));
+    assertThrows(IllegalArgumentException.class, () -> builder.declare("b", null));
+    builder.build();
+    assertThrows(IllegalStateException.class, () -> builder.declare("b", Type.NUMBER));
+    assertThrows(IllegalStateException.class, builder::build);
+  }
+
+  @Test
+  @DisplayName("Interners continue the environment's numbering without changing it")
+  void layeredIds() {
+    SymbolInterner names = ENVIRONMENT.newInterner();
+
+    assertEquals(1, names.find("f"));
+    assertEquals(3, names.intern("y"));
+    assertEquals(3, names.intern("a y b", 2, 3));
+    assertEquals("s", names.name(2));
+    assertEquals("y", names.name(3));
+    assertEquals(4, names.size());
+    assertEquals(3, ENVIRONMENT.newInterner().intern("z"));
+    assertNull(ENVIRONMENT.lookup("y"));
+    assertTrue(ENVIRONMENT.isNumbering(names));
+    assertFalse(ENVIRONMENT.isNumbering(new SymbolInterner()));
+    assertThrows(
+        IllegalArgumentException.class, () -> new SymbolTable(ENVIRONMENT, new SymbolInterner()));
+  }
+
+  @Test
+  @DisplayName("Tables see the environment and may shadow it in any scope")
+  void shadowing() {
+    SymbolTable table = new SymbolTable(ENVIRONMENT);
+    Symbol x = ENVIRONMENT.lookup("x");
+    assertSame(x, table.lookup("x"));
+    assertSame(x, table.lookup(0));
+
+    Symbol global = var("x", Type.CHAR);
+    assertTrue(table.declare(global));
+    assertFalse(table.declare(var("x", Type.STRING)));
+    table.enterScope();
+    Symbol inner = var("f", Type.NUMBER);
+    assertTrue(table.declare(inner));
+    assertTrue(table.declare(var("y", Type.NUMBER)));
+    assertSame(inner, table.lookup("f"));
+    table.exitScope();
+
+    assertSame(global, table.lookup("x"));
+    assertSame(ENVIRONMENT.lookup("f"), table.lookup("f"));
+    assertNull(table.lookup("y"));
+    table.clear();
+    assertSame(x, table.lookup("x"));
+  }
+
+  @Test
+  @DisplayName("Object and arena analyses resolve identifiers from the environment")
+  void analysis() throws Exception {
+    String source = "if (x) s = \"big\" else y = f * 2.0";
+    Lexer lexer = new Lexer();
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+
+    analyzer.analyze(parser.parse(lexer.tokenizeToBuffer(source)), ENVIRONMENT);
+    List<String> expected = analyzer.getErrors();
+    assertEquals(1, expected.size());
+    assertTrue(expected.get(0).contains("undeclared variable 'y'"));
+
+    AstArena arena = new AstArena(16);
+    int root = parser.parse(lexer.tokenizeToBuffer(source, ENVIRONMENT.newInterner()), arena);
+    analyzer.analyze(arena, root, ENVIRONMENT);
+    assertEquals(expected, analyzer.getErrors());
+    // Ids of a foreign interner are ignored and names resolved instead
+    root = parser.parse(lexer.tokenizeToBuffer(source, new SymbolInterner()), arena);
+    analyzer.analyze(arena, root, ENVIRONMENT);
+    assertEquals(expected, analyzer.getErrors());
+  }
+
+  @Test
+  @DisplayName("One environment serves concurrent analyses")
+  void concurrentAnalyses() throws Exception {
+    Map<String, Type> variables = new HashMap<>();
+    for (int i = 0; i < 10_000; i++) {
+      variables.put("v" + i, i % 2 == 0 ? Type.NUMBER : Type.STRING);
+    }
+    SymbolEnvironment large = SymbolEnvironment.of(variables);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<String>>> results = new ArrayList<>();
+      for (int task = 0; task < 16; task++) {
+        int offset = task * 2;
+        results.add(
+            executor.submit(
+                () -> {
+                  String source = "if (v" + offset + ") v" + (offset + 2) + " = 1 else v1 = 2";
+                  SemanticAnalyzer analyzer = new SemanticAnalyzer();
+                  AstArena arena = new AstArena(8);
+                  Lexer lexer = new Lexer();
+                  int root =
+                      new RecursiveDescentParser()
+                          .parse(lexer.tokenizeToBuffer(source, large.newInterner()), arena);
+                  analyzer.analyze(arena, root, large);
+                  return analyzer.getErrors();
+                }));
+      }
+      for (Future<List<String>> result : results) {
+        List<String> errors = result.get();
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("type mismatch on 'v1'"));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(10_000, large.size());
+  }
+}
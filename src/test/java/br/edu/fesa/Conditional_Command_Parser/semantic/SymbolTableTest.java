@@ -0,0 +1,141 @@
+package br.edu.fesa.Conditional_Command_Parser.semantic;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the scoped SymbolTable and the SymbolInterner behind it. */
+class SymbolTableTest {
+
+  private final SymbolTable table = new SymbolTable();
+
+  @Test
+  @DisplayName("Inner declarations shadow outer ones until their scope exits")
+  void shadowing() {
+    Symbol outer = var("x", Type.NUMBER);
+    Symbol inner = var("x", Type.STRING);
+    assertTrue(table.declare(outer));
+
+    table.enterScope();
+    assertTrue(table.declare(inner));
+    assertTrue(table.declare(var("y", Type.CHAR)));
+    assertSame(inner, table.lookup("x"));
+    table.enterScope();
+    assertSame(inner, table.lookup("x"));
+    table.exitScope();
+    table.exitScope();
+
+    assertSame(outer, table.lookup("x"));
+    assertNull(table.lookup("y"));
+  }
+
+  @Test
+  @DisplayName("A name is declared at most once per scope")
+  void duplicates() {
+    Symbol first = var("x", Type.NUMBER);
+    assertTrue(table.declare(first));
+    assertFalse(table.declare(var("x", Type.FLOAT)));
+    assertSame(first, table.lookup("x"));
+
+    table.enterScope();
+    assertTrue(table.declare(var("z", Type.NUMBER)));
+    assertFalse(table.declare(var("z", Type.NUMBER)));
+    table.exitScope();
+    // The global scope is never exited
+    table.exitScope();
+    assertSame(first, table.lookup("x"));
+  }
+
+  @Test
+  @DisplayName("Ids from the shared interner resolve to the same symbols as names")
+  void lookupById() {
+    SymbolInterner names = new SymbolInterner();
+    int a = names.intern("a");
+    int b = names.intern("source: b = 1", 8, 9);
+    SymbolTable shared = new SymbolTable(names);
+    Symbol symbol = var("b", Type.FLOAT);
+    shared.declare(symbol);
+
+    assertEquals(1, b);
+    assertSame(symbol, shared.lookup(b));
+    assertNull(shared.lookup(a));
+    assertNull(shared.lookup(SymbolInterner.NONE));
+    assertNull(shared.lookup("c"));
+    assertEquals(2, names.size());
+  }
+
+  @Test
+  @DisplayName("Clearing keeps the interner but forgets every symbol and scope")
+  void clear() {
+    table.enterScope();
+    table.declare(var("x", Type.NUMBER));
+    table.clear();
+
+    assertNull(table.lookup("x"));
+    assertTrue(table.declare(var("x", Type.CHAR)));
+    assertEquals(Type.CHAR, table.lookup(table.getNames().find("x")).getType());
+  }
+
+  @Test
+  @DisplayName("Lookups do not depend on nesting depth")
+  void deepScopes() {
+    int depth = 200_000;
+    for (int i = 0; i < depth; i++) {
+      table.enterScope();
+      table.declare(var("v" + (i % 100), Type.NUMBER));
+    }
+    assertEquals("v99", table.lookup("v99").getName());
+    for (int i = 0; i < depth; i++) {
+      table.exitScope();
+    }
+    assertNull(table.lookup("v0"));
+  }
+
+  @Test
+  @DisplayName("Random operations agree with the hash-map-per-scope reference")
+  void matchesReference() {
+    ScopeStackReferenceTable reference = new ScopeStackReferenceTable();
+    Random random = new Random(7);
+    Type[] types = {Type.NUMBER, Type.FLOAT, Type.STRING, Type.CHAR};
+    for (int step = 0; step < 100_000; step++) {
+      String name = "v" + random.nextInt(20);
+      switch (random.nextInt(4)) {
+        case 0 -> {
+          table.enterScope();
+          reference.enterScope();
+        }
+        case 1 -> {
+          table.exitScope();
+          reference.exitScope();
+        }
+        case 2 -> {
+          Symbol symbol = var(name, types[random.nextInt(types.length)]);
+          assertEquals(reference.declare(symbol), table.declare(symbol), "step " + step);
+        }
+        default -> assertSame(reference.lookup(name), table.lookup(name), "step " + step);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Interned ids are dense and stable, also for colliding hashes")
+  void interner() {
+    SymbolInterner names = new SymbolInterner();
+    // "Aa" and "BB" have the same String hash code
+    assertEquals(0, names.intern("Aa"));
+    assertEquals(1, names.intern("BB"));
+    assertEquals(0, names.intern("xAa", 1, 3));
+    assertEquals(1, names.find("BB"));
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals(i + 2, names.intern("name" + i));
+    }
+    assertEquals(5_002, names.find("name5000"));
+    assertEquals("name5000", names.name(5_002));
+    assertEquals(SymbolInterner.NONE, names.find("missing"));
+    assertThrows(IndexOutOfBoundsException.class, () -> names.name(names.size()));
+  }
+}
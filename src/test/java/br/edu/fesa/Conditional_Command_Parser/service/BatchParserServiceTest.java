@@ -0,0 +1,168 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.ParseItemResult;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.service.BatchParserService.RecordFormat;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TokenStream;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for BatchParserService: ordering, equivalence and per-item isolation. */
+class BatchParserServiceTest {
+
+  private ExecutorService executor;
+  private ParserService parserService;
+  private BatchParserService batchParserService;
+
+  /** Parser that fails unexpectedly on any input starting with the identifier "boom". */
+  private static class FailingParser extends RecursiveDescentParser {
+    @Override
+    public SyntaxNode parse(TokenStream tokenStream) throws LexicalException {
+      if ("boom".equals(tokenStream.value())) {
+        throw new IllegalStateException("parser crashed");
+      }
+      return super.parse(tokenStream);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator, new Lexer(), FailingParser::new, SemanticAnalyzer::new);
+    executor = new ForkJoinPool(4);
+    batchParserService =
+        new BatchParserService(parserService, executor, new ObjectMapper(), 1_000, 4, 64);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Results come back in input order and match single parses")
+  void resultsInOrder() {
+    List<String> inputs = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      inputs.add(
+          switch (i % 3) {
+            case 0 -> "if (" + i + ") x = " + i + " else x = 2";
+            case 1 -> "y = (" + i + " + z) * 2";
+            default -> "w = " + i + " $";
+          });
+    }
+
+    List<ParseItemResult> results = batchParserService.parseAll(inputs);
+
+    assertEquals(inputs.size(), results.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      ParserResponse expected = parserService.parse(inputs.get(i));
+      ParseItemResult actual = results.get(i);
+      assertEquals(i, actual.getIndex());
+      assertEquals(expected.getErrors(), actual.getErrors());
+      assertEquals(TreePrinter.generateASCIITree(expected.getAst()), actual.getAst());
+      assertEquals(expected.getErrors().isEmpty(), actual.isValid());
+    }
+  }
+
+  @Test
+  @DisplayName("A failing item is reported without affecting the others")
+  void failuresAreIsolated() {
+    List<ParseItemResult> results =
+        batchParserService.parseAll(List.of("if (1) a = 1 else a = 2", "boom = 1", "c = 2"));
+
+    assertEquals(parserService.parse("if (1) a = 1 else a = 2").getErrors(),
+        results.get(0).getErrors());
+    assertFalse(results.get(1).isValid());
+    assertEquals(List.of("Unexpected error: parser crashed"), results.get(1).getErrors());
+    assertEquals("", results.get(1).getAst());
+    assertEquals(parserService.parse("c = 2").getErrors(), results.get(2).getErrors());
+  }
+
+  @Test
+  @DisplayName("Batches above the configured size are rejected")
+  void rejectsOversizedBatch() {
+    List<String> inputs = Collections.nCopies(1_001, "x = 1");
+    assertThrows(IllegalArgumentException.class, () -> batchParserService.parseAll(inputs));
+  }
+
+  @Test
+  @DisplayName("Streamed lines produce results in order, keyed by line number")
+  void streamsLinesInOrder() throws IOException {
+    StringBuilder in = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      in.append("if (").append(i).append(") x = ").append(i).append(" else x = 2\r\n");
+    }
+    in.append("boom = 1\n").append("y = 1 $\n");
+
+    List<ParseItemResult> results = stream(in.toString(), RecordFormat.LINE);
+
+    assertEquals(202, results.size());
+    for (int i = 0; i < 200; i++) {
+      assertEquals(i, results.get(i).getIndex());
+      assertEquals(
+          parserService.parse("if (" + i + ") x = " + i + " else x = 2").getErrors(),
+          results.get(i).getErrors());
+    }
+    assertEquals(List.of("Unexpected error: parser crashed"), results.get(200).getErrors());
+    assertEquals(List.of("Lexical error: Invalid character '$' at 1:7"),
+        results.get(201).getErrors());
+  }
+
+  @Test
+  @DisplayName("NDJSON records are decoded; blank, malformed and oversized ones are reported")
+  void streamsNdjsonRecords() throws IOException {
+    String in =
+        "\"if (1)\\n  a = 1\\nelse a = 2\"\n"
+            + "\n"
+            + "{\"input\": \"b = 'c'\"}\n"
+            + "[1, 2]\n"
+            + "\"" + "z".repeat(100) + "\"\n"
+            + "\"c = 3\"";
+
+    List<ParseItemResult> results = stream(in, RecordFormat.NDJSON);
+
+    assertEquals(
+        List.of(0L, 2L, 3L, 4L, 5L), results.stream().map(ParseItemResult::getIndex).toList());
+    assertEquals(parserService.parse("if (1)\n  a = 1\nelse a = 2").getErrors(),
+        results.get(0).getErrors());
+    assertEquals(parserService.parse("b = 'c'").getErrors(), results.get(1).getErrors());
+    assertTrue(results.get(2).getErrors().get(0).startsWith("Invalid record"));
+    assertEquals(List.of("Record exceeds 64 characters"), results.get(3).getErrors());
+    assertEquals(parserService.parse("c = 3").getErrors(), results.get(4).getErrors());
+  }
+
+  private List<ParseItemResult> stream(String input, RecordFormat format) throws IOException {
+    StringWriter out = new StringWriter();
+    batchParserService.parseStream(new StringReader(input), out, format);
+    ObjectMapper mapper = new ObjectMapper();
+    List<ParseItemResult> results = new ArrayList<>();
+    for (String line : out.toString().split("\n")) {
+      results.add(mapper.readValue(line, ParseItemResult.class));
+    }
+    return results;
+  }
+}
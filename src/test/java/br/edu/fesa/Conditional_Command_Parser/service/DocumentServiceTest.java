@@ -0,0 +1,207 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.DocumentResult;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.TextEdit;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.IncrementalParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for DocumentService: incremental results must equal a full ParserService run. */
+class DocumentServiceTest {
+
+  /** Identifiers and literals an edit may replace without breaking the program's syntax. */
+  private static final Pattern OPERAND =
+      Pattern.compile("\\b(?:[abcq]|\\d+(?:\\.\\d+)?)\\b|\"s\"");
+
+  private DocumentService documentService;
+  private ParserService parserService;
+
+  @BeforeEach
+  void setUp() {
+    Lexer lexer = new Lexer();
+    documentService =
+        new DocumentService(
+            new IncrementalParser(lexer, RecursiveDescentParser::new),
+            SemanticAnalyzer::new,
+            10,
+            Duration.ofMinutes(1));
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator, lexer, RecursiveDescentParser::new, SemanticAnalyzer::new);
+  }
+
+  @Test
+  @DisplayName("Edited documents report the same tree and errors as a full parse")
+  void editsMatchFullPipeline() {
+    String text = "if (a + 1)\n  x = 2\nelse\n  x = \"s\"";
+    DocumentResult opened = documentService.open(text);
+    assertEquals(0, opened.getVersion());
+    assertResultMatches(text, opened);
+
+    DocumentResult edited =
+        documentService.edit(
+            opened.getDocumentId(),
+            List.of(
+                TextEdit.builder().offset(4).removedLength(1).insertedText("b").build(),
+                TextEdit.builder().offset(30).removedLength(3).insertedText("2.5").build()),
+            true);
+    assertEquals(1, edited.getVersion());
+    assertResultMatches("if (b + 1)\n  x = 2\nelse\n  x = 2.5", edited);
+
+    DocumentResult lexError =
+        documentService.edit(
+            opened.getDocumentId(),
+            List.of(TextEdit.builder().offset(0).insertedText("$").build()));
+    assertEquals(List.of("Lexical error: Invalid character '$' at 1:1"), lexError.getErrors());
+  }
+
+  @Test
+  @DisplayName("Unknown documents and out-of-range edits are rejected")
+  void rejectsBadRequests() {
+    assertThrows(
+        NoSuchElementException.class,
+        () -> documentService.edit("missing", List.of(TextEdit.builder().build())));
+
+    DocumentResult opened = documentService.open("x = 1");
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            documentService.edit(
+                opened.getDocumentId(), List.of(TextEdit.builder().offset(99).build())));
+
+    // The failed edit left the document untouched
+    DocumentResult next =
+        documentService.edit(
+            opened.getDocumentId(),
+            List.of(TextEdit.builder().offset(5).insertedText("0").build()),
+            true);
+    assertEquals(1, next.getVersion());
+    assertResultMatches("x = 10", next);
+
+    documentService.close(opened.getDocumentId());
+    assertThrows(
+        NoSuchElementException.class,
+        () -> documentService.edit(opened.getDocumentId(), List.of()));
+  }
+
+  @Test
+  @DisplayName("Reused subtrees keep their semantic errors across many edits")
+  void incrementalAnalysisMatchesFullAnalysis() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      text.append("if ((a + 1) * b) x = (c - 2.5) else\n");
+    }
+    text.append("x = 0\n");
+    DocumentResult opened = documentService.open(text.toString());
+    assertResultMatches(text.toString(), opened);
+
+    // Swap operands, which keeps the program well-formed so that whole statements are reused with
+    // their errors; now and then also break the text anywhere, then undo that
+    Random random = new Random(42);
+    String[] operands = {"a", "q", "1", "2.5", "\"s\""};
+    int reused = 0;
+    for (int i = 0; i < 200; i++) {
+      List<MatchResult> found = OPERAND.matcher(text).results().toList();
+      MatchResult operand = found.get(random.nextInt(found.size()));
+      String inserted = operands[random.nextInt(operands.length)];
+      reused += edit(opened, text, operand.start(), operand.end(), inserted).getReusedSubtrees();
+      if (i % 5 == 4) {
+        int offset = random.nextInt(text.length());
+        int end = Math.min(offset + random.nextInt(3), text.length());
+        String removed = text.substring(offset, end);
+        edit(opened, text, offset, end, inserted);
+        edit(opened, text, offset, offset + inserted.length(), removed);
+      }
+    }
+    assertTrue(reused > 0, "No edit reused a subtree");
+  }
+
+  @Test
+  @DisplayName("Edits leave the tree out unless it is asked for")
+  void treeIsOptInOnEdits() {
+    DocumentResult opened = documentService.open("x = 1");
+    assertFalse(opened.getAst().isEmpty());
+
+    DocumentResult edited =
+        documentService.edit(
+            opened.getDocumentId(),
+            List.of(TextEdit.builder().offset(4).removedLength(1).insertedText("a").build()));
+    assertEquals("", edited.getAst());
+    assertEquals(parserService.parse("x = a").getErrors(), edited.getErrors());
+  }
+
+  @Test
+  @DisplayName("Documents are analyzed in the environment they were opened with")
+  void analyzesInEnvironment() {
+    SymbolEnvironment environment =
+        SymbolEnvironment.of(Map.of("total", Token.Type.FLOAT, "count", Token.Type.NUMBER));
+    String text = "if (count) total = 2.5 else total = count";
+    DocumentResult opened = documentService.open(text, environment, true);
+    assertEquals(parserService.parse(text, environment).getErrors(), opened.getErrors());
+    assertEquals(
+        List.of(
+            "Semantic error [line 1, column 29]: type mismatch on 'total' - expected FLOAT but got"
+                + " NUMBER"),
+        opened.getErrors());
+
+    // The edit fixes the mismatch; the declared variables still resolve in the new version
+    DocumentResult edited =
+        documentService.edit(
+            opened.getDocumentId(),
+            List.of(TextEdit.builder().offset(36).removedLength(5).insertedText("1.5").build()));
+    assertEquals(List.of(), edited.getErrors());
+
+    DocumentResult undeclared =
+        documentService.edit(
+            opened.getDocumentId(),
+            List.of(TextEdit.builder().offset(4).removedLength(5).insertedText("other").build()));
+    assertEquals(
+        parserService.parse("if (other) total = 2.5 else total = 1.5", environment).getErrors(),
+        undeclared.getErrors());
+    assertEquals(2, undeclared.getErrors().size());
+  }
+
+  /** Replaces {@code [start, end)} in the document and in {@code text}, and checks the result. */
+  private DocumentResult edit(
+      DocumentResult document, StringBuilder text, int start, int end, String inserted) {
+    text.replace(start, end, inserted);
+    DocumentResult edited =
+        documentService.edit(
+            document.getDocumentId(),
+            List.of(
+                TextEdit.builder()
+                    .offset(start)
+                    .removedLength(end - start)
+                    .insertedText(inserted)
+                    .build()),
+            true);
+    assertResultMatches(text.toString(), edited);
+    return edited;
+  }
+
+  private void assertResultMatches(String text, DocumentResult result) {
+    ParserResponse expected = parserService.parse(text);
+    assertEquals(TreePrinter.generateASCIITree(expected.getAst()), result.getAst());
+    assertEquals(expected.getErrors(), result.getErrors());
+  }
+}
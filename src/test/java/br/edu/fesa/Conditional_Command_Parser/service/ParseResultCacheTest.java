@@ -0,0 +1,176 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.CacheStatistics;
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the content-addressed ParseResultCache and its use by ParserService. */
+class ParseResultCacheTest {
+
+  private final AtomicInteger computations = new AtomicInteger();
+
+  private ParserResponse compute(String input) {
+    computations.incrementAndGet();
+    return ParserResponse.builder().errors(List.of(input)).build();
+  }
+
+  @Test
+  @DisplayName("Repeated input is served from the cache")
+  void repeatedInputHits() {
+    ParseResultCache cache = new ParseResultCache(true, 1_000, Duration.ofMinutes(1));
+
+    ParserResponse first = cache.get("a = 1", this::compute);
+    ParserResponse second = cache.get("a = 1", this::compute);
+    cache.get("b = 2", this::compute);
+
+    assertSame(first, second);
+    assertEquals(2, computations.get());
+    CacheStatistics stats = cache.statistics();
+    assertTrue(stats.isEnabled());
+    assertEquals(1, stats.getHits());
+    assertEquals(2, stats.getMisses());
+    assertEquals(2, stats.getSize());
+  }
+
+  @Test
+  @DisplayName("Entries are evicted once their total input length exceeds the weight limit")
+  void evictsByWeight() {
+    ParseResultCache cache = new ParseResultCache(true, 10, Duration.ofMinutes(1));
+
+    for (int i = 0; i < 5; i++) {
+      cache.get("x = " + i, this::compute); // 5 characters each
+    }
+
+    CacheStatistics stats = cache.statistics();
+    assertTrue(stats.getEvictions() >= 3, "Expected evictions, got " + stats);
+    assertTrue(stats.getSize() <= 2);
+  }
+
+  @Test
+  @DisplayName("Entries expire after the configured time")
+  void expiresAfterWrite() {
+    AtomicLong now = new AtomicLong();
+    ParseResultCache cache =
+        new ParseResultCache(true, 1_000, Duration.ofSeconds(30), now::get);
+
+    cache.get("a = 1", this::compute);
+    now.addAndGet(Duration.ofSeconds(31).toNanos());
+    cache.get("a = 1", this::compute);
+
+    assertEquals(2, computations.get());
+  }
+
+  @Test
+  @DisplayName("A running computation holds no lock, and the first result stored wins")
+  void computesOutsideTheCache() throws Exception {
+    ParseResultCache cache = new ParseResultCache(true, 1_000, Duration.ofMinutes(1));
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<ParserResponse> slow =
+          executor.submit(
+              () ->
+                  cache.get(
+                      "a = 1",
+                      input -> {
+                        computing.countDown();
+                        await(release);
+                        return compute(input);
+                      }));
+      assertTrue(computing.await(10, TimeUnit.SECONDS));
+
+      // Returns while the other computation of the same input is still running
+      ParserResponse fast = cache.get("a = 1", this::compute);
+      release.countDown();
+
+      assertSame(fast, slow.get(10, TimeUnit.SECONDS));
+      assertSame(fast, cache.get("a = 1", this::compute));
+      assertEquals(2, computations.get());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  @DisplayName("Disabled cache computes every time")
+  void disabledCacheComputes() {
+    ParseResultCache cache = new ParseResultCache(false, 1_000, Duration.ofMinutes(1));
+
+    cache.get("a = 1", this::compute);
+    cache.get("a = 1", this::compute);
+
+    assertEquals(2, computations.get());
+    assertFalse(cache.statistics().isEnabled());
+  }
+
+  @Test
+  @DisplayName("ParserService returns the cached response for identical input")
+  void serviceUsesCache() {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    ParserService service =
+        new ParserService(
+            firstFollowCalculator,
+            new Lexer(),
+            RecursiveDescentParser::new,
+            SemanticAnalyzer::new,
+            new ParseResultCache(true, 1_000, Duration.ofMinutes(1)));
+
+    String input = "if (x) y = 1 else y = 2";
+    ParserResponse first = service.parse(input);
+    ParserResponse second = service.parse(new String(input.toCharArray()));
+
+    assertSame(first, second);
+    assertEquals(
+        TreePrinter.generateASCIITree(first.getAst()),
+        TreePrinter.generateASCIITree(service.parse(input).getAst()));
+    assertEquals(2, service.cacheStatistics().getHits());
+    assertThrows(UnsupportedOperationException.class, () -> first.getErrors().add("x"));
+  }
+
+  @Test
+  @DisplayName("Responses are cached per environment")
+  void separatesEnvironments() {
+    SymbolEnvironment environment = SymbolEnvironment.of(Map.of("a", Token.Type.NUMBER));
+    ParseResultCache cache = new ParseResultCache(true, 1_000, Duration.ofMinutes(1));
+
+    ParserResponse plain = cache.get("a = 1", this::compute);
+    ParserResponse declared = cache.get("a = 1", environment, this::compute);
+
+    assertNotSame(plain, declared);
+    assertSame(declared, cache.get("a = 1", environment, this::compute));
+    assertSame(plain, cache.get("a = 1", SymbolEnvironment.EMPTY, this::compute));
+    assertEquals(2, computations.get());
+  }
+}
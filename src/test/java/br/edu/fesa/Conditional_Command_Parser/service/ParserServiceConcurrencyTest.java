@@ -0,0 +1,151 @@
+package br.edu.fesa.Conditional_Command_Parser.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
+import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
+import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
+import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
+import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import br.edu.fesa.Conditional_Command_Parser.utils.TreePrinter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+/**
+ * Stress tests for ParserService under concurrent use: every thread must see exactly the result a
+ * single-threaded run produces for the same input. On machines with at least four cores, throughput
+ * must also grow with the thread count.
+ */
+class ParserServiceConcurrencyTest {
+
+  private static final int THREADS = 8;
+  private static final int ITERATIONS = 400;
+
+  private ParserService parserService;
+  private ExecutorService executor;
+
+  private final List<String> inputs = new ArrayList<>();
+  private final List<String> expected = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+    firstFollowCalculator.calculateSets();
+    parserService =
+        new ParserService(
+            firstFollowCalculator, new Lexer(), RecursiveDescentParser::new, SemanticAnalyzer::new);
+    executor = Executors.newFixedThreadPool(THREADS);
+
+    // Inputs differ per index so that mixed-up parser or analyzer state shows in the results
+    for (int i = 0; i < 64; i++) {
+      String input =
+          switch (i % 4) {
+            case 0 -> "if (v" + i + " + " + i + ") w" + i + " = " + i + " else w" + i + " = 2.5";
+            case 1 -> "x" + i + " = (" + i + " * y" + i + ") / \"s" + i + "\"";
+            case 2 -> "if (c" + i + " z" + i + " = 1 else z" + i + " = 2"; // syntax error
+            default -> "k" + i + " = " + i + " $ " + i; // lexical error
+          };
+      inputs.add(input);
+      expected.add(describe(parserService.parse(input)));
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    executor.shutdownNow();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Concurrent parses return isolated, correct results")
+  void concurrentParsesAreIsolated() throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int offset = t;
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                int checked = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                  int idx = (i * 7 + offset * 13) % inputs.size();
+                  String actual = describe(parserService.parse(inputs.get(idx)));
+                  assertEquals(expected.get(idx), actual, "Result mismatch for " + inputs.get(idx));
+                  checked++;
+                }
+                return checked;
+              }));
+    }
+    start.countDown();
+    for (Future<Integer> f : futures) {
+      assertEquals(ITERATIONS, f.get(60, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  @DisplayName("Throughput grows with thread count")
+  void throughputScaling(TestReporter reporter) throws Exception {
+    int cores = Runtime.getRuntime().availableProcessors();
+    // Scaling cannot show on fewer cores; the isolation test above still runs everywhere
+    assumeTrue(cores >= 4, "needs at least 4 cores, found " + cores);
+
+    // Warm up the pipeline before timing
+    runParses(1, ITERATIONS);
+
+    double single = runParses(1, ITERATIONS * 2);
+    double parallel = runParses(THREADS, ITERATIONS * 2);
+    reporter.publishEntry(
+        "throughput",
+        String.format(
+            "1 thread: %.0f parses/s, %d threads: %.0f parses/s (x%.2f on %d cores)",
+            single, THREADS, parallel, parallel / single, cores));
+
+    // No lock serializes the pipeline, so the ratio approaches min(THREADS, cores). Asserting less
+    // than half of that keeps shared CI machines from failing it while still catching a lock.
+    double expected = Math.min(THREADS, cores) * 0.4;
+    assertTrue(
+        parallel / single >= expected,
+        String.format("speedup x%.2f below x%.2f", parallel / single, expected));
+  }
+
+  /** Runs {@code perThread} parses on each of {@code threads} threads; returns parses/second. */
+  private double runParses(int threads, int perThread) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                  parserService.parse(inputs.get((i + offset) % inputs.size()));
+                }
+                return null;
+              }));
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Future<?> f : futures) {
+      f.get(120, TimeUnit.SECONDS);
+    }
+    double seconds = (System.nanoTime() - begin) / 1e9;
+    return threads * (double) perThread / seconds;
+  }
+
+  private static String describe(ParserResponse response) {
+    return TreePrinter.generateASCIITree(response.getAst()) + response.getErrors();
+  }
+}
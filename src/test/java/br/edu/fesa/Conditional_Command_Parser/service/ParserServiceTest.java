@@ -2,12 +2,17 @@ package br.edu.fesa.Conditional_Command_Parser.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
 import br.edu.fesa.Conditional_Command_Parser.model.ParserResponse;
 import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import br.edu.fesa.Conditional_Command_Parser.model.ValidationResult;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolEnvironment;
 import br.edu.fesa.Conditional_Command_Parser.utils.FirstFollowCalculator;
 import br.edu.fesa.Conditional_Command_Parser.utils.Lexer;
 import br.edu.fesa.Conditional_Command_Parser.utils.RecursiveDescentParser;
 import br.edu.fesa.Conditional_Command_Parser.utils.SemanticAnalyzer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,10 +32,10 @@ class ParserServiceTest {
     firstFollowCalculator.calculateSets();
 
     Lexer lexer = new Lexer();
-    RecursiveDescentParser parser = new RecursiveDescentParser();
-    SemanticAnalyzer semanticAnalyzer = new SemanticAnalyzer();
 
-    parserService = new ParserService(firstFollowCalculator, lexer, parser, semanticAnalyzer);
+    parserService =
+        new ParserService(
+            firstFollowCalculator, lexer, RecursiveDescentParser::new, SemanticAnalyzer::new);
   }
 
   @Nested
@@ -97,6 +102,16 @@ class ParserServiceTest {
       assertTrue(
           errs.get(0).contains("Lexical error"), "Error message should mention 'Lexical error'");
     }
+
+    @Test
+    @DisplayName("Invalid character after a syntax error still aborts the pipeline")
+    void parse_LexErrorAfterSyntaxError_LexErrorOnly() {
+      ParserResponse resp = parserService.parse("if (x y = 1 else y = 2 $");
+
+      assertNull(resp.getAst());
+      assertEquals(1, resp.getErrors().size());
+      assertTrue(resp.getErrors().get(0).startsWith("Lexical error"));
+    }
   }
 
   @Nested
@@ -167,4 +182,161 @@ class ParserServiceTest {
       assertFalse(errs.isEmpty(), "Expected at least one semantic error, but none were reported");
     }
   }
+  @Nested
+  @DisplayName("Symbol environment cases")
+  class EnvironmentCases {
+
+    @Test
+    @DisplayName("Variables of the environment are declared")
+    void parse_WithEnvironment_NoUndeclaredErrors() {
+      SymbolEnvironment environment =
+          SymbolEnvironment.of(Map.of("x", Token.Type.NUMBER, "y", Token.Type.NUMBER));
+      String input = "if (x) y = x * 2 else y = 0";
+
+      assertEquals(List.of(), parserService.parse(input, environment).getErrors());
+      assertFalse(parserService.parse(input).getErrors().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Types of the environment are checked")
+    void parse_WithEnvironment_TypeMismatch() {
+      SymbolEnvironment environment = SymbolEnvironment.of(Map.of("s", Token.Type.STRING));
+
+      List<String> errs = parserService.parse("s = 1", environment).getErrors();
+
+      assertEquals(1, errs.size());
+      assertTrue(errs.get(0).contains("type mismatch on 's'"), "Unexpected error: " + errs);
+    }
+  }
+
+  @Nested
+  @DisplayName("Metrics cases")
+  class MetricsCases {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ParserService instrumented(int stageSampleInterval) {
+      FirstFollowCalculator firstFollowCalculator = new FirstFollowCalculator();
+      firstFollowCalculator.calculateSets();
+      return new ParserService(
+          firstFollowCalculator,
+          new Lexer(),
+          RecursiveDescentParser::new,
+          SemanticAnalyzer::new,
+          ParseResultCache.disabled(),
+          new ParserMetrics(registry, true, stageSampleInterval));
+    }
+
+    private long stageCount(String stage) {
+      return registry.get("parser.stage").tag("stage", stage).timer().count();
+    }
+
+    private double errorCount(String kind) {
+      return registry.get("parser.errors").tag("kind", kind).counter().count();
+    }
+
+    @Test
+    @DisplayName("A streamed run is timed as one lexing and parsing stage")
+    void metrics_StreamedRun() {
+      instrumented(0).parse("if (x) y = 1 else y = 2 // done");
+
+      assertEquals(1, stageCount("lexing_parsing"));
+      assertEquals(0, stageCount("lexing"));
+      assertEquals(0, stageCount("parsing"));
+      assertEquals(1, stageCount("semantic"));
+      assertEquals(1, stageCount("response"));
+      assertEquals(11, registry.get("parser.tokens").counter().count());
+      assertEquals(6, registry.get("parser.ast.nodes").counter().count());
+      assertEquals(31, registry.get("parser.input.size").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("A sampled run times lexing and parsing apart and counts the same")
+    void metrics_SampledRun() {
+      instrumented(1).parse("if (x) y = 1 else y = 2 // done");
+
+      assertEquals(1, stageCount("lexing"));
+      assertEquals(1, stageCount("parsing"));
+      assertEquals(1, stageCount("lexing_parsing"));
+      assertEquals(11, registry.get("parser.tokens").counter().count());
+      assertEquals(6, registry.get("parser.ast.nodes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Errors are counted by kind")
+    void metrics_ErrorsByKind() {
+      ParserService service = instrumented(0);
+
+      service.parse("x = = 1");
+      service.parse("x = 1 $ 2");
+      service.parse("z = 1");
+
+      assertEquals(1, errorCount("lexical"));
+      assertEquals(1, errorCount("syntax"));
+      assertEquals(1, errorCount("semantic"));
+      assertEquals(3, stageCount("lexing_parsing"));
+      assertEquals(2, stageCount("semantic"));
+      assertEquals(3, registry.get("parser.input.size").summary().count());
+    }
+
+    @Test
+    @DisplayName("Disabled metrics register nothing")
+    void metrics_Disabled() {
+      new ParserMetrics(registry, false, 1);
+
+      assertTrue(registry.getMeters().isEmpty());
+      assertFalse(ParserMetrics.disabled().sampleStages());
+    }
+  }
+
+  @Nested
+  @DisplayName("Validate-only cases")
+  class ValidateCases {
+
+    @Test
+    @DisplayName("Grammatical input is valid without semantic checks")
+    void validate_Valid() {
+      ValidationResult result = parserService.validate("if (x) a = 123 else a = \"s\"", false);
+
+      assertTrue(result.isValid());
+      assertEquals(List.of(), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Syntax errors are those of the full pipeline")
+    void validate_SyntaxErrors() {
+      String input = "x = = 1 y";
+
+      ValidationResult result = parserService.validate(input, false);
+
+      assertFalse(result.isValid());
+      assertEquals(parserService.parse(input).getErrors(), result.getErrors());
+      assertEquals(2, result.getDiagnostics().size());
+    }
+
+    @Test
+    @DisplayName("Fail-fast reports only the first error")
+    void validate_FailFast() {
+      ValidationResult result = parserService.validate("x = = 1 y", true);
+
+      assertFalse(result.isValid());
+      assertEquals(1, result.getErrors().size());
+      assertTrue(result.getErrors().get(0).contains("column 5"), result.getErrors().toString());
+    }
+
+    @Test
+    @DisplayName("A later lexical error replaces syntax errors unless failing fast")
+    void validate_LexicalErrors() {
+      String input = "x = = 1 $";
+
+      assertEquals(
+          List.of("Lexical error: Invalid character '$' at 1:9"),
+          parserService.validate(input, false).getErrors());
+      assertEquals(
+          parserService.parse(input).getErrors(), parserService.validate(input, false).getErrors());
+      assertEquals(
+          Diagnostic.Code.EXPECTED_OPERAND,
+          parserService.validate(input, true).getDiagnostics().get(0).getCode());
+    }
+  }
 }
@@ -0,0 +1,170 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that the arena pipeline matches the object pipeline node for node and error for error. */
+class AstArenaTest {
+
+  private static final List<Symbol> VARIABLES =
+      List.of(
+          var("x", Type.NUMBER),
+          var("a", Type.NUMBER),
+          var("f", Type.FLOAT),
+          var("s", Type.STRING),
+          var("c", Type.CHAR));
+
+  private final Lexer lexer = new Lexer();
+  private final AstArena arena = new AstArena(4);
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "x = 1",
+        "x = a + 2 * (a - 3) / 4",
+        "if (a) s = \"yes\" else c = 'n'",
+        "if (f * 2.0) if (a) x = a else x = 0 else s = \"no\"",
+        "x = f + a",
+        "s = 1",
+        "if (s) y = b else x = 'q'",
+        "if (a x = 1 else x = 2",
+        "x = 1 + ",
+        "x = 1 x = 2"
+      })
+  @DisplayName("Parsing, analysis and printing agree with the object tree")
+  void matchesObjectPipeline(String source) throws Exception {
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    SyntaxNode tree = parser.parse(lexer.tokenizeToBuffer(source));
+    List<String> syntaxErrors = parser.getErrors();
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(tree, VARIABLES);
+    List<String> semanticErrors = analyzer.getErrors();
+
+    int root = parser.parse(lexer.tokenizeToBuffer(source), arena);
+    assertEquals(syntaxErrors, parser.getErrors());
+    assertEquals(tree == null, root == AstArena.NONE);
+    analyzer.analyze(arena, root, VARIABLES);
+    if (tree != null) {
+      assertEquals(semanticErrors, analyzer.getErrors());
+    }
+
+    assertEquals(TreePrinter.generateASCIITree(tree), TreePrinter.generateASCIITree(arena, root));
+    SyntaxNode view = arena.toSyntaxNode();
+    assertEquals(TreePrinter.generateASCIITree(tree), TreePrinter.generateASCIITree(view));
+    if (tree != null) {
+      assertEquals(tree.getType(), view.getType());
+      assertEquals(tree.getLine(), view.getLine());
+      assertEquals(tree.getColumn(), view.getColumn());
+    }
+  }
+
+  @Test
+  @DisplayName("The cursor exposes kinds, children, spans and types")
+  void cursor() throws Exception {
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    int root = parser.parse(lexer.tokenizeToBuffer("x = a * 2"), arena);
+    new SemanticAnalyzer().analyze(arena, root, VARIABLES);
+
+    AstArena.Cursor node = arena.cursor();
+    assertEquals(root, node.node());
+    assertEquals(AstArena.ASSIGNMENT, node.kind());
+    assertEquals("x", node.text());
+    assertEquals(Type.NUMBER, node.type());
+    assertEquals(AstArena.NONE, node.child(1));
+
+    node.moveTo(node.child(0));
+    assertEquals(AstArena.BINARY, node.kind());
+    assertEquals("*", node.text());
+    assertEquals(1, node.line());
+    assertEquals(7, node.column());
+    // Ends where EOF starts
+    assertEquals(1, node.endLine());
+    assertEquals(10, node.endColumn());
+
+    node.moveTo(node.child(1));
+    assertEquals(AstArena.NUMBER, node.kind());
+    assertEquals(9, node.column());
+    assertEquals(10, node.endColumn());
+    assertThrows(IndexOutOfBoundsException.class, () -> node.moveTo(arena.size()));
+  }
+
+  @Test
+  @DisplayName("Symbol ids from the lexer reach the arena and resolve identifiers")
+  void symbolIds() throws Exception {
+    SymbolInterner names = new SymbolInterner();
+    String source = "if (a) x = a * 2 else y = b";
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    int root = parser.parse(lexer.tokenizeToBuffer(source, names), arena);
+
+    assertSame(names, arena.symbols());
+    AstArena.Cursor node = arena.cursor();
+    node.moveTo(node.child(1));
+    assertEquals(names.find("x"), node.symbol());
+    node.moveTo(node.child(0)).moveTo(node.child(0));
+    assertEquals(names.find("a"), node.symbol());
+    // a, x, y, b
+    assertEquals(4, names.size());
+
+    SemanticAnalyzer analyzer = new SemanticAnalyzer();
+    analyzer.analyze(arena, root, VARIABLES);
+    List<String> byId = analyzer.getErrors();
+    analyzer.analyze(new RecursiveDescentParser().parse(lexer.tokenizeToBuffer(source)), VARIABLES);
+    assertEquals(analyzer.getErrors(), byId);
+    assertEquals(1, byId.size());
+  }
+
+  @Test
+  @DisplayName("An arena is reused across parses without keeping old nodes")
+  void reuse() throws Exception {
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    parser.parse(lexer.tokenizeToBuffer("if (a) x = 1 + 2 + 3 + 4 else x = (a)"), arena);
+    assertEquals(12, arena.size());
+
+    int root = parser.parse(lexer.tokenizeToBuffer("s = \"t\""), arena);
+
+    assertEquals(2, arena.size());
+    assertEquals(1, root);
+    assertEquals(
+        "ASSIGN(s)\n├─ Expression: STRING(\"t\")\n", TreePrinter.generateASCIITree(arena, root));
+    // Types from an earlier analysis are gone
+    assertNull(arena.cursor().type());
+
+    root = parser.parse(lexer.tokenizeToBuffer("= 1"), arena);
+    assertEquals(AstArena.NONE, root);
+    assertNull(arena.toSyntaxNode());
+    assertEquals("", TreePrinter.generateASCIITree(arena, root));
+  }
+
+  @Test
+  @DisplayName("Deeply nested programs are built, converted and printed without recursion")
+  void deepNesting() throws Exception {
+    int levels = 100_000;
+    StringBuilder source = new StringBuilder();
+    source.append("if (a) x = 1 else ".repeat(levels)).append("x = 0");
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+
+    int root = parser.parse(lexer.tokenizeToBuffer(source), arena);
+
+    assertTrue(parser.getErrors().isEmpty());
+    assertEquals(4 * levels + 2, arena.size());
+    assertEquals(arena.size() - 1, root);
+    assertInstanceOf(IfStatement.class, arena.toSyntaxNode());
+
+    // Printed output grows with the square of the depth, so print a shallower tree
+    String shallower = "if (a) x = 1 else ".repeat(1_000) + "x = 0";
+    root = parser.parse(lexer.tokenizeToBuffer(shallower), arena);
+    assertEquals(
+        TreePrinter.generateASCIITree(arena.toSyntaxNode()),
+        TreePrinter.generateASCIITree(arena, root));
+  }
+}
@@ -0,0 +1,197 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.analyzedWithoutErrors;
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.bytecode.BytecodeCompiler;
+import br.edu.fesa.Conditional_Command_Parser.bytecode.Environment;
+import br.edu.fesa.Conditional_Command_Parser.bytecode.Program;
+import br.edu.fesa.Conditional_Command_Parser.model.*;
+import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the AstOptimizer component. */
+class AstOptimizerTest {
+
+  private static final List<Symbol> VARIABLES =
+      List.of(var("x", Type.NUMBER), var("a", Type.NUMBER), var("f", Type.FLOAT));
+
+  private final AstOptimizer optimizer = new AstOptimizer();
+
+  /** Parses and analyzes {@code source} against {@link #VARIABLES}. */
+  private static SyntaxNode analyzed(String source) throws Exception {
+    return analyzedWithoutErrors(source, VARIABLES);
+  }
+
+  private OptimizationResult optimize(String source) throws Exception {
+    return optimizer.optimize(analyzed(source));
+  }
+
+  private static String tree(SyntaxNode node) {
+    return TreePrinter.generateASCIITree(node);
+  }
+
+  @Test
+  @DisplayName("Constant NUMBER and FLOAT subexpressions are folded")
+  void foldsConstants() throws Exception {
+    OptimizationResult result = optimize("f = (2.0 * 3.0) + 4.0 * 1.5");
+
+    Assignment asg = assertInstanceOf(Assignment.class, result.getAst());
+    FloatLiteral value = assertInstanceOf(FloatLiteral.class, asg.getExpression());
+    assertEquals("12.0", value.getValue());
+    assertEquals(8, result.getNodesBefore());
+    assertEquals(2, result.getNodesAfter());
+    assertEquals(3, result.getChanges().size());
+    assertTrue(result.getChanges().get(0).contains("folded 2.0 * 3.0 into 6.0"));
+
+    Assignment number = (Assignment) optimize("x = a + 2 * 3 - 10 / 4").getAst();
+    assertEquals("((a + 6) - 2)", render(number.getExpression()));
+  }
+
+  @Test
+  @DisplayName("Identity operations are removed")
+  void simplifiesIdentities() throws Exception {
+    assertEquals("a", render(expression("x = (a + 0) * 1 - 0 / 1")));
+    assertEquals("a", render(expression("x = 0 + 1 * a")));
+    assertEquals("0", render(expression("x = a * 0")));
+    assertEquals("f", render(expression("f = (f - 0.0) * 1.0 / 1.0")));
+  }
+
+  @Test
+  @DisplayName("Rewrites that could change the result are not made")
+  void keepsUnsafeOperations() throws Exception {
+    // Still throws ArithmeticException when evaluated
+    assertEquals("(1 / 0)", render(expression("x = 1 / 0")));
+    assertEquals("((a / x) * 0)", render(expression("x = a / x * 0")));
+    // -0.0 + 0.0 is 0.0, and f * 0.0 is NaN for an infinite f
+    assertEquals("(f + 0.0)", render(expression("f = f + 0.0")));
+    assertEquals("(f * 0.0)", render(expression("f = f * 0.0")));
+    // Would fold to infinity
+    assertEquals("(1.0 / 0.0)", render(expression("f = 1.0 / 0.0")));
+    assertEquals(List.of(), optimize("x = a - 1").getChanges());
+  }
+
+  @Test
+  @DisplayName("If statements with constant conditions are replaced by the selected branch")
+  void prunesConstantBranches() throws Exception {
+    OptimizationResult result = optimize("if (2 - 2) x = 1 else if (0.5 * 2.0) x = a else x = 3");
+
+    Assignment asg = assertInstanceOf(Assignment.class, result.getAst());
+    assertEquals("a", render(asg.getExpression()));
+    assertTrue(
+        result.getChanges().stream().anyMatch(c -> c.contains("removed the then branch")),
+        result.getChanges()::toString);
+    assertTrue(
+        result.getChanges().stream().anyMatch(c -> c.contains("removed the else branch")),
+        result.getChanges()::toString);
+  }
+
+  @Test
+  @DisplayName("The input tree is left untouched and unchanged subtrees are shared")
+  void doesNotModifyInput() throws Exception {
+    SyntaxNode root = analyzed("if (a) x = a * 1 else x = a - 1");
+    String before = tree(root);
+
+    OptimizationResult result = optimizer.optimize(root);
+
+    assertEquals(before, tree(root));
+    IfStatement original = (IfStatement) root;
+    IfStatement optimized = assertInstanceOf(IfStatement.class, result.getAst());
+    assertNotSame(original, optimized);
+    assertSame(original.getCondition(), optimized.getCondition());
+    assertSame(original.getElseBranch(), optimized.getElseBranch());
+    assertEquals(Type.NUMBER, optimized.getThenBranch().getType());
+  }
+
+  @Test
+  @DisplayName("Untyped trees and a missing tree are left alone")
+  void ignoresUntypedTrees() throws Exception {
+    SyntaxNode root = new RecursiveDescentParser().parse(new Lexer().tokenize("x = 1 + 2"));
+    // Not analyzed: no types, so nothing is folded
+    OptimizationResult result = optimizer.optimize(root);
+    assertSame(root, result.getAst());
+    assertTrue(result.getChanges().isEmpty());
+
+    OptimizationResult empty = optimizer.optimize(null);
+    assertNull(empty.getAst());
+    assertEquals(0, empty.getNodesAfter());
+  }
+
+  @Test
+  @DisplayName("Optimized programs evaluate to the same results")
+  void preservesEvaluation() throws Exception {
+    String source =
+        "if (a * 1 - 0) x = (a + 2 * 3) * (4 - 4) + a / 1 else if (f * 1.0) x = a * (3 - 2)"
+            + " else x = 10 / (5 - 5)";
+    SyntaxNode root = analyzed(source);
+    OptimizationResult result = optimizer.optimize(root);
+    assertTrue(result.getNodesAfter() < result.getNodesBefore());
+
+    BytecodeCompiler compiler = new BytecodeCompiler(-1);
+    Program original = compiler.compile(root, VARIABLES);
+    Program optimized = compiler.compile(result.getAst(), VARIABLES);
+    assertTrue(optimized.codeLength() < original.codeLength());
+    for (int a = -3; a <= 3; a++) {
+      for (double f : new double[] {0.0, -0.0, 1.5, Double.NaN}) {
+        assertEquals(evaluate(original, a, f), evaluate(optimized, a, f), "a=" + a + " f=" + f);
+      }
+    }
+  }
+
+  private static String evaluate(Program program, long a, double f) {
+    Environment env =
+        program.newEnvironment().setNumber(program.slot("a"), a).setFloat(program.slot("f"), f);
+    try {
+      program.execute(env);
+    } catch (ArithmeticException e) {
+      return "ArithmeticException";
+    }
+    return Long.toString(env.getNumber(program.slot("x")));
+  }
+
+  @Test
+  @DisplayName("Deeply nested trees are optimized without recursion")
+  void deepNesting() {
+    // x = 1 + 1 + ... + 1 with 200k operators, built and typed directly
+    SyntaxNode expression = NumberLiteral.builder().line(1).column(5).value("1").build();
+    for (int i = 0; i < 200_000; i++) {
+      BinOp bin =
+          BinOp.builder()
+              .line(1)
+              .column(5)
+              .operator("+")
+              .left(expression)
+              .right(NumberLiteral.builder().line(1).column(5).value("1").build())
+              .build();
+      bin.setType(Type.NUMBER);
+      expression = bin;
+    }
+
+    OptimizationResult result = optimizer.optimize(expression);
+
+    assertEquals("200001", ((NumberLiteral) result.getAst()).getValue());
+    assertEquals(400_001, result.getNodesBefore());
+    assertEquals(1, result.getNodesAfter());
+  }
+
+  private SyntaxNode expression(String source) throws Exception {
+    return ((Assignment) optimize(source).getAst()).getExpression();
+  }
+
+  /** Fully parenthesized infix form of an expression. */
+  private static String render(SyntaxNode node) {
+    if (node instanceof BinOp bin) {
+      return "(" + render(bin.getLeft()) + " " + bin.getOperator() + " " + render(bin.getRight())
+          + ")";
+    } else if (node instanceof NumberLiteral n) {
+      return n.getValue();
+    } else if (node instanceof FloatLiteral f) {
+      return f.getValue();
+    }
+    return ((Identifier) node).getName();
+  }
+}
@@ -2,7 +2,10 @@ package br.edu.fesa.Conditional_Command_Parser.utils;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import br.edu.fesa.Conditional_Command_Parser.model.GrammarTables;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -67,4 +70,44 @@ class FirstFollowCalculatorTest {
         follow.get("F"),
         "Incorrect FOLLOW set for F");
   }
+
+  // ====================== Compiled Tables Tests ======================
+
+  /*
+   * Verifies that the compiled tables agree with the sets, as bitmasks, JSON and HTML text, and
+   * that every caller gets the same immutable instances.
+   */
+  @Test
+  void testCompiledTables() {
+    GrammarTables tables = calculator.getTables();
+
+    long first = tables.first("E");
+    assertTrue(GrammarTables.contains(first, tables.terminal("(")));
+    assertTrue(GrammarTables.contains(first, tables.terminal("id")));
+    assertEquals(2, Long.bitCount(first));
+    assertFalse(GrammarTables.contains(tables.follow("S"), tables.terminal("+")));
+    assertEquals(-1, tables.terminal("E"));
+    assertThrows(NoSuchElementException.class, () -> tables.first("X"));
+
+    assertSame(tables.getFirstSets(), calculator.getFirstSets());
+    assertEquals(List.of("S", "E", "T", "F"), List.copyOf(tables.getFollowSets().keySet()));
+    assertThrows(UnsupportedOperationException.class, () -> tables.getFirstSets().get("S").clear());
+    assertEquals("{S=[if, id], E=[(, id], T=[(, id], F=[(, id]}", tables.getFirstSetsHtml());
+    assertTrue(
+        tables.getJson().startsWith("{\"firstSets\":{\"S\":[\"if\",\"id\"],\"E\":[\"(\",\"id\"]"),
+        tables.getJson());
+    assertTrue(tables.getJson().contains("\"followSets\":{\"S\":[\"else\",\"$\"]"));
+  }
+
+  @Test
+  void testTablesWithoutCalculateSets() {
+    FirstFollowCalculator outsideSpring = new FirstFollowCalculator();
+
+    GrammarTables tables = outsideSpring.getTables();
+
+    assertEquals(calculator.getTables().getJson(), tables.getJson());
+    assertSame(tables, outsideSpring.getTables());
+    outsideSpring.calculateSets();
+    assertSame(tables, outsideSpring.getTables());
+  }
 }
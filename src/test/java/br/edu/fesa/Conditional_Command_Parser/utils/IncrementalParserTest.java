@@ -0,0 +1,183 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.Assignment;
+import br.edu.fesa.Conditional_Command_Parser.model.BinOp;
+import br.edu.fesa.Conditional_Command_Parser.model.IfStatement;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import br.edu.fesa.Conditional_Command_Parser.model.TextEdit;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that incremental reparsing always agrees with lexing and parsing from scratch. */
+class IncrementalParserTest {
+
+  private final Lexer lexer = new Lexer();
+  private final IncrementalParser incremental =
+      new IncrementalParser(lexer, RecursiveDescentParser::new);
+
+  /** Inserted text, chosen to split, merge and re-pair tokens, comments and literals. */
+  private static final String[] INSERTIONS = {
+    "", "a", "b1", "7", "2.5", ".", " ", "\n", "(", ")", "+", "-", "*", "/", "=", "if ",
+    " else ", "\"", "\"s\"", "'", "'c'", "/*", "*/", "//", "x = 1", "$"
+  };
+
+  /** A multi-line program of nested ifs, parentheses, literals and comments. */
+  private static String program(int branches) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < branches; i++) {
+      sb.append("if ((a").append(i).append(" + 1) * (b - 2.5)) // branch ").append(i).append('\n')
+          .append("  x = (\"s").append(i).append("\" + 'c') / 3\n")
+          .append("else /* next */\n");
+    }
+    return sb.append("  y = (((z)))\n").toString();
+  }
+
+  @ParameterizedTest(name = "seed {0}")
+  @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+  @DisplayName("Random edit sequences match a full parse after every edit")
+  void randomEditsMatchFullParse(long seed) {
+    Random random = new Random(seed);
+    ParseSnapshot snapshot = incremental.parse(program(12));
+    for (int step = 0; step < 300; step++) {
+      String text = snapshot.getSource();
+      int offset = random.nextInt(text.length() + 1);
+      int removed = Math.min(random.nextInt(4), text.length() - offset);
+      String inserted = INSERTIONS[random.nextInt(INSERTIONS.length)];
+      TextEdit edit =
+          TextEdit.builder().offset(offset).removedLength(removed).insertedText(inserted).build();
+
+      snapshot = incremental.apply(snapshot, edit);
+
+      String expected =
+          new StringBuilder(text).replace(offset, offset + removed, inserted).toString();
+      assertEquals(expected, snapshot.getSource());
+      assertMatchesFullParse(snapshot);
+    }
+  }
+
+  @Test
+  @DisplayName("A one-character edit rescans a few tokens and reuses the rest of the tree")
+  void smallEditReusesSubtrees() {
+    String text = program(200);
+    ParseSnapshot snapshot = incremental.parse(text);
+    assertTrue(snapshot.getSyntaxErrors().isEmpty(), () -> "" + snapshot.getSyntaxErrors());
+
+    // Rename an identifier in the middle of the program
+    int offset = text.indexOf("a100");
+    ParseSnapshot edited =
+        incremental.apply(
+            snapshot, TextEdit.builder().offset(offset).removedLength(1).insertedText("q").build());
+
+    assertMatchesFullParse(edited);
+    assertTrue(edited.getRelexedTokens() <= 3, () -> "Relexed " + edited.getRelexedTokens());
+    assertTrue(edited.getReusedSubtrees() > 0);
+    assertTrue(TreePrinter.generateASCIITree(edited.getAst()).contains("ID(q100)"));
+  }
+
+  @Test
+  @DisplayName("Edits that shift lines still produce correct positions")
+  void lineShiftingEdit() {
+    ParseSnapshot snapshot = incremental.parse(program(5));
+    ParseSnapshot edited =
+        incremental.apply(snapshot, TextEdit.builder().offset(0).insertedText("\n\n").build());
+
+    assertMatchesFullParse(edited);
+    assertEquals(3, edited.getTokens().line(0));
+  }
+
+  @Test
+  @DisplayName("Lexical errors are reported like a full run and recovered from")
+  void lexicalErrorAndRecovery() {
+    ParseSnapshot snapshot = incremental.parse("x = 1 + 2");
+    ParseSnapshot broken =
+        incremental.apply(snapshot, TextEdit.builder().offset(6).insertedText("$").build());
+    assertEquals("Invalid character '$' at 1:7", broken.getLexicalError());
+    assertNull(broken.getTokens());
+
+    ParseSnapshot fixed =
+        incremental.apply(broken, TextEdit.builder().offset(6).removedLength(1).build());
+    assertNull(fixed.getLexicalError());
+    assertMatchesFullParse(fixed);
+  }
+
+  @Test
+  @DisplayName("Edits outside the text are rejected")
+  void rejectsOutOfRangeEdit() {
+    ParseSnapshot snapshot = incremental.parse("x = 1");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> incremental.apply(snapshot, TextEdit.builder().offset(4).removedLength(2).build()));
+  }
+
+  /** Compares tokens, tree and errors of {@code snapshot} with lexing and parsing from scratch. */
+  private void assertMatchesFullParse(ParseSnapshot snapshot) {
+    String source = snapshot.getSource();
+    List<Token> tokens;
+    try {
+      tokens = lexer.tokenize(source);
+    } catch (LexicalException e) {
+      assertEquals(e.getMessage(), snapshot.getLexicalError(), () -> "Source: " + source);
+      return;
+    }
+    assertNull(snapshot.getLexicalError(), () -> "Source: " + source);
+
+    TokenBuffer buffer = snapshot.getTokens();
+    assertEquals(tokens.size(), buffer.size(), () -> "Source: " + source);
+    for (int i = 0; i < tokens.size(); i++) {
+      Token expected = tokens.get(i);
+      Token actual = buffer.token(i);
+      int index = i;
+      assertEquals(
+          describe(expected), describe(actual), () -> "Token " + index + " of: " + source);
+    }
+
+    RecursiveDescentParser parser = new RecursiveDescentParser();
+    String tree = TreePrinter.generateASCIITree(parser.parse(tokens));
+    assertEquals(tree, TreePrinter.generateASCIITree(snapshot.getAst()), () -> "Source: " + source);
+    assertEquals(parser.getErrors(), snapshot.getSyntaxErrors(), () -> "Source: " + source);
+    assertPositionsMatch(snapshot, tokens);
+  }
+
+  /** The printed tree has no positions, so compare node positions against a fresh parse too. */
+  private void assertPositionsMatch(ParseSnapshot snapshot, List<Token> tokens) {
+    SyntaxNode expected = new RecursiveDescentParser().parse(tokens);
+    assertEquals(positions(expected), positions(snapshot.getAst()));
+  }
+
+  private static String positions(SyntaxNode root) {
+    StringBuilder sb = new StringBuilder();
+    Deque<SyntaxNode> stack = new ArrayDeque<>();
+    if (root != null) {
+      stack.push(root);
+    }
+    while (!stack.isEmpty()) {
+      var node = stack.pop();
+      sb.append(node.getLine()).append(':').append(node.getColumn()).append(' ');
+      if (node instanceof IfStatement ifs) {
+        stack.push(ifs.getElseBranch());
+        stack.push(ifs.getThenBranch());
+        stack.push(ifs.getCondition());
+      } else if (node instanceof Assignment asg) {
+        stack.push(asg.getExpression());
+      } else if (node instanceof BinOp bin) {
+        stack.push(bin.getRight());
+        stack.push(bin.getLeft());
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String describe(Token t) {
+    return t.getType() + "[" + t.getValue() + "]@" + t.getLine() + ":" + t.getColumn();
+  }
+}
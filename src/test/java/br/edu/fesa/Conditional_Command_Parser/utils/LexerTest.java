@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
 import br.edu.fesa.Conditional_Command_Parser.model.Token;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -196,4 +197,120 @@ class LexerTest {
   void invalidCharacter() {
     assertThrowsLex("abc$def", "$");
   }
+
+  // -------------- Equivalence with the regex reference lexer --------------
+
+  @Nested
+  @DisplayName("Equivalence with the regex reference lexer")
+  class ReferenceEquivalenceTest {
+
+    private final RegexReferenceLexer reference = new RegexReferenceLexer();
+
+    /** Fragments chosen to hit every state transition and the edges of each literal rule. */
+    private final String[] fragments = {
+      "if", "else", "iff", "elsewhere", "x", "_tmp9", "A1b2", "0", "42", "3.14", "7.", "1.2.3",
+      "12ab", "(", ")", "=", "+", "-", "*", "/", " ", "  ", "\t", "\n", "\r\n", "\u2003",
+      "\"str\"", "\"esc\\\"q\"", "\"multi\nline\"", "\"", "'a'", "'\\n'", "'\\''", "''",
+      "'ab'", "'\\\n'", "'\uD83D\uDE00'", "'", "// line comment\n", "//", "/* block */",
+      "/* multi\nline */", "/*", "*/", "$", ".", "\u00e9", "\u0663", "\\"
+    };
+
+    @ParameterizedTest(name = "seed {0}")
+    @ValueSource(longs = {1, 2, 3, 5, 8, 13, 21, 34, 55, 89})
+    void matchesReferenceOnGeneratedInputs(long seed) {
+      Random random = new Random(seed);
+      for (int i = 0; i < 500; i++) {
+        StringBuilder sb = new StringBuilder();
+        int parts = random.nextInt(12);
+        for (int j = 0; j < parts; j++) {
+          sb.append(fragments[random.nextInt(fragments.length)]);
+        }
+        assertSameResult(sb.toString());
+      }
+    }
+
+    @Test
+    @DisplayName("Large input matches token for token")
+    void largeInputMatches() {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 2_000; i++) {
+        sb.append("if (a").append(i).append(" + 3.5) b = \"s\" // note\n")
+            .append("else /* x */ c = '\\t' * 17\n");
+      }
+      assertSameResult(sb.toString());
+    }
+
+    private void assertSameResult(String input) {
+      String expected = describe(() -> reference.tokenize(input));
+      String actual = describe(() -> lexer.tokenize(input));
+      assertEquals(expected, actual, () -> "Mismatch for input: " + input);
+      String streamed = describe(() -> drain(lexer.stream(input)));
+      assertEquals(expected, streamed, () -> "Stream mismatch for input: " + input);
+      String buffered = describe(() -> drain(lexer.tokenizeToBuffer(input).cursor()));
+      assertEquals(expected, buffered, () -> "Buffer mismatch for input: " + input);
+    }
+
+    /** Reads a stream through its accessors, without the {@code token()} shortcut. */
+    private List<Token> drain(TokenStream stream) throws LexicalException {
+      List<Token> tokens = new java.util.ArrayList<>();
+      while (true) {
+        tokens.add(new Token(stream.type(), stream.value(), stream.line(), stream.column()));
+        if (stream.type() == Token.Type.EOF) {
+          return tokens;
+        }
+        stream.advance();
+      }
+    }
+
+    private String describe(TokenSupplier supplier) {
+      try {
+        StringBuilder sb = new StringBuilder();
+        for (Token t : supplier.get()) {
+          sb.append(t.getType()).append('[').append(t.getValue()).append("]@")
+              .append(t.getLine()).append(':').append(t.getColumn()).append(' ');
+        }
+        return sb.toString();
+      } catch (LexicalException e) {
+        return "LexicalException: " + e.getMessage();
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface TokenSupplier {
+    List<Token> get() throws LexicalException;
+  }
+
+  @Test
+  @DisplayName("Megabyte-sized input is tokenized in one linear pass")
+  void megabyteInput() throws LexicalException {
+    String input = "a = " + "1 + ".repeat(250_000) + "1";
+    List<Token> tokens = lexer.tokenize(input);
+    assertEquals(500_004, tokens.size());
+    assertEquals(Token.Type.EOF, tokens.get(tokens.size() - 1).getType());
+  }
+
+  @Test
+  @DisplayName("Stream scans lazily and reports errors only when reached")
+  void streamIsLazy() throws LexicalException {
+    TokenStream stream = lexer.stream("a = 1 $");
+    assertEquals(Token.Type.ID, stream.type());
+    stream.advance();
+    assertEquals(Token.Type.EQUALS, stream.type());
+    stream.advance();
+    assertEquals("1", stream.value());
+    assertThrows(LexicalException.class, stream::advance);
+  }
+
+  @Test
+  @DisplayName("Stream stays on EOF once reached")
+  void streamStaysOnEof() throws LexicalException {
+    TokenStream stream = lexer.stream("x");
+    stream.advance();
+    stream.advance();
+    stream.advance();
+    assertEquals(Token.Type.EOF, stream.type());
+    assertEquals(1, stream.line());
+    assertEquals(2, stream.column());
+  }
 }
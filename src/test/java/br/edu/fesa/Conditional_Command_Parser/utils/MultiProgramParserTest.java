@@ -0,0 +1,183 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.semantic.SymbolInterner;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Tests that chunked, multi-threaded lexing and parsing match the sequential path exactly. */
+class MultiProgramParserTest {
+
+  /** Fragments that put chunk boundaries inside strings, comments and split tokens. */
+  private static final String[] PIECES = {
+    "if", "else", "(", ")", "=", "+", "-", "*", "/", "abc", "x1", "_tmp", "12", "3.25",
+    "\"a b\"", "\"two\nlines\"", "\"esc \\\" quote\"", "\"has // and /* inside\"",
+    "\"ação\"", "\"don't\"",
+    "'c'", "'\\''", "// note \"quote /* \n", "/* multi\nline \"q\" // */", "/**/"
+  };
+
+  private static final String[] SPACES = {" ", " ", "\n", "\t", "\r\n", "  "};
+
+  private static final String[] INVALID = {"x = = 1", "else", "= 2", "y 3", "w = 'c' 7"};
+
+  private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+  private final Lexer lexer = new Lexer();
+
+  @AfterAll
+  static void shutdown() {
+    POOL.shutdown();
+  }
+
+  private static String randomInput(Random random, int pieces) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < pieces; i++) {
+      sb.append(PIECES[random.nextInt(PIECES.length)]);
+      sb.append(SPACES[random.nextInt(SPACES.length)]);
+    }
+    return sb.toString();
+  }
+
+  private static void assertSameTokens(TokenBuffer expected, TokenBuffer actual, String input) {
+    assertEquals(expected.size(), actual.size(), input);
+    for (int i = 0; i < expected.size(); i++) {
+      String where = "token " + i + " of " + input;
+      assertEquals(expected.type(i), actual.type(i), where);
+      assertEquals(expected.start(i), actual.start(i), where);
+      assertEquals(expected.end(i), actual.end(i), where);
+      assertEquals(expected.line(i), actual.line(i), where);
+      assertEquals(expected.column(i), actual.column(i), where);
+      assertEquals(expected.symbol(i), actual.symbol(i), where);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 5, 8, 13, 40, 200})
+  @DisplayName("Parallel tokenizing yields the sequential tokens at any chunk length")
+  void parallelLexingMatches(int chunkLength) throws LexicalException {
+    Random random = new Random(chunkLength);
+    for (int n = 0; n < 50; n++) {
+      String input = randomInput(random, 1 + random.nextInt(60));
+      TokenBuffer expected = lexer.tokenizeToBuffer(input, new SymbolInterner());
+      TokenBuffer actual =
+          lexer.tokenizeInParallel(input, new SymbolInterner(), POOL, chunkLength);
+      assertSameTokens(expected, actual, input);
+    }
+  }
+
+  @Test
+  @DisplayName("Lexical errors are the ones the sequential lexer reports")
+  void parallelLexingErrors() throws LexicalException {
+    String valid = "x = \"a\" // c\n/* d \"e\" */ y = 'f'\n";
+    int errors = 0;
+    for (String bad : List.of("#", "\"open", "/* open ", "'ab'")) {
+      for (int at = 0; at <= valid.length(); at += 3) {
+        // Some insertions are swallowed by a literal or comment and still lex
+        String input = valid.substring(0, at) + bad + " " + valid.substring(at);
+        TokenBuffer expected;
+        try {
+          expected = lexer.tokenizeToBuffer(input);
+        } catch (LexicalException e) {
+          LexicalException actual =
+              assertThrows(
+                  LexicalException.class, () -> lexer.tokenizeInParallel(input, null, POOL, 4));
+          assertEquals(e.getMessage(), actual.getMessage(), input);
+          errors++;
+          continue;
+        }
+        assertSameTokens(expected, lexer.tokenizeInParallel(input, null, POOL, 4), input);
+      }
+    }
+    assertTrue(errors > 20, "inputs that fail: " + errors);
+  }
+
+  @Test
+  @DisplayName("Programs are split at statement boundaries")
+  void splitsPrograms() throws LexicalException {
+    MultiProgramParser parser =
+        new MultiProgramParser(lexer, RecursiveDescentParser::new, POOL, 8);
+    String input = "x = 1\ny = a + (b * 2)\nif (x) if (y) z = 1 else z = 2 else z = 3 w = 4";
+
+    List<MultiProgramParser.Program> programs = parser.parse(input);
+
+    assertEquals(4, programs.size());
+    assertEquals(List.of(1, 2, 3, 3), programs.stream().map(p -> p.line()).toList());
+    assertEquals(input.lastIndexOf('w') - input.lastIndexOf('\n'), programs.get(3).column());
+    programs.forEach(p -> assertTrue(p.errors().isEmpty(), p.errors().toString()));
+    assertEquals(
+        "IfStatement", programs.get(2).ast().getClass().getSimpleName(), "third program");
+    assertTrue(parser.parse("  // nothing\n").isEmpty());
+  }
+
+  @Test
+  @DisplayName("An invalid program reports its errors without affecting the next one")
+  void isolatesInvalidPrograms() throws LexicalException {
+    MultiProgramParser parser =
+        new MultiProgramParser(
+            lexer, RecursiveDescentParser::new, POOL, MultiProgramParser.DEFAULT_CHUNK_LENGTH);
+
+    List<MultiProgramParser.Program> programs = parser.parse("x = = 1 y = 2");
+
+    assertEquals(2, programs.size());
+    assertFalse(programs.get(0).errors().isEmpty());
+    assertTrue(programs.get(1).errors().isEmpty());
+    assertEquals(1, programs.get(1).line());
+    assertEquals(9, programs.get(1).column());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {16, 64, 1024})
+  @DisplayName("Parallel parsing returns the sequential programs, trees and errors")
+  void parallelParsingMatches(int chunkLength) throws LexicalException {
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2_000; i++) {
+      // Mostly valid programs, with an invalid one now and then
+      sb.append(
+          i % 10 == 9
+              ? INVALID[random.nextInt(INVALID.length)]
+              : program(random, 1 + random.nextInt(3)));
+      sb.append(SPACES[random.nextInt(SPACES.length)]);
+    }
+    String input = sb.toString();
+    MultiProgramParser parser =
+        new MultiProgramParser(lexer, RecursiveDescentParser::new, POOL, chunkLength);
+
+    List<MultiProgramParser.Program> expected = parser.parseSequentially(input);
+    List<MultiProgramParser.Program> actual = parser.parse(input);
+
+    assertTrue(expected.size() >= 1_900, "programs: " + expected.size());
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      MultiProgramParser.Program e = expected.get(i);
+      MultiProgramParser.Program a = actual.get(i);
+      assertEquals(e.line(), a.line());
+      assertEquals(e.column(), a.column());
+      assertEquals(e.errors(), a.errors());
+      assertEquals(
+          e.ast() == null ? null : TreePrinter.generateASCIITree(e.ast()),
+          a.ast() == null ? null : TreePrinter.generateASCIITree(a.ast()));
+    }
+  }
+
+  /** A conditional command {@code depth} ifs deep, with comments and string literals. */
+  private static String program(Random random, int depth) {
+    if (depth == 0) {
+      return random.nextInt(4) == 0
+          ? "s = \"text /* not a comment */\""
+          : "n = (a + " + random.nextInt(100) + ") * b /* note */";
+    }
+    return "if (c) // then\n  "
+        + program(random, depth - 1)
+        + "\nelse "
+        + program(random, random.nextInt(depth));
+  }
+}
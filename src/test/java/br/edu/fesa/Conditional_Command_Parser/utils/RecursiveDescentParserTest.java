@@ -3,11 +3,15 @@ package br.edu.fesa.Conditional_Command_Parser.utils;
 import static org.junit.jupiter.api.Assertions.*;
 
 import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.exception.SyntaxException;
+import br.edu.fesa.Conditional_Command_Parser.model.Diagnostic;
+import br.edu.fesa.Conditional_Command_Parser.model.IfStatement;
 import br.edu.fesa.Conditional_Command_Parser.model.Token;
 import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -108,4 +112,144 @@ class RecursiveDescentParserTest {
           () -> "Expected an 'expected' error for empty input, got: " + errors);
     }
   }
+
+  @Nested
+  @DisplayName("Deep nesting")
+  class DeepNesting {
+
+    @org.junit.jupiter.api.Test
+    @DisplayName("A million nested parentheses parse without overflowing the stack")
+    void millionParentheses() throws LexicalException {
+      int depth = 1_000_000;
+      String input = "x=" + "(".repeat(depth) + "1" + ")".repeat(depth);
+      var parser = parse(input);
+      assertTrue(parser.getErrors().isEmpty(), () -> "Unexpected errors: " + parser.getErrors());
+    }
+
+    @org.junit.jupiter.api.Test
+    @DisplayName("Deeply nested if statements build the full tree")
+    void deepIfChain() throws LexicalException {
+      int depth = 100_000;
+      String input = "if(a) x=1 else ".repeat(depth) + "x=0";
+      RecursiveDescentParser parser = new RecursiveDescentParser();
+      var root = parser.parse(lexer.tokenize(input));
+      assertTrue(parser.getErrors().isEmpty(), () -> "Unexpected errors: " + parser.getErrors());
+
+      int ifs = 0;
+      var node = root;
+      while (node instanceof IfStatement ifs1) {
+        ifs++;
+        node = ifs1.getElseBranch();
+      }
+      assertEquals(depth, ifs);
+    }
+
+    @org.junit.jupiter.api.Test
+    @DisplayName("Exceeding the configured depth is a syntax error")
+    void maxDepthExceeded() throws LexicalException {
+      RecursiveDescentParser parser = new RecursiveDescentParser(10);
+      var root = parser.parse(lexer.tokenize("x=" + "(".repeat(11) + "1" + ")".repeat(11)));
+      assertNull(root);
+      assertTrue(
+          parser.getErrors().get(0).contains("nesting deeper than 10 levels"),
+          () -> "Unexpected errors: " + parser.getErrors());
+
+      // At the limit itself parsing still succeeds
+      parser.parse(lexer.tokenize("if(a) ".repeat(10) + "x=1" + " else x=2".repeat(10)));
+      assertTrue(parser.getErrors().isEmpty(), () -> "Unexpected errors: " + parser.getErrors());
+    }
+  }
+
+  @Nested
+  @DisplayName("Diagnostics")
+  class Diagnostics {
+
+    @Test
+    @DisplayName("Errors are recorded with code, position and arguments")
+    void structuredErrors() throws LexicalException {
+      RecursiveDescentParser parser = new RecursiveDescentParser();
+      parser.parse(lexer.stream("x = = 1\n  y"));
+
+      List<Diagnostic> diagnostics = parser.getDiagnostics();
+
+      assertEquals(2, diagnostics.size());
+      Diagnostic operand = diagnostics.get(0);
+      assertEquals(Diagnostic.Code.EXPECTED_OPERAND, operand.getCode());
+      assertEquals(Diagnostic.Severity.ERROR, operand.getSeverity());
+      assertEquals(4, operand.getOffset());
+      assertEquals(1, operand.getLine());
+      assertEquals(5, operand.getColumn());
+      assertEquals(List.of(Token.Type.EQUALS), operand.getArguments());
+      Diagnostic trailing = diagnostics.get(1);
+      assertEquals(Diagnostic.Code.UNEXPECTED_TOKEN, trailing.getCode());
+      assertEquals(10, trailing.getOffset());
+      assertEquals(List.of(Token.Type.EOF, Token.Type.ID), trailing.getArguments());
+      assertEquals(
+          List.of(
+              "Syntax error [line 1, column 5]: expected '(', id, number, string, char or float"
+                  + " but found 'EQUALS'",
+              "Syntax error [line 2, column 3]: expected 'EOF' but found 'ID'"),
+          parser.getErrors());
+    }
+
+    @Test
+    @DisplayName("Syntax exceptions carry no stack trace")
+    void stacklessException() {
+      Diagnostic diagnostic =
+          new Diagnostic(Diagnostic.Code.NESTING_TOO_DEEP, 0, 1, 1, 3);
+      SyntaxException e = new SyntaxException(diagnostic);
+
+      assertEquals(0, e.getStackTrace().length);
+      assertSame(diagnostic, e.getDiagnostic());
+      assertEquals("Syntax error [line 1, column 1]: nesting deeper than 3 levels", e.getMessage());
+    }
+  }
+
+  @Nested
+  @DisplayName("Recognizing without a tree")
+  class Recognize {
+
+    static Stream<Arguments> inputs() {
+      return Stream.of(
+          Arguments.of("x=1"),
+          Arguments.of("if(a) if(b) c=3 else c=4 else c=(5-d)*\"s\""),
+          Arguments.of("x = = 1"),
+          Arguments.of("x = 1 y"),
+          Arguments.of("if (a) b = 1"),
+          Arguments.of("if (a b = 1 else c = 2 d = 3"),
+          Arguments.of("a = (1 + 2"),
+          Arguments.of("else x = 1"),
+          Arguments.of("x = 1 + * 2 y = 3"),
+          Arguments.of(""));
+    }
+
+    @ParameterizedTest(name = "Same errors as parse: \"{0}\"")
+    @MethodSource("inputs")
+    void sameErrorsAsParse(String input) throws LexicalException {
+      RecursiveDescentParser parser = new RecursiveDescentParser();
+      TokenStream parsed = lexer.stream(input);
+      parser.parse(parsed);
+      List<Diagnostic> expected = parser.getDiagnostics();
+
+      TokenStream recognized = lexer.stream(input);
+      boolean valid = parser.recognize(recognized, false);
+
+      assertEquals(expected, parser.getDiagnostics());
+      assertEquals(expected.isEmpty(), valid);
+      assertEquals(parsed.index(), recognized.index(), "stream left at the same token");
+    }
+
+    @ParameterizedTest(name = "Fail-fast stops at the first error: \"{0}\"")
+    @MethodSource("inputs")
+    void failFastKeepsFirstError(String input) throws LexicalException {
+      RecursiveDescentParser parser = new RecursiveDescentParser();
+      parser.recognize(lexer.stream(input), false);
+      List<Diagnostic> all = parser.getDiagnostics();
+
+      boolean valid = parser.recognize(lexer.stream(input), true);
+
+      assertEquals(all.isEmpty(), valid);
+      assertEquals(all.isEmpty() ? List.of() : all.subList(0, 1), parser.getDiagnostics());
+    }
+  }
 }
@@ -1,9 +1,11 @@
 package br.edu.fesa.Conditional_Command_Parser.utils;
 
+import static br.edu.fesa.Conditional_Command_Parser.TestFixtures.var;
 import static org.junit.jupiter.api.Assertions.*;
 
 import br.edu.fesa.Conditional_Command_Parser.model.*;
 import br.edu.fesa.Conditional_Command_Parser.model.Token.Type;
+import br.edu.fesa.Conditional_Command_Parser.semantic.Symbol;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -171,5 +173,114 @@ class SemanticAnalyzerTest {
       assertTrue(errors.isEmpty(), "Expected no semantic errors");
       assertEquals(Type.FLOAT, expr.getType());
     }
+
+    @Test
+    @DisplayName("Predeclared variables can be read and assigned")
+    void predeclaredVariables() {
+      // AST: x = y * 2, with x and y declared as NUMBER
+      BinOp product =
+          BinOp.builder()
+              .line(1)
+              .column(5)
+              .operator("*")
+              .left(Identifier.builder().line(1).column(5).name("y").build())
+              .right(NumberLiteral.builder().line(1).column(9).value("2").build())
+              .build();
+      Assignment asg =
+          Assignment.builder().line(1).column(1).identifier("x").expression(product).build();
+
+      analyzer.analyze(asg, List.of(var("x", Type.NUMBER), var("y", Type.NUMBER)));
+
+      assertTrue(analyzer.getErrors().isEmpty(), () -> "Unexpected " + analyzer.getErrors());
+      assertEquals(Type.NUMBER, product.getType());
+      assertEquals(Type.NUMBER, asg.getType());
+    }
+  }
+
+  @Nested
+  @DisplayName("Deep trees")
+  class DeepTreeTests {
+
+    @Test
+    @DisplayName("Long operator chain is analyzed without recursion")
+    void longChain() {
+      // AST: 1.5 + 1.5 + ... + 1.5, left-deep with 500k levels
+      SyntaxNode expr = FloatLiteral.builder().line(1).column(1).value("1.5").build();
+      for (int i = 0; i < 500_000; i++) {
+        expr =
+            BinOp.builder()
+                .line(1)
+                .column(1)
+                .operator("+")
+                .left(expr)
+                .right(FloatLiteral.builder().line(1).column(1).value("1.5").build())
+                .build();
+      }
+      List<String> errors = analyze(expr);
+      assertTrue(errors.isEmpty(), "Expected no semantic errors");
+      assertEquals(Type.FLOAT, expr.getType());
+    }
+
+    @Test
+    @DisplayName("Deeply nested ifs report errors in source order")
+    void deepIfs() {
+      // AST: if(1) a=1 else if(1) a=1 else ... with 10k levels; every 'a' is undeclared
+      int depth = 10_000;
+      SyntaxNode stmt = Assignment.builder().line(1).column(1).identifier("last").build();
+      for (int i = 0; i < depth; i++) {
+        stmt =
+            IfStatement.builder()
+                .line(1)
+                .column(1)
+                .condition(NumberLiteral.builder().line(1).column(1).value("1").build())
+                .thenBranch(Assignment.builder().line(1).column(1).identifier("a" + i).build())
+                .elseBranch(stmt)
+                .build();
+      }
+      List<String> errors = analyze(stmt);
+      assertEquals(depth + 1, errors.size());
+      assertTrue(errors.get(0).contains("'a" + (depth - 1) + "'"));
+      assertTrue(errors.get(depth).contains("'last'"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Diagnostics")
+  class DiagnosticTests {
+
+    @Test
+    @DisplayName("Errors are recorded as diagnostics and rendered on demand")
+    void diagnosticsMatchMessages() {
+      // AST: s = 1 + "a", with s declared as STRING
+      Assignment asg =
+          Assignment.builder()
+              .line(1)
+              .column(1)
+              .identifier("s")
+              .expression(
+                  BinOp.builder()
+                      .line(1)
+                      .column(5)
+                      .operator("+")
+                      .left(NumberLiteral.builder().line(1).column(5).value("1").build())
+                      .right(StringLiteral.builder().line(1).column(9).value("a").build())
+                      .build())
+              .build();
+
+      Symbol s = var("s", Type.STRING);
+      analyzer.analyze(asg, List.of(s));
+      List<Diagnostic> diagnostics = analyzer.getDiagnostics();
+
+      assertEquals(
+          List.of(Diagnostic.Code.INCOMPATIBLE_TYPES, Diagnostic.Code.TYPE_MISMATCH),
+          diagnostics.stream().map(Diagnostic::getCode).toList());
+      assertEquals(List.of(Type.NUMBER, Type.STRING, "+"), diagnostics.get(0).getArguments());
+      assertEquals(-1, diagnostics.get(0).getOffset());
+      assertEquals(
+          diagnostics.stream().map(Diagnostic::getMessage).toList(), analyzer.getErrors());
+      assertEquals(
+          "Semantic error [line 1, column 1]: type mismatch on 's' - expected STRING but got EOF",
+          analyzer.getErrors().get(1));
+    }
   }
 }
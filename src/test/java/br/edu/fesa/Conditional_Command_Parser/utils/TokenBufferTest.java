@@ -0,0 +1,95 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.Token;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the struct-of-arrays TokenBuffer. */
+class TokenBufferTest {
+
+  private final Lexer lexer = new Lexer();
+
+  @Test
+  @DisplayName("Buffer holds the same tokens as tokenize()")
+  void matchesTokenList() throws LexicalException {
+    String input = "if (a + 1.5) b = \"txt\" else c = 'x' / (d - 2) * e";
+    List<Token> expected = lexer.tokenize(input);
+    TokenBuffer buffer = lexer.tokenizeToBuffer(input);
+
+    assertEquals(expected.size(), buffer.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Token token = buffer.token(i);
+      assertEquals(expected.get(i).getType(), token.getType());
+      assertEquals(expected.get(i).getValue(), token.getValue());
+      assertEquals(expected.get(i).getLine(), token.getLine());
+      assertEquals(expected.get(i).getColumn(), token.getColumn());
+    }
+  }
+
+  @Test
+  @DisplayName("Spans point into the source; literal spans exclude the quotes")
+  void spansSliceTheSource() throws LexicalException {
+    String input = "s = \"abc\"";
+    TokenBuffer buffer = lexer.tokenizeToBuffer(input);
+
+    assertEquals(Token.Type.STRING, buffer.type(2));
+    assertEquals("abc", input.substring(buffer.start(2), buffer.end(2)));
+    assertSame(buffer.value(1), lexer.tokenizeToBuffer("t = 1").value(1));
+  }
+
+  @Test
+  @DisplayName("Buffer grows past its initial capacity")
+  void growsForDenseInput() throws LexicalException {
+    String input = "a=" + "(".repeat(5_000) + "1" + ")".repeat(5_000);
+    TokenBuffer buffer = lexer.tokenizeToBuffer(input);
+
+    assertEquals(10_004, buffer.size());
+    assertEquals(Token.Type.EOF, buffer.type(buffer.size() - 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.type(buffer.size()));
+  }
+
+  @Test
+  @DisplayName("Cursor walks by index and stays on EOF")
+  void cursorStopsAtEof() throws LexicalException {
+    TokenBuffer.Cursor cursor = lexer.tokenizeToBuffer("x = 1").cursor();
+    for (int i = 0; i < 10; i++) {
+      cursor.advance();
+    }
+    assertEquals(Token.Type.EOF, cursor.type());
+    assertEquals(3, cursor.index());
+  }
+
+  @Test
+  @DisplayName("A range cursor reads the token after the range as EOF")
+  void rangeCursorEndsAtLimit() throws LexicalException {
+    TokenBuffer buffer = lexer.tokenizeToBuffer("x = 1\ny = 2");
+    TokenBuffer.Cursor cursor = buffer.cursor(3, 5);
+
+    assertEquals("y", cursor.value());
+    cursor.advance();
+    cursor.advance();
+    cursor.advance();
+    assertEquals(Token.Type.EOF, cursor.type());
+    assertEquals("", cursor.value());
+    assertEquals(2, cursor.line());
+    assertEquals(5, cursor.column());
+    assertEquals(5, cursor.index());
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.cursor(4, 3));
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.cursor(0, buffer.size()));
+  }
+
+  @Test
+  @DisplayName("Parsing from a buffer builds the same AST as parsing the token list")
+  void parserAcceptsBuffer() throws LexicalException {
+    String input = "if (a) b = 1 + 2 * c else b = (3 - d) / 4";
+    String fromList = TreePrinter.generateASCIITree(
+        new RecursiveDescentParser().parse(lexer.tokenize(input)));
+    String fromBuffer = TreePrinter.generateASCIITree(
+        new RecursiveDescentParser().parse(lexer.tokenizeToBuffer(input)));
+    assertEquals(fromList, fromBuffer);
+  }
+}
@@ -0,0 +1,101 @@
+package br.edu.fesa.Conditional_Command_Parser.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.edu.fesa.Conditional_Command_Parser.exception.LexicalException;
+import br.edu.fesa.Conditional_Command_Parser.model.SyntaxNode;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the TreePrinter utility. */
+class TreePrinterTest {
+
+  private final Lexer lexer = new Lexer();
+
+  private SyntaxNode parse(String input) throws LexicalException {
+    return new RecursiveDescentParser().parse(lexer.tokenize(input));
+  }
+
+  @Test
+  @DisplayName("Nested if with labeled branches")
+  void nestedIf() throws LexicalException {
+    String expected =
+        """
+        IF
+        ├─ Condition: ID(a)
+        ├─ Then: IF
+        │  ├─ Condition: BINOP(+)
+        │  │  ├─ Left: NUMBER(1)
+        │  │  ├─ Right: FLOAT(2.5)
+        │  ├─ Then: ASSIGN(x)
+        │  │  ├─ Expression: STRING("s")
+        │  ├─ Else: ASSIGN(x)
+        │  │  ├─ Expression: CHAR('c')
+        ├─ Else: ASSIGN(y)
+        │  ├─ Expression: ID(b)
+        """;
+    String tree =
+        TreePrinter.generateASCIITree(
+            parse("if (a) if (1 + 2.5) x = \"s\" else x = 'c' else y = b"));
+    assertEquals(expected, tree);
+  }
+
+  @Test
+  @DisplayName("Null tree renders as empty text")
+  void nullTree() {
+    assertEquals("", TreePrinter.generateASCIITree(null));
+  }
+
+  @Test
+  @DisplayName("Streaming to a Writer matches the string rendering")
+  void streamingMatchesString() throws LexicalException, IOException {
+    SyntaxNode ast = parse("a = (1 + 2) * 3 - 4 / 5" + " + 6".repeat(200));
+    StringWriter writer = new StringWriter();
+    TreePrinter.writeASCIITree(ast, writer);
+    assertEquals(TreePrinter.generateASCIITree(ast), writer.toString());
+  }
+
+  @Test
+  @DisplayName("Long operator chains render one line per node")
+  void longChain() throws LexicalException {
+    int operands = 2_000;
+    SyntaxNode ast = parse("a = 1" + " + 1".repeat(operands - 1));
+    String tree = TreePrinter.generateASCIITree(ast);
+    // ASSIGN + (operands - 1) BINOPs + operands NUMBERs
+    assertEquals(2 * operands, tree.lines().count());
+  }
+
+  @Test
+  @DisplayName("Deeply nested ifs render without recursion")
+  void deepNesting() throws LexicalException, IOException {
+    int depth = 100_000;
+    SyntaxNode ast = parse("if (a) x = 1 else ".repeat(depth) + "x = 0");
+    // Count lines only; the full text is quadratic in the depth
+    long[] lines = {0};
+    TreePrinter.writeASCIITree(
+        ast,
+        new Appendable() {
+          @Override
+          public Appendable append(CharSequence csq) {
+            return this;
+          }
+
+          @Override
+          public Appendable append(CharSequence csq, int start, int end) {
+            return this;
+          }
+
+          @Override
+          public Appendable append(char c) {
+            if (c == '\n') {
+              lines[0]++;
+            }
+            return this;
+          }
+        });
+    // IF, Condition ID, Then ASSIGN, its NUMBER per level, plus the final ASSIGN and NUMBER
+    assertEquals(4L * depth + 2, lines[0]);
+  }
+}